@@ -26,6 +26,7 @@
  */
 package de.javagl.jsplat.app;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -33,6 +34,8 @@ import java.util.stream.IntStream;
 
 import de.javagl.jsplat.MutableSplat;
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
 import de.javagl.jsplat.Splats;
 import de.javagl.jsplat.processing.SplatTransforms;
 
@@ -86,7 +89,16 @@ class DataSet
             this.shDegree = initialSplats.get(0).getShDegree();
         }
         this.currentTransform = new Transform();
-        this.currentSplats = Splats.copyList(initialSplats);
+        if (initialSplats.isEmpty())
+        {
+            this.currentSplats = Collections.emptyList();
+        }
+        else
+        {
+            // Store the current splats in a columnar representation
+            SplatData splatData = SplatDatas.fromSplatsParallel(initialSplats);
+            this.currentSplats = SplatDatas.asList(splatData);
+        }
     }
 
     /**
@@ -0,0 +1,96 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.examples;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.Splats;
+import de.javagl.jsplat.io.spz.GaussianCloudSplats;
+import de.javagl.jsplat.io.spz.SpzSplatWriter;
+import de.javagl.jspz.GaussianCloud;
+
+/**
+ * A basic benchmark comparing the default SPZ writing with the parallel
+ * packing and compression of the {@link SpzSplatWriter}
+ */
+@SuppressWarnings("javadoc")
+public class SpzWritingBenchmark
+{
+    /**
+     * The logger used in this class
+     */
+    private static final Logger logger =
+        Logger.getLogger(SpzWritingBenchmark.class.getName());
+
+    public static void main(String[] args) throws IOException
+    {
+        LoggerUtil.initLogging();
+
+        int shDegree = 3;
+        GaussianCloud g = 
+            GaussianCloudSplats.fromSplats(createRandom(1000000, shDegree));
+
+        int runs = 5;
+        for (int version = 2; version <= 3; version++)
+        {
+            for (int r = 0; r < runs; r++)
+            {
+                run(g, new SpzSplatWriter(version, false), 
+                    "version " + version + ", default ");
+                run(g, new SpzSplatWriter(version, true), 
+                    "version " + version + ", parallel");
+            }
+        }
+    }
+
+    private static void run(GaussianCloud g, SpzSplatWriter w, String name)
+        throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        long before = System.nanoTime();
+        w.write(g, baos);
+        long after = System.nanoTime();
+        logger.info(String.format(Locale.ENGLISH,
+            "%s: %8.2f ms, %d bytes", name, (after - before) / 1e6,
+            baos.size()));
+    }
+
+    private static List<MutableSplat> createRandom(int n, int shDegree)
+    {
+        Random random = new Random(0);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>(n);
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(shDegree);
+            s.setPositionX(random.nextGaussian() * 10.0);
+            s.setPositionY(random.nextGaussian() * 10.0);
+            s.setPositionZ(random.nextGaussian() * 10.0);
+            s.setScaleX(random.nextGaussian() - 4.0);
+            s.setScaleY(random.nextGaussian() - 4.0);
+            s.setScaleZ(random.nextGaussian() - 4.0);
+            s.setRotationX(random.nextGaussian());
+            s.setRotationY(random.nextGaussian());
+            s.setRotationZ(random.nextGaussian());
+            s.setRotationW(random.nextGaussian());
+            s.setOpacity(random.nextGaussian() * 3.0);
+            for (int d = 0; d < s.getShDimensions(); d++)
+            {
+                s.setShX(d, random.nextGaussian() * 0.3);
+                s.setShY(d, random.nextGaussian() * 0.3);
+                s.setShZ(d, random.nextGaussian() * 0.3);
+            }
+            splats.add(s);
+        }
+        return splats;
+    }
+}
@@ -28,13 +28,16 @@ package de.javagl.jsplat.io.gltf.spz;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 import de.javagl.jgltf.model.BufferViewModel;
 import de.javagl.jgltf.model.GltfModel;
@@ -46,6 +49,7 @@ import de.javagl.jgltf.model.io.GltfModelReader;
 import de.javagl.jsplat.MutableSplat;
 import de.javagl.jsplat.Splat;
 import de.javagl.jsplat.SplatListReader;
+import de.javagl.jsplat.SplatReadOptions;
 import de.javagl.jsplat.Splats;
 import de.javagl.jsplat.io.spz.GaussianCloudSplats;
 import de.javagl.jsplat.processing.SplatTransforms;
@@ -57,6 +61,16 @@ import de.javagl.jspz.SpzReaders;
  * Implementation of a {@link SplatListReader} that reads glTF data with the
  * Gaussian splat data using the KHR_gaussian_splatting_compression_spz_2
  * extension.
+ * 
+ * When the glTF contains multiple mesh primitives with SPZ data (for 
+ * example, when it was written with a {@link GltfSpzSplatWriter} that 
+ * partitioned the splats), then the SPZ data of these primitives is 
+ * decoded concurrently.
+ * 
+ * The SPZ data itself is always decoded completely. The 
+ * {@link SplatReadOptions} only determine which attributes are copied 
+ * into the resulting splats, and up to which degree the spherical 
+ * harmonics are copied.
  */
 public final class GltfSpzSplatReader implements SplatListReader
 {
@@ -77,12 +91,28 @@ public final class GltfSpzSplatReader implements SplatListReader
     private static final String NAME =
         "KHR_gaussian_splatting_compression_spz_2";
 
+    /**
+     * The {@link SplatReadOptions}
+     */
+    private final SplatReadOptions options;
+
     /**
      * Creates a new instance
      */
     public GltfSpzSplatReader()
     {
-        // Default constructor
+        this(SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param options The {@link SplatReadOptions}
+     */
+    public GltfSpzSplatReader(SplatReadOptions options)
+    {
+        this.options = Objects.requireNonNull(options,
+            "The options may not be null");
     }
 
     @Override
@@ -92,8 +122,10 @@ public final class GltfSpzSplatReader implements SplatListReader
         GltfModelReader r = new GltfModelReader();
         GltfModel gltfModel = r.readWithoutReferences(inputStream);
 
-        List<MutableSplat> allSplats = new ArrayList<MutableSplat>();
-
+        // Collect the SPZ data of all mesh primitives, together with the
+        // global transforms of the nodes that they are attached to
+        List<ByteBuffer> spzDatas = new ArrayList<ByteBuffer>();
+        List<double[]> globalTransforms = new ArrayList<double[]>();
         List<SceneModel> sceneModels = gltfModel.getSceneModels();
         for (SceneModel sceneModel : sceneModels)
         {
@@ -120,18 +152,54 @@ public final class GltfSpzSplatReader implements SplatListReader
                         {
                             continue;
                         }
-                        List<MutableSplat> splats =
-                            readSplats(gltfModel, bufferViewIndex);
-                        if (splats != null && !splats.isEmpty())
-                        {
-                            SplatTransforms.transformList(splats,
-                                globalTransform);
-                            allSplats = merge(allSplats, splats);
-                        }
+                        ByteBuffer spzData = 
+                            extractBufferViewData(gltfModel, bufferViewIndex);
+                        spzDatas.add(spzData);
+                        globalTransforms.add(globalTransform);
                     }
                 }
             }
         }
+
+        // Decode and transform the splats of all mesh primitives 
+        // concurrently, and merge them in their original order
+        int n = spzDatas.size();
+        List<List<MutableSplat>> results = 
+            new ArrayList<List<MutableSplat>>(Collections.nCopies(n, null));
+        try
+        {
+            IntStream.range(0, n).parallel().forEach(i ->
+            {
+                try
+                {
+                    List<MutableSplat> splats = 
+                        readSplats(spzDatas.get(i), options);
+                    if (splats != null && !splats.isEmpty())
+                    {
+                        SplatTransforms.transformList(splats,
+                            globalTransforms.get(i));
+                    }
+                    results.set(i, splats);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+
+        List<MutableSplat> allSplats = new ArrayList<MutableSplat>();
+        for (List<MutableSplat> splats : results)
+        {
+            if (splats != null && !splats.isEmpty())
+            {
+                allSplats = merge(allSplats, splats, options);
+            }
+        }
         return allSplats;
     }
 
@@ -147,10 +215,11 @@ public final class GltfSpzSplatReader implements SplatListReader
      * 
      * @param all All existing splats
      * @param added The added splats
+     * @param options The {@link SplatReadOptions} for creating new splats
      * @return The result
      */
     private static List<MutableSplat> merge(List<MutableSplat> all,
-        List<MutableSplat> added)
+        List<MutableSplat> added, SplatReadOptions options)
     {
         // Handle trivial cases
         if (all.isEmpty())
@@ -180,14 +249,14 @@ public final class GltfSpzSplatReader implements SplatListReader
         for (int i = 0; i < all.size(); i++)
         {
             Splat s = all.get(i);
-            MutableSplat t = Splats.create(newDegree);
+            MutableSplat t = options.createSplat(newDegree);
             Splats.setAny(s, t);
             merged.add(t);
         }
         for (int i = 0; i < added.size(); i++)
         {
             Splat s = added.get(i);
-            MutableSplat t = Splats.create(newDegree);
+            MutableSplat t = options.createSplat(newDegree);
             Splats.setAny(s, t);
             merged.add(t);
         }
@@ -195,29 +264,30 @@ public final class GltfSpzSplatReader implements SplatListReader
     }
 
     /**
-     * Read splats that are stored in SPZ format in the specified buffer view of
-     * the given glTF model.
+     * Read splats that are stored in SPZ format in the given buffer
      * 
-     * @param gltfModel The glTF model
-     * @param bufferViewIndex The buffer view index
+     * @param spzData The SPZ data
+     * @param options The {@link SplatReadOptions}
      * @return The splats
      * @throws IOException If an IO error occurs
      */
-    private static List<MutableSplat> readSplats(GltfModel gltfModel,
-        int bufferViewIndex) throws IOException
+    private static List<MutableSplat> readSplats(ByteBuffer spzData, 
+        SplatReadOptions options) throws IOException
     {
-        ByteBuffer spzData = extractBufferViewData(gltfModel, bufferViewIndex);
         ByteBufferInputStream spzInputStream =
             new ByteBufferInputStream(spzData);
         SpzReader spzReader = SpzReaders.createDefault();
         GaussianCloud gaussianGloud = spzReader.read(spzInputStream);
-        return GaussianCloudSplats.toSplats(gaussianGloud);
+        return GaussianCloudSplats.toSplats(gaussianGloud, options);
 
     }
 
     /**
      * Returns a buffer containing the part of the binary data of the given glTF
-     * asset that represents the specified buffer view
+     * asset that represents the specified buffer view.
+     * 
+     * This is not thread-safe, because the slice of the buffer data is
+     * created by modifying the position and limit of the buffer data.
      * 
      * @param gltfModel The glTF model
      * @param bufferViewIndex The buffer view index
@@ -26,14 +26,22 @@
  */
 package de.javagl.jsplat.io.gltf.spz;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import de.javagl.jgltf.impl.v2.Accessor;
 import de.javagl.jgltf.impl.v2.Asset;
@@ -45,19 +53,29 @@ import de.javagl.jgltf.impl.v2.MeshPrimitive;
 import de.javagl.jgltf.impl.v2.Node;
 import de.javagl.jgltf.impl.v2.Scene;
 import de.javagl.jgltf.model.GltfConstants;
-import de.javagl.jgltf.model.io.GltfAssetWriter;
-import de.javagl.jgltf.model.io.v2.GltfAssetV2;
+import de.javagl.jgltf.model.io.GltfWriter;
 import de.javagl.jsplat.Splat;
 import de.javagl.jsplat.SplatListWriter;
 import de.javagl.jsplat.Splats;
 import de.javagl.jsplat.io.spz.GaussianCloudSplats;
+import de.javagl.jsplat.io.spz.SpzSplatWriter;
+import de.javagl.jsplat.processing.SplatPartitioning;
 import de.javagl.jspz.GaussianCloud;
-import de.javagl.jspz.SpzWriter;
-import de.javagl.jspz.SpzWriters;
 
 /**
  * Implementation of a {@link SplatListWriter} that writes glTF data with
  * SPZ-compressed Gaussian splats.
+ * 
+ * The SPZ data is written into a temporary file first. The GLB header and
+ * JSON chunk are then written based on the length of this file, and its
+ * contents are copied directly into the binary chunk, so that the SPZ 
+ * data is not held in memory.
+ * 
+ * The SPZ data is written with a {@link SpzSplatWriter}, in the SPZ 
+ * version that is given at construction time. This is version 2 by 
+ * default, regardless of whether the data is written in parallel. When 
+ * the writer is created with the <code>parallel</code> flag, then the 
+ * SPZ data is packed and compressed in parallel.
  */
 public final class GltfSpzSplatWriter implements SplatListWriter
 {
@@ -72,46 +90,349 @@ public final class GltfSpzSplatWriter implements SplatListWriter
     private static final String NAME =
         "KHR_gaussian_splatting_compression_spz_2";
 
+    /**
+     * The magic header bytes of a GLB, "glTF"
+     */
+    private static final int GLB_MAGIC = 0x46546C67;
+
+    /**
+     * The chunk type of the JSON chunk of a GLB, "JSON"
+     */
+    private static final int CHUNK_TYPE_JSON = 0x4E4F534A;
+
+    /**
+     * The chunk type of the binary chunk of a GLB, "BIN\0"
+     */
+    private static final int CHUNK_TYPE_BIN = 0x004E4942;
+
+    /**
+     * The size of the GLB header
+     */
+    private static final int GLB_HEADER_SIZE = 12;
+
+    /**
+     * The size of a GLB chunk header
+     */
+    private static final int CHUNK_HEADER_SIZE = 8;
+
+    /**
+     * The SPZ version that is written by default
+     */
+    private static final int DEFAULT_SPZ_VERSION = 2;
+
+    /**
+     * Whether the SPZ data should be packed and compressed in parallel
+     */
+    private final boolean parallel;
+
+    /**
+     * The writer for the SPZ data
+     */
+    private final SpzSplatWriter spzSplatWriter;
+
+    /**
+     * The maximum number of splats in one mesh primitive
+     */
+    private final int maxPrimitiveSize;
+
     /**
      * Creates a new instance
      */
     public GltfSpzSplatWriter()
     {
-        // Default constructor
+        this(false);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param parallel Whether the SPZ data should be packed and compressed
+     * in parallel
+     */
+    public GltfSpzSplatWriter(boolean parallel)
+    {
+        this(parallel, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new instance.
+     * 
+     * When more than the given number of splats are written, then the 
+     * splats are partitioned spatially with 
+     * {@link SplatPartitioning#partition(List, int)}, and each partition
+     * is written into its own mesh primitive, with its own SPZ data and
+     * bounds. When the <code>parallel</code> flag is set, then the 
+     * partitions are encoded concurrently.
+     * 
+     * @param parallel Whether the SPZ data should be packed and compressed
+     * in parallel
+     * @param maxPrimitiveSize The maximum number of splats in one mesh
+     * primitive
+     * @throws IllegalArgumentException If the maximum primitive size is
+     * not positive
+     */
+    public GltfSpzSplatWriter(boolean parallel, int maxPrimitiveSize)
+    {
+        this(parallel, maxPrimitiveSize, DEFAULT_SPZ_VERSION);
+    }
+
+    /**
+     * Creates a new instance that writes the SPZ data in the given version.
+     * 
+     * See {@link #GltfSpzSplatWriter(boolean, int)} for the other 
+     * parameters.
+     * 
+     * @param parallel Whether the SPZ data should be packed and compressed
+     * in parallel
+     * @param maxPrimitiveSize The maximum number of splats in one mesh
+     * primitive
+     * @param spzVersion The SPZ version. Currently supported are 2 and 3
+     * @throws IllegalArgumentException If the maximum primitive size is
+     * not positive, or the SPZ version is not valid
+     */
+    public GltfSpzSplatWriter(boolean parallel, int maxPrimitiveSize,
+        int spzVersion)
+    {
+        if (maxPrimitiveSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The maximum primitive size must be positive, but is "
+                    + maxPrimitiveSize);
+        }
+        this.parallel = parallel;
+        this.maxPrimitiveSize = maxPrimitiveSize;
+        this.spzSplatWriter = new SpzSplatWriter(spzVersion, parallel);
     }
 
     @Override
     public void writeList(List<? extends Splat> splats,
         OutputStream outputStream) throws IOException
     {
-        SpzWriter spzWriter = SpzWriters.createDefault();
+        List<? extends List<? extends Splat>> partitions;
+        if (splats.size() > maxPrimitiveSize)
+        {
+            partitions = SplatPartitioning.partition(splats, maxPrimitiveSize);
+        }
+        else
+        {
+            partitions = Collections.singletonList(splats);
+        }
+        int n = partitions.size();
+        int counts[] = new int[n];
+        int shDegrees[] = new int[n];
+        float boxes[][] = new float[n][];
+        for (int p = 0; p < n; p++)
+        {
+            List<? extends Splat> partition = partitions.get(p);
+            counts[p] = partition.size();
+            shDegrees[p] = partition.get(0).getShDegree();
+            boxes[p] = Splats.computeStatistics(partition).getBounds();
+        }
+
+        // Write the SPZ data into a temporary file, so that its length 
+        // is known when the GLB header and JSON are written, and the 
+        // data can be copied directly into the BIN chunk afterwards
+        Path spzFile = Files.createTempFile("jsplat-", ".spz");
+        try
+        {
+            long offsets[] = new long[n];
+            long lengths[] = new long[n];
+            writeSpz(partitions, spzFile, offsets, lengths);
+            long spzLength = Files.size(spzFile);
+            if (spzLength > Integer.MAX_VALUE)
+            {
+                throw new IOException("The SPZ data has a size of " 
+                    + spzLength + " bytes, which is too large for a buffer");
+            }
+            GlTF gltf = createGltf(counts, shDegrees, boxes, 
+                offsets, lengths, (int) spzLength);
+            writeGlb(gltf, spzFile, spzLength, outputStream);
+        }
+        finally
+        {
+            Files.deleteIfExists(spzFile);
+        }
+    }
+
+    /**
+     * Write the given partitions as SPZ data into the given file, one after
+     * the other, each starting at a multiple of 4 bytes. 
+     * 
+     * The offsets and lengths of the SPZ data of the partitions will be 
+     * written into the given arrays.
+     * 
+     * @param partitions The partitions
+     * @param spzFile The file
+     * @param offsets The offsets
+     * @param lengths The lengths
+     * @throws IOException If an IO error occurs
+     */
+    private void writeSpz(List<? extends List<? extends Splat>> partitions,
+        Path spzFile, long offsets[], long lengths[]) throws IOException
+    {
+        int n = partitions.size();
+        try (CountingOutputStream spzStream = new CountingOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(spzFile))))
+        {
+            if (!parallel || n == 1)
+            {
+                for (int p = 0; p < n; p++)
+                {
+                    offsets[p] = spzStream.getCount();
+                    writeSpz(partitions.get(p), spzStream);
+                    lengths[p] = spzStream.getCount() - offsets[p];
+                    spzStream.write(new byte[padding(lengths[p])]);
+                }
+                return;
+            }
+
+            // Encode the partitions concurrently, in groups that are
+            // written in order, to limit the memory that is required
+            int group = ForkJoinPool.getCommonPoolParallelism() * 2;
+            for (int first = 0; first < n; first += group)
+            {
+                int end = Math.min(n, first + group);
+                byte encoded[][] = new byte[end - first][];
+                int f = first;
+                try
+                {
+                    IntStream.range(first, end).parallel().forEach(p ->
+                    {
+                        ByteArrayOutputStream baos = 
+                            new ByteArrayOutputStream();
+                        try
+                        {
+                            writeSpz(partitions.get(p), baos);
+                        }
+                        catch (IOException e)
+                        {
+                            throw new UncheckedIOException(e);
+                        }
+                        encoded[p - f] = baos.toByteArray();
+                    });
+                }
+                catch (UncheckedIOException e)
+                {
+                    throw e.getCause();
+                }
+                for (int p = first; p < end; p++)
+                {
+                    byte data[] = encoded[p - first];
+                    offsets[p] = spzStream.getCount();
+                    lengths[p] = data.length;
+                    spzStream.write(data);
+                    spzStream.write(new byte[padding(lengths[p])]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the given splats as SPZ data into the given stream
+     * 
+     * @param splats The splats
+     * @param outputStream The output stream
+     * @throws IOException If an IO error occurs
+     */
+    private void writeSpz(List<? extends Splat> splats, 
+        OutputStream outputStream) throws IOException
+    {
         GaussianCloud gaussianCloud = GaussianCloudSplats.fromSplats(splats);
-        ByteArrayOutputStream spzBaos = new ByteArrayOutputStream();
-        spzWriter.write(gaussianCloud, spzBaos);
+        spzSplatWriter.write(gaussianCloud, outputStream);
+    }
 
-        int numPoints = gaussianCloud.getNumPoints();
-        int shDegree = gaussianCloud.getShDegree();
-        float[] box = computeBoundingBox(gaussianCloud);
+    /**
+     * Write the given glTF as a binary glTF into the given output stream,
+     * with the contents of the given file as the binary chunk.
+     * 
+     * The stream will not be closed.
+     * 
+     * @param gltf The glTF
+     * @param binFile The file containing the binary data
+     * @param binLength The length of the binary data
+     * @param outputStream The output stream
+     * @throws IOException If an IO error occurs, or the resulting GLB 
+     * would be larger than 4 GB
+     */
+    private static void writeGlb(GlTF gltf, Path binFile, long binLength,
+        OutputStream outputStream) throws IOException
+    {
+        ByteArrayOutputStream jsonBaos = new ByteArrayOutputStream();
+        GltfWriter gltfWriter = new GltfWriter();
+        gltfWriter.setIndenting(false);
+        gltfWriter.write(gltf, jsonBaos);
+        byte json[] = jsonBaos.toByteArray();
+        int jsonPadding = padding(json.length);
+        int binPadding = padding(binLength);
+        long jsonChunkLength = json.length + jsonPadding;
+        long binChunkLength = binLength + binPadding;
+        long totalLength = 
+            GLB_HEADER_SIZE + 
+            CHUNK_HEADER_SIZE + jsonChunkLength + 
+            CHUNK_HEADER_SIZE + binChunkLength;
+        if (totalLength > 0xFFFFFFFFL)
+        {
+            throw new IOException("The GLB would have a size of "
+                + totalLength + " bytes, which is more than 4 GB");
+        }
+
+        ByteBuffer header = ByteBuffer
+            .allocate(GLB_HEADER_SIZE + CHUNK_HEADER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(GLB_MAGIC);
+        header.putInt(2);
+        header.putInt((int) totalLength);
+        header.putInt((int) jsonChunkLength);
+        header.putInt(CHUNK_TYPE_JSON);
+        outputStream.write(header.array());
+        outputStream.write(json);
+        for (int i = 0; i < jsonPadding; i++)
+        {
+            outputStream.write(' ');
+        }
+
+        ByteBuffer binHeader = ByteBuffer
+            .allocate(CHUNK_HEADER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        binHeader.putInt((int) binChunkLength);
+        binHeader.putInt(CHUNK_TYPE_BIN);
+        outputStream.write(binHeader.array());
+        Files.copy(binFile, outputStream);
+        outputStream.write(new byte[binPadding]);
+        outputStream.flush();
+    }
 
-        GltfAssetV2 gltfAsset =
-            createGltfAsset(numPoints, shDegree, box, spzBaos.toByteArray());
-        GltfAssetWriter w = new GltfAssetWriter();
-        w.writeBinary(gltfAsset, outputStream);
+    /**
+     * Returns the number of bytes that have to be added to the given 
+     * length to obtain a multiple of 4
+     * 
+     * @param length The length
+     * @return The padding
+     */
+    private static int padding(long length)
+    {
+        return (int) ((4 - (length % 4)) % 4);
     }
 
     /**
-     * Create a binary glTF asset that uses the
+     * Create a glTF that uses the
      * <code>KHR_gaussian_splatting_compression_spz_2</code> extension to define
-     * Gaussian Splats
+     * Gaussian Splats, with a single buffer that will contain the SPZ data.
      * 
-     * @param numPoints The number of points
-     * @param shDegree The spherical harmonics degree
-     * @param boundingBox The bounding box
-     * @param spzBytes The SPZ data
-     * @return The asset
+     * The glTF contains a single mesh, with one mesh primitive for each of
+     * the given partitions, each referring to its own buffer view.
+     * 
+     * @param counts The number of points for each partition
+     * @param shDegrees The spherical harmonics degree for each partition
+     * @param boundingBoxes The bounding box for each partition
+     * @param offsets The offset of the SPZ data for each partition
+     * @param lengths The length of the SPZ data for each partition
+     * @param spzLength The total length of the SPZ data
+     * @return The glTF
      */
-    private GltfAssetV2 createGltfAsset(int numPoints, int shDegree,
-        float boundingBox[], byte spzBytes[])
+    private static GlTF createGltf(int counts[], int shDegrees[],
+        float boundingBoxes[][], long offsets[], long lengths[], 
+        int spzLength)
     {
         // Create the glTF
         GlTF gltf = new GlTF();
@@ -121,6 +442,66 @@ public final class GltfSpzSplatWriter implements SplatListWriter
         asset.setVersion("2.0");
         gltf.setAsset(asset);
 
+        // Add the buffer
+        Buffer buffer = new Buffer();
+        buffer.setByteLength(spzLength);
+        gltf.addBuffers(buffer);
+
+        // Add the mesh primitives, with one buffer view for each of them
+        Mesh mesh = new Mesh();
+        for (int p = 0; p < counts.length; p++)
+        {
+            BufferView bufferView = new BufferView();
+            bufferView.setBuffer(0);
+            bufferView.setByteOffset((int) offsets[p]);
+            bufferView.setByteLength((int) lengths[p]);
+            gltf.addBufferViews(bufferView);
+
+            MeshPrimitive primitive = createMeshPrimitive(gltf, counts[p], 
+                shDegrees[p], boundingBoxes[p], p);
+            mesh.addPrimitives(primitive);
+        }
+        gltf.addMeshes(mesh);
+
+        // Add the node
+        Node node = new Node();
+
+        node.setMesh(0);
+        gltf.addNodes(node);
+
+        // Add the scene
+        Scene scene = new Scene();
+        scene.addNodes(0);
+        gltf.addScenes(scene);
+        gltf.setScene(0);
+
+        // Add information about the used/required extension
+        gltf.addExtensionsUsed(BASE_NAME);
+        gltf.addExtensionsUsed(NAME);
+        gltf.addExtensionsRequired(BASE_NAME);
+        gltf.addExtensionsRequired(NAME);
+
+        return gltf;
+    }
+
+    /**
+     * Create a mesh primitive that refers to the SPZ data in the specified
+     * buffer view, adding the accessors for its attributes to the given
+     * glTF
+     * 
+     * @param gltf The glTF
+     * @param numPoints The number of points
+     * @param shDegree The spherical harmonics degree
+     * @param boundingBox The bounding box
+     * @param bufferView The index of the buffer view
+     * @return The mesh primitive
+     */
+    private static MeshPrimitive createMeshPrimitive(GlTF gltf, 
+        int numPoints, int shDegree, float boundingBox[], int bufferView)
+    {
+        MeshPrimitive primitive = new MeshPrimitive();
+        primitive.setMode(GltfConstants.GL_POINTS);
+
         // Add the POSITION accessor
         Accessor position = new Accessor();
         position.setComponentType(GltfConstants.GL_FLOAT);
@@ -130,7 +511,7 @@ public final class GltfSpzSplatWriter implements SplatListWriter
         { boundingBox[0], boundingBox[1], boundingBox[2] });
         position.setMax(new Number[]
         { boundingBox[3], boundingBox[4], boundingBox[5] });
-        gltf.addAccessors(position);
+        primitive.addAttributes("POSITION", addAccessor(gltf, position));
 
         // Add the COLOR_0 accessor
         Accessor color = new Accessor();
@@ -138,71 +519,43 @@ public final class GltfSpzSplatWriter implements SplatListWriter
         color.setNormalized(true);
         color.setType("VEC4");
         color.setCount(numPoints);
-        gltf.addAccessors(color);
+        primitive.addAttributes("COLOR_0", addAccessor(gltf, color));
 
         // Add the ROTATION accessor
         Accessor rotation = new Accessor();
         rotation.setComponentType(GltfConstants.GL_FLOAT);
         rotation.setType("VEC4");
         rotation.setCount(numPoints);
-        gltf.addAccessors(rotation);
+        primitive.addAttributes(BASE_NAME + ":" + "ROTATION", 
+            addAccessor(gltf, rotation));
 
         // Add the SCALE accessor
         Accessor scale = new Accessor();
         scale.setComponentType(GltfConstants.GL_FLOAT);
         scale.setType("SCALAR");
         scale.setCount(numPoints);
-        gltf.addAccessors(scale);
+        primitive.addAttributes(BASE_NAME + ":" + "SCALE", 
+            addAccessor(gltf, scale));
 
         // Add the spherical harmonics accessors
         for (int d = 1; d <= shDegree; d++)
         {
-            int numCoeffs = Splats.coefficientsForDegree(d + 1);
+            int numCoeffs = Splats.coefficientsForDegree(d);
             for (int n = 0; n < numCoeffs; n++)
             {
                 Accessor sh = new Accessor();
                 sh.setComponentType(GltfConstants.GL_FLOAT);
                 sh.setType("VEC3");
                 sh.setCount(numPoints);
-                gltf.addAccessors(sh);
-            }
-        }
-
-        // Add the buffer
-        Buffer buffer = new Buffer();
-        buffer.setByteLength(spzBytes.length);
-        gltf.addBuffers(buffer);
-
-        // Add the buffer view
-        BufferView bufferView = new BufferView();
-        bufferView.setBuffer(0);
-        bufferView.setByteLength(spzBytes.length);
-        gltf.addBufferViews(bufferView);
-
-        // Create the mesh primitive
-        MeshPrimitive primitive = new MeshPrimitive();
-        primitive.setMode(GltfConstants.GL_POINTS);
-
-        // Add all accessors to the mesh primitive
-        int a = 0;
-        primitive.addAttributes("POSITION", a++);
-        primitive.addAttributes("COLOR_0", a++);
-        primitive.addAttributes(BASE_NAME + ":" + "ROTATION", a++);
-        primitive.addAttributes(BASE_NAME + ":" + "SCALE", a++);
-
-        for (int d = 1; d <= shDegree; d++)
-        {
-            int numCoeffs = Splats.coefficientsForDegree(d);
-            for (int n = 0; n < numCoeffs; n++)
-            {
                 String s = "SH_DEGREE_" + d + "_COEF_" + n;
-                primitive.addAttributes(BASE_NAME + ":" + s, a++);
+                primitive.addAttributes(BASE_NAME + ":" + s, 
+                    addAccessor(gltf, sh));
             }
         }
 
         // Add the extension object to the primitive
         Map<Object, Object> spzExtension = new LinkedHashMap<Object, Object>();
-        spzExtension.put("bufferView", 0);
+        spzExtension.put("bufferView", bufferView);
 
         Map<Object, Object> baseExtension = new LinkedHashMap<Object, Object>();
         Map<Object, Object> innerExtensions =
@@ -210,70 +563,68 @@ public final class GltfSpzSplatWriter implements SplatListWriter
         innerExtensions.put(NAME, spzExtension);
         baseExtension.put("extensions", innerExtensions);
         primitive.addExtensions(BASE_NAME, baseExtension);
-
-        // Add the mesh
-        Mesh mesh = new Mesh();
-        mesh.addPrimitives(primitive);
-        gltf.addMeshes(mesh);
-
-        // Add the node
-        Node node = new Node();
-
-        node.setMesh(0);
-        gltf.addNodes(node);
-
-        // Add the scene
-        Scene scene = new Scene();
-        scene.addNodes(0);
-        gltf.addScenes(scene);
-        gltf.setScene(0);
-
-        // Add information about the used/required extension
-        gltf.addExtensionsUsed(BASE_NAME);
-        gltf.addExtensionsUsed(NAME);
-        gltf.addExtensionsRequired(BASE_NAME);
-        gltf.addExtensionsRequired(NAME);
-
-        // Build the actual asset
-        ByteBuffer binaryData = ByteBuffer.wrap(spzBytes);
-        GltfAssetV2 gltfAsset = new GltfAssetV2(gltf, binaryData);
-
-        return gltfAsset;
+        return primitive;
     }
 
     /**
-     * Compute the bounding box of the given {@link GaussianCloud}, as
-     * <code>minX,minY,minZ,maxX,maxY,maxZ</code>
+     * Add the given accessor to the given glTF, and return its index
      * 
-     * @param g The {@link GaussianCloud}
-     * @return The bounding box
+     * @param gltf The glTF
+     * @param accessor The accessor
+     * @return The index of the accessor
      */
-    private static float[] computeBoundingBox(GaussianCloud g)
+    private static int addAccessor(GlTF gltf, Accessor accessor)
     {
-        float minX = Float.POSITIVE_INFINITY;
-        float minY = Float.POSITIVE_INFINITY;
-        float minZ = Float.POSITIVE_INFINITY;
-        float maxX = Float.NEGATIVE_INFINITY;
-        float maxY = Float.NEGATIVE_INFINITY;
-        float maxZ = Float.NEGATIVE_INFINITY;
-
-        int n = g.getNumPoints();
-        FloatBuffer positions = g.getPositions();
-        for (int i = 0; i < n; i++)
+        List<Accessor> accessors = gltf.getAccessors();
+        int index = accessors == null ? 0 : accessors.size();
+        gltf.addAccessors(accessor);
+        return index;
+    }
+
+    /**
+     * Implementation of an output stream that counts the bytes that are
+     * written
+     */
+    private static class CountingOutputStream extends FilterOutputStream
+    {
+        /**
+         * The number of bytes that have been written
+         */
+        private long count;
+
+        /**
+         * Creates a new instance
+         * 
+         * @param out The delegate
+         */
+        CountingOutputStream(OutputStream out)
+        {
+            super(out);
+        }
+
+        /**
+         * Returns the number of bytes that have been written
+         * 
+         * @return The number of bytes
+         */
+        long getCount()
+        {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte b[], int off, int len) throws IOException
         {
-            float x = positions.get(i * 3 + 0);
-            float y = positions.get(i * 3 + 1);
-            float z = positions.get(i * 3 + 2);
-            minX = Math.min(minX, x);
-            minY = Math.min(minY, y);
-            minZ = Math.min(minZ, z);
-            maxX = Math.max(maxX, x);
-            maxY = Math.max(maxY, y);
-            maxZ = Math.max(maxZ, z);
+            out.write(b, off, len);
+            count += len;
         }
-        float[] box = new float[]
-        { minX, minY, minZ, maxX, maxY, maxZ };
-        return box;
     }
 
 }
@@ -0,0 +1,278 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.gltf;
+
+/**
+ * Options for the quantization of splat attributes in glTF, using the
+ * <code>KHR_mesh_quantization</code> extension.
+ * 
+ * For each quantized attribute, the number of bits can be 8 or 16. A 
+ * value of 32 means that the attribute is written with float components.
+ * The quantized attributes are written as follows, with the maximum 
+ * absolute error of each dequantized component:
+ * <ul>
+ *   <li>
+ *     Positions are written as normalized signed integers, relative to 
+ *     the center of their bounding box, divided by half the largest extent 
+ *     <code>h</code> of the bounding box. The node of the mesh receives a 
+ *     translation to the center and a uniform scaling by <code>h</code>,
+ *     and the splat scales are divided by <code>h</code>. The error is 
+ *     <code>h/254</code> for 8 bits, and <code>h/65534</code> for 16 bits.
+ *   </li>
+ *   <li>
+ *     Rotations are normalized, and written as normalized signed 
+ *     integers. The error is <code>1/254</code> for 8 bits, and 
+ *     <code>1/65534</code> for 16 bits.
+ *   </li>
+ *   <li>
+ *     Opacities (in [0,1]) are written as normalized unsigned integers. 
+ *     The error is <code>1/510</code> for 8 bits, and 
+ *     <code>1/131070</code> for 16 bits. Since each element of a vertex
+ *     attribute has to be aligned to 4 bytes, this does not reduce the 
+ *     size of the uncompressed data.
+ *   </li>
+ *   <li>
+ *     Spherical harmonics coefficients of degree 1 and above are written 
+ *     as normalized signed integers. Values outside of [-1,1] are clamped.
+ *     Otherwise, the error is <code>1/254</code> for 8 bits, and 
+ *     <code>1/65534</code> for 16 bits. The coefficients of degree 0 
+ *     (that represent the base color) are always written as floats, 
+ *     because they are often outside of [-1,1].
+ *   </li>
+ * </ul>
+ * The scales are always written as floats, because their range is too 
+ * large for normalized integers.
+ * 
+ * Instances of this class are immutable.
+ */
+public final class GltfQuantizationOptions
+{
+    /**
+     * The options that do not quantize any attribute
+     */
+    public static final GltfQuantizationOptions NONE =
+        new GltfQuantizationOptions(32, 32, 32, 32);
+
+    /**
+     * The default options, with 16 bits for positions, and 8 bits for
+     * rotations and spherical harmonics. The opacities are not quantized,
+     * because this would not reduce the size of the data.
+     */
+    public static final GltfQuantizationOptions DEFAULT =
+        new GltfQuantizationOptions(16, 8, 32, 8);
+
+    /**
+     * The number of bits for positions
+     */
+    private final int positionBits;
+
+    /**
+     * The number of bits for rotations
+     */
+    private final int rotationBits;
+
+    /**
+     * The number of bits for opacities
+     */
+    private final int opacityBits;
+
+    /**
+     * The number of bits for spherical harmonics
+     */
+    private final int shBits;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param positionBits The number of bits for positions
+     * @param rotationBits The number of bits for rotations
+     * @param opacityBits The number of bits for opacities
+     * @param shBits The number of bits for spherical harmonics
+     */
+    private GltfQuantizationOptions(int positionBits, int rotationBits,
+        int opacityBits, int shBits)
+    {
+        this.positionBits = positionBits;
+        this.rotationBits = rotationBits;
+        this.opacityBits = opacityBits;
+        this.shBits = shBits;
+    }
+
+    /**
+     * Creates new options.
+     * 
+     * Each number of bits must be 8, 16, or 32, where 32 means that the
+     * respective attribute is not quantized.
+     * 
+     * @param positionBits The number of bits for positions
+     * @param rotationBits The number of bits for rotations
+     * @param opacityBits The number of bits for opacities
+     * @param shBits The number of bits for spherical harmonics of degree
+     * 1 and above
+     * @return The options
+     * @throws IllegalArgumentException If any number of bits is invalid
+     */
+    public static GltfQuantizationOptions create(int positionBits,
+        int rotationBits, int opacityBits, int shBits)
+    {
+        validateBits(positionBits, "positions");
+        validateBits(rotationBits, "rotations");
+        validateBits(opacityBits, "opacities");
+        validateBits(shBits, "spherical harmonics");
+        return new GltfQuantizationOptions(
+            positionBits, rotationBits, opacityBits, shBits);
+    }
+
+    /**
+     * Make sure that the given number of bits is valid
+     * 
+     * @param bits The number of bits
+     * @param name The name of the attribute
+     * @throws IllegalArgumentException If the number of bits is invalid
+     */
+    private static void validateBits(int bits, String name)
+    {
+        if (bits != 8 && bits != 16 && bits != 32)
+        {
+            throw new IllegalArgumentException("The number of bits for "
+                + name + " must be 8, 16, or 32, but is " + bits);
+        }
+    }
+
+    /**
+     * Returns new options that are equal to these options, except for the
+     * given number of bits for positions
+     * 
+     * @param positionBits The number of bits
+     * @return The new options
+     * @throws IllegalArgumentException If the number of bits is invalid
+     */
+    public GltfQuantizationOptions withPositionBits(int positionBits)
+    {
+        return create(positionBits, rotationBits, opacityBits, shBits);
+    }
+
+    /**
+     * Returns new options that are equal to these options, except for the
+     * given number of bits for rotations
+     * 
+     * @param rotationBits The number of bits
+     * @return The new options
+     * @throws IllegalArgumentException If the number of bits is invalid
+     */
+    public GltfQuantizationOptions withRotationBits(int rotationBits)
+    {
+        return create(positionBits, rotationBits, opacityBits, shBits);
+    }
+
+    /**
+     * Returns new options that are equal to these options, except for the
+     * given number of bits for opacities
+     * 
+     * @param opacityBits The number of bits
+     * @return The new options
+     * @throws IllegalArgumentException If the number of bits is invalid
+     */
+    public GltfQuantizationOptions withOpacityBits(int opacityBits)
+    {
+        return create(positionBits, rotationBits, opacityBits, shBits);
+    }
+
+    /**
+     * Returns new options that are equal to these options, except for the
+     * given number of bits for spherical harmonics
+     * 
+     * @param shBits The number of bits
+     * @return The new options
+     * @throws IllegalArgumentException If the number of bits is invalid
+     */
+    public GltfQuantizationOptions withShBits(int shBits)
+    {
+        return create(positionBits, rotationBits, opacityBits, shBits);
+    }
+
+    /**
+     * Returns the number of bits for positions
+     * 
+     * @return The number of bits
+     */
+    public int getPositionBits()
+    {
+        return positionBits;
+    }
+
+    /**
+     * Returns the number of bits for rotations
+     * 
+     * @return The number of bits
+     */
+    public int getRotationBits()
+    {
+        return rotationBits;
+    }
+
+    /**
+     * Returns the number of bits for opacities
+     * 
+     * @return The number of bits
+     */
+    public int getOpacityBits()
+    {
+        return opacityBits;
+    }
+
+    /**
+     * Returns the number of bits for spherical harmonics of degree 1 and
+     * above
+     * 
+     * @return The number of bits
+     */
+    public int getShBits()
+    {
+        return shBits;
+    }
+
+    /**
+     * Returns whether any attribute is quantized with these options
+     * 
+     * @return Whether any attribute is quantized
+     */
+    public boolean isQuantizing()
+    {
+        return positionBits != 32 || rotationBits != 32 
+            || opacityBits != 32 || shBits != 32;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "GltfQuantizationOptions[positionBits=" + positionBits
+            + ",rotationBits=" + rotationBits 
+            + ",opacityBits=" + opacityBits 
+            + ",shBits=" + shBits + "]";
+    }
+}
@@ -0,0 +1,472 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.gltf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import de.javagl.jgltf.model.GltfConstants;
+import de.javagl.jgltf.model.GltfModel;
+import de.javagl.jgltf.model.creation.AccessorModels;
+import de.javagl.jgltf.model.creation.GltfModelBuilder;
+import de.javagl.jgltf.model.creation.MeshPrimitiveBuilder;
+import de.javagl.jgltf.model.impl.DefaultAccessorModel;
+import de.javagl.jgltf.model.impl.DefaultExtensionsModel;
+import de.javagl.jgltf.model.impl.DefaultGltfModel;
+import de.javagl.jgltf.model.impl.DefaultMeshModel;
+import de.javagl.jgltf.model.impl.DefaultMeshPrimitiveModel;
+import de.javagl.jgltf.model.impl.DefaultNodeModel;
+import de.javagl.jgltf.model.impl.DefaultSceneModel;
+import de.javagl.jgltf.model.io.GltfModelWriter;
+import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatListWriter;
+import de.javagl.jsplat.Splats;
+
+/**
+ * Implementation of a {@link SplatListWriter} that writes binary glTF data 
+ * with Gaussian splats using the KHR_gaussian_splatting extension, where 
+ * the attributes are quantized using the <code>KHR_mesh_quantization</code> 
+ * extension.
+ * 
+ * The quantization of the attributes, and the resulting errors, are 
+ * described in the {@link GltfQuantizationOptions}. The quantized 
+ * attributes are stored in normalized accessors.
+ * 
+ * NOTE: This class is preliminary. It writes a single mesh primitive 
+ * that is attached to a single node.
+ */
+public final class GltfQuantizedSplatWriter implements SplatListWriter
+{
+    /**
+     * The extension name (and attribute prefix)
+     */
+    private static final String NAME = "KHR_gaussian_splatting";
+
+    /**
+     * The name of the mesh quantization extension
+     */
+    private static final String QUANTIZATION_NAME = "KHR_mesh_quantization";
+
+    /**
+     * The color space that should be used for the splat extension
+     */
+    private final String colorSpace;
+
+    /**
+     * The {@link GltfQuantizationOptions}
+     */
+    private final GltfQuantizationOptions options;
+
+    /**
+     * Creates a new instance, using the default quantization options and
+     * an unspecified default color space
+     */
+    public GltfQuantizedSplatWriter()
+    {
+        this(GltfQuantizationOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance, using the given quantization options and 
+     * an unspecified default color space
+     * 
+     * @param options The {@link GltfQuantizationOptions}
+     */
+    public GltfQuantizedSplatWriter(GltfQuantizationOptions options)
+    {
+        this("srgb_rec709_display", options);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param colorSpace The color space for the splat extension object
+     * @param options The {@link GltfQuantizationOptions}
+     */
+    public GltfQuantizedSplatWriter(String colorSpace,
+        GltfQuantizationOptions options)
+    {
+        this.colorSpace = colorSpace;
+        this.options = Objects.requireNonNull(options,
+            "The options may not be null");
+    }
+
+    @Override
+    public void writeList(List<? extends Splat> splats,
+        OutputStream outputStream) throws IOException
+    {
+        GltfModel gltfModel = createGltfModel(splats);
+        GltfModelWriter w = new GltfModelWriter();
+        w.writeBinary(gltfModel, outputStream);
+    }
+
+    /**
+     * Create a binary glTF asset that uses the
+     * <code>KHR_gaussian_splatting</code> extension to define Gaussian 
+     * Splats, with attributes that are quantized according to the
+     * options of this writer.
+     * 
+     * @param splats The splats
+     * @return The asset
+     */
+    private DefaultGltfModel createGltfModel(List<? extends Splat> splats)
+    {
+        MeshPrimitiveBuilder mpb = MeshPrimitiveBuilder.create();
+        DefaultNodeModel nodeModel = new DefaultNodeModel();
+
+        int n = splats.size();
+        FloatBuffer positions = SplatDatas.readPositions(splats, null);
+        FloatBuffer scales = SplatDatas.readScalesToLinear(splats, null);
+
+        // Add the POSITION accessor. When the positions are quantized, 
+        // then they are stored relative to the center of the bounding 
+        // box, divided by half its largest extent. The node receives the
+        // transform that restores the original positions, and the scales
+        // are divided by the same factor.
+        int positionBits = options.getPositionBits();
+        if (positionBits != 32)
+        {
+            float min[] = computeMin(positions, 3);
+            float max[] = computeMax(positions, 3);
+            float center[] = new float[3];
+            float h = 0.0f;
+            for (int c = 0; c < 3; c++)
+            {
+                center[c] = (min[c] + max[c]) * 0.5f;
+                h = Math.max(h, (max[c] - min[c]) * 0.5f);
+            }
+            if (h == 0.0f)
+            {
+                h = 1.0f;
+            }
+            float invH = 1.0f / h;
+            for (int i = 0; i < n; i++)
+            {
+                for (int c = 0; c < 3; c++)
+                {
+                    int index = i * 3 + c;
+                    positions.put(index, 
+                        (positions.get(index) - center[c]) * invH);
+                    scales.put(index, scales.get(index) * invH);
+                }
+            }
+            nodeModel.setTranslation(center);
+            nodeModel.setScale(new float[] { h, h, h });
+        }
+        mpb.addAttribute("POSITION", 
+            createSignedAccessorModel(positions, 3, "VEC3", positionBits));
+
+        // Add the SCALE accessor, which is always stored as float
+        DefaultAccessorModel scaleAccessor =
+            AccessorModels.createFloat3D(scales);
+        mpb.addAttribute(NAME + ":" + "SCALE", scaleAccessor);
+
+        // Add the ROTATION accessor, with normalized rotations
+        FloatBuffer rotations = SplatDatas.readRotations(splats, null);
+        normalizeRotations(rotations, n);
+        mpb.addAttribute(NAME + ":" + "ROTATION", createSignedAccessorModel(
+            rotations, 4, "VEC4", options.getRotationBits()));
+
+        // Add the OPACITY accessor. The opacity values in glTF have to be 
+        // in [0,1], so they are read as alpha values from the splats here
+        FloatBuffer opacities = SplatDatas.readAlphas(splats, null);
+        int opacityBits = options.getOpacityBits();
+        DefaultAccessorModel opacityAccessor = null;
+        if (opacityBits == 32)
+        {
+            opacityAccessor = AccessorModels.createFloatScalar(opacities);
+        }
+        else
+        {
+            ByteBuffer data = quantizeUnsigned(opacities, opacityBits);
+            opacityAccessor = AccessorModels.create(
+                componentType(opacityBits, false), "SCALAR", true, data);
+        }
+        mpb.addAttribute(NAME + ":" + "OPACITY", opacityAccessor);
+
+        // Add the spherical harmonics accessors. The coefficients of 
+        // degree 0 are always stored as float.
+        int shDegree = splats.get(0).getShDegree();
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        FloatBuffer shs = SplatDatas.readShs(splats, shDegree, null);
+        FloatBuffer shBuffers[] = SplatDatas.splitShsByDimension(
+            shs, null, n, shDimensions);
+        for (int d = 0; d <= shDegree; d++)
+        {
+            int numCoefficients = Splats.coefficientsForDegree(d);
+            for (int c = 0; c < numCoefficients; c++)
+            {
+                int index = Splats.dimensionForCoefficient(d, c);
+                FloatBuffer sh = shBuffers[index];
+                int bits = d == 0 ? 32 : options.getShBits();
+                String name = NAME + ":" + "SH_DEGREE_" + d + "_COEF_" + c;
+                mpb.addAttribute(name, 
+                    createSignedAccessorModel(sh, 3, "VEC3", bits));
+            }
+        }
+
+        mpb.setPoints();
+        DefaultMeshPrimitiveModel meshPrimitiveModel = mpb.build();
+
+        // Manually add the extension (there is no model-level representation
+        // of this extension yet)
+        Map<String, Object> extension =
+            GltfSplatWriter.createExtension(colorSpace);
+        meshPrimitiveModel.addExtension(NAME, extension);
+
+        DefaultMeshModel meshModel = new DefaultMeshModel();
+        meshModel.addMeshPrimitiveModel(meshPrimitiveModel);
+        nodeModel.addMeshModel(meshModel);
+        DefaultSceneModel sceneModel = new DefaultSceneModel();
+        sceneModel.addNode(nodeModel);
+
+        GltfModelBuilder b = GltfModelBuilder.create();
+        b.addSceneModel(sceneModel);
+        DefaultGltfModel gltfModel = b.build();
+
+        DefaultExtensionsModel extensionsModel = gltfModel.getExtensionsModel();
+        extensionsModel.addExtensionsUsed(Arrays.asList(NAME));
+        if (options.isQuantizing())
+        {
+            extensionsModel.addExtensionsUsed(
+                Arrays.asList(QUANTIZATION_NAME));
+            extensionsModel.addExtensionsRequired(
+                Arrays.asList(QUANTIZATION_NAME));
+        }
+        return gltfModel;
+    }
+
+    /**
+     * Create an accessor model for the given values, where the values are 
+     * quantized as normalized signed integers with the given number of 
+     * bits, or stored as float if the number of bits is 32
+     * 
+     * @param values The values
+     * @param numComponents The number of components per element
+     * @param type The accessor type
+     * @param bits The number of bits
+     * @return The accessor model
+     */
+    private static DefaultAccessorModel createSignedAccessorModel(
+        FloatBuffer values, int numComponents, String type, int bits)
+    {
+        if (bits == 32)
+        {
+            return AccessorModels.create(
+                GltfConstants.GL_FLOAT, type, false, toByteBuffer(values));
+        }
+        ByteBuffer data = quantizeSigned(values, numComponents, bits);
+        return AccessorModels.create(
+            componentType(bits, true), type, true, data);
+    }
+
+    /**
+     * Normalize the given rotation quaternions, in-place. Quaternions with 
+     * a length of zero are set to the identity.
+     * 
+     * @param rotations The rotations
+     * @param n The number of rotations
+     */
+    private static void normalizeRotations(FloatBuffer rotations, int n)
+    {
+        for (int i = 0; i < n; i++)
+        {
+            double lenSquared = 0.0;
+            for (int c = 0; c < 4; c++)
+            {
+                float v = rotations.get(i * 4 + c);
+                lenSquared += v * v;
+            }
+            if (lenSquared == 0.0)
+            {
+                rotations.put(i * 4 + 3, 1.0f);
+                continue;
+            }
+            float invLen = (float) (1.0 / Math.sqrt(lenSquared));
+            for (int c = 0; c < 4; c++)
+            {
+                int index = i * 4 + c;
+                rotations.put(index, rotations.get(index) * invLen);
+            }
+        }
+    }
+
+    /**
+     * Returns the component type for the given number of bits
+     * 
+     * @param bits The number of bits, 8 or 16
+     * @param signed Whether the type is signed
+     * @return The component type
+     */
+    private static int componentType(int bits, boolean signed)
+    {
+        if (bits == 8)
+        {
+            return signed ? GltfConstants.GL_BYTE 
+                : GltfConstants.GL_UNSIGNED_BYTE;
+        }
+        return signed ? GltfConstants.GL_SHORT 
+            : GltfConstants.GL_UNSIGNED_SHORT;
+    }
+
+    /**
+     * Quantize the given values, which are clamped to [-1,1], into 
+     * tightly packed normalized signed integers with the given number 
+     * of bits
+     * 
+     * @param values The values
+     * @param numComponents The number of components per element
+     * @param bits The number of bits, 8 or 16
+     * @return The buffer
+     */
+    private static ByteBuffer quantizeSigned(FloatBuffer values,
+        int numComponents, int bits)
+    {
+        int n = values.capacity();
+        int componentSize = bits / 8;
+        int maxValue = (1 << (bits - 1)) - 1;
+        ByteBuffer data = ByteBuffer.allocate(n * componentSize)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n; i++)
+        {
+            float clamped = Math.max(-1.0f, Math.min(1.0f, values.get(i)));
+            int q = Math.round(clamped * maxValue);
+            if (bits == 8)
+            {
+                data.put(i, (byte) q);
+            }
+            else
+            {
+                data.putShort(i * componentSize, (short) q);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Quantize the given scalar values, which are clamped to [0,1], into 
+     * tightly packed normalized unsigned integers with the given number 
+     * of bits
+     * 
+     * @param values The values
+     * @param bits The number of bits, 8 or 16
+     * @return The buffer
+     */
+    private static ByteBuffer quantizeUnsigned(FloatBuffer values, int bits)
+    {
+        int n = values.capacity();
+        int componentSize = bits / 8;
+        int maxValue = (1 << bits) - 1;
+        ByteBuffer data = ByteBuffer.allocate(n * componentSize)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n; i++)
+        {
+            float clamped = Math.max(0.0f, Math.min(1.0f, values.get(i)));
+            int q = Math.round(clamped * maxValue);
+            if (bits == 8)
+            {
+                data.put(i, (byte) q);
+            }
+            else
+            {
+                data.putShort(i * componentSize, (short) q);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Returns a little-endian byte buffer with the contents of the given
+     * float buffer
+     * 
+     * @param values The values
+     * @return The byte buffer
+     */
+    private static ByteBuffer toByteBuffer(FloatBuffer values)
+    {
+        int n = values.capacity();
+        ByteBuffer data = ByteBuffer.allocate(n * Float.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n; i++)
+        {
+            data.putFloat(i * Float.BYTES, values.get(i));
+        }
+        return data;
+    }
+
+    /**
+     * Compute the component-wise minimum of the given elements
+     * 
+     * @param values The values
+     * @param numComponents The number of components per element
+     * @return The minimum
+     */
+    private static float[] computeMin(FloatBuffer values, int numComponents)
+    {
+        float result[] = new float[numComponents];
+        for (int c = 0; c < numComponents; c++)
+        {
+            result[c] = Float.POSITIVE_INFINITY;
+        }
+        for (int i = 0; i < values.capacity(); i++)
+        {
+            int c = i % numComponents;
+            result[c] = Math.min(result[c], values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Compute the component-wise maximum of the given elements
+     * 
+     * @param values The values
+     * @param numComponents The number of components per element
+     * @return The maximum
+     */
+    private static float[] computeMax(FloatBuffer values, int numComponents)
+    {
+        float result[] = new float[numComponents];
+        for (int c = 0; c < numComponents; c++)
+        {
+            result[c] = Float.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i < values.capacity(); i++)
+        {
+            int c = i % numComponents;
+            result[c] = Math.max(result[c], values.get(i));
+        }
+        return result;
+    }
+}
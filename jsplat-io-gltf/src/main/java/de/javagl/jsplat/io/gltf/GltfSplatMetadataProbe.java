@@ -0,0 +1,254 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.gltf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.SplatMetadataProbe;
+import de.javagl.jsplat.Splats;
+
+/**
+ * Implementation of a {@link SplatMetadataProbe} for glTF data with the
+ * KHR_gaussian_splatting extension.
+ * 
+ * Only the JSON part of the glTF asset is read. For binary glTF, this is 
+ * the first chunk of the file, and the binary chunk is not read at all.
+ * The size, spherical harmonics degree, and bounds are obtained from the 
+ * accessors of the mesh primitives, considering the same mesh primitives 
+ * as the default {@link GltfSplatReader}. The bounds are only available
+ * when all accessors for the positions contain their minimum and maximum
+ * values, and none of the nodes has a transform.
+ * 
+ * This works for splats that are compressed with SPZ as well, because the
+ * accessors of such mesh primitives still store their count and bounds.
+ */
+public final class GltfSplatMetadataProbe implements SplatMetadataProbe
+{
+    /**
+     * The extension name (and attribute prefix)
+     */
+    private static final String NAME = "KHR_gaussian_splatting";
+
+    /**
+     * The magic number at the start of binary glTF, "glTF" in 
+     * little-endian byte order
+     */
+    private static final int GLB_MAGIC = 0x46546C67;
+
+    /**
+     * The chunk type of the JSON chunk in binary glTF
+     */
+    private static final int GLB_CHUNK_TYPE_JSON = 0x4E4F534A;
+
+    /**
+     * Creates a new instance
+     */
+    public GltfSplatMetadataProbe()
+    {
+        // Default constructor
+    }
+
+    @Override
+    public SplatMetadata probe(Path path) throws IOException
+    {
+        JsonNode root = readJson(path);
+        JsonNode nodes = root.path("nodes");
+        JsonNode meshes = root.path("meshes");
+        JsonNode accessors = root.path("accessors");
+
+        long size = 0;
+        int shDegree = 0;
+        float bounds[] = 
+        {
+            Float.POSITIVE_INFINITY, 
+            Float.POSITIVE_INFINITY,
+            Float.POSITIVE_INFINITY,
+            Float.NEGATIVE_INFINITY, 
+            Float.NEGATIVE_INFINITY,
+            Float.NEGATIVE_INFINITY
+        };
+        boolean boundsValid = true;
+        for (JsonNode scene : root.path("scenes"))
+        {
+            for (JsonNode nodeIndex : scene.path("nodes"))
+            {
+                JsonNode node = nodes.path(nodeIndex.asInt());
+                if (!node.has("mesh"))
+                {
+                    continue;
+                }
+                if (hasTransform(node))
+                {
+                    boundsValid = false;
+                }
+                JsonNode mesh = meshes.path(node.path("mesh").asInt());
+                for (JsonNode primitive : mesh.path("primitives"))
+                {
+                    if (!primitive.path("extensions").has(NAME))
+                    {
+                        continue;
+                    }
+                    JsonNode attributes = primitive.path("attributes");
+                    if (!attributes.has("POSITION"))
+                    {
+                        continue;
+                    }
+                    int accessorIndex = attributes.path("POSITION").asInt();
+                    JsonNode accessor = accessors.path(accessorIndex);
+                    size += accessor.path("count").asLong();
+                    shDegree = Math.max(shDegree, computeShDegree(attributes));
+                    boundsValid &= include(accessor, bounds);
+                }
+            }
+        }
+        if (size == 0 || !boundsValid)
+        {
+            return Splats.createMetadata(size, shDegree, null);
+        }
+        return Splats.createMetadata(size, shDegree, bounds);
+    }
+
+    /**
+     * Compute the spherical harmonics degree from the names of the given
+     * attributes
+     * 
+     * @param attributes The attributes
+     * @return The spherical harmonics degree
+     */
+    private static int computeShDegree(JsonNode attributes)
+    {
+        int shDegree = 0;
+        for (int d = 1; d <= 3; d++)
+        {
+            String name = NAME + ":" + "SH_DEGREE_" + d + "_COEF_0";
+            if (attributes.has(name))
+            {
+                shDegree = d;
+            }
+        }
+        return shDegree;
+    }
+
+    /**
+     * Returns whether the given node has a transform
+     * 
+     * @param node The node
+     * @return Whether the node has a transform
+     */
+    private static boolean hasTransform(JsonNode node)
+    {
+        return node.has("matrix") || node.has("translation")
+            || node.has("rotation") || node.has("scale");
+    }
+
+    /**
+     * Include the minimum and maximum of the given accessor in the given
+     * bounds
+     * 
+     * @param accessor The accessor
+     * @param bounds The bounds
+     * @return Whether the accessor contained valid minimum and maximum 
+     * values
+     */
+    private static boolean include(JsonNode accessor, float bounds[])
+    {
+        JsonNode min = accessor.path("min");
+        JsonNode max = accessor.path("max");
+        if (min.size() != 3 || max.size() != 3)
+        {
+            return false;
+        }
+        for (int k = 0; k < 3; k++)
+        {
+            bounds[k] = Math.min(bounds[k], (float) min.get(k).asDouble());
+            bounds[3 + k] = 
+                Math.max(bounds[3 + k], (float) max.get(k).asDouble());
+        }
+        return true;
+    }
+
+    /**
+     * Read the JSON part of the glTF asset from the specified file
+     * 
+     * @param path The path
+     * @return The JSON root node
+     * @throws IOException If an IO error occurs
+     */
+    private static JsonNode readJson(Path path) throws IOException
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (FileChannel channel = FileChannel.open(path, 
+            StandardOpenOption.READ))
+        {
+            ByteBuffer header = ByteBuffer.allocate(20)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining())
+            {
+                if (channel.read(header) < 0)
+                {
+                    break;
+                }
+            }
+            if (header.position() == 20 && header.getInt(0) == GLB_MAGIC)
+            {
+                long chunkLength = Integer.toUnsignedLong(header.getInt(12));
+                int chunkType = header.getInt(16);
+                if (chunkType != GLB_CHUNK_TYPE_JSON 
+                    || chunkLength > Integer.MAX_VALUE)
+                {
+                    throw new IOException(
+                        "No valid JSON chunk found in " + path);
+                }
+                ByteBuffer json = ByteBuffer.allocate((int) chunkLength);
+                while (json.hasRemaining())
+                {
+                    if (channel.read(json) < 0)
+                    {
+                        throw new IOException(
+                            "Unexpected end of data in " + path);
+                    }
+                }
+                return objectMapper.readTree(json.array());
+            }
+        }
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+}
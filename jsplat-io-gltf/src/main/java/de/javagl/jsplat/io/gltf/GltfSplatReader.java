@@ -31,8 +31,11 @@ import java.io.InputStream;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import de.javagl.jgltf.model.AccessorModel;
@@ -44,8 +47,11 @@ import de.javagl.jgltf.model.SceneModel;
 import de.javagl.jgltf.model.io.GltfModelReader;
 import de.javagl.jsplat.MutableSplat;
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatData;
 import de.javagl.jsplat.SplatDatas;
 import de.javagl.jsplat.SplatListReader;
+import de.javagl.jsplat.SplatReadOptions;
 import de.javagl.jsplat.Splats;
 import de.javagl.jsplat.processing.SplatTransforms;
 
@@ -53,6 +59,10 @@ import de.javagl.jsplat.processing.SplatTransforms;
  * Implementation of a {@link SplatListReader} that reads glTF data with the
  * KHR_gaussian_splatting Gaussian splat extension.
  * 
+ * The accessors for attributes that are not read according to the 
+ * {@link SplatReadOptions} (and for spherical harmonics coefficients 
+ * beyond the maximum degree) are not dequantized.
+ * 
  * NOTE: This class is preliminary
  */
 public final class GltfSplatReader implements SplatListReader
@@ -79,6 +89,11 @@ public final class GltfSplatReader implements SplatListReader
      */
     private final boolean readAll;
 
+    /**
+     * The {@link SplatReadOptions}
+     */
+    private final SplatReadOptions options;
+
     /**
      * Creates a new instance
      */
@@ -95,8 +110,23 @@ public final class GltfSplatReader implements SplatListReader
      *        respective node, and added the the resulting list
      */
     public GltfSplatReader(boolean readAll)
+    {
+        this(readAll, SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param readAll Whether all splats from all mesh primitives should be
+     *        read, transformed according to the global transform matrix of the
+     *        respective node, and added the the resulting list
+     * @param options The {@link SplatReadOptions}
+     */
+    public GltfSplatReader(boolean readAll, SplatReadOptions options)
     {
         this.readAll = readAll;
+        this.options = Objects.requireNonNull(options,
+            "The options may not be null");
     }
 
     @Override
@@ -105,9 +135,9 @@ public final class GltfSplatReader implements SplatListReader
     {
         if (readAll)
         {
-            return readAllTransformed(inputStream);
+            return readAllTransformed(inputStream, options);
         }
-        return readFirstUntransformed(inputStream);
+        return readFirstUntransformed(inputStream, options);
     }
 
     /**
@@ -117,16 +147,18 @@ public final class GltfSplatReader implements SplatListReader
      * list.
      * 
      * @param inputStream The input stream
+     * @param options The {@link SplatReadOptions}
      * @return The result
      * @throws IOException If an IO error occurs
      */
-    private static List<MutableSplat>
-        readAllTransformed(InputStream inputStream) throws IOException
+    private static List<MutableSplat> readAllTransformed(
+        InputStream inputStream, SplatReadOptions options) throws IOException
     {
         GltfModelReader r = new GltfModelReader();
         GltfModel gltfModel = r.readWithoutReferences(inputStream);
 
         List<MutableSplat> allSplats = new ArrayList<MutableSplat>();
+        Set<AccessorModel> wrappedAccessors = new HashSet<AccessorModel>();
 
         List<SceneModel> sceneModels = gltfModel.getSceneModels();
         for (SceneModel sceneModel : sceneModels)
@@ -155,13 +187,15 @@ public final class GltfSplatReader implements SplatListReader
                             Object extension = extensions.get(NAME);
                             if (extension != null)
                             {
-                                List<MutableSplat> splats =
-                                    readListFrom(meshPrimitiveModel);
+                                List<MutableSplat> splats = readListFrom(
+                                    meshPrimitiveModel, options,
+                                    wrappedAccessors);
                                 if (splats != null && !splats.isEmpty())
                                 {
                                     SplatTransforms.transformList(splats,
                                         globalTransform);
-                                    allSplats = merge(allSplats, splats);
+                                    allSplats = 
+                                        merge(allSplats, splats, options);
                                 }
                             }
                         }
@@ -184,10 +218,11 @@ public final class GltfSplatReader implements SplatListReader
      * 
      * @param all All existing splats
      * @param added The added splats
+     * @param options The {@link SplatReadOptions} for creating new splats
      * @return The result
      */
     private static List<MutableSplat> merge(List<MutableSplat> all,
-        List<MutableSplat> added)
+        List<MutableSplat> added, SplatReadOptions options)
     {
         // Handle trivial cases
         if (all.isEmpty())
@@ -217,14 +252,14 @@ public final class GltfSplatReader implements SplatListReader
         for (int i = 0; i < all.size(); i++)
         {
             Splat s = all.get(i);
-            MutableSplat t = Splats.create(newDegree);
+            MutableSplat t = options.createSplat(newDegree);
             Splats.setAny(s, t);
             merged.add(t);
         }
         for (int i = 0; i < added.size(); i++)
         {
             Splat s = added.get(i);
-            MutableSplat t = Splats.create(newDegree);
+            MutableSplat t = options.createSplat(newDegree);
             Splats.setAny(s, t);
             merged.add(t);
         }
@@ -237,11 +272,12 @@ public final class GltfSplatReader implements SplatListReader
      * may be attached to)
      * 
      * @param inputStream The input stream
+     * @param options The {@link SplatReadOptions}
      * @return The result
      * @throws IOException If an IO error occurs
      */
-    private static List<MutableSplat>
-        readFirstUntransformed(InputStream inputStream) throws IOException
+    private static List<MutableSplat> readFirstUntransformed(
+        InputStream inputStream, SplatReadOptions options) throws IOException
     {
         GltfModelReader r = new GltfModelReader();
         GltfModel gltfModel = r.readWithoutReferences(inputStream);
@@ -260,7 +296,11 @@ public final class GltfSplatReader implements SplatListReader
                     Object extension = extensions.get(NAME);
                     if (extension != null)
                     {
-                        return readListFrom(meshPrimitiveModel);
+                        // Return a modifiable list, like all readers
+                        List<MutableSplat> splats = readListFrom(
+                            meshPrimitiveModel, options,
+                            new HashSet<AccessorModel>());
+                        return new ArrayList<MutableSplat>(splats);
                     }
                 }
             }
@@ -273,11 +313,26 @@ public final class GltfSplatReader implements SplatListReader
      * Read a list of splats from the given mesh primitive model, assuming that
      * it contains valid KHR_gaussian_splatting attributes.
      * 
+     * Only the accessors of the attributes that are read according to the
+     * given options are dequantized. The returned splats are views on a 
+     * {@link SplatData}, and the returned list has a fixed size. Callers 
+     * that pass the list to clients have to copy it into a modifiable list.
+     * 
+     * Accessors with tightly packed float data may be used directly as 
+     * the buffers of the splat data. Each accessor is used directly only 
+     * once, and added to the given set, so that splats of mesh primitives 
+     * that share accessors (for example, of meshes that are attached to 
+     * multiple nodes) can be transformed independently.
+     * 
      * @param meshPrimitiveModel The mesh primitive model
+     * @param options The {@link SplatReadOptions}
+     * @param wrappedAccessors The accessors that have already been used
+     * directly
      * @return The splats
      */
-    private static List<MutableSplat>
-        readListFrom(MeshPrimitiveModel meshPrimitiveModel)
+    private static List<MutableSplat> readListFrom(
+        MeshPrimitiveModel meshPrimitiveModel, SplatReadOptions options,
+        Set<AccessorModel> wrappedAccessors)
     {
         Map<String, AccessorModel> attributes =
             meshPrimitiveModel.getAttributes();
@@ -290,27 +345,30 @@ public final class GltfSplatReader implements SplatListReader
             return Collections.emptyList();
         }
 
+        boolean readScales = options.isRead(SplatAttribute.SCALE);
         String scaleName = NAME + ":" + "SCALE";
         AccessorModel scaleAccessor = attributes.get(scaleName);
-        if (scaleAccessor == null)
+        if (readScales && scaleAccessor == null)
         {
             logger.severe(
                 "No " + scaleName + " accessor found in mesh primitive");
             return Collections.emptyList();
         }
 
+        boolean readRotations = options.isRead(SplatAttribute.ROTATION);
         String rotationName = NAME + ":" + "ROTATION";
         AccessorModel rotationAccessor = attributes.get(rotationName);
-        if (rotationAccessor == null)
+        if (readRotations && rotationAccessor == null)
         {
             logger.severe(
                 "No " + rotationName + " accessor found in mesh primitive");
             return Collections.emptyList();
         }
 
+        boolean readOpacities = options.isRead(SplatAttribute.OPACITY);
         String opacityName = NAME + ":" + "OPACITY";
         AccessorModel opacityAccessor = attributes.get(opacityName);
-        if (opacityAccessor == null)
+        if (readOpacities && opacityAccessor == null)
         {
             logger.severe(
                 "No " + opacityName + " accessor found in mesh primitive");
@@ -319,7 +377,7 @@ public final class GltfSplatReader implements SplatListReader
 
         List<AccessorModel> shAccessors = new ArrayList<AccessorModel>();
         int maxDegrees = 4;
-        int shDegree = 0;
+        int fileShDegree = 0;
         for (int d = 0; d < maxDegrees; d++)
         {
             int numCoefficients = Splats.coefficientsForDegree(d);
@@ -330,64 +388,81 @@ public final class GltfSplatReader implements SplatListReader
                 if (shAccessor != null)
                 {
                     shAccessors.add(shAccessor);
-                    shDegree = d;
+                    fileShDegree = d;
                 }
             }
         }
+        int shDegree = options.computeShDegree(fileShDegree);
 
         // There are no sanity checks here. It simply assumes that all the
         // accessors have the same counts. Leave that to the validator...
+        // Tightly packed float positions and rotations are used directly, 
+        // as views on the buffer view data. The data of all other 
+        // accessors is dequantized directly into the buffers of the 
+        // splat data, converting the scales and opacities on the fly.
         int count = positionAccessor.getCount();
-        List<MutableSplat> splats = new ArrayList<MutableSplat>();
-        for (int i = 0; i < count; i++)
+        boolean readPositions = options.isRead(SplatAttribute.POSITION);
+        FloatBuffer positions = null;
+        if (readPositions && !wrappedAccessors.contains(positionAccessor))
+        {
+            positions = Quantization.wrap(positionAccessor, 3);
+        }
+        FloatBuffer rotations = null;
+        if (readRotations && !wrappedAccessors.contains(rotationAccessor))
+        {
+            rotations = Quantization.wrap(rotationAccessor, 4);
+        }
+        if (positions != null)
         {
-            MutableSplat splat = Splats.create(shDegree);
-            splats.add(splat);
+            wrappedAccessors.add(positionAccessor);
         }
+        if (rotations != null)
+        {
+            wrappedAccessors.add(rotationAccessor);
+        }
+        SplatData splatData = SplatDatas.wrap(
+            shDegree, count, positions, null, rotations, null, null);
 
-        FloatBuffer positionBuffer = readAsFloatBuffer(positionAccessor);
-        SplatDatas.writePositions(positionBuffer, splats);
+        if (readPositions && positions == null)
+        {
+            Quantization.readInto(positionAccessor, 
+                splatData.getPositions(), 0, 3, null);
+        }
 
-        FloatBuffer scaleBuffer = readAsFloatBuffer(scaleAccessor);
-        SplatDatas.writeScalesFromLinear(scaleBuffer, splats);
+        if (readScales)
+        {
+            Quantization.readInto(scaleAccessor, 
+                splatData.getScales(), 0, 3, Math::log);
+        }
 
-        FloatBuffer rotationBuffer = readAsFloatBuffer(rotationAccessor);
-        SplatDatas.writeRotations(rotationBuffer, splats);
+        if (readRotations && rotations == null)
+        {
+            Quantization.readInto(rotationAccessor, 
+                splatData.getRotations(), 0, 4, null);
+        }
 
-        // The opacity values are in [0,1] in glTF, so they are written
-        // as alpha values to the splats here (converting them to an
-        // opacity value in [-Inf,+Inf]).
-        FloatBuffer opacityBuffer = readAsFloatBuffer(opacityAccessor);
-        SplatDatas.writeAlphas(opacityBuffer, splats);
+        if (readOpacities)
+        {
+            // The opacity values are in [0,1] in glTF, so they are converted
+            // from alpha values to opacity values in [-Inf,+Inf] here
+            Quantization.readInto(opacityAccessor, 
+                splatData.getOpacities(), 0, 1, Splats::alphaToOpacity);
+        }
 
-        int shIndex = 0;
-        for (int d = 0; d <= shDegree; d++)
+        // Each coefficient is written into its slot of the interleaved 
+        // spherical harmonics of the splat data. The accessors of the 
+        // coefficients beyond the degree are not read.
+        if (options.isRead(SplatAttribute.SH))
         {
-            int numCoefficients = Splats.coefficientsForDegree(d);
-            for (int c = 0; c < numCoefficients; c++)
+            int shDimensions = Splats.dimensionsForDegree(shDegree);
+            FloatBuffer shs = splatData.getShs();
+            for (int s = 0; s < shDimensions; s++)
             {
-                AccessorModel shAccessor = shAccessors.get(shIndex);
-                FloatBuffer shBuffer = readAsFloatBuffer(shAccessor);
-                SplatDatas.writeSh(shBuffer, splats, d, c);
-                shIndex++;
+                Quantization.readInto(shAccessors.get(s), 
+                    shs, s * 3, shDimensions * 3, null);
             }
         }
-
-        return splats;
-    }
-
-    /**
-     * Returns the data from the given accessor model as a float buffer, tightly
-     * packed, applying dequantization as necessary.
-     * 
-     * @param accessorModel The accessor model
-     * @return The buffer
-     * @throws IllegalArgumentException If the component type of the given
-     *         accessor model is neither float, nor signed/unsigned byte/short.
-     */
-    private static FloatBuffer readAsFloatBuffer(AccessorModel accessorModel)
-    {
-        return Quantization.readAsFloatBuffer(accessorModel);
+        return SplatDatas.asList(splatData);
     }
 
 }
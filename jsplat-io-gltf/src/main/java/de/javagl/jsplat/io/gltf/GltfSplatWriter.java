@@ -163,13 +163,20 @@ public final class GltfSplatWriter implements SplatListWriter
             AccessorModels.createFloatScalar(opacity);
         mpb.addAttribute(NAME + ":" + "OPACITY", opacityAccessor);
 
+        // Read all spherical harmonics in one pass, and split them into
+        // the buffers for the coefficients
         int shDegree = splats.get(0).getShDegree();
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        FloatBuffer shs = SplatDatas.readShs(splats, shDegree, null);
+        FloatBuffer shBuffers[] = SplatDatas.splitShsByDimension(
+            shs, null, splats.size(), shDimensions);
         for (int d = 0; d <= shDegree; d++)
         {
             int numCoefficients = Splats.coefficientsForDegree(d);
             for (int c = 0; c < numCoefficients; c++)
             {
-                FloatBuffer sh = SplatDatas.readSh(splats, d, c, null);
+                int index = Splats.dimensionForCoefficient(d, c);
+                FloatBuffer sh = shBuffers[index];
                 DefaultAccessorModel shAccessor =
                     AccessorModels.createFloat3D(sh);
 
@@ -27,141 +27,284 @@
 package de.javagl.jsplat.io.gltf;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.nio.ShortBuffer;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
 
-import de.javagl.jgltf.model.AccessorData;
 import de.javagl.jgltf.model.AccessorModel;
+import de.javagl.jgltf.model.BufferViewModel;
 import de.javagl.jgltf.model.GltfConstants;
 
 /**
  * Internal utility methods for quantization.
  * 
+ * The data of an accessor is read directly from its buffer view, taking
+ * into account the byte offset and byte stride of the accessor, so that
+ * interleaved buffer views are handled without creating intermediate
+ * copies of the data. The elements are dequantized in parallel, in 
+ * ranges of {@link #PARALLEL_CHUNK_SIZE} elements.
+ * 
  * These methods will sooner or later become part of JglTF.
  */
 class Quantization
 {
     /**
-     * Returns the data from the given accessor model as a float buffer, tightly
-     * packed, applying dequantization as necessary.
+     * The number of elements that are processed by one parallel task
+     */
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
+
+    /**
+     * Returns a float buffer that is a view on the data of the given 
+     * accessor model, without copying the data.
+     * 
+     * This is only possible if the accessor has the component type float,
+     * the given number of components, and its elements are tightly packed 
+     * in the buffer view. Otherwise, <code>null</code> is returned.
+     * 
+     * Modifications of the values in the returned buffer will be visible 
+     * in the buffer view data of the accessor.
      * 
      * @param accessorModel The accessor model
-     * @return The buffer
-     * @throws IllegalArgumentException If the component type of the given
-     *         accessor model is neither float, nor signed/unsigned byte/short.
+     * @param numComponents The expected number of components
+     * @return The buffer, or <code>null</code>
      */
-    static FloatBuffer readAsFloatBuffer(AccessorModel accessorModel)
+    static FloatBuffer wrap(AccessorModel accessorModel, int numComponents)
     {
-        AccessorData accessorData = accessorModel.getAccessorData();
-        int componentType = accessorModel.getComponentType();
-        if (componentType == GltfConstants.GL_FLOAT)
+        if (accessorModel.getComponentType() != GltfConstants.GL_FLOAT
+            || accessorModel.getElementType().getNumComponents() 
+                != numComponents)
         {
-            ByteBuffer inputByteBuffer = accessorData.createByteBuffer();
-            return inputByteBuffer.asFloatBuffer();
+            return null;
         }
-        if (componentType == GltfConstants.GL_SHORT)
+        int elementSize = accessorModel.getElementSizeInBytes();
+        if (getByteStride(accessorModel) != elementSize)
         {
-            ByteBuffer inputByteBuffer = accessorData.createByteBuffer();
-            ShortBuffer shortBuffer = inputByteBuffer.asShortBuffer();
-            return dequantizeShortBuffer(shortBuffer);
+            return null;
         }
-        if (componentType == GltfConstants.GL_UNSIGNED_SHORT)
-        {
-            ByteBuffer inputByteBuffer = accessorData.createByteBuffer();
-            ShortBuffer shortBuffer = inputByteBuffer.asShortBuffer();
-            return dequantizeUnsignedShortBuffer(shortBuffer);
-        }
-        if (componentType == GltfConstants.GL_BYTE)
+        ByteBuffer source = getSource(accessorModel);
+        source.limit(accessorModel.getCount() * elementSize);
+        return source.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    /**
+     * Read the data from the given accessor model into the given target 
+     * buffer, applying dequantization as necessary.
+     * 
+     * The components of element <code>i</code> are written into the 
+     * target at the index <code>targetOffset + i * targetStride</code>. 
+     * This allows writing the data directly into a buffer that contains 
+     * interleaved data, like the spherical harmonics coefficients of 
+     * a <code>SplatData</code>.
+     * 
+     * If the given conversion is not <code>null</code>, then it will be 
+     * applied to each (dequantized) component before it is written into 
+     * the target. 
+     * 
+     * @param accessorModel The accessor model
+     * @param target The target buffer
+     * @param targetOffset The offset in the target buffer, in floats
+     * @param targetStride The stride of the elements in the target buffer,
+     * in floats
+     * @param conversion The optional conversion
+     * @throws IllegalArgumentException If the component type of the given
+     *         accessor model is neither float, nor signed/unsigned byte/short.
+     */
+    static void readInto(AccessorModel accessorModel, FloatBuffer target,
+        int targetOffset, int targetStride, DoubleUnaryOperator conversion)
+    {
+        ByteBuffer source = getSource(accessorModel);
+        int byteStride = getByteStride(accessorModel);
+        read(accessorModel, source, byteStride, target, targetOffset,
+            targetStride, conversion);
+    }
+
+    /**
+     * Returns a buffer that contains the data of the given accessor model,
+     * starting at the first element of the accessor. 
+     * 
+     * If the accessor model refers to a buffer view, then this is a slice 
+     * of the buffer view data. Otherwise, it is the tightly packed data 
+     * of the accessor.
+     * 
+     * @param accessorModel The accessor model
+     * @return The buffer
+     */
+    private static ByteBuffer getSource(AccessorModel accessorModel)
+    {
+        BufferViewModel bufferViewModel = accessorModel.getBufferViewModel();
+        if (bufferViewModel == null)
         {
-            ByteBuffer inputByteBuffer = accessorData.createByteBuffer();
-            return dequantizeByteBuffer(inputByteBuffer);
+            ByteBuffer data = accessorModel.getAccessorData()
+                .createByteBuffer();
+            return data.slice().order(ByteOrder.LITTLE_ENDIAN);
         }
-        if (componentType == GltfConstants.GL_UNSIGNED_BYTE)
+        ByteBuffer data = bufferViewModel.getBufferViewData().duplicate();
+        data.position(accessorModel.getByteOffset());
+        return data.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the byte stride between two elements of the given accessor
+     * model in the buffer that is returned by {@link #getSource}.
+     * 
+     * @param accessorModel The accessor model
+     * @return The byte stride
+     */
+    private static int getByteStride(AccessorModel accessorModel)
+    {
+        if (accessorModel.getBufferViewModel() == null)
         {
-            ByteBuffer inputByteBuffer = accessorData.createByteBuffer();
-            return dequantizeUnsignedByteBuffer(inputByteBuffer);
+            return accessorModel.getElementSizeInBytes();
         }
-        throw new IllegalArgumentException(
-            "Component type " + GltfConstants.stringFor(componentType)
-                + " cannot be converted to float");
+        return accessorModel.getByteStride();
     }
 
     /**
-     * Dequantize the given buffer into a float buffer, treating each element of
-     * the input as a signed byte.
+     * Read the data from the given source into the given target buffer,
+     * in parallel.
      * 
-     * @param byteBuffer The input buffer
-     * @return The result
+     * @param accessorModel The accessor model
+     * @param source The source data
+     * @param byteStride The byte stride of the source
+     * @param target The target buffer
+     * @param targetOffset The offset in the target buffer, in floats
+     * @param targetStride The stride of the elements in the target buffer,
+     * in floats
+     * @param conversion The optional conversion
+     * @throws IllegalArgumentException If the component type of the given
+     *         accessor model is neither float, nor signed/unsigned byte/short.
      */
-    private static FloatBuffer dequantizeByteBuffer(ByteBuffer byteBuffer)
+    private static void read(AccessorModel accessorModel, ByteBuffer source,
+        int byteStride, FloatBuffer target, int targetOffset,
+        int targetStride, DoubleUnaryOperator conversion)
     {
-        FloatBuffer floatBuffer = FloatBuffer.allocate(byteBuffer.capacity());
-        for (int i = 0; i < byteBuffer.capacity(); i++)
+        int componentType = accessorModel.getComponentType();
+        if (componentType != GltfConstants.GL_FLOAT
+            && componentType != GltfConstants.GL_BYTE
+            && componentType != GltfConstants.GL_UNSIGNED_BYTE
+            && componentType != GltfConstants.GL_SHORT
+            && componentType != GltfConstants.GL_UNSIGNED_SHORT)
         {
-            byte c = byteBuffer.get(i);
-            float f = dequantizeByte(c);
-            floatBuffer.put(i, f);
+            throw new IllegalArgumentException(
+                "Component type " + GltfConstants.stringFor(componentType)
+                    + " cannot be converted to float");
         }
-        return floatBuffer;
+        int count = accessorModel.getCount();
+        int numComponents = 
+            accessorModel.getElementType().getNumComponents();
+        int numChunks = (count + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        IntStream.range(0, numChunks).parallel().forEach(c ->
+        {
+            int start = c * PARALLEL_CHUNK_SIZE;
+            int n = Math.min(PARALLEL_CHUNK_SIZE, count - start);
+            readRange(componentType, numComponents, 
+                source.duplicate().order(ByteOrder.LITTLE_ENDIAN), 
+                byteStride, target.duplicate(), targetOffset, targetStride,
+                conversion, start, n);
+        });
     }
 
     /**
-     * Dequantize the given buffer into a float buffer, treating each element of
-     * the input as an unsigned byte.
+     * Read the specified range of elements from the given source into the 
+     * given target buffer.
      * 
-     * @param byteBuffer The input buffer
-     * @return The result
+     * If the source contains tightly packed float values, and the target
+     * elements are tightly packed as well, then the values are copied 
+     * with a single bulk operation. 
+     * 
+     * @param componentType The component type
+     * @param numComponents The number of components per element
+     * @param source The source data
+     * @param byteStride The byte stride of the source
+     * @param target The target buffer
+     * @param targetOffset The offset in the target buffer, in floats
+     * @param targetStride The stride of the elements in the target buffer,
+     * in floats
+     * @param conversion The optional conversion
+     * @param start The index of the first element
+     * @param n The number of elements
      */
-    private static FloatBuffer
-        dequantizeUnsignedByteBuffer(ByteBuffer byteBuffer)
+    private static void readRange(int componentType, int numComponents,
+        ByteBuffer source, int byteStride, FloatBuffer target,
+        int targetOffset, int targetStride, DoubleUnaryOperator conversion,
+        int start, int n)
     {
-        FloatBuffer floatBuffer = FloatBuffer.allocate(byteBuffer.capacity());
-        for (int i = 0; i < byteBuffer.capacity(); i++)
+        int componentSize = componentSizeFor(componentType);
+        if (componentType == GltfConstants.GL_FLOAT && conversion == null
+            && byteStride == numComponents * componentSize
+            && targetStride == numComponents)
         {
-            byte c = byteBuffer.get(i);
-            float f = dequantizeUnsignedByte(c);
-            floatBuffer.put(i, f);
+            source.limit((start + n) * byteStride);
+            source.position(start * byteStride);
+            target.position(targetOffset + start * targetStride);
+            target.put(source.slice().order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer());
+            return;
+        }
+        for (int i = start; i < start + n; i++)
+        {
+            int s = i * byteStride;
+            int t = targetOffset + i * targetStride;
+            for (int c = 0; c < numComponents; c++)
+            {
+                float f = readComponent(
+                    componentType, source, s + c * componentSize);
+                if (conversion != null)
+                {
+                    f = (float) conversion.applyAsDouble(f);
+                }
+                target.put(t + c, f);
+            }
         }
-        return floatBuffer;
     }
 
     /**
-     * Dequantize the given buffer into a float buffer, treating each element of
-     * the input as a signed short.
+     * Returns the size of the given component type, in bytes
      * 
-     * @param shortBuffer The input buffer
-     * @return The result
+     * @param componentType The component type
+     * @return The size
      */
-    private static FloatBuffer dequantizeShortBuffer(ShortBuffer shortBuffer)
+    private static int componentSizeFor(int componentType)
     {
-        FloatBuffer floatBuffer = FloatBuffer.allocate(shortBuffer.capacity());
-        for (int i = 0; i < shortBuffer.capacity(); i++)
+        switch (componentType)
         {
-            short c = shortBuffer.get(i);
-            float f = dequantizeShort(c);
-            floatBuffer.put(i, f);
+            case GltfConstants.GL_BYTE:
+            case GltfConstants.GL_UNSIGNED_BYTE:
+                return 1;
+            case GltfConstants.GL_SHORT:
+            case GltfConstants.GL_UNSIGNED_SHORT:
+                return 2;
+            default:
+                return 4;
         }
-        return floatBuffer;
     }
 
     /**
-     * Dequantize the given buffer into a float buffer, treating each element of
-     * the input as an unsigned short.
+     * Read the component with the given type at the given byte index from 
+     * the given buffer, and return it as a dequantized float value
      * 
-     * @param shortBuffer The input buffer
+     * @param componentType The component type
+     * @param source The source buffer
+     * @param index The byte index
      * @return The result
      */
-    private static FloatBuffer
-        dequantizeUnsignedShortBuffer(ShortBuffer shortBuffer)
+    private static float readComponent(
+        int componentType, ByteBuffer source, int index)
     {
-        FloatBuffer floatBuffer = FloatBuffer.allocate(shortBuffer.capacity());
-        for (int i = 0; i < shortBuffer.capacity(); i++)
+        switch (componentType)
         {
-            short c = shortBuffer.get(i);
-            float f = dequantizeUnsignedShort(c);
-            floatBuffer.put(i, f);
+            case GltfConstants.GL_BYTE:
+                return dequantizeByte(source.get(index));
+            case GltfConstants.GL_UNSIGNED_BYTE:
+                return dequantizeUnsignedByte(source.get(index));
+            case GltfConstants.GL_SHORT:
+                return dequantizeShort(source.getShort(index));
+            case GltfConstants.GL_UNSIGNED_SHORT:
+                return dequantizeUnsignedShort(source.getShort(index));
+            default:
+                return source.getFloat(index);
         }
-        return floatBuffer;
     }
 
     /**
@@ -0,0 +1,184 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.gltf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestGltfQuantized
+{
+    // An additional tolerance for the errors of the float computations
+    private static final double EPSILON = 1e-5;
+
+    private static List<MutableSplat> createSplats(Random random)
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 1000; i++)
+        {
+            MutableSplat s = Splats.create(3);
+            s.setPositionX(-10.0 + random.nextDouble() * 20.0);
+            s.setPositionY(-5.0 + random.nextDouble() * 10.0);
+            s.setPositionZ(2.0 + random.nextDouble() * 4.0);
+            s.setScaleX(-5.0 + random.nextDouble());
+            s.setScaleY(-5.0 + random.nextDouble());
+            s.setScaleZ(-5.0 + random.nextDouble());
+            double x = random.nextDouble() - 0.5;
+            double y = random.nextDouble() - 0.5;
+            double z = random.nextDouble() - 0.5;
+            double w = random.nextDouble() - 0.5;
+            double len = Math.sqrt(x * x + y * y + z * z + w * w);
+            s.setRotationX(x / len);
+            s.setRotationY(y / len);
+            s.setRotationZ(z / len);
+            s.setRotationW(w / len);
+            s.setOpacity(-4.0 + random.nextDouble() * 8.0);
+            for (int d = 0; d < s.getShDimensions(); d++)
+            {
+                s.setShX(d, random.nextDouble() - 0.5);
+                s.setShY(d, random.nextDouble() - 0.5);
+                s.setShZ(d, random.nextDouble() - 0.5);
+            }
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    private static double error(int bits)
+    {
+        if (bits == 32)
+        {
+            return 0.0;
+        }
+        return 1.0 / (2 * ((1 << (bits - 1)) - 1));
+    }
+
+    private static double unsignedError(int bits)
+    {
+        if (bits == 32)
+        {
+            return 0.0;
+        }
+        return 1.0 / (2 * ((1 << bits) - 1));
+    }
+
+    private static List<MutableSplat> writeAndRead(
+        List<MutableSplat> splats, GltfQuantizationOptions options, 
+        boolean transformed) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new GltfQuantizedSplatWriter(options).writeList(splats, baos);
+        return new GltfSplatReader(transformed)
+            .readList(new ByteArrayInputStream(baos.toByteArray()));
+    }
+
+    private static void checkRoundTrip(GltfQuantizationOptions options)
+        throws IOException
+    {
+        List<MutableSplat> splatsA = createSplats(new Random(0));
+
+        // The splats that are read with the transform of the node, which
+        // restores the original positions and scales
+        List<MutableSplat> splatsB = writeAndRead(splatsA, options, true);
+        assertEquals(splatsA.size(), splatsB.size());
+
+        // The largest half extent of the bounding box is 10.0
+        double h = 10.0;
+        double positionEpsilon = 
+            h * error(options.getPositionBits()) + EPSILON;
+        double alphaEpsilon = 
+            unsignedError(options.getOpacityBits()) + EPSILON;
+        double shEpsilon = error(options.getShBits()) + EPSILON;
+        for (int i = 0; i < splatsA.size(); i++)
+        {
+            Splat a = splatsA.get(i);
+            Splat b = splatsB.get(i);
+            assertEquals(a.getPositionX(), b.getPositionX(), positionEpsilon);
+            assertEquals(a.getPositionY(), b.getPositionY(), positionEpsilon);
+            assertEquals(a.getPositionZ(), b.getPositionZ(), positionEpsilon);
+            assertEquals(a.getScaleX(), b.getScaleX(), EPSILON);
+            assertEquals(a.getScaleY(), b.getScaleY(), EPSILON);
+            assertEquals(a.getScaleZ(), b.getScaleZ(), EPSILON);
+            assertEquals(Splats.opacityToAlpha(a.getOpacity()),
+                Splats.opacityToAlpha(b.getOpacity()), alphaEpsilon);
+            assertEquals(a.getShX(0), b.getShX(0), EPSILON);
+            assertEquals(a.getShY(0), b.getShY(0), EPSILON);
+            assertEquals(a.getShZ(0), b.getShZ(0), EPSILON);
+            for (int d = 1; d < a.getShDimensions(); d++)
+            {
+                assertEquals(a.getShX(d), b.getShX(d), shEpsilon);
+                assertEquals(a.getShY(d), b.getShY(d), shEpsilon);
+                assertEquals(a.getShZ(d), b.getShZ(d), shEpsilon);
+            }
+        }
+
+        // The splats that are read without the transform of the node. 
+        // The rotations are not normalized when they are read here, so 
+        // that their error can be checked directly
+        List<MutableSplat> splatsC = writeAndRead(splatsA, options, false);
+        assertEquals(splatsA.size(), splatsC.size());
+        double rotationEpsilon = error(options.getRotationBits()) + EPSILON;
+        for (int i = 0; i < splatsA.size(); i++)
+        {
+            Splat a = splatsA.get(i);
+            Splat c = splatsC.get(i);
+            assertEquals(a.getRotationX(), c.getRotationX(), rotationEpsilon);
+            assertEquals(a.getRotationY(), c.getRotationY(), rotationEpsilon);
+            assertEquals(a.getRotationZ(), c.getRotationZ(), rotationEpsilon);
+            assertEquals(a.getRotationW(), c.getRotationW(), rotationEpsilon);
+        }
+    }
+
+    @Test
+    public void testGltfSplatReaderReturnsModifiableLists() throws IOException
+    {
+        List<MutableSplat> splatsA = createSplats(new Random(0));
+        for (boolean transformed : new boolean[] { true, false })
+        {
+            List<MutableSplat> splatsB = writeAndRead(
+                splatsA, GltfQuantizationOptions.NONE, transformed);
+            splatsB.add(Splats.create(3));
+            splatsB.remove(0);
+            assertEquals(splatsA.size(), splatsB.size());
+        }
+    }
+
+    @Test
+    public void testGltfQuantizedRoundTripDefault() throws IOException
+    {
+        checkRoundTrip(GltfQuantizationOptions.DEFAULT);
+    }
+
+    @Test
+    public void testGltfQuantizedRoundTrip8Bits() throws IOException
+    {
+        checkRoundTrip(GltfQuantizationOptions.create(8, 8, 8, 8));
+    }
+
+    @Test
+    public void testGltfQuantizedRoundTrip16Bits() throws IOException
+    {
+        checkRoundTrip(GltfQuantizationOptions.create(16, 16, 16, 16));
+    }
+
+    @Test
+    public void testGltfQuantizedRoundTripNone() throws IOException
+    {
+        checkRoundTrip(GltfQuantizationOptions.NONE);
+    }
+}
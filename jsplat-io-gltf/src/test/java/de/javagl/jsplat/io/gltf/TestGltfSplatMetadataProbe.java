@@ -0,0 +1,124 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.gltf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatListWriter;
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestGltfSplatMetadataProbe
+{
+    private static List<MutableSplat> createSplats(Random random,
+        int shDegree, int n)
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(shDegree);
+            s.setPositionX(random.nextDouble());
+            s.setPositionY(random.nextDouble());
+            s.setPositionZ(random.nextDouble());
+            s.setRotationW(1.0);
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    private static Path write(List<MutableSplat> splats,
+        SplatListWriter writer) throws IOException
+    {
+        Path path = 
+            Files.createTempFile("TestGltfSplatMetadataProbe", ".glb");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            writer.writeList(splats, outputStream);
+        }
+        return path;
+    }
+
+    @Test
+    public void testGltfSplatMetadataProbe() throws IOException
+    {
+        for (int shDegree = 0; shDegree <= 3; shDegree++)
+        {
+            List<MutableSplat> splats =
+                createSplats(new Random(shDegree), shDegree, 100);
+            Path path = write(splats, new GltfSplatWriter());
+
+            SplatMetadata metadata = new GltfSplatMetadataProbe().probe(path);
+            assertEquals(100, metadata.getSize());
+            assertEquals(shDegree, metadata.getShDegree());
+
+            // The bounds are the bounds of the splats that are read
+            List<MutableSplat> read;
+            try (InputStream inputStream = Files.newInputStream(path))
+            {
+                read = new GltfSplatReader().readList(inputStream);
+            }
+            float expected[] = Splats.computeStatistics(read).getBounds();
+            float actual[] = metadata.getBounds();
+            assertNotNull(actual);
+            assertEquals(6, actual.length);
+            for (int k = 0; k < 6; k++)
+            {
+                assertEquals(expected[k], actual[k], 1e-5);
+            }
+        }
+    }
+
+    @Test
+    public void testGltfSplatMetadataProbeQuantized() throws IOException
+    {
+        List<MutableSplat> splats = createSplats(new Random(0), 1, 100);
+        Path path = write(splats, new GltfQuantizedSplatWriter(
+            GltfQuantizationOptions.DEFAULT));
+
+        // The node has a transform, so the bounds are not available
+        SplatMetadata metadata = new GltfSplatMetadataProbe().probe(path);
+        assertEquals(100, metadata.getSize());
+        assertEquals(1, metadata.getShDegree());
+        assertNull(metadata.getBounds());
+    }
+
+    @Test(expected = IOException.class)
+    public void testGltfSplatMetadataProbeTruncated() throws IOException
+    {
+        // A binary glTF header with a JSON chunk that is not contained
+        Path path = 
+            Files.createTempFile("TestGltfSplatMetadataProbe", ".glb");
+        path.toFile().deleteOnExit();
+        ByteBuffer bb = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+        bb.putInt(0x46546C67);
+        bb.putInt(2);
+        bb.putInt(1028);
+        bb.putInt(1000);
+        bb.putInt(0x4E4F534A);
+        bb.putInt(0x2020207B);
+        Files.write(path, bb.array());
+        new GltfSplatMetadataProbe().probe(path);
+    }
+
+}
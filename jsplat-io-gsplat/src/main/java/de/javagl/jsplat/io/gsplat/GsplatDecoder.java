@@ -0,0 +1,256 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.gsplat;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.Splats;
+
+/**
+ * A decoder for <code>gsplat</code> records.
+ * 
+ * Each record consists of 32 bytes. The records are decoded with absolute
+ * accesses to the given buffers, so that the same buffer may be used by
+ * multiple threads, as long as they decode disjoint ranges of records. 
+ * The conversion of the coordinate system is applied while decoding. 
+ * The bytes of attributes that are not read according to the 
+ * {@link SplatReadOptions} are skipped.
+ */
+class GsplatDecoder
+{
+    /**
+     * The number of bytes for each splat
+     */
+    static final int BYTES_PER_SPLAT = 32;
+
+    /**
+     * The {@link SplatReadOptions}
+     */
+    private final SplatReadOptions options;
+
+    /**
+     * Whether the positions are read
+     */
+    private final boolean readPositions;
+
+    /**
+     * Whether the scales are read
+     */
+    private final boolean readScales;
+
+    /**
+     * Whether the rotations are read
+     */
+    private final boolean readRotations;
+
+    /**
+     * Whether the opacities are read
+     */
+    private final boolean readOpacities;
+
+    /**
+     * Whether the colors are read
+     */
+    private final boolean readColors;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param options The {@link SplatReadOptions}
+     */
+    GsplatDecoder(SplatReadOptions options)
+    {
+        this.options = options;
+        this.readPositions = options.isRead(SplatAttribute.POSITION);
+        this.readScales = options.isRead(SplatAttribute.SCALE);
+        this.readRotations = options.isRead(SplatAttribute.ROTATION);
+        this.readOpacities = options.isRead(SplatAttribute.OPACITY);
+        this.readColors = options.isRead(SplatAttribute.SH);
+    }
+
+    /**
+     * Decode the record at the given byte offset of the given buffer into
+     * a new splat
+     * 
+     * @param bb The buffer, with little-endian byte order
+     * @param o The byte offset of the record
+     * @return The splat
+     */
+    MutableSplat decode(ByteBuffer bb, int o)
+    {
+        MutableSplat splat = options.createSplat(0);
+        decode(bb, o, splat);
+        return splat;
+    }
+
+    /**
+     * Decode the record at the given byte offset of the given buffer into
+     * the given splat
+     * 
+     * @param bb The buffer, with little-endian byte order
+     * @param o The byte offset of the record
+     * @param splat The splat
+     */
+    void decode(ByteBuffer bb, int o, MutableSplat splat)
+    {
+        if (readPositions)
+        {
+            // Convert from right-down-front to right-up-front by 
+            // negating the y- and z-component
+            splat.setPositionX(bb.getFloat(o + 0));
+            splat.setPositionY(-bb.getFloat(o + 4));
+            splat.setPositionZ(-bb.getFloat(o + 8));
+        }
+
+        if (readScales)
+        {
+            splat.setScaleX((float) Math.log(bb.getFloat(o + 12)));
+            splat.setScaleY((float) Math.log(bb.getFloat(o + 16)));
+            splat.setScaleZ((float) Math.log(bb.getFloat(o + 20)));
+        }
+
+        if (readColors)
+        {
+            float fr = Byte.toUnsignedInt(bb.get(o + 24)) / 255.0f;
+            float fg = Byte.toUnsignedInt(bb.get(o + 25)) / 255.0f;
+            float fb = Byte.toUnsignedInt(bb.get(o + 26)) / 255.0f;
+            splat.setShX(0, Splats.colorToDirectCurrent(fr));
+            splat.setShY(0, Splats.colorToDirectCurrent(fg));
+            splat.setShZ(0, Splats.colorToDirectCurrent(fb));
+        }
+
+        if (readOpacities)
+        {
+            float fa = Byte.toUnsignedInt(bb.get(o + 27)) / 255.0f;
+            splat.setOpacity(Splats.alphaToOpacity(fa));
+        }
+
+        if (readRotations)
+        {
+            // The GSPLAT format uses 'scalar first' quaternions
+            float rw = (Byte.toUnsignedInt(bb.get(o + 28)) - 128) / 128.0f;
+            float rx = (Byte.toUnsignedInt(bb.get(o + 29)) - 128) / 128.0f;
+            float ry = (Byte.toUnsignedInt(bb.get(o + 30)) - 128) / 128.0f;
+            float rz = (Byte.toUnsignedInt(bb.get(o + 31)) - 128) / 128.0f;
+            
+            float lenSquared = rx * rx + ry * ry + rz * rz + rw * rw;
+            float len = (float) Math.sqrt(lenSquared);
+            
+            // Convert from right-down-front to right-up-front by 
+            // negating the y- and z-component
+            splat.setRotationX(rx * len);
+            splat.setRotationY(-ry * len);
+            splat.setRotationZ(-rz * len);
+            splat.setRotationW(rw * len);
+        }
+    }
+
+    /**
+     * Decode the given number of records from the given buffer into the 
+     * given target.
+     * 
+     * This performs the same conversions as 
+     * {@link #decode(ByteBuffer, int, MutableSplat)}, but writes the 
+     * values directly into the buffers of the target.
+     * 
+     * @param bb The buffer, with little-endian byte order
+     * @param offset The byte offset of the first record
+     * @param n The number of records
+     * @param target The target
+     * @param targetIndex The index of the first splat in the target
+     */
+    void decode(ByteBuffer bb, int offset, int n, SplatData target,
+        int targetIndex)
+    {
+        FloatBuffer positions = target.getPositions();
+        FloatBuffer scales = target.getScales();
+        FloatBuffer rotations = target.getRotations();
+        FloatBuffer opacities = target.getOpacities();
+        FloatBuffer shs = target.getShs();
+        for (int j = 0; j < n; j++)
+        {
+            int o = offset + j * BYTES_PER_SPLAT;
+            int i = targetIndex + j;
+            
+            if (readPositions)
+            {
+                // Convert from right-down-front to right-up-front by 
+                // negating the y- and z-component
+                positions.put(i * 3 + 0, bb.getFloat(o + 0));
+                positions.put(i * 3 + 1, -bb.getFloat(o + 4));
+                positions.put(i * 3 + 2, -bb.getFloat(o + 8));
+            }
+
+            if (readScales)
+            {
+                scales.put(i * 3 + 0, (float) Math.log(bb.getFloat(o + 12)));
+                scales.put(i * 3 + 1, (float) Math.log(bb.getFloat(o + 16)));
+                scales.put(i * 3 + 2, (float) Math.log(bb.getFloat(o + 20)));
+            }
+
+            if (readColors)
+            {
+                float fr = Byte.toUnsignedInt(bb.get(o + 24)) / 255.0f;
+                float fg = Byte.toUnsignedInt(bb.get(o + 25)) / 255.0f;
+                float fb = Byte.toUnsignedInt(bb.get(o + 26)) / 255.0f;
+                shs.put(i * 3 + 0, (float) Splats.colorToDirectCurrent(fr));
+                shs.put(i * 3 + 1, (float) Splats.colorToDirectCurrent(fg));
+                shs.put(i * 3 + 2, (float) Splats.colorToDirectCurrent(fb));
+            }
+
+            if (readOpacities)
+            {
+                float fa = Byte.toUnsignedInt(bb.get(o + 27)) / 255.0f;
+                opacities.put(i, (float) Splats.alphaToOpacity(fa));
+            }
+
+            if (readRotations)
+            {
+                // The GSPLAT format uses 'scalar first' quaternions
+                float rw = (Byte.toUnsignedInt(bb.get(o + 28)) - 128) / 128.0f;
+                float rx = (Byte.toUnsignedInt(bb.get(o + 29)) - 128) / 128.0f;
+                float ry = (Byte.toUnsignedInt(bb.get(o + 30)) - 128) / 128.0f;
+                float rz = (Byte.toUnsignedInt(bb.get(o + 31)) - 128) / 128.0f;
+    
+                float lenSquared = rx * rx + ry * ry + rz * rz + rw * rw;
+                float len = (float) Math.sqrt(lenSquared);
+    
+                // Convert from right-down-front to right-up-front by 
+                // negating the y- and z-component
+                rotations.put(i * 4 + 0, rx * len);
+                rotations.put(i * 4 + 1, -ry * len);
+                rotations.put(i * 4 + 2, -rz * len);
+                rotations.put(i * 4 + 3, rw * len);
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.gsplat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatReadOptions;
+
+/**
+ * A random-access view on a file that contains <code>gsplat</code> data.
+ * 
+ * Since all records of a <code>gsplat</code> file have the same size, the
+ * record for a certain splat can be located directly. The file is mapped
+ * into memory, and the records are only decoded when they are accessed.
+ * This allows sampling or previewing files that are too large to be 
+ * read completely.
+ * 
+ * Instances of this class may be accessed by multiple threads. After the
+ * file has been closed, the behavior of the accessor methods is 
+ * unspecified.
+ */
+public final class GsplatRandomAccessFile implements Closeable
+{
+    /**
+     * The number of bytes for each splat
+     */
+    private static final int BYTES_PER_SPLAT = GsplatDecoder.BYTES_PER_SPLAT;
+
+    /**
+     * The default maximum number of records that are mapped in one window
+     */
+    private static final int DEFAULT_WINDOW_RECORDS = 
+        (1 << 30) / BYTES_PER_SPLAT;
+
+    /**
+     * Open the given file with default {@link SplatReadOptions}
+     * 
+     * @param path The path to the file
+     * @return The {@link GsplatRandomAccessFile}
+     * @throws IOException If the file cannot be opened, its size is not a
+     * multiple of the record size, or it contains more than 
+     * <code>Integer.MAX_VALUE</code> splats
+     */
+    public static GsplatRandomAccessFile open(Path path) throws IOException
+    {
+        return open(path, SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Open the given file.
+     * 
+     * The given {@link SplatReadOptions} determine which attributes are
+     * decoded. The values of attributes that are not read will be zero.
+     * 
+     * @param path The path to the file
+     * @param options The {@link SplatReadOptions}
+     * @return The {@link GsplatRandomAccessFile}
+     * @throws IOException If the file cannot be opened, its size is not a
+     * multiple of the record size, or it contains more than 
+     * <code>Integer.MAX_VALUE</code> splats
+     */
+    public static GsplatRandomAccessFile open(Path path,
+        SplatReadOptions options) throws IOException
+    {
+        Objects.requireNonNull(options, "The options may not be null");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try
+        {
+            return new GsplatRandomAccessFile(channel, 
+                new GsplatDecoder(options), DEFAULT_WINDOW_RECORDS);
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The file channel
+     */
+    private final FileChannel channel;
+
+    /**
+     * The decoder
+     */
+    private final GsplatDecoder decoder;
+
+    /**
+     * The number of splats
+     */
+    private final int size;
+
+    /**
+     * The maximum number of records that are mapped in one window
+     */
+    private final int windowRecords;
+
+    /**
+     * The windows that contain the mapped records. Each window except 
+     * for the last one contains {@link #windowRecords} records.
+     */
+    private final ByteBuffer windows[];
+
+    /**
+     * Creates a new instance.
+     * 
+     * The given channel will be closed when this instance is closed.
+     * 
+     * @param channel The file channel
+     * @param decoder The decoder
+     * @param windowRecords The maximum number of records that are mapped
+     * in one window
+     * @throws IOException If an IO error occurs, or the size of the file
+     * is not valid
+     */
+    GsplatRandomAccessFile(FileChannel channel, GsplatDecoder decoder,
+        int windowRecords) throws IOException
+    {
+        this.channel = channel;
+        this.decoder = decoder;
+        this.windowRecords = windowRecords;
+        long fileSize = channel.size();
+        if (fileSize % BYTES_PER_SPLAT != 0)
+        {
+            throw new IOException("The size of a gsplat file must be a "
+                + "multiple of " + BYTES_PER_SPLAT + ", but is " + fileSize);
+        }
+        long count = fileSize / BYTES_PER_SPLAT;
+        if (count > Integer.MAX_VALUE)
+        {
+            throw new IOException("The file contains " + count
+                + " splats, which is more than can be accessed");
+        }
+        this.size = (int) count;
+        int numWindows = 
+            (int) (((long) size + windowRecords - 1) / windowRecords);
+        this.windows = new ByteBuffer[numWindows];
+        for (int w = 0; w < numWindows; w++)
+        {
+            int start = w * windowRecords;
+            int c = Math.min(windowRecords, size - start);
+            ByteBuffer bb = channel.map(MapMode.READ_ONLY, 
+                (long) start * BYTES_PER_SPLAT, (long) c * BYTES_PER_SPLAT);
+            bb.order(ByteOrder.LITTLE_ENDIAN);
+            windows[w] = bb;
+        }
+    }
+
+    /**
+     * Returns the number of splats in the file
+     * 
+     * @return The number of splats
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Decode the splat with the given index into a new splat
+     * 
+     * @param index The index
+     * @return The splat
+     * @throws IndexOutOfBoundsException If the index is negative or not
+     * smaller than the {@link #size()}
+     */
+    public MutableSplat get(int index)
+    {
+        checkIndex(index);
+        ByteBuffer bb = windows[index / windowRecords];
+        int o = (index % windowRecords) * BYTES_PER_SPLAT;
+        return decoder.decode(bb, o);
+    }
+
+    /**
+     * Decode the splat with the given index into the given target splat.
+     * 
+     * The target splat must have a spherical harmonics degree of at 
+     * least 0. Only the values of the attributes that are read are 
+     * written into the target.
+     * 
+     * @param index The index
+     * @param target The target splat
+     * @throws IndexOutOfBoundsException If the index is negative or not
+     * smaller than the {@link #size()}
+     */
+    public void get(int index, MutableSplat target)
+    {
+        checkIndex(index);
+        ByteBuffer bb = windows[index / windowRecords];
+        int o = (index % windowRecords) * BYTES_PER_SPLAT;
+        decoder.decode(bb, o, target);
+    }
+
+    /**
+     * Decode the specified range of splats into a new {@link SplatData}
+     * 
+     * @param start The index of the first splat
+     * @param n The number of splats
+     * @return The {@link SplatData}
+     * @throws IndexOutOfBoundsException If the range is not contained
+     * in this file
+     */
+    public SplatData read(int start, int n)
+    {
+        if (start < 0 || n < 0 || start > size - n)
+        {
+            throw new IndexOutOfBoundsException("The range [" + start + ","
+                + ((long) start + n) + ") is not in [0," + size + ")");
+        }
+        SplatData splatData = SplatDatas.create(0, n);
+        int done = 0;
+        while (done < n)
+        {
+            int index = start + done;
+            int w = index / windowRecords;
+            int i = index % windowRecords;
+            int c = Math.min(windowRecords - i, n - done);
+            decoder.decode(windows[w], i * BYTES_PER_SPLAT, c, 
+                splatData, done);
+            done += c;
+        }
+        return splatData;
+    }
+
+    /**
+     * Returns an unmodifiable list view on the splats of this file.
+     * 
+     * Each call to <code>get</code> will decode the respective splat from
+     * the file, and return it as a new splat. Modifications of this splat 
+     * are not written back into the file.
+     * 
+     * @return The list view
+     */
+    public List<MutableSplat> asList()
+    {
+        return new SplatList();
+    }
+
+    /**
+     * Make sure that the given index is valid
+     * 
+     * @param index The index
+     * @throws IndexOutOfBoundsException If the index is invalid
+     */
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(
+                "Index " + index + " is out of bounds for size " + size);
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Implementation of the list view on the splats of the file
+     */
+    private class SplatList extends AbstractList<MutableSplat>
+        implements RandomAccess
+    {
+        @Override
+        public MutableSplat get(int index)
+        {
+            return GsplatRandomAccessFile.this.get(index);
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+    }
+}
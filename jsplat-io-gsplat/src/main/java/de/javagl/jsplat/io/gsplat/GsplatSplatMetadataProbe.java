@@ -0,0 +1,71 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.gsplat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.SplatMetadataProbe;
+import de.javagl.jsplat.Splats;
+
+/**
+ * Implementation of a {@link SplatMetadataProbe} for gsplat (".splat") 
+ * files.
+ * 
+ * These files do not have a header. Each splat is stored in 32 bytes, 
+ * so the size is derived from the file size. The spherical harmonics 
+ * degree is always 0, and the bounds are not available.
+ */
+public final class GsplatSplatMetadataProbe implements SplatMetadataProbe
+{
+    /**
+     * The number of bytes per splat
+     */
+    private static final int BYTES_PER_SPLAT = 32;
+
+    /**
+     * Creates a new instance
+     */
+    public GsplatSplatMetadataProbe()
+    {
+        // Default constructor
+    }
+
+    @Override
+    public SplatMetadata probe(Path path) throws IOException
+    {
+        long fileSize = Files.size(path);
+        if (fileSize % BYTES_PER_SPLAT != 0)
+        {
+            throw new IOException("The size of a gsplat file must be a "
+                + "multiple of " + BYTES_PER_SPLAT + ", but is " + fileSize);
+        }
+        return Splats.createMetadata(fileSize / BYTES_PER_SPLAT, 0, null);
+    }
+}
@@ -26,90 +26,419 @@
  */
 package de.javagl.jsplat.io.gsplat;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatBatchReader;
+import de.javagl.jsplat.SplatBatchSource;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
 import de.javagl.jsplat.SplatListReader;
+import de.javagl.jsplat.SplatReadOptions;
 import de.javagl.jsplat.SplatStreamReader;
-import de.javagl.jsplat.Splats;
 
 /**
- * A {@link SplatStreamReader} and {@link SplatListReader} that reads from
- * <code>gsplat</code> encoded data
+ * A {@link SplatStreamReader}, {@link SplatListReader}, and 
+ * {@link SplatBatchReader} that reads from <code>gsplat</code> encoded data.
+ * 
+ * Data that is read from an input stream is read in blocks of records, 
+ * through a channel. For data that is stored in a file, the methods 
+ * {@link #readStream(Path)} and {@link #readSplatData(Path)} read the
+ * records from memory-mapped regions of the file. Since all records 
+ * have the same size, the streams that are returned for files know 
+ * their size, and can be split efficiently for parallel processing.
+ * 
+ * The attributes that are read can be configured with 
+ * {@link SplatReadOptions}. The bytes of attributes that are not read are
+ * skipped without being converted.
  */
 public final class GsplatSplatReader
-    implements SplatStreamReader, SplatListReader
+    implements SplatStreamReader, SplatListReader, SplatBatchReader
 {
+    /**
+     * The number of bytes for each splat
+     */
+    private static final int BYTES_PER_SPLAT = GsplatDecoder.BYTES_PER_SPLAT;
+    
+    /**
+     * The number of records that are read at once from an input stream
+     */
+    private static final int BLOCK_RECORDS = 1 << 12;
+
+    /**
+     * The maximum number of records that are mapped at once
+     */
+    private static final int WINDOW_RECORDS = (1 << 30) / BYTES_PER_SPLAT;
+
+    /**
+     * The number of records that are decoded by one task in parallel 
+     * decoding
+     */
+    private static final int PARALLEL_RANGE_RECORDS = 1 << 19;
+
+    /**
+     * Whether data from files should be decoded in parallel
+     */
+    private final boolean parallel;
+
+    /**
+     * The decoder
+     */
+    private final GsplatDecoder decoder;
+
     /**
      * Creates a new instance
      */
     public GsplatSplatReader()
     {
-        // Default constructor
+        this(false, SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param options The {@link SplatReadOptions}
+     */
+    public GsplatSplatReader(SplatReadOptions options)
+    {
+        this(false, options);
+    }
+
+    /**
+     * Creates a new instance.
+     * 
+     * If the <code>parallel</code> flag is set, then the records of files
+     * that are read with {@link #readSplatData(Path)} are partitioned into
+     * ranges, and these ranges are decoded in parallel.
+     * 
+     * @param parallel Whether data from files should be decoded in parallel
+     * @param options The {@link SplatReadOptions}
+     */
+    public GsplatSplatReader(boolean parallel, SplatReadOptions options)
+    {
+        Objects.requireNonNull(options, "The options may not be null");
+        this.parallel = parallel;
+        this.decoder = new GsplatDecoder(options);
     }
 
     @Override
     public Stream<MutableSplat> readStream(InputStream inputStream)
     {
-        InputStream bis = new BufferedInputStream(inputStream);
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
-            createIterator(bis), Spliterator.ORDERED), false);
+            createIterator(inputStream), Spliterator.ORDERED), false);
     }
 
     @Override
     public List<MutableSplat> readList(InputStream inputStream) throws IOException
     {
-        return readStream(inputStream).collect(Collectors.toList());
+        try
+        {
+            return readStream(inputStream).collect(Collectors.toList());
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns a stream of the splats in the specified file.
+     * 
+     * The returned stream knows its size, and can be split at arbitrary
+     * record boundaries. When it is processed in parallel, then each part 
+     * reads its records from its own memory-mapped region of the file. 
+     * The returned stream should be closed when it is no longer needed, 
+     * to close the underlying file.
+     * 
+     * @param path The path to the file
+     * @return The stream
+     * @throws IOException If an IO error occurs, or the size of the file 
+     * is not a multiple of the record size
+     */
+    public Stream<MutableSplat> readStream(Path path) throws IOException
+    {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try
+        {
+            long count = computeCount(channel.size());
+            GsplatSplatSpliterator spliterator = 
+                new GsplatSplatSpliterator(channel, decoder, 0, count);
+            Stream<MutableSplat> stream = 
+                StreamSupport.stream(spliterator, false);
+            return stream.onClose(() -> 
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
     }
 
     /**
-     * Create an iterator over the splat instances
+     * Read the splats from the specified file into a {@link SplatData}.
+     * 
+     * The records are read directly from memory-mapped regions of the 
+     * file, and decoded into the buffers of the {@link SplatData}. This
+     * may be done in parallel, depending on the flag that was given in 
+     * the constructor.
+     * 
+     * @param path The path to the file
+     * @return The {@link SplatData}
+     * @throws IOException If an IO error occurs, the size of the file is
+     * not a multiple of the record size, or the file contains more splats
+     * than can be stored in a {@link SplatData}
+     */
+    public SplatData readSplatData(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, 
+            StandardOpenOption.READ))
+        {
+            long count = computeCount(channel.size());
+            if (count > Integer.MAX_VALUE)
+            {
+                throw new IOException("The file contains " + count
+                    + " splats, which cannot be stored in a SplatData");
+            }
+            int n = (int) count;
+            SplatData splatData = SplatDatas.create(0, n);
+            if (!parallel)
+            {
+                decode(channel, 0, n, splatData);
+                return splatData;
+            }
+            int numRanges = 
+                (n + PARALLEL_RANGE_RECORDS - 1) / PARALLEL_RANGE_RECORDS;
+            try
+            {
+                IntStream.range(0, numRanges).parallel().forEach(r ->
+                {
+                    int start = r * PARALLEL_RANGE_RECORDS;
+                    int c = Math.min(PARALLEL_RANGE_RECORDS, n - start);
+                    try
+                    {
+                        decode(channel, start, c, splatData);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            catch (UncheckedIOException e)
+            {
+                throw e.getCause();
+            }
+            return splatData;
+        }
+    }
+
+    /**
+     * Decode the specified range of records from the given channel into
+     * the given target, at the same index.
+     * 
+     * The range is mapped into memory in windows of at most 1 GB.
+     * 
+     * @param channel The channel
+     * @param start The index of the first record
+     * @param n The number of records
+     * @param target The target {@link SplatData}
+     * @throws IOException If an IO error occurs
+     */
+    private void decode(FileChannel channel, int start, int n, 
+        SplatData target) throws IOException
+    {
+        int done = 0;
+        while (done < n)
+        {
+            int c = Math.min(WINDOW_RECORDS, n - done);
+            long position = (long) (start + done) * BYTES_PER_SPLAT;
+            ByteBuffer bb = channel.map(MapMode.READ_ONLY, position,
+                (long) c * BYTES_PER_SPLAT);
+            bb.order(ByteOrder.LITTLE_ENDIAN);
+            decoder.decode(bb, 0, c, target, start + done);
+            done += c;
+        }
+    }
+
+    /**
+     * Compute the number of records for the given file size
+     * 
+     * @param fileSize The file size
+     * @return The number of records
+     * @throws IOException If the file size is not a multiple of the
+     * record size
+     */
+    private static long computeCount(long fileSize) throws IOException
+    {
+        if (fileSize % BYTES_PER_SPLAT != 0)
+        {
+            throw new IOException("The size of a gsplat file must be a "
+                + "multiple of " + BYTES_PER_SPLAT + ", but is " + fileSize);
+        }
+        return fileSize / BYTES_PER_SPLAT;
+    }
+
+    @Override
+    public SplatBatchSource readBatches(InputStream inputStream,
+        int batchSize)
+    {
+        if (batchSize <= 0 || batchSize > Integer.MAX_VALUE / BYTES_PER_SPLAT)
+        {
+            throw new IllegalArgumentException(
+                "Invalid batch size: " + batchSize);
+        }
+        return new SplatBatchSource()
+        {
+            /**
+             * Whether this source was already consumed
+             */
+            private boolean consumed = false;
+
+            @Override
+            public int getShDegree()
+            {
+                return 0;
+            }
+
+            @Override
+            public long getSize()
+            {
+                return -1;
+            }
+
+            @Override
+            public void forEachBatch(Consumer<? super SplatData> consumer)
+                throws IOException
+            {
+                if (consumed)
+                {
+                    throw new IllegalStateException(
+                        "The source was already consumed");
+                }
+                consumed = true;
+                
+                SplatData batch = SplatDatas.create(0, batchSize);
+                ReadableByteChannel channel = 
+                    Channels.newChannel(inputStream);
+                ByteBuffer bb = ByteBuffer
+                    .allocateDirect(batchSize * BYTES_PER_SPLAT)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                while (true)
+                {
+                    ((Buffer) bb).clear();
+                    int read = read(channel, bb);
+                    int n = read / BYTES_PER_SPLAT;
+                    if (n == 0)
+                    {
+                        break;
+                    }
+                    decoder.decode(bb, 0, n, batch, 0);
+                    if (n == batchSize)
+                    {
+                        consumer.accept(batch);
+                    }
+                    else
+                    {
+                        consumer.accept(SplatDatas.slice(batch, 0, n));
+                    }
+                    if (read < bb.capacity())
+                    {
+                        break;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Create an iterator over the splat instances.
+     * 
+     * The records are read from the given stream in blocks, through a
+     * channel, and decoded when they are requested.
      * 
      * @param inputStream The stream to read from
      * @return The iterator
      */
     private Iterator<MutableSplat> createIterator(InputStream inputStream)
     {
-        byte data[] = new byte[32];
-        ByteBuffer bb = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        ReadableByteChannel channel = Channels.newChannel(inputStream);
+        ByteBuffer bb = ByteBuffer
+            .allocateDirect(BLOCK_RECORDS * BYTES_PER_SPLAT)
+            .order(ByteOrder.LITTLE_ENDIAN);
 
         return new Iterator<MutableSplat>()
         {
             /**
-             * The next splat to be returned
+             * The number of records in the current block
              */
-            private MutableSplat next = prepareNext();
+            private int count = 0;
 
             /**
-             * Prepare the next splat to be returned
+             * The index of the next record in the current block
+             */
+            private int index = 0;
+
+            /**
+             * Whether the end of the input was reached
+             */
+            private boolean endReached = false;
+
+            /**
+             * Make sure that the current block contains at least one more
+             * record, if possible
              * 
-             * @return The next splat, or <code>null</code> if there are none
+             * @return Whether there is another record
              */
-            private MutableSplat prepareNext()
+            private boolean prepareNext()
             {
+                if (index < count)
+                {
+                    return true;
+                }
+                if (endReached)
+                {
+                    return false;
+                }
                 try
                 {
-                    int read = read(inputStream, data);
-                    if (read < data.length)
-                    {
-                        return null;
-                    }
-                    MutableSplat splat = Splats.create(0);
-                    readFromBuffer(bb, splat);
-                    return splat;
+                    ((Buffer) bb).clear();
+                    int read = read(channel, bb);
+                    endReached = read < bb.capacity();
+                    count = read / BYTES_PER_SPLAT;
+                    index = 0;
+                    return count > 0;
                 }
                 catch (IOException e)
                 {
@@ -120,86 +449,41 @@ public final class GsplatSplatReader
             @Override
             public MutableSplat next()
             {
-                if (next == null)
+                if (!prepareNext())
                 {
                     throw new NoSuchElementException("No more elements");
                 }
-                MutableSplat result = next;
-                next = prepareNext();
-                return result;
+                MutableSplat splat = 
+                    decoder.decode(bb, index * BYTES_PER_SPLAT);
+                index++;
+                return splat;
             }
 
             @Override
             public boolean hasNext()
             {
-                return next != null;
+                return prepareNext();
             }
         };
     }
 
     /**
-     * Read the data from the given <code>gsplat</code> buffer and write it into
-     * the given target
-     * 
-     * @param bb The source
-     * @param splat The target
-     */
-    private static void readFromBuffer(ByteBuffer bb, MutableSplat splat)
-    {
-        // Convert from right-down-front to right-up-front by 
-        // negating the y- and z-component
-        splat.setPositionX(bb.getFloat(0));
-        splat.setPositionY(-bb.getFloat(4));
-        splat.setPositionZ(-bb.getFloat(8));
-
-        splat.setScaleX((float) Math.log(bb.getFloat(12)));
-        splat.setScaleY((float) Math.log(bb.getFloat(16)));
-        splat.setScaleZ((float) Math.log(bb.getFloat(20)));
-
-        float fr = Byte.toUnsignedInt(bb.get(24)) / 255.0f;
-        float fg = Byte.toUnsignedInt(bb.get(25)) / 255.0f;
-        float fb = Byte.toUnsignedInt(bb.get(26)) / 255.0f;
-        float fa = Byte.toUnsignedInt(bb.get(27)) / 255.0f;
-
-        splat.setShX(0, Splats.colorToDirectCurrent(fr));
-        splat.setShY(0, Splats.colorToDirectCurrent(fg));
-        splat.setShZ(0, Splats.colorToDirectCurrent(fb));
-
-        splat.setOpacity(Splats.alphaToOpacity(fa));
-
-        // The GSPLAT format uses 'scalar first' quaternions
-        float rw = (Byte.toUnsignedInt(bb.get(28)) - 128.0f) / 128.0f;
-        float rx = (Byte.toUnsignedInt(bb.get(29)) - 128.0f) / 128.0f;
-        float ry = (Byte.toUnsignedInt(bb.get(30)) - 128.0f) / 128.0f;
-        float rz = (Byte.toUnsignedInt(bb.get(31)) - 128.0f) / 128.0f;
-        
-        float lenSquared = rx * rx + ry * ry + rz * rz + rw * rw;
-        float len = (float) Math.sqrt(lenSquared);
-        
-        // Convert from right-down-front to right-up-front by 
-        // negating the y- and z-component
-        splat.setRotationX(rx * len);
-        splat.setRotationY(-ry * len);
-        splat.setRotationZ(-rz * len);
-        splat.setRotationW(rw * len);
-    }
-
-    /**
-     * Read bytes into the given byte array
+     * Read bytes from the given channel into the given buffer, until the 
+     * buffer is full or the end of the channel is reached
      * 
-     * @param inputStream The input stream
-     * @param target The target array
+     * @param channel The channel
+     * @param bb The target buffer
      * @return The number of bytes read (before the end of the stream was
      *         encountered)
      * @throws IOException If an IO error occurs
      */
-    private static int read(InputStream inputStream, byte target[])
+    private static int read(ReadableByteChannel channel, ByteBuffer bb)
         throws IOException
     {
         int bytesRead = 0;
-        while (bytesRead < target.length)
+        while (bb.hasRemaining())
         {
-            int read = inputStream.read(target, bytesRead, target.length);
+            int read = channel.read(bb);
             if (read == -1)
             {
                 break;
@@ -209,4 +493,4 @@ public final class GsplatSplatReader
         return bytesRead;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.gsplat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import de.javagl.jsplat.MutableSplat;
+
+/**
+ * Implementation of a spliterator that provides the splats from a range
+ * of <code>gsplat</code> records in a file.
+ * 
+ * Since the records have a fixed size, the number of elements is known,
+ * and the range can be split at arbitrary record boundaries. The records
+ * of the range are read from memory-mapped windows of the file. The 
+ * windows are only mapped when the elements are traversed, so that 
+ * splitting the spliterator is cheap.
+ */
+class GsplatSplatSpliterator implements Spliterator<MutableSplat>
+{
+    /**
+     * The maximum number of records that are mapped at once
+     */
+    private static final int WINDOW_RECORDS = 
+        (1 << 30) / GsplatDecoder.BYTES_PER_SPLAT;
+
+    /**
+     * The minimum number of records for which the range will be split
+     */
+    private static final long MIN_SPLIT_RECORDS = 1 << 12;
+
+    /**
+     * The file channel
+     */
+    private final FileChannel channel;
+
+    /**
+     * The decoder
+     */
+    private final GsplatDecoder decoder;
+
+    /**
+     * The index of the next record
+     */
+    private long origin;
+
+    /**
+     * The index after the last record
+     */
+    private final long fence;
+
+    /**
+     * The current window, or <code>null</code> if no window is mapped
+     */
+    private ByteBuffer window;
+
+    /**
+     * The index of the first record of the current window
+     */
+    private long windowStart;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param channel The file channel
+     * @param decoder The decoder
+     * @param origin The index of the first record
+     * @param fence The index after the last record
+     */
+    GsplatSplatSpliterator(FileChannel channel, GsplatDecoder decoder,
+        long origin, long fence)
+    {
+        this.channel = channel;
+        this.decoder = decoder;
+        this.origin = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super MutableSplat> action)
+    {
+        if (origin >= fence)
+        {
+            return false;
+        }
+        ByteBuffer bb = prepareWindow();
+        int o = (int) (origin - windowStart) * GsplatDecoder.BYTES_PER_SPLAT;
+        origin++;
+        action.accept(decoder.decode(bb, o));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super MutableSplat> action)
+    {
+        while (origin < fence)
+        {
+            ByteBuffer bb = prepareWindow();
+            long windowEnd = windowStart + 
+                bb.capacity() / GsplatDecoder.BYTES_PER_SPLAT;
+            long end = Math.min(fence, windowEnd);
+            while (origin < end)
+            {
+                int o = (int) (origin - windowStart) 
+                    * GsplatDecoder.BYTES_PER_SPLAT;
+                origin++;
+                action.accept(decoder.decode(bb, o));
+            }
+        }
+    }
+
+    /**
+     * Make sure that the current window contains the record at the 
+     * current origin, mapping a new window if necessary, and return it.
+     * 
+     * @return The window
+     * @throws UncheckedIOException If an IO error occurs
+     */
+    private ByteBuffer prepareWindow()
+    {
+        if (window != null)
+        {
+            long windowEnd = windowStart 
+                + window.capacity() / GsplatDecoder.BYTES_PER_SPLAT;
+            if (origin >= windowStart && origin < windowEnd)
+            {
+                return window;
+            }
+        }
+        long count = Math.min(WINDOW_RECORDS, fence - origin);
+        try
+        {
+            window = channel.map(MapMode.READ_ONLY, 
+                origin * GsplatDecoder.BYTES_PER_SPLAT,
+                count * GsplatDecoder.BYTES_PER_SPLAT);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = origin;
+        return window;
+    }
+
+    @Override
+    public Spliterator<MutableSplat> trySplit()
+    {
+        long remaining = fence - origin;
+        if (remaining < MIN_SPLIT_RECORDS * 2)
+        {
+            return null;
+        }
+        long mid = origin + remaining / 2;
+        GsplatSplatSpliterator prefix = 
+            new GsplatSplatSpliterator(channel, decoder, origin, mid);
+        origin = mid;
+        window = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        return fence - origin;
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
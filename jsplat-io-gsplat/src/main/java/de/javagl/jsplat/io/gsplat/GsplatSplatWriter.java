@@ -29,23 +29,52 @@ package de.javagl.jsplat.io.gsplat;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatBatchSource;
+import de.javagl.jsplat.SplatBatchWriter;
+import de.javagl.jsplat.SplatData;
 import de.javagl.jsplat.SplatListWriter;
 import de.javagl.jsplat.SplatStreamWriter;
 import de.javagl.jsplat.Splats;
 
 /**
- * A {@link SplatStreamWriter} and {@link SplatListWriter} that writes
- * <code>gsplat</code> encoded data
+ * A {@link SplatStreamWriter}, {@link SplatListWriter}, and 
+ * {@link SplatBatchWriter} that writes <code>gsplat</code> encoded data.
+ * 
+ * The records are encoded into blocks, which are written to the output
+ * with a single call. For lists that support random access, and for 
+ * {@link SplatData}, the records of one block are encoded in parallel.
  */
 public final class GsplatSplatWriter
-    implements SplatStreamWriter, SplatListWriter
+    implements SplatStreamWriter, SplatListWriter, SplatBatchWriter
 {
+    /**
+     * The number of bytes for each splat
+     */
+    private static final int BYTES_PER_SPLAT = GsplatDecoder.BYTES_PER_SPLAT;
+    
+    /**
+     * The number of records in one block
+     */
+    private static final int BLOCK_RECORDS = 1 << 16;
+
+    /**
+     * The number of records that are encoded by one task in parallel
+     * encoding
+     */
+    private static final int PARALLEL_RANGE_RECORDS = 1 << 12;
+
     /**
      * Creates a new instance
      */
@@ -58,23 +87,77 @@ public final class GsplatSplatWriter
     public void writeList(List<? extends Splat> splats,
         OutputStream outputStream) throws IOException
     {
-        writeStream(splats.stream(), outputStream);
+        if (!(splats instanceof RandomAccess))
+        {
+            writeStream(splats.stream(), outputStream);
+            return;
+        }
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        ByteBuffer bb = createBlockBuffer(splats.size());
+        int size = splats.size();
+        for (int start = 0; start < size; start += BLOCK_RECORDS)
+        {
+            int blockStart = start;
+            int n = Math.min(BLOCK_RECORDS, size - start);
+            forEachRange(n, (s, c) -> 
+            {
+                for (int i = s; i < s + c; i++)
+                {
+                    encode(splats.get(blockStart + i), bb, 
+                        i * BYTES_PER_SPLAT);
+                }
+            });
+            write(channel, bb, n);
+        }
     }
 
     @Override
     public void writeStream(Stream<? extends Splat> splats,
         OutputStream outputStream) throws IOException
     {
-        byte array[] = new byte[32];
-        ByteBuffer bb = ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN);
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        ByteBuffer bb = createBlockBuffer(BLOCK_RECORDS);
+        int count[] = { 0 };
+        try
+        {
+            splats.sequential().forEachOrdered(splat ->
+            {
+                encode(splat, bb, count[0] * BYTES_PER_SPLAT);
+                count[0]++;
+                if (count[0] == BLOCK_RECORDS)
+                {
+                    try
+                    {
+                        write(channel, bb, count[0]);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0] = 0;
+                }
+            });
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        write(channel, bb, count[0]);
+    }
+
+    @Override
+    public void writeBatches(SplatBatchSource source,
+        OutputStream outputStream) throws IOException
+    {
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        ByteBuffer bb = createBlockBuffer(BLOCK_RECORDS);
         try
         {
-            splats.forEach(splat ->
+            source.forEachBatch(batch ->
             {
-                writeToBuffer(splat, bb);
                 try
                 {
-                    outputStream.write(array);
+                    writeSplatData(batch, channel, bb);
                 }
                 catch (IOException e)
                 {
@@ -88,24 +171,138 @@ public final class GsplatSplatWriter
         }
     }
 
+    /**
+     * Write the given {@link SplatData} to the given channel.
+     * 
+     * The values are read directly from the buffers of the given data, 
+     * and encoded in blocks. Only the first spherical harmonics dimension
+     * is written.
+     * 
+     * @param splatData The {@link SplatData}
+     * @param channel The channel
+     * @throws IOException If an IO error occurs
+     */
+    public void writeSplatData(SplatData splatData, 
+        WritableByteChannel channel) throws IOException
+    {
+        ByteBuffer bb = createBlockBuffer(splatData.getSize());
+        writeSplatData(splatData, channel, bb);
+    }
+
+    /**
+     * Write the given {@link SplatData} to the given channel, using the
+     * given buffer for the blocks
+     * 
+     * @param splatData The {@link SplatData}
+     * @param channel The channel
+     * @param bb The block buffer
+     * @throws IOException If an IO error occurs
+     */
+    private static void writeSplatData(SplatData splatData,
+        WritableByteChannel channel, ByteBuffer bb) throws IOException
+    {
+        int size = splatData.getSize();
+        int blockRecords = bb.capacity() / BYTES_PER_SPLAT;
+        for (int start = 0; start < size; start += blockRecords)
+        {
+            int blockStart = start;
+            int n = Math.min(blockRecords, size - start);
+            forEachRange(n, (s, c) -> encode(splatData, blockStart + s, c,
+                bb, s * BYTES_PER_SPLAT));
+            write(channel, bb, n);
+        }
+    }
+
+    /**
+     * Interface for the encoding of a range of records of a block
+     */
+    private interface RangeEncoder
+    {
+        /**
+         * Encode the specified range
+         * 
+         * @param start The index of the first record, relative to the block
+         * @param n The number of records
+         */
+        void encode(int start, int n);
+    }
+
+    /**
+     * Pass ranges of the given number of records to the given encoder. If 
+     * the number is large enough, then this is done in parallel.
+     * 
+     * @param n The number of records
+     * @param rangeEncoder The encoder
+     */
+    private static void forEachRange(int n, RangeEncoder rangeEncoder)
+    {
+        if (n < PARALLEL_RANGE_RECORDS * 2)
+        {
+            rangeEncoder.encode(0, n);
+            return;
+        }
+        int numRanges = 
+            (n + PARALLEL_RANGE_RECORDS - 1) / PARALLEL_RANGE_RECORDS;
+        IntStream.range(0, numRanges).parallel().forEach(r ->
+        {
+            int start = r * PARALLEL_RANGE_RECORDS;
+            int c = Math.min(PARALLEL_RANGE_RECORDS, n - start);
+            rangeEncoder.encode(start, c);
+        });
+    }
+
+    /**
+     * Create the buffer for a block of records
+     * 
+     * @param size The number of records that are going to be written
+     * @return The buffer
+     */
+    private static ByteBuffer createBlockBuffer(int size)
+    {
+        int records = Math.max(1, Math.min(BLOCK_RECORDS, size));
+        return ByteBuffer.allocateDirect(records * BYTES_PER_SPLAT)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Write the given number of records from the given buffer to the 
+     * given channel
+     * 
+     * @param channel The channel
+     * @param bb The buffer
+     * @param n The number of records
+     * @throws IOException If an IO error occurs
+     */
+    private static void write(WritableByteChannel channel, ByteBuffer bb,
+        int n) throws IOException
+    {
+        ((Buffer) bb).clear();
+        ((Buffer) bb).limit(n * BYTES_PER_SPLAT);
+        while (bb.hasRemaining())
+        {
+            channel.write(bb);
+        }
+    }
+
     /**
      * Write the given splat into the given buffer in <code>gsplat</code>
      * format.
      * 
      * @param splat The splat
      * @param buffer The buffer
+     * @param o The byte offset of the record in the buffer
      */
-    static void writeToBuffer(Splat splat, ByteBuffer buffer)
+    static void encode(Splat splat, ByteBuffer buffer, int o)
     {
         // Convert from right-up-front to right-down-front by 
         // negating the y- and z-component
-        buffer.putFloat(0, (float)splat.getPositionX());
-        buffer.putFloat(4, (float)-splat.getPositionY());
-        buffer.putFloat(8, (float)-splat.getPositionZ());
+        buffer.putFloat(o + 0, (float)splat.getPositionX());
+        buffer.putFloat(o + 4, (float)-splat.getPositionY());
+        buffer.putFloat(o + 8, (float)-splat.getPositionZ());
         
-        buffer.putFloat(12, (float) Math.exp(splat.getScaleX()));
-        buffer.putFloat(16, (float) Math.exp(splat.getScaleY()));
-        buffer.putFloat(20, (float) Math.exp(splat.getScaleZ()));
+        buffer.putFloat(o + 12, (float) Math.exp(splat.getScaleX()));
+        buffer.putFloat(o + 16, (float) Math.exp(splat.getScaleY()));
+        buffer.putFloat(o + 20, (float) Math.exp(splat.getScaleZ()));
 
         double sr = splat.getShX(0);
         double sg = splat.getShY(0);
@@ -122,10 +319,10 @@ public final class GsplatSplatWriter
         byte b = (byte) (fb * 255.0);
         byte a = (byte) (fa * 255.0);
 
-        buffer.put(24, r);
-        buffer.put(25, g);
-        buffer.put(26, b);
-        buffer.put(27, a);
+        buffer.put(o + 24, r);
+        buffer.put(o + 25, g);
+        buffer.put(o + 26, b);
+        buffer.put(o + 27, a);
 
         // Convert from right-up-front to right-down-front by 
         // negating the y- and z-component
@@ -143,11 +340,83 @@ public final class GsplatSplatWriter
         byte rw = (byte) ((srw * invLen) * 128.0 + 128.0);
         
         // The GSPLAT format uses 'scalar first' quaternions
-        buffer.put(28, rw);
-        buffer.put(29, rx);
-        buffer.put(30, ry);
-        buffer.put(31, rz);
+        buffer.put(o + 28, rw);
+        buffer.put(o + 29, rx);
+        buffer.put(o + 30, ry);
+        buffer.put(o + 31, rz);
 
     }
 
+    /**
+     * Write the specified splats of the given {@link SplatData} into the
+     * given buffer in <code>gsplat</code> format.
+     * 
+     * This performs the same conversions as 
+     * {@link #encode(Splat, ByteBuffer, int)}, but reads the values 
+     * directly from the buffers of the given data. Only the first 
+     * spherical harmonics dimension is written.
+     * 
+     * @param splatData The {@link SplatData}
+     * @param start The index of the first splat
+     * @param n The number of splats
+     * @param buffer The buffer
+     * @param offset The byte offset of the first record in the buffer
+     */
+    private static void encode(SplatData splatData, int start, int n,
+        ByteBuffer buffer, int offset)
+    {
+        int shStride = splatData.getShDimensions() * 3;
+        FloatBuffer positions = splatData.getPositions();
+        FloatBuffer scales = splatData.getScales();
+        FloatBuffer rotations = splatData.getRotations();
+        FloatBuffer opacities = splatData.getOpacities();
+        FloatBuffer shs = splatData.getShs();
+        for (int j = 0; j < n; j++)
+        {
+            int i = start + j;
+            int o = offset + j * BYTES_PER_SPLAT;
+            
+            // Convert from right-up-front to right-down-front by 
+            // negating the y- and z-component
+            buffer.putFloat(o + 0, positions.get(i * 3 + 0));
+            buffer.putFloat(o + 4, -positions.get(i * 3 + 1));
+            buffer.putFloat(o + 8, -positions.get(i * 3 + 2));
+
+            buffer.putFloat(o + 12, (float) Math.exp(scales.get(i * 3 + 0)));
+            buffer.putFloat(o + 16, (float) Math.exp(scales.get(i * 3 + 1)));
+            buffer.putFloat(o + 20, (float) Math.exp(scales.get(i * 3 + 2)));
+
+            double sr = shs.get(i * shStride + 0);
+            double sg = shs.get(i * shStride + 1);
+            double sb = shs.get(i * shStride + 2);
+            double sa = opacities.get(i);
+
+            double fr = Splats.directCurrentToColor(sr);
+            double fg = Splats.directCurrentToColor(sg);
+            double fb = Splats.directCurrentToColor(sb);
+            double fa = Splats.opacityToAlpha(sa);
+
+            buffer.put(o + 24, (byte) (fr * 255.0));
+            buffer.put(o + 25, (byte) (fg * 255.0));
+            buffer.put(o + 26, (byte) (fb * 255.0));
+            buffer.put(o + 27, (byte) (fa * 255.0));
+
+            // Convert from right-up-front to right-down-front by 
+            // negating the y- and z-component
+            double srx = rotations.get(i * 4 + 0);
+            double sry = -rotations.get(i * 4 + 1);
+            double srz = -rotations.get(i * 4 + 2);
+            double srw = rotations.get(i * 4 + 3);
+
+            double lenSquared = srx * srx + sry * sry + srz * srz + srw * srw;
+            double invLen = 1.0 / Math.sqrt(lenSquared);
+
+            // The GSPLAT format uses 'scalar first' quaternions
+            buffer.put(o + 28, (byte) ((srw * invLen) * 128.0 + 128.0));
+            buffer.put(o + 29, (byte) ((srx * invLen) * 128.0 + 128.0));
+            buffer.put(o + 30, (byte) ((sry * invLen) * 128.0 + 128.0));
+            buffer.put(o + 31, (byte) ((srz * invLen) * 128.0 + 128.0));
+        }
+    }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.gsplat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestGsplatRandomAccessFile
+{
+    // The number of records in one window, so that the 50 records of 
+    // the file are distributed over several windows
+    private static final int WINDOW_RECORDS = 7;
+
+    private static GsplatRandomAccessFile open(Path path) throws IOException
+    {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new GsplatRandomAccessFile(channel, 
+            new GsplatDecoder(SplatReadOptions.DEFAULT), WINDOW_RECORDS);
+    }
+
+    @Test
+    public void testGsplatRandomAccessFileGet() throws IOException
+    {
+        Path path = TestGsplatSplatReader.write(50);
+        List<MutableSplat> expected = TestGsplatSplatReader.readBaseline(path);
+        try (GsplatRandomAccessFile file = open(path))
+        {
+            assertEquals(50, file.size());
+            for (int i = 0; i < 50; i++)
+            {
+                assertTrue(Splats.equalsEpsilon(
+                    expected.get(i), file.get(i), 1e-6));
+            }
+            assertTrue(Splats.equalsEpsilon(expected, file.asList(), 1e-6));
+        }
+    }
+
+    @Test
+    public void testGsplatRandomAccessFileRead() throws IOException
+    {
+        Path path = TestGsplatSplatReader.write(50);
+        List<MutableSplat> expected = TestGsplatSplatReader.readBaseline(path);
+        try (GsplatRandomAccessFile file = open(path))
+        {
+            // A range that starts in the first window, covers two full
+            // windows, and ends in the fourth window
+            SplatData splatData = file.read(5, 20);
+            assertEquals(20, splatData.getSize());
+            assertTrue(Splats.equalsEpsilon(expected.subList(5, 25),
+                SplatDatas.asList(splatData), 1e-6));
+
+            // A range that ends at the end of the last (partial) window
+            splatData = file.read(45, 5);
+            assertTrue(Splats.equalsEpsilon(expected.subList(45, 50),
+                SplatDatas.asList(splatData), 1e-6));
+
+            // The full file
+            splatData = file.read(0, 50);
+            assertTrue(Splats.equalsEpsilon(expected,
+                SplatDatas.asList(splatData), 1e-6));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGsplatRandomAccessFileReadOutOfBounds() throws IOException
+    {
+        Path path = TestGsplatSplatReader.write(50);
+        try (GsplatRandomAccessFile file = open(path))
+        {
+            file.read(45, 6);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.gsplat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestGsplatSplatMetadataProbe
+{
+    private static Path write(int n) throws IOException
+    {
+        Random random = new Random(0);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(0);
+            s.setPositionX(random.nextDouble());
+            s.setPositionY(random.nextDouble());
+            s.setPositionZ(random.nextDouble());
+            s.setRotationW(1.0);
+            splats.add(s);
+        }
+        Path path = 
+            Files.createTempFile("TestGsplatSplatMetadataProbe", ".splat");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            new GsplatSplatWriter().writeList(splats, outputStream);
+        }
+        return path;
+    }
+
+    @Test
+    public void testGsplatSplatMetadataProbe() throws IOException
+    {
+        Path path = write(123);
+        SplatMetadata metadata = new GsplatSplatMetadataProbe().probe(path);
+        assertEquals(123, metadata.getSize());
+        assertEquals(0, metadata.getShDegree());
+        assertNull(metadata.getBounds());
+    }
+
+    @Test(expected = IOException.class)
+    public void testGsplatSplatMetadataProbeTruncated() throws IOException
+    {
+        Path path = write(10);
+
+        // The size is not a multiple of the record size
+        byte data[] = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, data.length - 5));
+        new GsplatSplatMetadataProbe().probe(path);
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.gsplat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestGsplatSplatReader
+{
+    // More records than the size of one range that is decoded by one
+    // task, and more than twice the minimum size for splitting a stream
+    private static final int NUM_SPLATS = 10000;
+
+    static Path write(int n) throws IOException
+    {
+        Random random = new Random(0);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(0);
+            s.setPositionX(-10.0 + random.nextDouble() * 20.0);
+            s.setPositionY(-5.0 + random.nextDouble() * 10.0);
+            s.setPositionZ(2.0 + random.nextDouble() * 4.0);
+            s.setScaleX(-5.0 + random.nextDouble());
+            s.setScaleY(-5.0 + random.nextDouble());
+            s.setScaleZ(-5.0 + random.nextDouble());
+            s.setRotationX(random.nextDouble() - 0.5);
+            s.setRotationY(random.nextDouble() - 0.5);
+            s.setRotationZ(random.nextDouble() - 0.5);
+            s.setRotationW(0.5 + random.nextDouble());
+            s.setOpacity(-4.0 + random.nextDouble() * 8.0);
+            s.setShX(0, random.nextDouble() - 0.5);
+            s.setShY(0, random.nextDouble() - 0.5);
+            s.setShZ(0, random.nextDouble() - 0.5);
+            splats.add(s);
+        }
+        Path path = Files.createTempFile("TestGsplatSplatReader", ".splat");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            new GsplatSplatWriter().writeList(splats, outputStream);
+        }
+        return path;
+    }
+
+    // The splats, decoded record by record, in the same way as the
+    // reader did before the records were decoded in bulk
+    static List<MutableSplat> readBaseline(Path path) throws IOException
+    {
+        ByteBuffer bb = ByteBuffer.wrap(Files.readAllBytes(path))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int o = 0; o < bb.capacity(); o += 32)
+        {
+            MutableSplat s = Splats.createFloat(0);
+            s.setPositionX(bb.getFloat(o + 0));
+            s.setPositionY(-bb.getFloat(o + 4));
+            s.setPositionZ(-bb.getFloat(o + 8));
+            s.setScaleX((float) Math.log(bb.getFloat(o + 12)));
+            s.setScaleY((float) Math.log(bb.getFloat(o + 16)));
+            s.setScaleZ((float) Math.log(bb.getFloat(o + 20)));
+            float fr = Byte.toUnsignedInt(bb.get(o + 24)) / 255.0f;
+            float fg = Byte.toUnsignedInt(bb.get(o + 25)) / 255.0f;
+            float fb = Byte.toUnsignedInt(bb.get(o + 26)) / 255.0f;
+            s.setShX(0, Splats.colorToDirectCurrent(fr));
+            s.setShY(0, Splats.colorToDirectCurrent(fg));
+            s.setShZ(0, Splats.colorToDirectCurrent(fb));
+            float fa = Byte.toUnsignedInt(bb.get(o + 27)) / 255.0f;
+            s.setOpacity(Splats.alphaToOpacity(fa));
+            float rw = (Byte.toUnsignedInt(bb.get(o + 28)) - 128.0f) / 128.0f;
+            float rx = (Byte.toUnsignedInt(bb.get(o + 29)) - 128.0f) / 128.0f;
+            float ry = (Byte.toUnsignedInt(bb.get(o + 30)) - 128.0f) / 128.0f;
+            float rz = (Byte.toUnsignedInt(bb.get(o + 31)) - 128.0f) / 128.0f;
+            s.setRotationX(rx);
+            s.setRotationY(-ry);
+            s.setRotationZ(-rz);
+            s.setRotationW(rw);
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    @Test
+    public void testGsplatReadList() throws IOException
+    {
+        Path path = write(NUM_SPLATS);
+        List<MutableSplat> expected = readBaseline(path);
+        List<MutableSplat> actual;
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            actual = new GsplatSplatReader().readList(inputStream);
+        }
+        assertEquals(NUM_SPLATS, actual.size());
+        assertTrue(Splats.equalsEpsilon(expected, actual, 1e-6));
+    }
+
+    @Test
+    public void testGsplatReadSplatData() throws IOException
+    {
+        Path path = write(NUM_SPLATS);
+        List<MutableSplat> expected = readBaseline(path);
+
+        SplatData sequential = new GsplatSplatReader(
+            false, SplatReadOptions.DEFAULT).readSplatData(path);
+        assertTrue(Splats.equalsEpsilon(
+            expected, SplatDatas.asList(sequential), 1e-6));
+
+        SplatData parallel = new GsplatSplatReader(
+            true, SplatReadOptions.DEFAULT).readSplatData(path);
+        assertTrue(Splats.equalsEpsilon(
+            expected, SplatDatas.asList(parallel), 1e-6));
+    }
+
+    private static void checkReadOptions(List<MutableSplat> expected,
+        List<? extends Splat> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            Splat e = expected.get(i);
+            Splat a = actual.get(i);
+            assertEquals(e.getPositionX(), a.getPositionX(), 1e-6);
+            assertEquals(e.getPositionY(), a.getPositionY(), 1e-6);
+            assertEquals(e.getPositionZ(), a.getPositionZ(), 1e-6);
+            assertEquals(e.getOpacity(), a.getOpacity(), 1e-6);
+
+            // The attributes that are not read are left at zero
+            assertEquals(0.0, a.getScaleX(), 0.0);
+            assertEquals(0.0, a.getRotationW(), 0.0);
+            assertEquals(0.0, a.getShX(0), 0.0);
+        }
+    }
+
+    @Test
+    public void testGsplatReadOptions() throws IOException
+    {
+        Path path = write(NUM_SPLATS);
+        List<MutableSplat> expected = readBaseline(path);
+        SplatReadOptions options = SplatReadOptions.of(
+            SplatAttribute.POSITION, SplatAttribute.OPACITY);
+
+        List<MutableSplat> list;
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            list = new GsplatSplatReader(options).readList(inputStream);
+        }
+        checkReadOptions(expected, list);
+
+        // The buffers of all attributes are allocated, as documented in
+        // the SplatReadOptions, so that the data can be written again
+        SplatData splatData =
+            new GsplatSplatReader(true, options).readSplatData(path);
+        assertEquals(NUM_SPLATS * 3, splatData.getScales().capacity());
+        assertEquals(NUM_SPLATS * 3, splatData.getShs().capacity());
+        checkReadOptions(expected, SplatDatas.asList(splatData));
+    }
+
+    @Test
+    public void testGsplatReadBatches() throws IOException
+    {
+        Path path = write(NUM_SPLATS);
+        List<MutableSplat> expected = readBaseline(path);
+
+        // The last batch is only partially filled
+        List<MutableSplat> actual = new ArrayList<MutableSplat>();
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            new GsplatSplatReader().readBatches(inputStream, 3000)
+                .forEachBatch(batch ->
+                    actual.addAll(Splats.copyList(SplatDatas.asList(batch))));
+        }
+        assertTrue(Splats.equalsEpsilon(expected, actual, 1e-6));
+    }
+
+    @Test
+    public void testGsplatReadStreamPath() throws IOException
+    {
+        Path path = write(NUM_SPLATS);
+        List<MutableSplat> expected = readBaseline(path);
+
+        GsplatSplatReader reader = new GsplatSplatReader();
+        try (Stream<MutableSplat> stream = reader.readStream(path))
+        {
+            Spliterator<MutableSplat> spliterator = stream.spliterator();
+            assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+            assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+            assertEquals(NUM_SPLATS, spliterator.getExactSizeIfKnown());
+
+            // The prefix and the remaining part cover all records
+            Spliterator<MutableSplat> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+            assertEquals(NUM_SPLATS, prefix.getExactSizeIfKnown()
+                + spliterator.getExactSizeIfKnown());
+            List<MutableSplat> actual = new ArrayList<MutableSplat>();
+            prefix.forEachRemaining(actual::add);
+            spliterator.forEachRemaining(actual::add);
+            assertTrue(Splats.equalsEpsilon(expected, actual, 1e-6));
+        }
+        try (Stream<MutableSplat> stream = reader.readStream(path))
+        {
+            List<MutableSplat> actual =
+                stream.parallel().collect(Collectors.toList());
+            assertTrue(Splats.equalsEpsilon(expected, actual, 1e-6));
+        }
+    }
+
+}
@@ -0,0 +1,520 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.ply;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.Splats;
+import de.javagl.ply.ElementDescriptor;
+import de.javagl.ply.PlyType;
+import de.javagl.ply.PropertyDescriptor;
+
+/**
+ * A decoder for binary PLY data with fixed-stride vertex elements.
+ * 
+ * The offsets of all properties inside a vertex record are computed once,
+ * from the {@link PlyHeader}. The records are then read directly from 
+ * memory-mapped regions of the file, and written into the buffers of a 
+ * {@link SplatData}.
+ * 
+ * The values are not converted in any way. The conversion of the 
+ * coordinate system has to be applied by the caller. Only the properties 
+ * of the attributes that are read according to the {@link SplatReadOptions}
+ * are accessed.
+ */
+class PlyBinaryDecoder
+{
+    /**
+     * The maximum number of bytes that are mapped at once
+     */
+    private static final int MAX_WINDOW_SIZE = 1 << 30;
+
+    /**
+     * The number of bytes that are decoded by one task in parallel decoding
+     */
+    private static final int PARALLEL_RANGE_SIZE = 1 << 24;
+
+    /**
+     * The file channel
+     */
+    private final FileChannel channel;
+
+    /**
+     * The byte order
+     */
+    private final ByteOrder byteOrder;
+
+    /**
+     * The byte offset of the first vertex record in the file
+     */
+    private final long vertexOffset;
+
+    /**
+     * The number of vertices
+     */
+    private final long count;
+
+    /**
+     * The size of one vertex record, in bytes
+     */
+    private final int stride;
+
+    /**
+     * The spherical harmonics degree
+     */
+    private final int shDegree;
+
+    /**
+     * Whether the positions are read
+     */
+    private final boolean readPositions;
+
+    /**
+     * Whether the scales are read
+     */
+    private final boolean readScales;
+
+    /**
+     * Whether the rotations are read
+     */
+    private final boolean readRotations;
+
+    /**
+     * Whether the opacities are read
+     */
+    private final boolean readOpacities;
+
+    /**
+     * The offsets of the x, y, and z coordinates of the position
+     */
+    private final int positionOffsets[];
+
+    /**
+     * Whether the x, y, and z coordinates are stored as <code>double</code>
+     */
+    private final boolean positionDoubles[];
+
+    /**
+     * The offsets of the x, y, and z components of the scale
+     */
+    private final int scaleOffsets[];
+
+    /**
+     * The offsets of the x, y, z, and w components of the rotation
+     */
+    private final int rotationOffsets[];
+
+    /**
+     * The offset of the opacity
+     */
+    private final int opacityOffset;
+
+    /**
+     * The offsets of the spherical harmonics coefficients that are read, 
+     * in the order in which they are stored in a {@link SplatData}
+     */
+    private final int shOffsets[];
+
+    /**
+     * Creates a new instance
+     * 
+     * @param channel The channel
+     * @param byteOrder The byte order
+     * @param vertexOffset The offset of the first vertex record
+     * @param vertex The vertex element
+     * @param fileShDegree The spherical harmonics degree of the data
+     * @param options The {@link SplatReadOptions}
+     */
+    private PlyBinaryDecoder(FileChannel channel, ByteOrder byteOrder,
+        long vertexOffset, ElementDescriptor vertex, int fileShDegree,
+        SplatReadOptions options)
+    {
+        this.channel = channel;
+        this.byteOrder = byteOrder;
+        this.vertexOffset = vertexOffset;
+        this.count = vertex.getCount();
+        this.stride = PlyHeader.getStride(vertex);
+        this.shDegree = options.computeShDegree(fileShDegree);
+        this.readPositions = options.isRead(SplatAttribute.POSITION);
+        this.readScales = options.isRead(SplatAttribute.SCALE);
+        this.readRotations = options.isRead(SplatAttribute.ROTATION);
+        this.readOpacities = options.isRead(SplatAttribute.OPACITY);
+
+        this.positionOffsets = new int[] 
+        { 
+            PlyHeader.getOffset(vertex, "x"), 
+            PlyHeader.getOffset(vertex, "y"),
+            PlyHeader.getOffset(vertex, "z") 
+        };
+        this.positionDoubles = new boolean[3];
+        for (int c = 0; c < 3; c++)
+        {
+            PlyType type = 
+                PlyHeader.getType(vertex, "xyz".substring(c, c + 1));
+            positionDoubles[c] = type == PlyType.DOUBLE;
+        }
+        this.scaleOffsets = new int[] 
+        { 
+            PlyHeader.getOffset(vertex, "scale_0"), 
+            PlyHeader.getOffset(vertex, "scale_1"),
+            PlyHeader.getOffset(vertex, "scale_2") 
+        };
+
+        // PLY uses scalar-first quaternions
+        this.rotationOffsets = new int[] 
+        { 
+            PlyHeader.getOffset(vertex, "rot_1"), 
+            PlyHeader.getOffset(vertex, "rot_2"),
+            PlyHeader.getOffset(vertex, "rot_3"), 
+            PlyHeader.getOffset(vertex, "rot_0") 
+        };
+        this.opacityOffset = PlyHeader.getOffset(vertex, "opacity");
+
+        int fileShDimensions = Splats.dimensionsForDegree(fileShDegree);
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        boolean readShs = options.isRead(SplatAttribute.SH);
+        this.shOffsets = new int[readShs ? shDimensions * 3 : 0];
+        if (!readShs)
+        {
+            return;
+        }
+        for (int c = 0; c < 3; c++)
+        {
+            shOffsets[c] = PlyHeader.getOffset(vertex, "f_dc_" + c);
+        }
+        for (int d = 1; d < shDimensions; d++)
+        {
+            for (int c = 0; c < 3; c++)
+            {
+                int index = (fileShDimensions - 1) * c + (d - 1);
+                shOffsets[d * 3 + c] = 
+                    PlyHeader.getOffset(vertex, "f_rest_" + index);
+            }
+        }
+    }
+
+    /**
+     * Create a decoder for the given PLY data.
+     * 
+     * This will return <code>null</code> if the data cannot be decoded 
+     * directly. This is the case when the data is not binary, when the 
+     * vertex element or any preceding element contains list properties,
+     * or when the required vertex properties are missing or do not have
+     * the type <code>float</code> (or <code>double</code>, for the 
+     * position).
+     * 
+     * @param channel The channel to read from
+     * @param header The {@link PlyHeader}
+     * @param options The {@link SplatReadOptions}
+     * @return The decoder, or <code>null</code>
+     */
+    static PlyBinaryDecoder create(FileChannel channel, PlyHeader header,
+        SplatReadOptions options)
+    {
+        ByteOrder byteOrder = header.getByteOrder();
+        if (byteOrder == null)
+        {
+            return null;
+        }
+        long offset = header.getBodyOffset();
+        for (ElementDescriptor element : header.getElements())
+        {
+            int stride = PlyHeader.getStride(element);
+            if (stride <= 0)
+            {
+                return null;
+            }
+            if (element.getName().equals("vertex"))
+            {
+                Set<String> propertyNames = element.getPropertyDescriptors()
+                    .stream().map(PropertyDescriptor::getName)
+                    .collect(Collectors.toSet());
+                int shDegree = PlySplatReader
+                    .computeSphericalHarmonicsDegree(propertyNames);
+                if (!hasRequiredProperties(element, shDegree))
+                {
+                    return null;
+                }
+                return new PlyBinaryDecoder(
+                    channel, byteOrder, offset, element, shDegree, options);
+            }
+            offset += (long) element.getCount() * stride;
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the given vertex element contains all properties
+     * that are required for splats with the given degree, with supported
+     * types
+     * 
+     * @param vertex The vertex element
+     * @param shDegree The spherical harmonics degree
+     * @return Whether the properties are supported
+     */
+    private static boolean hasRequiredProperties(ElementDescriptor vertex, 
+        int shDegree)
+    {
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        int numRest = (shDimensions - 1) * 3;
+        int found = 0;
+        for (PropertyDescriptor property : vertex.getPropertyDescriptors())
+        {
+            String name = property.getName();
+            PlyType type = PlyHeader.getType(vertex, name);
+            if (name.equals("x") || name.equals("y") || name.equals("z"))
+            {
+                if (type != PlyType.FLOAT && type != PlyType.DOUBLE)
+                {
+                    return false;
+                }
+                found++;
+            }
+            else if (isRequired(name, numRest))
+            {
+                if (type != PlyType.FLOAT)
+                {
+                    return false;
+                }
+                found++;
+            }
+        }
+        int numRequired = 3 + 3 + 1 + 3 + 4 + numRest;
+        return found == numRequired;
+    }
+
+    /**
+     * Returns whether the property with the given name is required for 
+     * splats, except for the position
+     * 
+     * @param name The property name
+     * @param numRest The number of <code>f_rest_*</code> properties
+     * @return Whether the property is required
+     */
+    private static boolean isRequired(String name, int numRest)
+    {
+        switch (name)
+        {
+            case "f_dc_0":
+            case "f_dc_1":
+            case "f_dc_2":
+            case "opacity":
+            case "scale_0":
+            case "scale_1":
+            case "scale_2":
+            case "rot_0":
+            case "rot_1":
+            case "rot_2":
+            case "rot_3":
+                return true;
+
+            default:
+                break;
+        }
+        for (int i = 0; i < numRest; i++)
+        {
+            if (name.equals("f_rest_" + i))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the spherical harmonics degree of the splats that are decoded
+     * 
+     * @return The degree
+     */
+    int getShDegree()
+    {
+        return shDegree;
+    }
+
+    /**
+     * Returns the number of vertices
+     * 
+     * @return The number of vertices
+     */
+    long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Decode all vertex records into the given target.
+     * 
+     * If the <code>parallel</code> flag is set, then the vertex records 
+     * are partitioned into ranges that are decoded in parallel, each into
+     * its part of the target.
+     * 
+     * @param target The target {@link SplatData}
+     * @param parallel Whether the decoding should be done in parallel
+     * @throws IOException If an IO error occurs
+     */
+    void decodeAll(SplatData target, boolean parallel) throws IOException
+    {
+        if (!parallel)
+        {
+            decode(0, (int) count, target, 0);
+            return;
+        }
+        decodeParallel(target, Math.max(1, PARALLEL_RANGE_SIZE / stride));
+    }
+
+    /**
+     * Decode all vertex records into the given target, in parallel, where
+     * each task decodes the given number of records.
+     * 
+     * @param target The target {@link SplatData}
+     * @param rangeSize The number of records for each task
+     * @throws IOException If an IO error occurs
+     */
+    void decodeParallel(SplatData target, int rangeSize) throws IOException
+    {
+        int numRanges = (int) ((count + rangeSize - 1) / rangeSize);
+        try
+        {
+            IntStream.range(0, numRanges).parallel().forEach(r ->
+            {
+                int start = r * rangeSize;
+                int n = (int) Math.min(rangeSize, count - start);
+                try
+                {
+                    decode(start, n, target, start);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Decode the specified range of vertex records into the given target.
+     * 
+     * The range is mapped into memory in windows of at most 1 GB.
+     * 
+     * @param start The index of the first vertex record
+     * @param n The number of vertex records
+     * @param target The target {@link SplatData}
+     * @param targetIndex The index of the first splat in the target
+     * @throws IOException If an IO error occurs
+     */
+    void decode(long start, int n, SplatData target, int targetIndex)
+        throws IOException
+    {
+        int recordsPerWindow = Math.max(1, MAX_WINDOW_SIZE / stride);
+        int done = 0;
+        while (done < n)
+        {
+            int windowCount = Math.min(recordsPerWindow, n - done);
+            long position = vertexOffset + (start + done) * stride;
+            ByteBuffer bb = channel.map(MapMode.READ_ONLY, position,
+                (long) windowCount * stride);
+            bb.order(byteOrder);
+            decode(bb, windowCount, target, targetIndex + done);
+            done += windowCount;
+        }
+    }
+
+    /**
+     * Decode the given number of vertex records from the given buffer into
+     * the given target
+     * 
+     * @param bb The buffer, starting at the first record
+     * @param n The number of records
+     * @param target The target
+     * @param targetIndex The index of the first splat in the target
+     */
+    private void decode(ByteBuffer bb, int n, SplatData target,
+        int targetIndex)
+    {
+        FloatBuffer positions = target.getPositions();
+        FloatBuffer scales = target.getScales();
+        FloatBuffer rotations = target.getRotations();
+        FloatBuffer opacities = target.getOpacities();
+        FloatBuffer shs = target.getShs();
+        int numShs = shOffsets.length;
+        for (int i = 0; i < n; i++)
+        {
+            int b = i * stride;
+            int t = targetIndex + i;
+            if (readPositions)
+            {
+                for (int c = 0; c < 3; c++)
+                {
+                    int o = b + positionOffsets[c];
+                    float p = positionDoubles[c] 
+                        ? (float) bb.getDouble(o) : bb.getFloat(o);
+                    positions.put(t * 3 + c, p);
+                }
+            }
+            if (readScales)
+            {
+                for (int c = 0; c < 3; c++)
+                {
+                    scales.put(t * 3 + c, bb.getFloat(b + scaleOffsets[c]));
+                }
+            }
+            if (readRotations)
+            {
+                for (int c = 0; c < 4; c++)
+                {
+                    int o = b + rotationOffsets[c];
+                    rotations.put(t * 4 + c, bb.getFloat(o));
+                }
+            }
+            if (readOpacities)
+            {
+                opacities.put(t, bb.getFloat(b + opacityOffset));
+            }
+            for (int j = 0; j < numShs; j++)
+            {
+                shs.put(t * numShs + j, bb.getFloat(b + shOffsets[j]));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,703 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.ply;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.Splats;
+import de.javagl.ply.ElementDescriptor;
+import de.javagl.ply.PlyType;
+import de.javagl.ply.PropertyDescriptor;
+
+/**
+ * A decoder for the chunked, quantized "compressed PLY" layout.
+ * 
+ * In this layout, the splats are grouped into chunks of 256 splats. The
+ * <code>chunk</code> element stores the bounds of the positions, scales,
+ * and (optionally) colors of each chunk. The <code>vertex</code> element
+ * stores four 32-bit words for each splat:
+ * <ul>
+ *   <li><code>packed_position</code>: 11, 10, 11 bits for x, y, z,
+ *   relative to the chunk bounds</li>
+ *   <li><code>packed_rotation</code>: 2 bits for the index of the largest
+ *   quaternion component, and 10 bits for each of the other three</li>
+ *   <li><code>packed_scale</code>: 11, 10, 11 bits for the logarithmic
+ *   scales, relative to the chunk bounds</li>
+ *   <li><code>packed_color</code>: 8 bits for red, green, blue, and 
+ *   opacity</li>
+ * </ul>
+ * An optional <code>sh</code> element stores the remaining spherical 
+ * harmonics coefficients as 8-bit values, in the same order as the 
+ * <code>f_rest</code> properties of the standard PLY layout.
+ * 
+ * The values are not converted in any way. The conversion of the 
+ * coordinate system has to be applied by the caller. Attributes that are
+ * not read according to the {@link SplatReadOptions} are not decoded, 
+ * and when no spherical harmonics beyond the DC coefficients are read, 
+ * then the <code>sh</code> element is skipped.
+ * 
+ * The data is not read with the PLY library, which would invoke a 
+ * callback for each property of each element. Instead, the records are 
+ * read in blocks, and decoded directly from the buffer, based on the 
+ * property offsets that are provided by the {@link PlyHeader}.
+ */
+class PlyCompressedDecoder
+{
+    /**
+     * The number of splats in one chunk
+     */
+    static final int CHUNK_SIZE = 256;
+
+    /**
+     * The names of the properties of the chunk element, in the order in
+     * which they are written
+     */
+    static final String CHUNK_PROPERTY_NAMES[] = 
+    {
+        "min_x", "min_y", "min_z", 
+        "max_x", "max_y", "max_z",
+        "min_scale_x", "min_scale_y", "min_scale_z", 
+        "max_scale_x", "max_scale_y", "max_scale_z",
+        "min_r", "min_g", "min_b", 
+        "max_r", "max_g", "max_b"
+    };
+
+    /**
+     * The names of the properties of the vertex element, in the order in
+     * which they are written
+     */
+    static final String VERTEX_PROPERTY_NAMES[] = 
+    {
+        "packed_position", "packed_rotation", "packed_scale", "packed_color"
+    };
+
+    /**
+     * The number of chunk bounds values
+     */
+    static final int NUM_BOUNDS = CHUNK_PROPERTY_NAMES.length;
+
+    /**
+     * The factor for converting between the DC spherical harmonics 
+     * coefficient and the color
+     */
+    static final double SH_C0 = 0.28209479177387814;
+
+    /**
+     * The number of chunks whose records are read into memory at once
+     */
+    private static final int BLOCK_CHUNKS = 1024;
+
+    /**
+     * Returns whether the given header describes data in the compressed
+     * PLY layout
+     * 
+     * @param header The header
+     * @return Whether the data is compressed PLY data
+     */
+    static boolean isCompressed(PlyHeader header)
+    {
+        ElementDescriptor chunk = header.findElement("chunk");
+        ElementDescriptor vertex = header.findElement("vertex");
+        return chunk != null && vertex != null
+            && PlyHeader.getType(vertex, "packed_position") != null;
+    }
+
+    /**
+     * Decode the body of compressed PLY data from the given channel, which 
+     * must be positioned at the start of the body.
+     * 
+     * @param header The header
+     * @param channel The channel
+     * @param parallel Whether the chunks should be decoded in parallel
+     * @param options The {@link SplatReadOptions}
+     * @return The {@link SplatData}
+     * @throws IOException If an IO error occurs, or the data is not valid
+     * compressed PLY data
+     */
+    static SplatData decode(PlyHeader header, ReadableByteChannel channel,
+        boolean parallel, SplatReadOptions options) throws IOException
+    {
+        ByteOrder byteOrder = header.getByteOrder();
+        if (byteOrder == null)
+        {
+            throw new IOException(
+                "Compressed PLY data must be binary, but has format "
+                    + header.getFormat());
+        }
+        ElementDescriptor chunk = header.findElement("chunk");
+        ElementDescriptor vertex = header.findElement("vertex");
+        ElementDescriptor sh = header.findElement("sh");
+        int size = vertex.getCount();
+        if ((long) chunk.getCount() * CHUNK_SIZE < size)
+        {
+            throw new IOException("The PLY data contains " 
+                + chunk.getCount() + " chunks, which is not enough for " 
+                + size + " vertices");
+        }
+        if (sh != null && sh.getCount() != vertex.getCount())
+        {
+            throw new IOException("The PLY data contains " + sh.getCount()
+                + " spherical harmonics, but " + size + " vertices");
+        }
+        int fileShDegree = 0;
+        if (sh != null)
+        {
+            Set<String> propertyNames = sh.getPropertyDescriptors()
+                .stream().map(PropertyDescriptor::getName)
+                .collect(Collectors.toSet());
+            fileShDegree = PlySplatReader
+                .computeSphericalHarmonicsDegree(propertyNames);
+        }
+        int fileShDimensions = Splats.dimensionsForDegree(fileShDegree);
+        validate(vertex, sh, (fileShDimensions - 1) * 3);
+        int shDegree = options.computeShDegree(fileShDegree);
+        SplatData splatData = SplatDatas.create(shDegree, size);
+
+        float bounds[] = null;
+        for (ElementDescriptor element : header.getElements())
+        {
+            int stride = PlyHeader.getStride(element);
+            if (stride < 0)
+            {
+                throw new IOException("The element " + element.getName()
+                    + " contains list properties, which is not supported "
+                    + "for compressed PLY data");
+            }
+            if (element == chunk)
+            {
+                bounds = readBounds(chunk, channel, byteOrder);
+            }
+            else if (element == vertex)
+            {
+                if (bounds == null)
+                {
+                    throw new IOException(
+                        "The chunk element must precede the vertex element");
+                }
+                float chunkBounds[] = bounds;
+                readBlocks(vertex, channel, byteOrder, parallel,
+                    (bb, start, c) -> decodeVertices(vertex, bb, start, c,
+                        chunkBounds, options, splatData));
+            }
+            else if (element == sh && shDegree > 0)
+            {
+                int offsets[] = computeShOffsets(sh, fileShDimensions, 
+                    splatData.getShDimensions());
+                readBlocks(sh, channel, byteOrder, parallel,
+                    (bb, start, c) -> decodeShs(stride, offsets, 
+                        bb, start, c, splatData));
+            }
+            else
+            {
+                skip(channel, (long) element.getCount() * stride);
+            }
+        }
+        return splatData;
+    }
+
+    /**
+     * Interface for the decoding of one chunk of records from a block
+     */
+    private interface ChunkDecoder
+    {
+        /**
+         * Decode the specified chunk
+         * 
+         * @param bb The buffer containing the records of the block
+         * @param start The index of the first record of the block
+         * @param c The index of the chunk, relative to the block
+         */
+        void decode(ByteBuffer bb, int start, int c);
+    }
+
+    /**
+     * Read the records of the given element from the given channel, in
+     * blocks of multiple chunks, and pass each chunk of each block to 
+     * the given decoder.
+     * 
+     * @param element The element
+     * @param channel The channel
+     * @param byteOrder The byte order
+     * @param parallel Whether the chunks should be decoded in parallel
+     * @param chunkDecoder The decoder
+     * @throws IOException If an IO error occurs
+     */
+    private static void readBlocks(ElementDescriptor element, 
+        ReadableByteChannel channel, ByteOrder byteOrder, boolean parallel, 
+        ChunkDecoder chunkDecoder) throws IOException
+    {
+        int stride = PlyHeader.getStride(element);
+        int size = element.getCount();
+        int blockRecords = BLOCK_CHUNKS * CHUNK_SIZE;
+        ByteBuffer bb = ByteBuffer.allocate(
+            Math.min(size, blockRecords) * stride).order(byteOrder);
+        for (int start = 0; start < size; start += blockRecords)
+        {
+            int n = Math.min(blockRecords, size - start);
+            ((Buffer) bb).clear();
+            ((Buffer) bb).limit(n * stride);
+            readFully(channel, bb);
+            int blockStart = start;
+            int numChunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream range = IntStream.range(0, numChunks);
+            if (parallel)
+            {
+                range = range.parallel();
+            }
+            range.forEach(c -> chunkDecoder.decode(bb, blockStart, c));
+        }
+    }
+
+    /**
+     * Read the bounds of all chunks. The result will contain 
+     * {@link #NUM_BOUNDS} values for each chunk, in the order of the
+     * {@link #CHUNK_PROPERTY_NAMES}. When the color bounds are not 
+     * contained in the data, they are set to 0.0 and 1.0.
+     * 
+     * @param chunk The chunk element
+     * @param channel The channel
+     * @param byteOrder The byte order
+     * @return The bounds
+     * @throws IOException If an IO error occurs, or the chunk element does
+     * not contain the required properties
+     */
+    static float[] readBounds(ElementDescriptor chunk,
+        ReadableByteChannel channel, ByteOrder byteOrder) throws IOException
+    {
+        int stride = PlyHeader.getStride(chunk);
+        long numBytes = (long) chunk.getCount() * stride;
+        if (numBytes > Integer.MAX_VALUE)
+        {
+            throw new IOException("Too many chunks: " + chunk.getCount());
+        }
+        int numChunks = chunk.getCount();
+        ByteBuffer bb = ByteBuffer.allocate((int) numBytes).order(byteOrder);
+        readFully(channel, bb);
+
+        float bounds[] = new float[numChunks * NUM_BOUNDS];
+        for (int b = 0; b < NUM_BOUNDS; b++)
+        {
+            String name = CHUNK_PROPERTY_NAMES[b];
+            int offset = PlyHeader.getOffset(chunk, name);
+            if (offset < 0)
+            {
+                // The color bounds are optional
+                if (b < 12)
+                {
+                    throw new IOException(
+                        "The chunk element does not contain " + name);
+                }
+                float defaultValue = b < 15 ? 0.0f : 1.0f;
+                for (int c = 0; c < numChunks; c++)
+                {
+                    bounds[c * NUM_BOUNDS + b] = defaultValue;
+                }
+                continue;
+            }
+            requireType(chunk, name, PlyType.FLOAT);
+            for (int c = 0; c < numChunks; c++)
+            {
+                bounds[c * NUM_BOUNDS + b] = bb.getFloat(c * stride + offset);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Decode the vertices of the specified chunk into the given target
+     * 
+     * @param vertex The vertex element
+     * @param bb The buffer containing the records of the block
+     * @param start The index of the first record of the block
+     * @param c The index of the chunk, relative to the block
+     * @param bounds The bounds of all chunks
+     * @param options The {@link SplatReadOptions}
+     * @param target The target {@link SplatData}
+     */
+    private static void decodeVertices(ElementDescriptor vertex, ByteBuffer bb,
+        int start, int c, float bounds[], SplatReadOptions options,
+        SplatData target)
+    {
+        boolean readPositions = options.isRead(SplatAttribute.POSITION);
+        boolean readScales = options.isRead(SplatAttribute.SCALE);
+        boolean readRotations = options.isRead(SplatAttribute.ROTATION);
+        boolean readOpacities = options.isRead(SplatAttribute.OPACITY);
+        boolean readShs = options.isRead(SplatAttribute.SH);
+
+        int stride = PlyHeader.getStride(vertex);
+        int positionOffset = PlyHeader.getOffset(vertex, "packed_position");
+        int rotationOffset = PlyHeader.getOffset(vertex, "packed_rotation");
+        int scaleOffset = PlyHeader.getOffset(vertex, "packed_scale");
+        int colorOffset = PlyHeader.getOffset(vertex, "packed_color");
+
+        FloatBuffer positions = target.getPositions();
+        FloatBuffer scales = target.getScales();
+        FloatBuffer rotations = target.getRotations();
+        FloatBuffer opacities = target.getOpacities();
+        FloatBuffer shs = target.getShs();
+        int shDimensions = target.getShDimensions();
+
+        int n = (bb.limit() / stride);
+        int first = c * CHUNK_SIZE;
+        int last = Math.min(n, first + CHUNK_SIZE);
+        int b = ((start + first) / CHUNK_SIZE) * NUM_BOUNDS;
+        float q[] = new float[4];
+        for (int r = first; r < last; r++)
+        {
+            int i = start + r;
+            int record = r * stride;
+
+            if (readPositions)
+            {
+                int p = bb.getInt(record + positionOffset);
+                positions.put(i * 3 + 0, lerp(bounds, b + 0, p >>> 21, 11));
+                positions.put(i * 3 + 1, lerp(bounds, b + 1, p >>> 11, 10));
+                positions.put(i * 3 + 2, lerp(bounds, b + 2, p, 11));
+            }
+            if (readScales)
+            {
+                int scale = bb.getInt(record + scaleOffset);
+                scales.put(i * 3 + 0, lerp(bounds, b + 6, scale >>> 21, 11));
+                scales.put(i * 3 + 1, lerp(bounds, b + 7, scale >>> 11, 10));
+                scales.put(i * 3 + 2, lerp(bounds, b + 8, scale, 11));
+            }
+            int color = bb.getInt(record + colorOffset);
+            if (readShs)
+            {
+                float red = lerp(bounds, b + 12, color >>> 24, 8);
+                float green = lerp(bounds, b + 13, color >>> 16, 8);
+                float blue = lerp(bounds, b + 14, color >>> 8, 8);
+                int shIndex = (i * shDimensions) * 3;
+                shs.put(shIndex + 0, (float) ((red - 0.5) / SH_C0));
+                shs.put(shIndex + 1, (float) ((green - 0.5) / SH_C0));
+                shs.put(shIndex + 2, (float) ((blue - 0.5) / SH_C0));
+            }
+            if (readOpacities)
+            {
+                opacities.put(i, inverseSigmoid(unorm(color, 8)));
+            }
+            if (readRotations)
+            {
+                // The quaternion components are in the order of the PLY 
+                // properties, which are scalar-first
+                int rotation = bb.getInt(record + rotationOffset);
+                unpackRotation(rotation, q);
+                rotations.put(i * 4 + 0, q[1]);
+                rotations.put(i * 4 + 1, q[2]);
+                rotations.put(i * 4 + 2, q[3]);
+                rotations.put(i * 4 + 3, q[0]);
+            }
+        }
+    }
+
+    /**
+     * Compute the byte offsets of the spherical harmonics coefficients in
+     * the records of the given sh element.
+     * 
+     * The f_rest values are stored for all x-components, then all 
+     * y-components, then all z-components. The offsets are returned in 
+     * the interleaved order of the target, starting at the second 
+     * dimension, so that each record can be decoded in one pass.
+     * 
+     * @param sh The sh element
+     * @param fileShDimensions The spherical harmonics dimensions of the 
+     * data
+     * @param shDimensions The spherical harmonics dimensions of the target
+     * @return The offsets
+     */
+    private static int[] computeShOffsets(ElementDescriptor sh, 
+        int fileShDimensions, int shDimensions)
+    {
+        int offsets[] = new int[(shDimensions - 1) * 3];
+        for (int d = 1; d < shDimensions; d++)
+        {
+            for (int component = 0; component < 3; component++)
+            {
+                int k = (fileShDimensions - 1) * component + (d - 1);
+                offsets[(d - 1) * 3 + component] =
+                    PlyHeader.getOffset(sh, "f_rest_" + k);
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Decode the spherical harmonics of the specified chunk into the given
+     * target.
+     * 
+     * Only the coefficients for the dimensions of the target are decoded,
+     * which may be fewer than the dimensions of the data. Each record is 
+     * decoded in one pass, directly into the interleaved layout of the 
+     * target, without any intermediate buffers.
+     * 
+     * @param stride The stride of the records of the sh element
+     * @param offsets The offsets, as computed with 
+     * {@link #computeShOffsets(ElementDescriptor, int, int)}
+     * @param bb The buffer containing the records of the block
+     * @param start The index of the first record of the block
+     * @param c The index of the chunk, relative to the block
+     * @param target The target {@link SplatData}
+     */
+    private static void decodeShs(int stride, int offsets[],
+        ByteBuffer bb, int start, int c, SplatData target)
+    {
+        FloatBuffer shs = target.getShs();
+        int shStride = target.getShDimensions() * 3;
+
+        int n = (bb.limit() / stride);
+        int first = c * CHUNK_SIZE;
+        int last = Math.min(n, first + CHUNK_SIZE);
+        for (int r = first; r < last; r++)
+        {
+            int record = r * stride;
+            int shIndex = (start + r) * shStride + 3;
+            for (int k = 0; k < offsets.length; k++)
+            {
+                int value = bb.get(record + offsets[k]) & 0xFF;
+                shs.put(shIndex + k, unquantizeSh(value));
+            }
+        }
+    }
+
+    /**
+     * Unpack the given rotation into the given array, in the order of the
+     * PLY properties
+     * 
+     * @param rotation The packed rotation
+     * @param q The quaternion
+     */
+    static void unpackRotation(int rotation, float q[])
+    {
+        double norm = Math.sqrt(2.0) * 0.5;
+        double a = (unorm(rotation >>> 20, 10) - 0.5) / norm;
+        double b = (unorm(rotation >>> 10, 10) - 0.5) / norm;
+        double c = (unorm(rotation, 10) - 0.5) / norm;
+        double m = Math.sqrt(Math.max(0.0, 1.0 - (a * a + b * b + c * c)));
+        int largest = rotation >>> 30;
+        double values[] = { a, b, c };
+        int v = 0;
+        for (int j = 0; j < 4; j++)
+        {
+            if (j == largest)
+            {
+                q[j] = (float) m;
+            }
+            else
+            {
+                q[j] = (float) values[v++];
+            }
+        }
+    }
+
+    /**
+     * Convert the given 8-bit spherical harmonics value into a float value
+     * 
+     * @param value The value
+     * @return The result
+     */
+    static float unquantizeSh(int value)
+    {
+        double n = value == 0 ? 0.0 : (value + 0.5) / 256.0;
+        return (float) ((n - 0.5) * 8.0);
+    }
+
+    /**
+     * Returns the inverse of the sigmoid function for the given value,
+     * clamped to a finite range
+     * 
+     * @param value The value
+     * @return The result
+     */
+    private static float inverseSigmoid(float value)
+    {
+        if (value <= 0.0f)
+        {
+            return -40.0f;
+        }
+        if (value >= 1.0f)
+        {
+            return 40.0f;
+        }
+        return (float) -Math.log(1.0 / value - 1.0);
+    }
+
+    /**
+     * Interpolate linearly between the minimum at the given index of the 
+     * bounds and the maximum that is stored 3 elements after it, using
+     * the given number of lowest bits of the given value, normalized to
+     * [0,1], as the interpolation value
+     * 
+     * @param bounds The bounds
+     * @param index The index of the minimum
+     * @param value The value
+     * @param bits The number of bits
+     * @return The result
+     */
+    private static float lerp(float bounds[], int index, int value, int bits)
+    {
+        float alpha = unorm(value, bits);
+        float min = bounds[index];
+        float max = bounds[index + 3];
+        return min + (max - min) * alpha;
+    }
+
+    /**
+     * Returns the value of the given number of lowest bits of the given 
+     * value, normalized to [0,1]
+     * 
+     * @param value The value
+     * @param bits The number of bits
+     * @return The result
+     */
+    private static float unorm(int value, int bits)
+    {
+        int t = (1 << bits) - 1;
+        return (float) (value & t) / t;
+    }
+
+    /**
+     * Make sure that the specified property of the given element has one 
+     * of the given types
+     * 
+     * @param element The element
+     * @param name The property name
+     * @param types The types
+     * @throws IOException If the property does not have one of the types
+     */
+    private static void requireType(ElementDescriptor element, String name,
+        PlyType... types) throws IOException
+    {
+        PlyType type = PlyHeader.getType(element, name);
+        for (PlyType t : types)
+        {
+            if (t == type)
+            {
+                return;
+            }
+        }
+        throw new IOException("The property " + name + " of element "
+            + element.getName() + " has an unsupported type: " + type);
+    }
+
+    /**
+     * Validate the property types of the vertex and sh elements
+     * 
+     * @param vertex The vertex element
+     * @param sh The sh element, may be <code>null</code>
+     * @param numRest The number of f_rest properties
+     * @throws IOException If a property is missing or has an unsupported
+     * type
+     */
+    private static void validate(ElementDescriptor vertex, 
+        ElementDescriptor sh, int numRest) throws IOException
+    {
+        for (String name : VERTEX_PROPERTY_NAMES)
+        {
+            if (PlyHeader.getOffset(vertex, name) < 0)
+            {
+                throw new IOException(
+                    "The vertex element does not contain " + name);
+            }
+            requireType(vertex, name, PlyType.UINT, PlyType.INT);
+        }
+        if (sh == null)
+        {
+            return;
+        }
+        for (int k = 0; k < numRest; k++)
+        {
+            String name = "f_rest_" + k;
+            if (PlyHeader.getOffset(sh, name) < 0)
+            {
+                throw new IOException("The sh element does not contain " 
+                    + name);
+            }
+            requireType(sh, name, PlyType.UCHAR);
+        }
+    }
+
+    /**
+     * Read bytes from the given channel until the given buffer is full
+     * 
+     * @param channel The channel
+     * @param bb The buffer
+     * @throws IOException If an IO error occurs, or the end of the data
+     * is reached before the buffer is full
+     */
+    private static void readFully(ReadableByteChannel channel, ByteBuffer bb)
+        throws IOException
+    {
+        while (bb.hasRemaining())
+        {
+            if (channel.read(bb) < 0)
+            {
+                throw new IOException("Unexpected end of PLY data");
+            }
+        }
+    }
+
+    /**
+     * Skip the given number of bytes in the given channel
+     * 
+     * @param channel The channel
+     * @param numBytes The number of bytes
+     * @throws IOException If an IO error occurs
+     */
+    private static void skip(ReadableByteChannel channel, long numBytes)
+        throws IOException
+    {
+        ByteBuffer bb = ByteBuffer.allocate(8192);
+        long remaining = numBytes;
+        while (remaining > 0)
+        {
+            ((Buffer) bb).clear();
+            ((Buffer) bb).limit((int) Math.min(bb.capacity(), remaining));
+            readFully(channel, bb);
+            remaining -= bb.limit();
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private PlyCompressedDecoder()
+    {
+        // Private constructor to prevent instantiation
+    }
+}
@@ -0,0 +1,601 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.ply;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatListWriter;
+import de.javagl.jsplat.Splats;
+
+/**
+ * Implementation of a {@link SplatListWriter} that writes PLY data in the 
+ * chunked, quantized "compressed PLY" layout. 
+ * 
+ * The splats are sorted along a Morton curve, so that each chunk of 256
+ * splats covers a small region of space, and the positions, scales, and 
+ * colors are quantized relative to the bounds of each chunk. Details 
+ * about the layout are given in the documentation of the 
+ * {@link PlyCompressedDecoder}.
+ * 
+ * Such data can be read with the {@link PlySplatReader}.
+ */
+public final class PlyCompressedSplatWriter implements SplatListWriter
+{
+    /**
+     * The range to which the logarithmic scales are clamped
+     */
+    private static final float MAX_ABS_SCALE = 20.0f;
+
+    /**
+     * The number of chunks whose records are encoded into one block
+     */
+    private static final int BLOCK_CHUNKS = 1024;
+
+    /**
+     * Creates a new instance
+     */
+    public PlyCompressedSplatWriter()
+    {
+        // Default constructor
+    }
+
+    @Override
+    public void writeList(List<? extends Splat> splats,
+        OutputStream outputStream) throws IOException
+    {
+        int shDegree = 0;
+        if (!splats.isEmpty()) 
+        {
+            shDegree = splats.get(0).getShDegree();
+        }
+        List<? extends Splat> list = splats;
+        if (!(list instanceof RandomAccess))
+        {
+            list = new ArrayList<Splat>(splats);
+        }
+        int size = list.size();
+        int numChunks = (size + PlyCompressedDecoder.CHUNK_SIZE - 1) 
+            / PlyCompressedDecoder.CHUNK_SIZE;
+        PlySplatEncoder encoder = new PlySplatEncoder(shDegree);
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        int numRest = (shDimensions - 1) * 3;
+
+        int order[] = computeMortonOrder(list);
+        List<? extends Splat> finalList = list;
+        float bounds[] = new float[numChunks * PlyCompressedDecoder.NUM_BOUNDS];
+        IntStream.range(0, numChunks).parallel().forEach(c -> 
+            computeBounds(finalList, order, c, encoder, bounds));
+
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        writeHeader(numChunks, size, numRest, channel);
+
+        ByteBuffer chunkData = ByteBuffer.allocate(
+            bounds.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        chunkData.asFloatBuffer().put(bounds);
+        writeFully(chunkData, channel);
+
+        int vertexStride = PlyCompressedDecoder.VERTEX_PROPERTY_NAMES.length 
+            * Integer.BYTES;
+        writeBlocks(size, vertexStride, channel, (bb, c, blockChunk) ->
+            encodeVertices(finalList, order, c, blockChunk, encoder, bounds,
+                bb));
+        if (numRest > 0)
+        {
+            // Each thread uses one pair of buffers for the interleaved and
+            // the planar spherical harmonics of the chunks that it encodes
+            int scratchSize = 
+                PlyCompressedDecoder.CHUNK_SIZE * shDimensions * 3;
+            ThreadLocal<FloatBuffer[]> scratch = ThreadLocal.withInitial(() ->
+                new FloatBuffer[] { FloatBuffer.allocate(scratchSize),
+                    FloatBuffer.allocate(scratchSize) });
+            writeBlocks(size, numRest, channel, (bb, c, blockChunk) ->
+                encodeShs(finalList, order, c, blockChunk, encoder, 
+                    shDimensions, scratch.get(), bb));
+        }
+    }
+
+    /**
+     * Interface for the encoding of one chunk of records into a block
+     */
+    private interface ChunkEncoder
+    {
+        /**
+         * Encode the specified chunk
+         * 
+         * @param bb The buffer for the records of the block
+         * @param c The index of the chunk
+         * @param blockChunk The index of the chunk, relative to the block
+         */
+        void encode(ByteBuffer bb, int c, int blockChunk);
+    }
+
+    /**
+     * Encode the records of all chunks into blocks, and write each block
+     * into the given channel. The chunks of each block are encoded in 
+     * parallel.
+     * 
+     * @param size The number of splats
+     * @param stride The size of one record, in bytes
+     * @param channel The channel
+     * @param chunkEncoder The encoder
+     * @throws IOException If an IO error occurs
+     */
+    private static void writeBlocks(int size, int stride,
+        WritableByteChannel channel, ChunkEncoder chunkEncoder)
+        throws IOException
+    {
+        int numChunks = (size + PlyCompressedDecoder.CHUNK_SIZE - 1) 
+            / PlyCompressedDecoder.CHUNK_SIZE;
+        int chunkBytes = PlyCompressedDecoder.CHUNK_SIZE * stride;
+        ByteBuffer bb = ByteBuffer.allocateDirect(
+            Math.max(1, Math.min(numChunks, BLOCK_CHUNKS)) * chunkBytes)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        for (int start = 0; start < numChunks; start += BLOCK_CHUNKS)
+        {
+            int blockStart = start;
+            int n = Math.min(BLOCK_CHUNKS, numChunks - start);
+            ((Buffer) bb).clear();
+            IntStream.range(0, n).parallel().forEach(blockChunk ->
+                chunkEncoder.encode(bb, blockStart + blockChunk, blockChunk));
+            int records = Math.min(n * PlyCompressedDecoder.CHUNK_SIZE,
+                size - start * PlyCompressedDecoder.CHUNK_SIZE);
+            ((Buffer) bb).limit(records * stride);
+            writeFully(bb, channel);
+        }
+    }
+
+    /**
+     * Compute the order of the given splats along a Morton curve, based on
+     * their positions
+     * 
+     * @param splats The splats
+     * @return The indices of the splats, in Morton order
+     */
+    private static int[] computeMortonOrder(List<? extends Splat> splats)
+    {
+        int size = splats.size();
+        double min[] = 
+        { 
+            Double.POSITIVE_INFINITY, 
+            Double.POSITIVE_INFINITY,
+            Double.POSITIVE_INFINITY 
+        };
+        double max[] = 
+        { 
+            Double.NEGATIVE_INFINITY, 
+            Double.NEGATIVE_INFINITY,
+            Double.NEGATIVE_INFINITY 
+        };
+        for (int i = 0; i < size; i++)
+        {
+            Splat s = splats.get(i);
+            double x = s.getPositionX();
+            double y = s.getPositionY();
+            double z = s.getPositionZ();
+            min[0] = Math.min(min[0], x);
+            min[1] = Math.min(min[1], y);
+            min[2] = Math.min(min[2], z);
+            max[0] = Math.max(max[0], x);
+            max[1] = Math.max(max[1], y);
+            max[2] = Math.max(max[2], z);
+        }
+        long keys[] = new long[size];
+        IntStream.range(0, size).parallel().forEach(i ->
+        {
+            Splat s = splats.get(i);
+            int x = quantize(s.getPositionX(), min[0], max[0]);
+            int y = quantize(s.getPositionY(), min[1], max[1]);
+            int z = quantize(s.getPositionZ(), min[2], max[2]);
+            long code = spread(x) | (spread(y) << 1) | (spread(z) << 2);
+            keys[i] = (code << 32) | i;
+        });
+        Arrays.parallelSort(keys);
+        int order[] = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Quantize the given value to 10 bits, relative to the given range
+     * 
+     * @param value The value
+     * @param min The minimum
+     * @param max The maximum
+     * @return The quantized value
+     */
+    private static int quantize(double value, double min, double max)
+    {
+        double range = max - min;
+        if (!(range > 0.0))
+        {
+            return 0;
+        }
+        double n = (value - min) / range;
+        return (int) Math.max(0, Math.min(1023, Math.floor(n * 1024)));
+    }
+
+    /**
+     * Spread the lowest 10 bits of the given value so that there are two 
+     * zero-bits between each bit
+     * 
+     * @param v The value
+     * @return The result
+     */
+    private static long spread(int v)
+    {
+        long x = v & 0x3FF;
+        x = (x | (x << 16)) & 0x030000FFL;
+        x = (x | (x << 8)) & 0x0300F00FL;
+        x = (x | (x << 4)) & 0x030C30C3L;
+        x = (x | (x << 2)) & 0x09249249L;
+        return x;
+    }
+
+    /**
+     * Compute the bounds of the specified chunk, and store them in the 
+     * given array, in the order of the chunk properties
+     * 
+     * @param splats The splats
+     * @param order The Morton order of the splats
+     * @param c The chunk index
+     * @param encoder The encoder that provides the PLY values
+     * @param bounds The bounds of all chunks
+     */
+    private static void computeBounds(List<? extends Splat> splats,
+        int order[], int c, PlySplatEncoder encoder, float bounds[])
+    {
+        float values[] = new float[encoder.getNumValues()];
+        int numRest = values.length - 3 - 3 - 1 - 3 - 4;
+        int scaleIndex = 6 + numRest + 1;
+        float min[] = new float[9];
+        float max[] = new float[9];
+        Arrays.fill(min, Float.POSITIVE_INFINITY);
+        Arrays.fill(max, Float.NEGATIVE_INFINITY);
+        float v[] = new float[9];
+        int first = c * PlyCompressedDecoder.CHUNK_SIZE;
+        int last = Math.min(order.length, 
+            first + PlyCompressedDecoder.CHUNK_SIZE);
+        for (int j = first; j < last; j++)
+        {
+            encoder.fill(splats.get(order[j]), values);
+            for (int k = 0; k < 3; k++)
+            {
+                v[k] = values[k];
+                v[3 + k] = clampScale(values[scaleIndex + k]);
+                v[6 + k] = (float) (values[3 + k] 
+                    * PlyCompressedDecoder.SH_C0 + 0.5);
+            }
+            for (int k = 0; k < 9; k++)
+            {
+                min[k] = Math.min(min[k], v[k]);
+                max[k] = Math.max(max[k], v[k]);
+            }
+        }
+        int b = c * PlyCompressedDecoder.NUM_BOUNDS;
+        for (int g = 0; g < 3; g++)
+        {
+            for (int k = 0; k < 3; k++)
+            {
+                bounds[b + g * 6 + k] = min[g * 3 + k];
+                bounds[b + g * 6 + 3 + k] = max[g * 3 + k];
+            }
+        }
+    }
+
+    /**
+     * Encode the vertex records of the specified chunk into the given 
+     * buffer
+     * 
+     * @param splats The splats
+     * @param order The Morton order of the splats
+     * @param c The chunk index
+     * @param blockChunk The index of the chunk, relative to the block
+     * @param encoder The encoder that provides the PLY values
+     * @param bounds The bounds of all chunks
+     * @param bb The target buffer
+     */
+    private static void encodeVertices(List<? extends Splat> splats,
+        int order[], int c, int blockChunk, PlySplatEncoder encoder,
+        float bounds[], ByteBuffer bb)
+    {
+        float values[] = new float[encoder.getNumValues()];
+        int numRest = values.length - 3 - 3 - 1 - 3 - 4;
+        int opacityIndex = 6 + numRest;
+        int scaleIndex = opacityIndex + 1;
+        int rotationIndex = scaleIndex + 3;
+        int b = c * PlyCompressedDecoder.NUM_BOUNDS;
+        int first = c * PlyCompressedDecoder.CHUNK_SIZE;
+        int last = Math.min(order.length, 
+            first + PlyCompressedDecoder.CHUNK_SIZE);
+        int stride = PlyCompressedDecoder.VERTEX_PROPERTY_NAMES.length 
+            * Integer.BYTES;
+        int offset = blockChunk * PlyCompressedDecoder.CHUNK_SIZE * stride;
+        for (int j = first; j < last; j++)
+        {
+            encoder.fill(splats.get(order[j]), values);
+
+            int position = 
+                (pack(values[0], bounds, b + 0, 11) << 21) |
+                (pack(values[1], bounds, b + 1, 10) << 11) |
+                pack(values[2], bounds, b + 2, 11);
+            int scale = 
+                (pack(clampScale(values[scaleIndex + 0]), bounds, b + 6, 11) 
+                    << 21) |
+                (pack(clampScale(values[scaleIndex + 1]), bounds, b + 7, 10) 
+                    << 11) |
+                pack(clampScale(values[scaleIndex + 2]), bounds, b + 8, 11);
+            int color = 
+                (pack(toColor(values[3]), bounds, b + 12, 8) << 24) |
+                (pack(toColor(values[4]), bounds, b + 13, 8) << 16) |
+                (pack(toColor(values[5]), bounds, b + 14, 8) << 8) |
+                packUnorm(sigmoid(values[opacityIndex]), 8);
+            int rotation = packRotation(values, rotationIndex);
+
+            bb.putInt(offset + 0, position);
+            bb.putInt(offset + 4, rotation);
+            bb.putInt(offset + 8, scale);
+            bb.putInt(offset + 12, color);
+            offset += stride;
+        }
+    }
+
+    /**
+     * Encode the spherical harmonics records of the specified chunk into 
+     * the given buffer.
+     * 
+     * The coefficients of all splats of the chunk are gathered in the 
+     * interleaved layout, and converted into the planar layout of the 
+     * PLY properties in one pass, so that the <code>f_rest</code> values 
+     * of each record can be quantized consecutively.
+     * 
+     * @param splats The splats
+     * @param order The Morton order of the splats
+     * @param c The chunk index
+     * @param blockChunk The index of the chunk, relative to the block
+     * @param encoder The encoder that provides the PLY values
+     * @param shDimensions The number of spherical harmonics dimensions
+     * @param scratch The buffers for the interleaved and the planar 
+     * spherical harmonics, each with space for one chunk
+     * @param bb The target buffer
+     */
+    private static void encodeShs(List<? extends Splat> splats,
+        int order[], int c, int blockChunk, PlySplatEncoder encoder,
+        int shDimensions, FloatBuffer scratch[], ByteBuffer bb)
+    {
+        int shStride = shDimensions * 3;
+        int numRest = shStride - 3;
+        int first = c * PlyCompressedDecoder.CHUNK_SIZE;
+        int last = Math.min(order.length, 
+            first + PlyCompressedDecoder.CHUNK_SIZE);
+        int n = last - first;
+        FloatBuffer interleaved = scratch[0];
+        for (int j = 0; j < n; j++)
+        {
+            encoder.fillShs(splats.get(order[first + j]), interleaved,
+                j * shStride);
+        }
+        FloatBuffer planar = scratch[1];
+        SplatDatas.interleavedToPlanarShs(
+            interleaved, planar, n, shDimensions);
+
+        int offset = blockChunk * PlyCompressedDecoder.CHUNK_SIZE * numRest;
+        for (int j = 0; j < n; j++)
+        {
+            int p = j * shStride + 3;
+            for (int k = 0; k < numRest; k++)
+            {
+                double v = planar.get(p + k) / 8.0 + 0.5;
+                int value = Math.max(0, Math.min(255, (int) (v * 256)));
+                bb.put(offset + k, (byte) value);
+            }
+            offset += numRest;
+        }
+    }
+
+    /**
+     * Pack the given scalar-first quaternion, which is stored in the given
+     * array starting at the given index, using the "smallest three" 
+     * encoding
+     * 
+     * @param values The values
+     * @param index The index of the first quaternion component
+     * @return The packed rotation
+     */
+    private static int packRotation(float values[], int index)
+    {
+        double q[] = new double[4];
+        double lenSquared = 0.0;
+        int largest = 0;
+        for (int j = 0; j < 4; j++)
+        {
+            q[j] = values[index + j];
+            lenSquared += q[j] * q[j];
+            if (Math.abs(q[j]) > Math.abs(q[largest]))
+            {
+                largest = j;
+            }
+        }
+        double invLen = lenSquared > 0.0 ? 1.0 / Math.sqrt(lenSquared) : 0.0;
+        if (q[largest] < 0.0)
+        {
+            invLen = -invLen;
+        }
+        double norm = Math.sqrt(2.0) * 0.5;
+        int result = largest;
+        for (int j = 0; j < 4; j++)
+        {
+            if (j != largest)
+            {
+                double v = q[j] * invLen * norm + 0.5;
+                result = (result << 10) | packUnorm(v, 10);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Normalize the given value to [0,1], relative to the range from the 
+     * minimum at the given index of the bounds to the maximum that is
+     * stored 3 elements after it, and pack it into the given number of
+     * bits
+     * 
+     * @param value The value
+     * @param bounds The bounds
+     * @param index The index of the minimum
+     * @param bits The number of bits
+     * @return The packed value
+     */
+    private static int pack(float value, float bounds[], int index, int bits)
+    {
+        float min = bounds[index];
+        float max = bounds[index + 3];
+        float range = max - min;
+        if (!(range > 0.0f))
+        {
+            return 0;
+        }
+        return packUnorm((value - min) / range, bits);
+    }
+
+    /**
+     * Pack the given value in [0,1] into the given number of bits
+     * 
+     * @param value The value
+     * @param bits The number of bits
+     * @return The packed value
+     */
+    private static int packUnorm(double value, int bits)
+    {
+        int t = (1 << bits) - 1;
+        return (int) Math.max(0, Math.min(t, Math.floor(value * t + 0.5)));
+    }
+
+    /**
+     * Convert the given DC spherical harmonics coefficient into a color
+     * 
+     * @param dc The coefficient
+     * @return The color
+     */
+    private static float toColor(float dc)
+    {
+        return (float) (dc * PlyCompressedDecoder.SH_C0 + 0.5);
+    }
+
+    /**
+     * Returns the sigmoid of the given value
+     * 
+     * @param value The value
+     * @return The result
+     */
+    private static double sigmoid(double value)
+    {
+        return 1.0 / (1.0 + Math.exp(-value));
+    }
+
+    /**
+     * Clamp the given logarithmic scale to a finite range
+     * 
+     * @param scale The scale
+     * @return The result
+     */
+    private static float clampScale(float scale)
+    {
+        return Math.max(-MAX_ABS_SCALE, Math.min(MAX_ABS_SCALE, scale));
+    }
+
+    /**
+     * Write the header of the compressed PLY data
+     * 
+     * @param numChunks The number of chunks
+     * @param size The number of splats
+     * @param numRest The number of f_rest properties
+     * @param channel The channel
+     * @throws IOException If an IO error occurs
+     */
+    private static void writeHeader(int numChunks, int size, int numRest,
+        WritableByteChannel channel) throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ply\n");
+        sb.append("format binary_little_endian 1.0\n");
+        sb.append("element chunk " + numChunks + "\n");
+        for (String name : PlyCompressedDecoder.CHUNK_PROPERTY_NAMES)
+        {
+            sb.append("property float " + name + "\n");
+        }
+        sb.append("element vertex " + size + "\n");
+        for (String name : PlyCompressedDecoder.VERTEX_PROPERTY_NAMES)
+        {
+            sb.append("property uint " + name + "\n");
+        }
+        if (numRest > 0)
+        {
+            sb.append("element sh " + size + "\n");
+            for (int k = 0; k < numRest; k++)
+            {
+                sb.append("property uchar f_rest_" + k + "\n");
+            }
+        }
+        sb.append("end_header\n");
+        byte data[] = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        writeFully(ByteBuffer.wrap(data), channel);
+    }
+
+    /**
+     * Write all remaining bytes of the given buffer into the given channel
+     * 
+     * @param bb The buffer
+     * @param channel The channel
+     * @throws IOException If an IO error occurs
+     */
+    private static void writeFully(ByteBuffer bb, WritableByteChannel channel)
+        throws IOException
+    {
+        while (bb.hasRemaining())
+        {
+            channel.write(bb);
+        }
+    }
+}
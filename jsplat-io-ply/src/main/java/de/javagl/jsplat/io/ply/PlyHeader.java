@@ -0,0 +1,441 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.ply;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import de.javagl.ply.Descriptor;
+import de.javagl.ply.ElementDescriptor;
+import de.javagl.ply.ListPropertyDescriptor;
+import de.javagl.ply.PlyReaders;
+import de.javagl.ply.PlyType;
+import de.javagl.ply.PropertyDescriptor;
+
+/**
+ * The header of PLY data, as it is required for decoding binary PLY data 
+ * directly.
+ * 
+ * The elements and properties are read with the PLY library, and are 
+ * given by its {@link Descriptor}. In addition, this class provides the 
+ * format and the byte offset of the body, which are required for reading 
+ * the body directly from a channel, and the layout of the binary element 
+ * records.
+ */
+class PlyHeader
+{
+    /**
+     * The maximum size of a header, in bytes
+     */
+    static final int MAX_HEADER_SIZE = 1 << 20;
+
+    /**
+     * The end of the header
+     */
+    private static final byte END_HEADER[] = 
+        "end_header".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The {@link Descriptor}
+     */
+    private final Descriptor descriptor;
+
+    /**
+     * The format, e.g. <code>"binary_little_endian"</code>
+     */
+    private final String format;
+
+    /**
+     * The byte offset of the body
+     */
+    private final long bodyOffset;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param descriptor The {@link Descriptor}
+     * @param format The format
+     * @param bodyOffset The body offset
+     */
+    private PlyHeader(Descriptor descriptor, String format, long bodyOffset)
+    {
+        this.descriptor = descriptor;
+        this.format = format;
+        this.bodyOffset = bodyOffset;
+    }
+
+    /**
+     * Returns the {@link Descriptor}
+     * 
+     * @return The {@link Descriptor}
+     */
+    Descriptor getDescriptor()
+    {
+        return descriptor;
+    }
+
+    /**
+     * Returns the format, e.g. <code>"binary_little_endian"</code>
+     * 
+     * @return The format
+     */
+    String getFormat()
+    {
+        return format;
+    }
+
+    /**
+     * Returns the byte order of the body, or <code>null</code> if the 
+     * format is not a binary format
+     * 
+     * @return The byte order
+     */
+    ByteOrder getByteOrder()
+    {
+        if (format.equals("binary_little_endian"))
+        {
+            return ByteOrder.LITTLE_ENDIAN;
+        }
+        if (format.equals("binary_big_endian"))
+        {
+            return ByteOrder.BIG_ENDIAN;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the element descriptors, in the order in which the elements
+     * appear in the body
+     * 
+     * @return The element descriptors
+     */
+    List<ElementDescriptor> getElements()
+    {
+        return descriptor.getElementDescriptors();
+    }
+
+    /**
+     * Returns the byte offset of the body
+     * 
+     * @return The body offset
+     */
+    long getBodyOffset()
+    {
+        return bodyOffset;
+    }
+
+    /**
+     * Returns the element descriptor with the given name, or 
+     * <code>null</code> if there is no such element
+     * 
+     * @param name The name
+     * @return The element descriptor
+     */
+    ElementDescriptor findElement(String name)
+    {
+        for (ElementDescriptor element : getElements())
+        {
+            if (element.getName().equals(name))
+            {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the size of one binary record of the given element, in 
+     * bytes, or -1 if the element contains list properties
+     * 
+     * @param element The element descriptor
+     * @return The stride
+     */
+    static int getStride(ElementDescriptor element)
+    {
+        int stride = 0;
+        for (PropertyDescriptor property : element.getPropertyDescriptors())
+        {
+            int size = sizeOf(property);
+            if (size < 0)
+            {
+                return -1;
+            }
+            stride += size;
+        }
+        return stride;
+    }
+
+    /**
+     * Returns the byte offset of the specified property inside one binary
+     * record of the given element, or -1 if the property does not exist or
+     * the element contains list properties
+     * 
+     * @param element The element descriptor
+     * @param propertyName The property name
+     * @return The offset
+     */
+    static int getOffset(ElementDescriptor element, String propertyName)
+    {
+        int offset = 0;
+        for (PropertyDescriptor property : element.getPropertyDescriptors())
+        {
+            int size = sizeOf(property);
+            if (size < 0)
+            {
+                return -1;
+            }
+            if (property.getName().equals(propertyName))
+            {
+                return offset;
+            }
+            offset += size;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the type of the specified property, or <code>null</code>
+     * if the property does not exist or is a list property
+     * 
+     * @param element The element descriptor
+     * @param propertyName The property name
+     * @return The type
+     */
+    static PlyType getType(ElementDescriptor element, String propertyName)
+    {
+        for (PropertyDescriptor property : element.getPropertyDescriptors())
+        {
+            if (property.getName().equals(propertyName))
+            {
+                if (property instanceof ListPropertyDescriptor)
+                {
+                    return null;
+                }
+                return property.getType();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the size of the given property in a binary record, in bytes, 
+     * or -1 if it is a list property
+     * 
+     * @param property The property descriptor
+     * @return The size
+     */
+    private static int sizeOf(PropertyDescriptor property)
+    {
+        if (property instanceof ListPropertyDescriptor)
+        {
+            return -1;
+        }
+        switch (property.getType())
+        {
+            case CHAR:
+            case UCHAR:
+                return 1;
+
+            case SHORT:
+            case USHORT:
+                return 2;
+
+            case INT:
+            case UINT:
+            case FLOAT:
+                return 4;
+
+            case DOUBLE:
+                return 8;
+
+            default:
+                break;
+        }
+        return -1;
+    }
+
+    /**
+     * Read the header from the start of the given file channel.
+     * 
+     * The position of the channel will not be modified.
+     * 
+     * @param channel The channel
+     * @return The header
+     * @throws IOException If an IO error occurs, or the data does not 
+     * start with a valid PLY header
+     */
+    static PlyHeader read(FileChannel channel) throws IOException
+    {
+        ByteBuffer bb = ByteBuffer.allocate(4096);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        long position = 0;
+        int end = -1;
+        while (end < 0)
+        {
+            ((Buffer) bb).clear();
+            int read = channel.read(bb, position);
+            if (read <= 0 || position > MAX_HEADER_SIZE)
+            {
+                throw new IOException("No valid PLY header found");
+            }
+            position += read;
+            baos.write(bb.array(), 0, read);
+            end = findEndOfHeader(baos.toByteArray());
+        }
+        byte bytes[] = baos.toByteArray();
+        return create(bytes, end);
+    }
+
+    /**
+     * Read the header from the given input stream.
+     * 
+     * This will read exactly the bytes of the header from the given stream,
+     * so that the stream is positioned at the start of the body afterwards.
+     * 
+     * @param inputStream The input stream
+     * @return The header
+     * @throws IOException If an IO error occurs, or the data does not 
+     * start with a valid PLY header
+     */
+    static PlyHeader read(InputStream inputStream) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        int lineStart = 0;
+        while (true)
+        {
+            int b = inputStream.read();
+            if (b < 0 || baos.size() > MAX_HEADER_SIZE)
+            {
+                throw new IOException("No valid PLY header found");
+            }
+            baos.write(b);
+            if (b == '\n')
+            {
+                byte bytes[] = baos.toByteArray();
+                int end = findEndOfHeader(bytes, lineStart);
+                if (end >= 0)
+                {
+                    return create(bytes, end);
+                }
+                lineStart = bytes.length;
+            }
+        }
+    }
+
+    /**
+     * Create the header from the given bytes, where the given end is the
+     * index after the line that ends the header.
+     * 
+     * The elements and properties are read with the PLY library. The 
+     * format is taken from the <code>format</code> line of the header.
+     * 
+     * @param bytes The bytes
+     * @param end The end of the header
+     * @return The header
+     * @throws IOException If the header is not valid
+     */
+    private static PlyHeader create(byte bytes[], int end) throws IOException
+    {
+        Descriptor descriptor = PlyReaders.create().readDescriptor(
+            new ByteArrayInputStream(bytes, 0, end));
+        String lines[] = new String(bytes, 0, end, 
+            StandardCharsets.ISO_8859_1).split("\r?\n");
+        for (String line : lines)
+        {
+            String tokens[] = line.trim().split("\\s+");
+            if (tokens.length >= 2 && tokens[0].equals("format"))
+            {
+                return new PlyHeader(descriptor, tokens[1], end);
+            }
+        }
+        throw new IOException("No format found in PLY header");
+    }
+
+    /**
+     * Returns the index after the end of the header line (including the 
+     * line terminator) in the given bytes, or -1 if the header line was 
+     * not found
+     * 
+     * @param bytes The bytes
+     * @return The index
+     */
+    private static int findEndOfHeader(byte bytes[])
+    {
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++)
+        {
+            if (bytes[i] == '\n')
+            {
+                int end = findEndOfHeader(bytes, lineStart);
+                if (end >= 0)
+                {
+                    return end;
+                }
+                lineStart = i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index after the line that starts at the given index, if 
+     * this line is the header line, and -1 otherwise
+     * 
+     * @param bytes The bytes
+     * @param lineStart The start of the line
+     * @return The index
+     */
+    private static int findEndOfHeader(byte bytes[], int lineStart)
+    {
+        int index = lineStart;
+        for (int i = 0; i < END_HEADER.length; i++)
+        {
+            if (index >= bytes.length || bytes[index] != END_HEADER[i])
+            {
+                return -1;
+            }
+            index++;
+        }
+        if (index < bytes.length && bytes[index] == '\r')
+        {
+            index++;
+        }
+        if (index < bytes.length && bytes[index] == '\n')
+        {
+            return index + 1;
+        }
+        return -1;
+    }
+}
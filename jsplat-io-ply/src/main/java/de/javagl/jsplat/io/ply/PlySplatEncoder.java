@@ -0,0 +1,265 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.ply;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.Splats;
+import de.javagl.jsplat.processing.SplatTransforms;
+
+/**
+ * An encoder for PLY vertex records of splats.
+ * 
+ * The conversion of the coordinate system (a rotation about 180 degrees
+ * around the x-axis, from right-up-front to right-down-back) is fused
+ * into the encoding step: For this rotation, the positions and the 
+ * rotation quaternions only have to be permuted and negated, and each
+ * spherical harmonics coefficient is only multiplied with a constant
+ * sign. So the input splats do not have to be copied and transformed
+ * before they are written.
+ * 
+ * The values are written in the order of the PLY properties that are
+ * defined by {@link #createPropertyNames(int)}.
+ */
+class PlySplatEncoder
+{
+    /**
+     * The number of spherical harmonics dimensions
+     */
+    private final int shDimensions;
+
+    /**
+     * The signs of the spherical harmonics coefficients after a rotation
+     * about 180 degrees around the x-axis
+     */
+    private final float shSigns[];
+
+    /**
+     * The number of float values per vertex record
+     */
+    private final int numValues;
+
+    /**
+     * A thread-local scratch array for the values of one record
+     */
+    private final ThreadLocal<float[]> scratch;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @throws IllegalArgumentException If the degree is not in [0,3]
+     */
+    PlySplatEncoder(int shDegree)
+    {
+        if (shDegree < 0 || shDegree > 3)
+        {
+            throw new IllegalArgumentException(
+                "The degree must be in [0,3], but is " + shDegree);
+        }
+        this.shDimensions = Splats.dimensionsForDegree(shDegree);
+        this.numValues = 3 + 3 + 4 + 1 + shDimensions * 3;
+        double signs[] = 
+            SplatTransforms.computeShSigns(1.0, -1.0, -1.0, shDimensions);
+        this.shSigns = new float[shDimensions];
+        for (int d = 0; d < shDimensions; d++)
+        {
+            shSigns[d] = (float) signs[d];
+        }
+        this.scratch = ThreadLocal.withInitial(() -> new float[numValues]);
+    }
+
+    /**
+     * Returns the number of float values per vertex record
+     * 
+     * @return The number of values
+     */
+    int getNumValues()
+    {
+        return numValues;
+    }
+
+    /**
+     * Returns the size of one binary vertex record, in bytes
+     * 
+     * @return The stride
+     */
+    int getStride()
+    {
+        return numValues * Float.BYTES;
+    }
+
+    /**
+     * Write the binary vertex record for the given splat into the given 
+     * buffer, starting at the given (absolute) byte offset. The position 
+     * of the buffer is not modified, so different threads may encode
+     * different records into the same buffer.
+     * 
+     * @param splat The splat
+     * @param bb The target buffer
+     * @param offset The byte offset
+     */
+    void encode(Splat splat, ByteBuffer bb, int offset)
+    {
+        float values[] = scratch.get();
+        fill(splat, values);
+        for (int j = 0; j < numValues; j++)
+        {
+            bb.putFloat(offset + j * Float.BYTES, values[j]);
+        }
+    }
+
+    /**
+     * Append the ASCII vertex record (including the line break) for the 
+     * given splat to the given string builder.
+     * 
+     * @param splat The splat
+     * @param sb The string builder
+     */
+    void encodeAscii(Splat splat, StringBuilder sb)
+    {
+        float values[] = scratch.get();
+        fill(splat, values);
+        for (int j = 0; j < numValues; j++)
+        {
+            if (j > 0)
+            {
+                sb.append(" ");
+            }
+            sb.append(values[j]);
+        }
+        sb.append("\n");
+    }
+
+    /**
+     * Fill the given array with the PLY property values of the given splat,
+     * after it was rotated about 180 degrees around the x-axis.
+     * 
+     * @param s The splat
+     * @param values The values
+     */
+    void fill(Splat s, float values[])
+    {
+        int v = 0;
+        values[v++] = (float) s.getPositionX();
+        values[v++] = (float) -s.getPositionY();
+        values[v++] = (float) -s.getPositionZ();
+        values[v++] = (float) s.getShX(0);
+        values[v++] = (float) s.getShY(0);
+        values[v++] = (float) s.getShZ(0);
+
+        // The f_rest values are stored for all x-components,
+        // then all y-components, then all z-components
+        for (int d = 1; d < shDimensions; d++)
+        {
+            values[v++] = shSigns[d] * (float) s.getShX(d);
+        }
+        for (int d = 1; d < shDimensions; d++)
+        {
+            values[v++] = shSigns[d] * (float) s.getShY(d);
+        }
+        for (int d = 1; d < shDimensions; d++)
+        {
+            values[v++] = shSigns[d] * (float) s.getShZ(d);
+        }
+        values[v++] = (float) s.getOpacity();
+        values[v++] = (float) s.getScaleX();
+        values[v++] = (float) s.getScaleY();
+        values[v++] = (float) s.getScaleZ();
+
+        // The rotation (x,y,z,w) is multiplied with the quaternion of 
+        // the rotation about the x-axis, (1,0,0,0), which yields
+        // (w,-z,y,-x). PLY uses scalar-first quaternions.
+        double rX = s.getRotationX();
+        double rY = s.getRotationY();
+        double rZ = s.getRotationZ();
+        double rW = s.getRotationW();
+        double lenSquared = rX * rX + rY * rY + rZ * rZ + rW * rW;
+        if (lenSquared > 0.0 && Math.abs(1.0 - lenSquared) >= 1e-6)
+        {
+            double invLen = 1.0 / Math.sqrt(lenSquared);
+            rX *= invLen;
+            rY *= invLen;
+            rZ *= invLen;
+            rW *= invLen;
+        }
+        values[v++] = (float) -rX;
+        values[v++] = (float) rW;
+        values[v++] = (float) -rZ;
+        values[v++] = (float) rY;
+    }
+
+    /**
+     * Write the spherical harmonics coefficients of the given splat into 
+     * the given buffer, in the interleaved layout of a 
+     * {@link de.javagl.jsplat.SplatData}, starting at the given index, 
+     * after the splat was rotated about 180 degrees around the x-axis. 
+     * The position of the buffer is not modified.
+     * 
+     * @param s The splat
+     * @param shs The target buffer
+     * @param index The index of the first coefficient in the buffer
+     */
+    void fillShs(Splat s, FloatBuffer shs, int index)
+    {
+        for (int d = 0; d < shDimensions; d++)
+        {
+            int i = index + d * 3;
+            shs.put(i + 0, shSigns[d] * (float) s.getShX(d));
+            shs.put(i + 1, shSigns[d] * (float) s.getShY(d));
+            shs.put(i + 2, shSigns[d] * (float) s.getShZ(d));
+        }
+    }
+
+    /**
+     * Create the names of the properties of the PLY vertices, in the order
+     * in which they are written
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @return The property names
+     */
+    static List<String> createPropertyNames(int shDegree)
+    {
+        List<String> names = new ArrayList<String>();
+        names.addAll(Arrays.asList("x", "y", "z", "f_dc_0", "f_dc_1", 
+            "f_dc_2"));
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        for (int i = 0; i < (shDimensions - 1) * 3; i++)
+        {
+            names.add("f_rest_" + i);
+        }
+        names.addAll(Arrays.asList("opacity", "scale_0", "scale_1", 
+            "scale_2", "rot_0", "rot_1", "rot_2", "rot_3"));
+        return names;
+    }
+
+}
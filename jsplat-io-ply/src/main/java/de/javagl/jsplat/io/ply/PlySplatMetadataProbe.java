@@ -0,0 +1,164 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.ply;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.SplatMetadataProbe;
+import de.javagl.jsplat.Splats;
+import de.javagl.ply.ElementDescriptor;
+import de.javagl.ply.PropertyDescriptor;
+
+/**
+ * Implementation of a {@link SplatMetadataProbe} for PLY files.
+ * 
+ * The size and spherical harmonics degree are obtained from the header. 
+ * For the standard PLY layout, the bounds are not stored, and therefore
+ * not available. For the compressed PLY layout, the bounds are computed
+ * from the bounds of the chunks, which are stored before the vertices.
+ */
+public final class PlySplatMetadataProbe implements SplatMetadataProbe
+{
+    /**
+     * Creates a new instance
+     */
+    public PlySplatMetadataProbe()
+    {
+        // Default constructor
+    }
+
+    @Override
+    public SplatMetadata probe(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, 
+            StandardOpenOption.READ))
+        {
+            PlyHeader header = PlyHeader.read(channel);
+            ElementDescriptor vertex = header.findElement("vertex");
+            if (vertex == null)
+            {
+                throw new IOException("No vertex element found in " + path);
+            }
+            if (!PlyCompressedDecoder.isCompressed(header))
+            {
+                int shDegree = computeShDegree(vertex);
+                return Splats.createMetadata(vertex.getCount(), shDegree, null);
+            }
+            ElementDescriptor sh = header.findElement("sh");
+            int shDegree = sh == null ? 0 : computeShDegree(sh);
+            float bounds[] = readCompressedBounds(header, channel);
+            return Splats.createMetadata(vertex.getCount(), shDegree, bounds);
+        }
+    }
+
+    /**
+     * Compute the spherical harmonics degree from the names of the 
+     * properties of the given element
+     * 
+     * @param element The element
+     * @return The spherical harmonics degree
+     */
+    private static int computeShDegree(ElementDescriptor element)
+    {
+        Set<String> propertyNames = element.getPropertyDescriptors().stream()
+            .map(PropertyDescriptor::getName).collect(Collectors.toSet());
+        return PlySplatReader.computeSphericalHarmonicsDegree(propertyNames);
+    }
+
+    /**
+     * Read the bounds of all chunks of compressed PLY data, and return the
+     * overall bounds, converted into the coordinate system of the splats 
+     * that are returned by the {@link PlySplatReader}.
+     * 
+     * @param header The header
+     * @param channel The channel
+     * @return The bounds
+     * @throws IOException If an IO error occurs
+     */
+    private static float[] readCompressedBounds(PlyHeader header,
+        FileChannel channel) throws IOException
+    {
+        long offset = header.getBodyOffset();
+        ElementDescriptor chunk = null;
+        for (ElementDescriptor element : header.getElements())
+        {
+            if (element.getName().equals("chunk"))
+            {
+                chunk = element;
+                break;
+            }
+            int stride = PlyHeader.getStride(element);
+            if (stride < 0)
+            {
+                return null;
+            }
+            offset += (long) element.getCount() * stride;
+        }
+        if (chunk == null || PlyHeader.getStride(chunk) < 0 
+            || chunk.getCount() == 0)
+        {
+            return null;
+        }
+        channel.position(offset);
+        float chunkBounds[] = PlyCompressedDecoder.readBounds(
+            chunk, channel, header.getByteOrder());
+        float min[] = 
+        { 
+            Float.POSITIVE_INFINITY, 
+            Float.POSITIVE_INFINITY,
+            Float.POSITIVE_INFINITY 
+        };
+        float max[] = 
+        { 
+            Float.NEGATIVE_INFINITY, 
+            Float.NEGATIVE_INFINITY,
+            Float.NEGATIVE_INFINITY 
+        };
+        for (int c = 0; c < chunk.getCount(); c++)
+        {
+            int b = c * PlyCompressedDecoder.NUM_BOUNDS;
+            for (int k = 0; k < 3; k++)
+            {
+                min[k] = Math.min(min[k], chunkBounds[b + k]);
+                max[k] = Math.max(max[k], chunkBounds[b + 3 + k]);
+            }
+        }
+        // The PLY data is converted from right-down-back to right-up-front
+        // with a rotation about 180 degrees around the x-axis
+        return new float[]
+        {
+            min[0], -max[1], -max[2],
+            max[0], -min[1], -min[2]
+        };
+    }
+}
@@ -26,15 +26,32 @@
  */
 package de.javagl.jsplat.io.ply;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatBatchReader;
+import de.javagl.jsplat.SplatBatchSource;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
 import de.javagl.jsplat.SplatListReader;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.SplatStreamReader;
 import de.javagl.jsplat.Splats;
 import de.javagl.jsplat.processing.SplatTransforms;
 import de.javagl.ply.Descriptor;
@@ -47,104 +64,541 @@ import de.javagl.ply.PlyType;
 import de.javagl.ply.PropertyDescriptor;
 
 /**
- * Implementation of a {@link SplatListReader} that reads PLY data
+ * Implementation of a {@link SplatListReader}, {@link SplatStreamReader}
+ * and {@link SplatBatchReader} that reads PLY data.
+ * 
+ * In addition to the standard PLY layout with float properties, this 
+ * reader supports the chunked, quantized "compressed PLY" layout, as 
+ * written by the {@link PlyCompressedSplatWriter}. Such data is detected
+ * from the header, and always decoded completely into memory.
+ * 
+ * The attributes that are read, and the maximum spherical harmonics degree,
+ * can be configured with {@link SplatReadOptions}. The properties of 
+ * attributes that are not read are skipped.
  */
-public final class PlySplatReader implements SplatListReader
+public final class PlySplatReader
+    implements SplatListReader, SplatStreamReader, SplatBatchReader
 {
+    /**
+     * The matrix for a rotation about 180 degrees around x, to convert 
+     * from right-down-back to right-up-front
+     */
+    // @formatter:off
+    private static final double ROTATE_180_X[] = 
+    { 
+        1.0,  0.0,  0.0, 0.0, 
+        0.0, -1.0,  0.0, 0.0, 
+        0.0,  0.0, -1.0, 0.0, 
+        0.0,  0.0,  0.0, 1.0 
+    };
+    // @formatter:on
+
+    /**
+     * The batch size that is used when reading PLY data into a 
+     * {@link SplatData} with the generic PLY reader
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1 << 16;
+    
+    /**
+     * Whether binary PLY data should be decoded in parallel
+     */
+    private final boolean parallel;
+
+    /**
+     * The {@link SplatReadOptions}
+     */
+    private final SplatReadOptions options;
+
     /**
      * Creates a new instance
      */
     public PlySplatReader()
     {
-        // Default constructor
+        this(false, SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance.
+     * 
+     * If the <code>parallel</code> flag is set, then binary PLY files that
+     * are read with {@link #readSplatData(Path)} are partitioned into 
+     * ranges of vertex records, and these ranges are decoded in parallel.
+     * 
+     * @param parallel Whether binary PLY data should be decoded in parallel
+     */
+    public PlySplatReader(boolean parallel)
+    {
+        this(parallel, SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param options The {@link SplatReadOptions}
+     */
+    public PlySplatReader(SplatReadOptions options)
+    {
+        this(false, options);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param parallel Whether binary PLY data should be decoded in parallel
+     * @param options The {@link SplatReadOptions}
+     * @see #PlySplatReader(boolean)
+     */
+    public PlySplatReader(boolean parallel, SplatReadOptions options)
+    {
+        this.parallel = parallel;
+        this.options = Objects.requireNonNull(options,
+            "The options may not be null");
     }
 
     @Override
     public List<MutableSplat> readList(InputStream inputStream)
         throws IOException
     {
+        InputStream markableInputStream = markable(inputStream);
+        SplatData compressed = readCompressed(markableInputStream);
+        if (compressed != null)
+        {
+            return new ArrayList<MutableSplat>(SplatDatas.asList(compressed));
+        }
         PlyReader plyReader = PlyReaders.create();
-        Descriptor descriptor = plyReader.readDescriptor(inputStream);
-        int shDegree = computeSphericalHarmonicsDegree(descriptor);
+        Descriptor descriptor = plyReader.readDescriptor(markableInputStream);
+        int fileShDegree = computeSphericalHarmonicsDegree(descriptor);
+        int shDegree = options.computeShDegree(fileShDegree);
+
         int shDimensions = Splats.dimensionsForDegree(shDegree);
+        Consumer<MutableSplat> transform =
+            SplatTransforms.createTransform(ROTATE_180_X, shDimensions);
 
+        // The conversion of the coordinate system is applied to each
+        // splat as it is decoded
         List<MutableSplat> splats = new ArrayList<MutableSplat>();
-
         ObjectPlyTarget plyTarget = new ObjectPlyTarget();
         Handle<MutableSplat> h =
-            plyTarget.register("vertex", () -> Splats.create(shDegree));
+            plyTarget.register("vertex", () -> options.createSplat(shDegree));
+        registerProperties(h, descriptor, fileShDegree, options);
+        h.consume(s ->
+        {
+            transform.accept(s);
+            splats.add(s);
+        });
+
+        plyReader.readContent(markableInputStream, plyTarget);
+        return splats;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The splats are decoded in a separate thread, and the conversion of
+     * the coordinate system is applied to each splat as it is decoded. 
+     * Only a small number of splats is kept in memory at any point in 
+     * time. The returned stream should be closed when it is no longer 
+     * needed, to stop the decoding.
+     */
+    @Override
+    public Stream<MutableSplat> readStream(InputStream inputStream)
+        throws IOException
+    {
+        InputStream markableInputStream = markable(inputStream);
+        SplatData compressed = readCompressed(markableInputStream);
+        if (compressed != null)
+        {
+            return SplatDatas.asList(compressed).stream();
+        }
+        PlyReader plyReader = PlyReaders.create();
+        Descriptor descriptor = plyReader.readDescriptor(markableInputStream);
+        int fileShDegree = computeSphericalHarmonicsDegree(descriptor);
+        int shDegree = options.computeShDegree(fileShDegree);
+        long size = computeVertexCount(descriptor);
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        Consumer<MutableSplat> transform =
+            SplatTransforms.createTransform(ROTATE_180_X, shDimensions);
+
+        PlySplatSpliterator spliterator =
+            new PlySplatSpliterator(size, consumer ->
+            {
+                ObjectPlyTarget plyTarget = new ObjectPlyTarget();
+                Handle<MutableSplat> h = plyTarget.register("vertex",
+                    () -> options.createSplat(shDegree));
+                registerProperties(h, descriptor, fileShDegree, options);
+                h.consume(s ->
+                {
+                    transform.accept(s);
+                    consumer.accept(s);
+                });
+                plyReader.readContent(markableInputStream, plyTarget);
+            });
+        Stream<MutableSplat> stream =
+            StreamSupport.stream(spliterator, false);
+        return stream.onClose(spliterator::close);
+    }
+
+    @Override
+    public SplatBatchSource readBatches(InputStream inputStream, 
+        int batchSize) throws IOException
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The batch size must be positive, but is " + batchSize);
+        }
+        InputStream markableInputStream = markable(inputStream);
+        SplatData compressed = readCompressed(markableInputStream);
+        if (compressed != null)
+        {
+            return SplatDatas.createBatchSource(compressed, batchSize);
+        }
+        PlyReader plyReader = PlyReaders.create();
+        Descriptor descriptor = plyReader.readDescriptor(markableInputStream);
+        int fileShDegree = computeSphericalHarmonicsDegree(descriptor);
+        int shDegree = options.computeShDegree(fileShDegree);
+        long size = computeVertexCount(descriptor);
+        return new SplatBatchSource()
+        {
+            /**
+             * Whether this source was already consumed
+             */
+            private boolean consumed = false;
+
+            @Override
+            public int getShDegree()
+            {
+                return shDegree;
+            }
+
+            @Override
+            public long getSize()
+            {
+                return size;
+            }
+
+            @Override
+            public void forEachBatch(Consumer<? super SplatData> consumer)
+                throws IOException
+            {
+                if (consumed)
+                {
+                    throw new IllegalStateException(
+                        "The source was already consumed");
+                }
+                consumed = true;
+                readBatchesContent(plyReader, descriptor, markableInputStream,
+                    fileShDegree, options, (int) Math.min(size, batchSize),
+                    consumer);
+            }
+        };
+    }
+
+    /**
+     * Read the PLY data from the specified file into a {@link SplatData}.
+     * 
+     * For binary PLY data where the vertex elements have a fixed size, 
+     * the vertex records are read directly from memory-mapped regions of 
+     * the file. This may be done in parallel, depending on the flag that
+     * was given in the constructor. For other data, like ASCII PLY data or
+     * data that contains unsupported property types, the data is read with
+     * the generic PLY reader, in batches.
+     * 
+     * @param path The path to the file
+     * @return The {@link SplatData}
+     * @throws IOException If an IO error occurs, or the data contains more
+     * vertices than can be stored in a {@link SplatData}
+     */
+    public SplatData readSplatData(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, 
+            StandardOpenOption.READ))
+        {
+            PlyHeader header = PlyHeader.read(channel);
+            if (PlyCompressedDecoder.isCompressed(header))
+            {
+                channel.position(header.getBodyOffset());
+                SplatData splatData = PlyCompressedDecoder.decode(
+                    header, channel, parallel, options);
+                SplatTransforms.transformList(
+                    SplatDatas.asList(splatData), ROTATE_180_X);
+                return splatData;
+            }
+            PlyBinaryDecoder decoder = 
+                PlyBinaryDecoder.create(channel, header, options);
+            if (decoder != null)
+            {
+                long count = decoder.getCount();
+                validateCount(count);
+                SplatData splatData =
+                    SplatDatas.create(decoder.getShDegree(), (int) count);
+                decoder.decodeAll(splatData, parallel);
+                SplatTransforms.transformList(
+                    SplatDatas.asList(splatData), ROTATE_180_X);
+                return splatData;
+            }
+        }
+        try (InputStream inputStream =
+            new BufferedInputStream(Files.newInputStream(path)))
+        {
+            SplatBatchSource source =
+                readBatches(inputStream, DEFAULT_BATCH_SIZE);
+            long count = source.getSize();
+            validateCount(count);
+            SplatData splatData =
+                SplatDatas.create(source.getShDegree(), (int) count);
+            int offset[] = { 0 };
+            source.forEachBatch(batch -> 
+            {
+                int n = batch.getSize();
+                SplatDatas.copy(batch, 0, splatData, offset[0], n);
+                offset[0] += n;
+            });
+            return splatData;
+        }
+    }
+
+    /**
+     * Returns the given input stream if it supports marking, or a buffered
+     * input stream that wraps it otherwise
+     * 
+     * @param inputStream The input stream
+     * @return The markable input stream
+     */
+    private static InputStream markable(InputStream inputStream)
+    {
+        if (inputStream.markSupported())
+        {
+            return inputStream;
+        }
+        return new BufferedInputStream(inputStream);
+    }
 
-        // TODO: This Float/Double check is not so pretty, but
-        // a quick solution for the time being.
-        if (isDouble(descriptor, "x"))
+    /**
+     * Read the data from the given input stream if it is compressed PLY 
+     * data, and return it, with the conversion of the coordinate system
+     * already applied. 
+     * 
+     * If the data is not compressed PLY data, then <code>null</code> is 
+     * returned, and the input stream is reset to the position where it
+     * was when this method was called.
+     * 
+     * @param inputStream The input stream, which must support marking
+     * @return The {@link SplatData}, or <code>null</code>
+     * @throws IOException If an IO error occurs
+     */
+    private SplatData readCompressed(InputStream inputStream)
+        throws IOException
+    {
+        inputStream.mark(PlyHeader.MAX_HEADER_SIZE + 1);
+        PlyHeader header = null;
+        try
+        {
+            header = PlyHeader.read(inputStream);
+        }
+        catch (IOException e)
         {
-            h.withDouble("x", (s, x) -> s.setPositionX(x));
+            // Errors in the header will be reported by the generic reader
+            inputStream.reset();
+            return null;
         }
-        else
+        if (!PlyCompressedDecoder.isCompressed(header))
+        {
+            inputStream.reset();
+            return null;
+        }
+        SplatData splatData = PlyCompressedDecoder.decode(
+            header, Channels.newChannel(inputStream), parallel, options);
+        SplatTransforms.transformList(
+            SplatDatas.asList(splatData), ROTATE_180_X);
+        return splatData;
+    }
+
+    /**
+     * Make sure that the given number of vertices can be stored in a 
+     * {@link SplatData}
+     * 
+     * @param count The number of vertices
+     * @throws IOException If the count is too large
+     */
+    private static void validateCount(long count) throws IOException
+    {
+        if (count > Integer.MAX_VALUE)
         {
-            h.withFloat("x", (s, x) -> s.setPositionX(x));
+            throw new IOException("The PLY data contains " + count
+                + " vertices, which cannot be stored in a SplatData");
         }
+    }
 
-        if (isDouble(descriptor, "y"))
+    /**
+     * Read the content of the PLY data from the given input stream, and
+     * pass it to the given consumer in batches.
+     * 
+     * The splats are read directly into the buffers of a single batch
+     * {@link SplatData}, which is passed to the consumer whenever it is 
+     * full, and reused afterwards. The conversion of the coordinate system
+     * is applied to each splat as it is decoded.
+     * 
+     * @param plyReader The {@link PlyReader}
+     * @param descriptor The {@link Descriptor}
+     * @param inputStream The input stream
+     * @param fileShDegree The spherical harmonics degree of the data
+     * @param options The {@link SplatReadOptions}
+     * @param batchSize The batch size
+     * @param consumer The consumer
+     * @throws IOException If an IO error occurs
+     */
+    private static void readBatchesContent(PlyReader plyReader,
+        Descriptor descriptor, InputStream inputStream, int fileShDegree,
+        SplatReadOptions options, int batchSize, 
+        Consumer<? super SplatData> consumer) throws IOException
+    {
+        int shDegree = options.computeShDegree(fileShDegree);
+        SplatData batch = SplatDatas.create(shDegree, Math.max(1, batchSize));
+        List<MutableSplat> batchSplats = SplatDatas.asList(batch);
+        int count[] = { 0 };
+        Consumer<MutableSplat> transform = SplatTransforms.createTransform(
+            ROTATE_180_X, batch.getShDimensions());
+
+        // The elements that are created by the PLY target are views on 
+        // the batch data, so that the values are written into its buffers
+        ObjectPlyTarget plyTarget = new ObjectPlyTarget();
+        Handle<MutableSplat> h =
+            plyTarget.register("vertex", () -> batchSplats.get(count[0]));
+        registerProperties(h, descriptor, fileShDegree, options);
+        h.consume(s -> 
+        {
+            transform.accept(s);
+            count[0]++;
+            if (count[0] == batchSplats.size())
+            {
+                consumer.accept(batch);
+                count[0] = 0;
+            }
+        });
+
+        plyReader.readContent(inputStream, plyTarget);
+        
+        if (count[0] > 0)
+        {
+            SplatData last = SplatDatas.slice(batch, 0, count[0]);
+            consumer.accept(last);
+        }
+    }
+
+    /**
+     * Register the setters for the properties of the splats at the given
+     * handle.
+     * 
+     * Setters are only registered for the properties of the attributes 
+     * that are read according to the given options, and for the spherical
+     * harmonics coefficients up to the degree that is determined by the
+     * options.
+     * 
+     * @param h The handle
+     * @param descriptor The PLY {@link Descriptor}
+     * @param fileShDegree The spherical harmonics degree of the data
+     * @param options The {@link SplatReadOptions}
+     */
+    private static void registerProperties(Handle<MutableSplat> h,
+        Descriptor descriptor, int fileShDegree, SplatReadOptions options)
+    {
+        if (options.isRead(SplatAttribute.POSITION))
         {
-            h.withDouble("y", (s, y) -> s.setPositionY(y));
+            // TODO: This Float/Double check is not so pretty, but
+            // a quick solution for the time being.
+            if (isDouble(descriptor, "x"))
+            {
+                h.withDouble("x", (s, x) -> s.setPositionX(x));
+            }
+            else
+            {
+                h.withFloat("x", (s, x) -> s.setPositionX(x));
+            }
+    
+            if (isDouble(descriptor, "y"))
+            {
+                h.withDouble("y", (s, y) -> s.setPositionY(y));
+            }
+            else
+            {
+                h.withFloat("y", (s, y) -> s.setPositionY(y));
+            }
+            if (isDouble(descriptor, "z"))
+            {
+                h.withDouble("z", (s, z) -> s.setPositionZ(z));
+            }
+            else
+            {
+                h.withFloat("z", (s, z) -> s.setPositionZ(z));
+            }
         }
-        else
+
+        if (options.isRead(SplatAttribute.OPACITY))
         {
-            h.withFloat("y", (s, y) -> s.setPositionY(y));
+            h.withFloat("opacity", (s, v) -> s.setOpacity(v));
         }
-        if (isDouble(descriptor, "z"))
+
+        if (options.isRead(SplatAttribute.SCALE))
         {
-            h.withDouble("z", (s, z) -> s.setPositionZ(z));
+            h.withFloat("scale_0", (s, v) -> s.setScaleX(v));
+            h.withFloat("scale_1", (s, v) -> s.setScaleY(v));
+            h.withFloat("scale_2", (s, v) -> s.setScaleZ(v));
         }
-        else
+
+        if (options.isRead(SplatAttribute.ROTATION))
         {
-            h.withFloat("z", (s, z) -> s.setPositionZ(z));
+            // PLY uses scalar-first quaternions
+            h.withFloat("rot_0", (s, v) -> s.setRotationW(v));
+            h.withFloat("rot_1", (s, v) -> s.setRotationX(v));
+            h.withFloat("rot_2", (s, v) -> s.setRotationY(v));
+            h.withFloat("rot_3", (s, v) -> s.setRotationZ(v));
         }
 
+        if (!options.isRead(SplatAttribute.SH))
+        {
+            return;
+        }
         h.withFloat("f_dc_0", (s, v) -> s.setShX(0, v));
         h.withFloat("f_dc_1", (s, v) -> s.setShY(0, v));
         h.withFloat("f_dc_2", (s, v) -> s.setShZ(0, v));
 
-        h.withFloat("opacity", (s, v) -> s.setOpacity(v));
-        
-        h.withFloat("scale_0", (s, v) -> s.setScaleX(v));
-        h.withFloat("scale_1", (s, v) -> s.setScaleY(v));
-        h.withFloat("scale_2", (s, v) -> s.setScaleZ(v));
-
-        // PLY uses scalar-first quaternions
-        h.withFloat("rot_0", (s, v) -> s.setRotationW(v));
-        h.withFloat("rot_1", (s, v) -> s.setRotationX(v));
-        h.withFloat("rot_2", (s, v) -> s.setRotationY(v));
-        h.withFloat("rot_3", (s, v) -> s.setRotationZ(v));
-
+        // The f_rest properties are indexed based on the dimensions of 
+        // the data, even if fewer dimensions are read
+        int fileShDimensions = Splats.dimensionsForDegree(fileShDegree);
+        int shDegree = options.computeShDegree(fileShDegree);
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
         for (int d = 0; d < shDimensions - 1; d++)
         {
             int sd = d + 1;
-            int ix = (shDimensions - 1) * 0 + d;
-            int iy = (shDimensions - 1) * 1 + d;
-            int iz = (shDimensions - 1) * 2 + d;
+            int ix = (fileShDimensions - 1) * 0 + d;
+            int iy = (fileShDimensions - 1) * 1 + d;
+            int iz = (fileShDimensions - 1) * 2 + d;
             h.withFloat("f_rest_" + ix, (s, v) -> s.setShX(sd, v));
             h.withFloat("f_rest_" + iy, (s, v) -> s.setShY(sd, v));
             h.withFloat("f_rest_" + iz, (s, v) -> s.setShZ(sd, v));
         }
-        h.consume(splats::add);
-
-        plyReader.readContent(inputStream, plyTarget);
+    }
 
-        // Rotate about 180 degrees around x, to convert from
-        // right-down-back to right-up-front
-        // @formatter:off
-        double rotate180X[] = 
-        { 
-            1.0,  0.0,  0.0, 0.0, 
-            0.0, -1.0,  0.0, 0.0, 
-            0.0,  0.0, -1.0, 0.0, 
-            0.0,  0.0,  0.0, 1.0 
-        };
-        // @formatter:on
-        SplatTransforms.transformList(splats, rotate180X);
-        return splats;
+    /**
+     * Returns the number of elements of the "vertex" element descriptor in
+     * the given descriptor, or 0 if there is no such element descriptor
+     * 
+     * @param descriptor The descriptor
+     * @return The number of vertices
+     */
+    private static long computeVertexCount(Descriptor descriptor)
+    {
+        List<ElementDescriptor> elementDescriptors =
+            descriptor.getElementDescriptors();
+        for (ElementDescriptor elementDescriptor : elementDescriptors)
+        {
+            if (elementDescriptor.getName().equals("vertex"))
+            {
+                return elementDescriptor.getCount();
+            }
+        }
+        return 0;
     }
 
     /**
@@ -204,6 +658,18 @@ public final class PlySplatReader implements SplatListReader
             elementDescriptor.getPropertyDescriptors();
         Set<String> propertyNames = propertyDescriptors.stream()
             .map(PropertyDescriptor::getName).collect(Collectors.toSet());
+        return computeSphericalHarmonicsDegree(propertyNames);
+    }
+
+    /**
+     * Make an educated guess about the spherical harmonics degree of the PLY
+     * data from the given property names.
+     * 
+     * @param propertyNames The property names
+     * @return The spherical harmonics degree
+     */
+    static int computeSphericalHarmonicsDegree(Set<String> propertyNames)
+    {
         if (propertyNames.contains("f_rest_44"))
         {
             return 3;
@@ -0,0 +1,440 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.ply;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import de.javagl.jsplat.MutableSplat;
+
+/**
+ * Implementation of a spliterator that provides the splats that are 
+ * decoded by a PLY reader.
+ * 
+ * The PLY reader pushes the decoded elements into a consumer. In order to
+ * offer them as a stream, the reading is done in a separate daemon thread,
+ * when the first element is requested. The elements are passed to the 
+ * spliterator in chunks, via a bounded queue, so that only a small number 
+ * of splats is resident at any point in time.
+ * 
+ * The reading thread ends when all elements have been passed to the queue,
+ * when an error occurs, when the spliterator is closed, or when the 
+ * spliterator is no longer reachable. On each exit path where the 
+ * spliterator may still be waiting for elements, the thread passes either
+ * an end marker or an error marker to the queue.
+ * 
+ * The {@link #close()} method should be called when the elements are no
+ * longer needed, to stop the reading thread immediately. It may be called
+ * from any thread. A consumer that is waiting for elements at this point
+ * will see the end of the input.
+ */
+class PlySplatSpliterator extends Spliterators.AbstractSpliterator<MutableSplat>
+{
+    /**
+     * The number of splats that are passed to the spliterator at once
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * The number of chunks that may be pending in the queue
+     */
+    private static final int QUEUE_CAPACITY = 4;
+
+    /**
+     * The time, in milliseconds, after which the reading thread checks 
+     * whether the spliterator was closed or is no longer reachable, while
+     * it is waiting for space in the queue
+     */
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    /**
+     * Interface for the reading process that is executed in the background
+     */
+    interface Reading
+    {
+        /**
+         * Read the splats, and pass them to the given consumer
+         * 
+         * @param consumer The consumer
+         * @throws IOException If an IO error occurs
+         */
+        void read(Consumer<MutableSplat> consumer) throws IOException;
+    }
+
+    /**
+     * The queue of chunks
+     */
+    private final BlockingQueue<Chunk> queue;
+
+    /**
+     * The producer that performs the reading
+     */
+    private final Producer producer;
+
+    /**
+     * The current chunk
+     */
+    private Chunk current;
+
+    /**
+     * The index of the next element in the current chunk
+     */
+    private int index;
+
+    /**
+     * Whether the reading thread was started
+     */
+    private boolean started;
+
+    /**
+     * Whether the end of the input has been reached
+     */
+    private boolean done;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param size The number of splats
+     * @param reading The reading process
+     */
+    PlySplatSpliterator(long size, Reading reading)
+    {
+        super(size, Spliterator.ORDERED | Spliterator.NONNULL
+            | Spliterator.SIZED);
+        this.queue = new ArrayBlockingQueue<Chunk>(QUEUE_CAPACITY);
+        this.producer = new Producer(reading, queue, this);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super MutableSplat> action)
+    {
+        if (done || producer.closed)
+        {
+            done = true;
+            return false;
+        }
+        if (!started)
+        {
+            started = true;
+            Thread thread = new Thread(producer, "PlySplatSpliterator");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        while (current == null || index == current.splats.size())
+        {
+            current = take();
+            index = 0;
+            if (current.error != null)
+            {
+                done = true;
+                throwUnchecked(current.error);
+            }
+            if (current.splats.isEmpty())
+            {
+                done = true;
+                return false;
+            }
+        }
+        action.accept(current.splats.get(index));
+        index++;
+        return true;
+    }
+
+    /**
+     * Throw the given throwable, which is either a runtime exception or
+     * an error
+     * 
+     * @param t The throwable
+     */
+    private static void throwUnchecked(Throwable t)
+    {
+        if (t instanceof Error)
+        {
+            throw (Error) t;
+        }
+        throw (RuntimeException) t;
+    }
+
+    /**
+     * Take the next chunk from the queue.
+     * 
+     * If the spliterator was closed, then this returns the end marker,
+     * regardless of any chunk that may still have been in the queue.
+     * 
+     * @return The chunk
+     */
+    private Chunk take()
+    {
+        try
+        {
+            Chunk chunk = queue.take();
+            if (producer.closed)
+            {
+                return Chunk.end();
+            }
+            return chunk;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            close();
+            return Chunk.failed(new UncheckedIOException(
+                new IOException("Interrupted while reading", e)));
+        }
+    }
+
+    /**
+     * Close this spliterator, causing the reading thread to stop.
+     * 
+     * After the queue was cleared, an end marker is passed to the queue,
+     * so that a consumer that is blocked while waiting for the next chunk
+     * is woken up. The reading thread does not put any chunks into the
+     * queue after it was closed, except for at most one chunk that it was
+     * already waiting to put, so there is always space for the marker.
+     */
+    void close()
+    {
+        producer.closed = true;
+        queue.clear();
+        queue.offer(Chunk.end());
+    }
+
+    /**
+     * The runnable that is executed by the reading thread.
+     * 
+     * It only refers to the spliterator weakly, so that the reading thread
+     * can detect when the spliterator is no longer reachable, and stop.
+     */
+    private static class Producer implements Runnable
+    {
+        /**
+         * The reading process
+         */
+        private final Reading reading;
+
+        /**
+         * The queue of chunks
+         */
+        private final BlockingQueue<Chunk> queue;
+
+        /**
+         * The spliterator that receives the chunks
+         */
+        private final WeakReference<PlySplatSpliterator> owner;
+
+        /**
+         * Whether the spliterator has been closed
+         */
+        private volatile boolean closed;
+
+        /**
+         * The chunk that is currently filled by the reading thread
+         */
+        private List<MutableSplat> pending;
+
+        /**
+         * Creates a new instance
+         * 
+         * @param reading The reading process
+         * @param queue The queue
+         * @param owner The spliterator that receives the chunks
+         */
+        Producer(Reading reading, BlockingQueue<Chunk> queue,
+            PlySplatSpliterator owner)
+        {
+            this.reading = reading;
+            this.queue = queue;
+            this.owner = new WeakReference<PlySplatSpliterator>(owner);
+        }
+
+        @Override
+        public void run()
+        {
+            pending = new ArrayList<MutableSplat>(CHUNK_SIZE);
+            Chunk last = Chunk.end();
+            Error error = null;
+            try
+            {
+                reading.read(this::add);
+                if (!pending.isEmpty() && !put(new Chunk(pending, null)))
+                {
+                    return;
+                }
+            }
+            catch (CancelledException e)
+            {
+                // The spliterator was closed or is no longer reachable
+                return;
+            }
+            catch (IOException e)
+            {
+                last = Chunk.failed(new UncheckedIOException(e));
+            }
+            catch (RuntimeException e)
+            {
+                last = Chunk.failed(e);
+            }
+            catch (Error e)
+            {
+                last = Chunk.failed(e);
+                error = e;
+            }
+            finally
+            {
+                pending = null;
+            }
+            put(last);
+            if (error != null)
+            {
+                throw error;
+            }
+        }
+
+        /**
+         * Add the given splat to the pending chunk, and put the chunk into
+         * the queue when it is full.
+         * 
+         * @param splat The splat
+         * @throws CancelledException If the spliterator was closed or is 
+         * no longer reachable
+         */
+        private void add(MutableSplat splat)
+        {
+            pending.add(splat);
+            if (pending.size() == CHUNK_SIZE)
+            {
+                if (!put(new Chunk(pending, null)))
+                {
+                    throw new CancelledException();
+                }
+                pending = new ArrayList<MutableSplat>(CHUNK_SIZE);
+            }
+        }
+
+        /**
+         * Put the given chunk into the queue, waiting until there is space.
+         * 
+         * If the queue is full, then this will check whether the 
+         * spliterator was closed or is no longer reachable in regular 
+         * intervals, and return <code>false</code> in this case.
+         * 
+         * @param chunk The chunk
+         * @return Whether the chunk was put into the queue
+         */
+        private boolean put(Chunk chunk)
+        {
+            try
+            {
+                while (!closed && owner.get() != null)
+                {
+                    if (queue.offer(chunk, 
+                        POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                    {
+                        return true;
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An unchecked exception that is used for stopping the reading thread
+     * when the spliterator was closed or is no longer reachable
+     */
+    private static class CancelledException extends RuntimeException
+    {
+        /**
+         * Serial UID
+         */
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * A chunk of splats, or an error
+     */
+    private static class Chunk
+    {
+        /**
+         * Create a chunk that marks the end of the input
+         * 
+         * @return The chunk
+         */
+        static Chunk end()
+        {
+            return new Chunk(new ArrayList<MutableSplat>(), null);
+        }
+
+        /**
+         * Create a chunk that represents the given error
+         * 
+         * @param error The error, which is either a runtime exception or
+         * an error
+         * @return The chunk
+         */
+        static Chunk failed(Throwable error)
+        {
+            return new Chunk(new ArrayList<MutableSplat>(), error);
+        }
+
+        /**
+         * The splats. If this is empty, then the end of the input has 
+         * been reached.
+         */
+        final List<MutableSplat> splats;
+
+        /**
+         * The error that occurred while reading, or <code>null</code>
+         */
+        final Throwable error;
+
+        /**
+         * Creates a new instance
+         * 
+         * @param splats The splats
+         * @param error The error
+         */
+        Chunk(List<MutableSplat> splats, Throwable error)
+        {
+            this.splats = splats;
+            this.error = error;
+        }
+    }
+}
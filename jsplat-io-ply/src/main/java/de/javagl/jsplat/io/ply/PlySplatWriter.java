@@ -28,37 +28,59 @@ package de.javagl.jsplat.io.ply;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.AbstractList;
-import java.util.Collections;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.RandomAccess;
-import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
-import de.javagl.jsplat.MutableSplat;
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatBatchSource;
+import de.javagl.jsplat.SplatBatchWriter;
+import de.javagl.jsplat.SplatDatas;
 import de.javagl.jsplat.SplatListWriter;
-import de.javagl.jsplat.Splats;
-import de.javagl.jsplat.processing.SplatTransforms;
-import de.javagl.ply.Descriptor;
-import de.javagl.ply.Descriptors;
-import de.javagl.ply.MutableDescriptor;
-import de.javagl.ply.ObjectPlySource;
-import de.javagl.ply.ObjectPlySource.Handle;
-import de.javagl.ply.PlyType;
-import de.javagl.ply.PlyWriter;
-import de.javagl.ply.PlyWriters;
+import de.javagl.jsplat.SplatStreamWriter;
 
 /**
- * Implementation of a {@link SplatListWriter} that writes PLY data
+ * Implementation of a {@link SplatListWriter}, {@link SplatStreamWriter} 
+ * and {@link SplatBatchWriter} that writes PLY data.
+ * 
+ * The splats are encoded directly into large blocks of memory that are
+ * written to the output. The conversion from right-up-front to 
+ * right-down-back is applied during the encoding, so the input splats
+ * are neither copied nor modified.
  */
-public final class PlySplatWriter implements SplatListWriter
+public final class PlySplatWriter
+    implements SplatListWriter, SplatStreamWriter, SplatBatchWriter
 {
+    /**
+     * The (approximate) size of the blocks that are written, in bytes
+     */
+    private static final int BLOCK_SIZE = 1 << 23;
+
+    /**
+     * The minimum number of splats for which the binary records of one 
+     * block are encoded in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
     /**
      * The {@link PlyFormat}
      */
-    private PlyFormat plyFormat;
+    private final PlyFormat plyFormat;
 
     /**
      * The PLY format to write
@@ -67,7 +89,13 @@ public final class PlySplatWriter implements SplatListWriter
     public enum PlyFormat
     {
         /**
-         * ASCII PLY format
+         * ASCII PLY format.
+         * 
+         * The values are written as they are formatted by 
+         * <code>Float.toString</code>. This is the shortest representation
+         * that is read back as the same <code>float</code> value, and 
+         * may use the computerized scientific notation, like 
+         * <code>1.0E-5</code>.
          */
         ASCII,
 
@@ -93,196 +121,401 @@ public final class PlySplatWriter implements SplatListWriter
             Objects.requireNonNull(plyFormat, "The plyFormat may not be null");
     }
 
+    @Override
+    public void writeList(List<? extends Splat> splats,
+        OutputStream outputStream) throws IOException
+    {
+        writeList(splats, Channels.newChannel(outputStream));
+    }
+
     /**
-     * Implementation of a list that provides a mapped view on a delegate
-     *
-     * @param <S> The delegate element type
-     * @param <T> The element type
+     * Write the given splats into the given channel
+     * 
+     * @param splats The splats
+     * @param channel The channel
+     * @throws IOException If an IO error occurs
      */
-    private static class MappedList<S, T> extends AbstractList<T>
-        implements RandomAccess
+    public void writeList(List<? extends Splat> splats,
+        WritableByteChannel channel) throws IOException
     {
-        /**
-         * The delegate
-         */
-        private List<? extends S> delegate;
+        int shDegree = 0;
+        if (!splats.isEmpty()) 
+        {
+            shDegree = splats.get(0).getShDegree();
+        }
+        List<? extends Splat> list = splats;
+        if (!(list instanceof RandomAccess))
+        {
+            list = new ArrayList<Splat>(splats);
+        }
+        writeHeader(shDegree, list.size(), channel);
+        BodyWriter body = new BodyWriter(shDegree, channel);
+        body.addAll(list);
+        body.flush();
+    }
 
-        /**
-         * The mapper
-         */
-        private final Function<S, T> mapper;
+    /**
+     * {@inheritDoc}
+     * 
+     * The PLY header contains the number of splats. When the size of the
+     * given stream is not known in advance, then the encoded splats are
+     * written into a temporary file, and copied into the output stream
+     * after the header was written.
+     */
+    @Override
+    public void writeStream(Stream<? extends Splat> splats,
+        OutputStream outputStream) throws IOException
+    {
+        Spliterator<? extends Splat> spliterator = splats.spliterator();
+        long size = spliterator.getExactSizeIfKnown();
 
-        /**
-         * Creates a new instance
-         * 
-         * @param delegate The delegate
-         * @param mapper The mapper
-         */
-        MappedList(List<? extends S> delegate, Function<S, T> mapper)
+        // The first splat determines the spherical harmonics degree 
+        // that has to be written into the header
+        Splat first[] = { null };
+        spliterator.tryAdvance(s -> first[0] = s);
+        int shDegree = 0;
+        if (first[0] != null)
         {
-            this.delegate = Objects.requireNonNull(delegate,
-                "The delegate may not be null");
-            this.mapper =
-                Objects.requireNonNull(mapper, "The mapper may not be null");
-
+            shDegree = first[0].getShDegree();
         }
 
-        @Override
-        public T get(int index)
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        if (size >= 0)
         {
-            S s = delegate.get(index);
-            T t = mapper.apply(s);
-            return t;
+            writeHeader(shDegree, size, channel);
+            BodyWriter body = new BodyWriter(shDegree, channel);
+            addAll(first[0], spliterator, body);
+            body.flush();
+            if (body.getCount() != size)
+            {
+                throw new IOException("The stream declared a size of " + size
+                    + ", but provided " + body.getCount() + " splats");
+            }
+            return;
         }
 
-        @Override
-        public int size()
+        Path spoolFile = Files.createTempFile("jsplat-", ".ply");
+        try (FileChannel spool = FileChannel.open(spoolFile,
+            StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE))
         {
-            return delegate.size();
+            BodyWriter body = new BodyWriter(shDegree, spool);
+            addAll(first[0], spliterator, body);
+            body.flush();
+            writeHeader(shDegree, body.getCount(), channel);
+            long bodySize = spool.position();
+            long position = 0;
+            while (position < bodySize)
+            {
+                position += spool.transferTo(
+                    position, bodySize - position, channel);
+            }
         }
     }
 
     /**
-     * Create a mapped view on the given list of splats that transforms each
-     * splat by rotating it by 180 degrees around the x-axis for writing it out
-     * as PLY.
+     * Add the given first splat (if it is not <code>null</code>) and all
+     * remaining splats of the given spliterator to the given body writer
      * 
-     * @param splats The splats
-     * @return The result
+     * @param first The first splat
+     * @param spliterator The spliterator
+     * @param body The body writer
+     * @throws IOException If an IO error occurs
      */
-    private static List<MutableSplat> createMapped(List<? extends Splat> splats)
+    private static void addAll(Splat first, 
+        Spliterator<? extends Splat> spliterator, BodyWriter body) 
+            throws IOException
     {
-        if (splats.isEmpty())
+        if (first == null)
         {
-            return Collections.emptyList();
+            return;
         }
-        Splat splat = splats.get(0);
-        int dimensions = splat.getShDimensions();
-
-        // Rotate about 180 degrees around x, to convert from
-        // right-up-front to right-down-back
-        // @formatter:off
-        double rotate180X[] = 
-        { 
-            1.0,  0.0,  0.0, 0.0, 
-            0.0, -1.0,  0.0, 0.0, 
-            0.0,  0.0, -1.0, 0.0, 
-            0.0,  0.0,  0.0, 1.0 
-        };
-        // @formatter:on
-        Consumer<MutableSplat> transform =
-            SplatTransforms.createTransform(rotate180X, dimensions);
-        Function<Splat, MutableSplat> mapper = (s) ->
+        body.add(first);
+        try
+        {
+            spliterator.forEachRemaining(s ->
+            {
+                try
+                {
+                    body.add(s);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e)
         {
-            MutableSplat transformed = Splats.copy(s);
-            transform.accept(transformed);
-            return transformed;
-        };
-        List<MutableSplat> result =
-            new MappedList<Splat, MutableSplat>(splats, mapper);
-        return result;
+            throw e.getCause();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * The PLY header contains the number of splats. So the given source
+     * must provide its {@link SplatBatchSource#getSize() size}.
+     * 
+     * @throws IllegalArgumentException If the size of the given source is
+     * not known
+     */
     @Override
-    public void writeList(List<? extends Splat> inputSplats,
+    public void writeBatches(SplatBatchSource source,
         OutputStream outputStream) throws IOException
     {
-        int shDegree = 0;
-        if (!inputSplats.isEmpty()) 
+        long size = source.getSize();
+        if (size < 0)
         {
-            shDegree = inputSplats.get(0).getShDegree();
+            throw new IllegalArgumentException(
+                "The size of the source must be known for writing PLY");
         }
-        Descriptor descriptor = createDescriptor(shDegree);
-        ObjectPlySource plySource = new ObjectPlySource(descriptor);
-
-        List<MutableSplat> splats = createMapped(inputSplats);
-        Handle<? extends Splat> v = plySource.register("vertex", splats);
-
-        v.withFloat("x", s -> (float)s.getPositionX());
-        v.withFloat("y", s -> (float)s.getPositionY());
-        v.withFloat("z", s -> (float)s.getPositionZ());
-
-        v.withFloat("f_dc_0", s -> (float)s.getShX(0));
-        v.withFloat("f_dc_1", s -> (float)s.getShY(0));
-        v.withFloat("f_dc_2", s -> (float)s.getShZ(0));
-
-        int shDimensions = Splats.dimensionsForDegree(shDegree);
-        for (int d = 0; d < shDimensions - 1; d++)
+        int shDegree = source.getShDegree();
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        writeHeader(shDegree, size, channel);
+        BodyWriter body = new BodyWriter(shDegree, channel);
+        try
         {
-            int sd = d + 1;
-            int ix = (shDimensions - 1) * 0 + d;
-            int iy = (shDimensions - 1) * 1 + d;
-            int iz = (shDimensions - 1) * 2 + d;
-            v.withFloat("f_rest_" + ix, s -> (float)s.getShX(sd));
-            v.withFloat("f_rest_" + iy, s -> (float)s.getShY(sd));
-            v.withFloat("f_rest_" + iz, s -> (float)s.getShZ(sd));
+            source.forEachBatch(batch ->
+            {
+                try
+                {
+                    body.addAll(SplatDatas.asList(batch));
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
         }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        body.flush();
+        if (body.getCount() != size)
+        {
+            throw new IOException("The source declared a size of " + size
+                + ", but provided " + body.getCount() + " splats");
+        }
+    }
 
-        v.withFloat("opacity", s -> (float)s.getOpacity());
-
-        v.withFloat("scale_0", s -> (float)s.getScaleX());
-        v.withFloat("scale_1", s -> (float)s.getScaleY());
-        v.withFloat("scale_2", s -> (float)s.getScaleZ());
-
-        // PLY uses scalar-first quaternions
-        v.withFloat("rot_0", s -> (float)s.getRotationW());
-        v.withFloat("rot_1", s -> (float)s.getRotationX());
-        v.withFloat("rot_2", s -> (float)s.getRotationY());
-        v.withFloat("rot_3", s -> (float)s.getRotationZ());
-
+    /**
+     * Write the PLY header for the given spherical harmonics degree and
+     * number of splats into the given channel.
+     * 
+     * The properties are the ones that are written by the 
+     * {@link PlySplatEncoder}.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param channel The channel
+     * @throws IOException If an IO error occurs
+     */
+    private void writeHeader(int shDegree, long size,
+        WritableByteChannel channel) throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ply\n");
         if (plyFormat == PlyFormat.ASCII)
         {
-            PlyWriter plyWriter = PlyWriters.createAscii();
-            plyWriter.write(plySource, outputStream);
+            sb.append("format ascii 1.0\n");
         }
         if (plyFormat == PlyFormat.BINARY_LITTLE_ENDIAN)
         {
-            PlyWriter plyWriter = PlyWriters.createBinaryLittleEndian();
-            plyWriter.write(plySource, outputStream);
+            sb.append("format binary_little_endian 1.0\n");
         }
         if (plyFormat == PlyFormat.BINARY_BIG_ENDIAN)
         {
-            PlyWriter plyWriter = PlyWriters.createBinaryBigEndian();
-            plyWriter.write(plySource, outputStream);
+            sb.append("format binary_big_endian 1.0\n");
         }
+        sb.append("element vertex " + size + "\n");
+        for (String name : PlySplatEncoder.createPropertyNames(shDegree))
+        {
+            sb.append("property float " + name + "\n");
+        }
+        sb.append("end_header\n");
+        byte data[] = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        writeFully(ByteBuffer.wrap(data), channel);
     }
 
     /**
-     * Create a descriptor for the PLY data
+     * Write all remaining bytes of the given buffer into the given channel
      * 
-     * @param shDegree The spherical harmonics degree
-     * @return The descriptor
+     * @param bb The buffer
+     * @param channel The channel
+     * @throws IOException If an IO error occurs
      */
-    private Descriptor createDescriptor(int shDegree)
+    private static void writeFully(ByteBuffer bb, WritableByteChannel channel)
+        throws IOException
     {
-        MutableDescriptor d = Descriptors.create();
+        while (bb.hasRemaining())
+        {
+            channel.write(bb);
+        }
+    }
 
-        d.addProperty("vertex", "x", PlyType.FLOAT);
-        d.addProperty("vertex", "y", PlyType.FLOAT);
-        d.addProperty("vertex", "z", PlyType.FLOAT);
-        d.addProperty("vertex", "f_dc_0", PlyType.FLOAT);
-        d.addProperty("vertex", "f_dc_1", PlyType.FLOAT);
-        d.addProperty("vertex", "f_dc_2", PlyType.FLOAT);
+    /**
+     * A class that encodes the vertex records of splats into a block of
+     * memory, and writes the block into a channel whenever it is full
+     */
+    private final class BodyWriter
+    {
+        /**
+         * The {@link PlySplatEncoder}
+         */
+        private final PlySplatEncoder encoder;
+
+        /**
+         * The channel
+         */
+        private final WritableByteChannel channel;
+
+        /**
+         * The block for binary records. This is <code>null</code> for
+         * the ASCII format.
+         */
+        private final ByteBuffer block;
 
-        int shDimensions = Splats.dimensionsForDegree(shDegree);
-        for (int i = 0; i < shDimensions - 1; i++)
+        /**
+         * The block for ASCII records
+         */
+        private final StringBuilder sb;
+
+        /**
+         * The number of splats that have been added
+         */
+        private long count;
+
+        /**
+         * Creates a new instance
+         * 
+         * @param shDegree The spherical harmonics degree
+         * @param channel The channel
+         */
+        BodyWriter(int shDegree, WritableByteChannel channel)
+        {
+            this.encoder = new PlySplatEncoder(shDegree);
+            this.channel = channel;
+            this.sb = new StringBuilder();
+            if (plyFormat == PlyFormat.ASCII)
+            {
+                this.block = null;
+            }
+            else
+            {
+                int stride = encoder.getStride();
+                int capacity = Math.max(1, BLOCK_SIZE / stride) * stride;
+                ByteOrder byteOrder = 
+                    plyFormat == PlyFormat.BINARY_BIG_ENDIAN
+                    ? ByteOrder.BIG_ENDIAN
+                    : ByteOrder.LITTLE_ENDIAN;
+                this.block = ByteBuffer.allocateDirect(capacity)
+                    .order(byteOrder);
+            }
+        }
+
+        /**
+         * Returns the number of splats that have been added
+         * 
+         * @return The number of splats
+         */
+        long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * Add the given splat
+         * 
+         * @param splat The splat
+         * @throws IOException If an IO error occurs
+         */
+        void add(Splat splat) throws IOException
+        {
+            if (block == null)
+            {
+                encoder.encodeAscii(splat, sb);
+                if (sb.length() >= BLOCK_SIZE)
+                {
+                    flush();
+                }
+            }
+            else
+            {
+                if (block.remaining() < encoder.getStride())
+                {
+                    flush();
+                }
+                int position = block.position();
+                encoder.encode(splat, block, position);
+                ((Buffer) block).position(position + encoder.getStride());
+            }
+            count++;
+        }
+
+        /**
+         * Add all splats from the given list. For the binary formats, the
+         * records of each block are encoded in parallel.
+         * 
+         * @param splats The splats
+         * @throws IOException If an IO error occurs
+         */
+        void addAll(List<? extends Splat> splats) throws IOException
         {
-            int indexX = i * 3 + 0;
-            int indexY = i * 3 + 1;
-            int indexZ = i * 3 + 2;
-            d.addProperty("vertex", "f_rest_" + indexX, PlyType.FLOAT);
-            d.addProperty("vertex", "f_rest_" + indexY, PlyType.FLOAT);
-            d.addProperty("vertex", "f_rest_" + indexZ, PlyType.FLOAT);
+            if (block == null)
+            {
+                for (Splat splat : splats)
+                {
+                    add(splat);
+                }
+                return;
+            }
+            int stride = encoder.getStride();
+            int size = splats.size();
+            int index = 0;
+            while (index < size)
+            {
+                int n = Math.min(size - index, block.remaining() / stride);
+                if (n == 0)
+                {
+                    flush();
+                    continue;
+                }
+                int start = index;
+                int position = block.position();
+                IntStream range = IntStream.range(0, n);
+                if (n >= PARALLEL_THRESHOLD)
+                {
+                    range = range.parallel();
+                }
+                range.forEach(i -> encoder.encode(
+                    splats.get(start + i), block, position + i * stride));
+                ((Buffer) block).position(position + n * stride);
+                index += n;
+                count += n;
+            }
         }
-        d.addProperty("vertex", "opacity", PlyType.FLOAT);
-        d.addProperty("vertex", "scale_0", PlyType.FLOAT);
-        d.addProperty("vertex", "scale_1", PlyType.FLOAT);
-        d.addProperty("vertex", "scale_2", PlyType.FLOAT);
-        d.addProperty("vertex", "rot_0", PlyType.FLOAT);
-        d.addProperty("vertex", "rot_1", PlyType.FLOAT);
-        d.addProperty("vertex", "rot_2", PlyType.FLOAT);
-        d.addProperty("vertex", "rot_3", PlyType.FLOAT);
 
-        return d;
+        /**
+         * Write all pending records into the channel
+         * 
+         * @throws IOException If an IO error occurs
+         */
+        void flush() throws IOException
+        {
+            if (block == null)
+            {
+                byte data[] = sb.toString().getBytes(StandardCharsets.US_ASCII);
+                writeFully(ByteBuffer.wrap(data), channel);
+                sb.setLength(0);
+            }
+            else
+            {
+                ((Buffer) block).flip();
+                writeFully(block, channel);
+                ((Buffer) block).clear();
+            }
+        }
     }
 }
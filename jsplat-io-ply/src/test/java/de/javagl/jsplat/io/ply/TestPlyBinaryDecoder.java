@@ -0,0 +1,167 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.ply;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.Splats;
+import de.javagl.jsplat.io.ply.PlySplatWriter.PlyFormat;
+
+@SuppressWarnings("javadoc")
+public class TestPlyBinaryDecoder
+{
+    private static List<MutableSplat> createSplats(Random random,
+        int shDegree, int n)
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(shDegree);
+            s.setPositionX(random.nextDouble() * 10.0);
+            s.setPositionY(random.nextDouble() * 10.0);
+            s.setPositionZ(random.nextDouble() * 10.0);
+            s.setScaleX(-5.0 + random.nextDouble());
+            s.setScaleY(-5.0 + random.nextDouble());
+            s.setScaleZ(-5.0 + random.nextDouble());
+            s.setRotationX(random.nextDouble() - 0.5);
+            s.setRotationY(random.nextDouble() - 0.5);
+            s.setRotationZ(random.nextDouble() - 0.5);
+            s.setRotationW(random.nextDouble() - 0.5);
+            s.setOpacity(-4.0 + random.nextDouble() * 8.0);
+            for (int d = 0; d < s.getShDimensions(); d++)
+            {
+                s.setShX(d, random.nextDouble() - 0.5);
+                s.setShY(d, random.nextDouble() - 0.5);
+                s.setShZ(d, random.nextDouble() - 0.5);
+            }
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    private static Path write(List<MutableSplat> splats, PlyFormat format)
+        throws IOException
+    {
+        Path path = Files.createTempFile("TestPlyBinaryDecoder", ".ply");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            new PlySplatWriter(format).writeList(splats, outputStream);
+        }
+        return path;
+    }
+
+    private static List<MutableSplat> readWithLibrary(Path path)
+        throws IOException
+    {
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            return new PlySplatReader().readList(inputStream);
+        }
+    }
+
+    private static void checkDecoder(int shDegree, PlyFormat format)
+        throws IOException
+    {
+        List<MutableSplat> splatsA =
+            createSplats(new Random(shDegree), shDegree, 100);
+        Path path = write(splatsA, format);
+
+        // Reading the data directly from the file, sequentially or in
+        // parallel, must yield the same values as reading it with the
+        // generic PLY reader
+        List<MutableSplat> expected = readWithLibrary(path);
+        assertEquals(splatsA.size(), expected.size());
+
+        SplatData sequential = new PlySplatReader(false).readSplatData(path);
+        assertEquals(shDegree, sequential.getShDegree());
+        assertTrue(Splats.equalsEpsilon(
+            expected, SplatDatas.asList(sequential), 1e-6));
+
+        SplatData parallel = new PlySplatReader(true).readSplatData(path);
+        assertTrue(Splats.equalsEpsilon(
+            expected, SplatDatas.asList(parallel), 1e-6));
+    }
+
+    @Test
+    public void testPlyBinaryDecoderLittleEndian() throws IOException
+    {
+        for (int shDegree = 0; shDegree <= 3; shDegree++)
+        {
+            checkDecoder(shDegree, PlyFormat.BINARY_LITTLE_ENDIAN);
+        }
+    }
+
+    @Test
+    public void testPlyBinaryDecoderBigEndian() throws IOException
+    {
+        for (int shDegree = 0; shDegree <= 3; shDegree++)
+        {
+            checkDecoder(shDegree, PlyFormat.BINARY_BIG_ENDIAN);
+        }
+    }
+
+    @Test
+    public void testPlyBinaryDecoderParallelRanges() throws IOException
+    {
+        List<MutableSplat> splatsA = createSplats(new Random(4), 3, 100);
+        Path path = write(splatsA, PlyFormat.BINARY_BIG_ENDIAN);
+
+        // Decode with ranges that do not evenly divide the number of
+        // vertices, so that the last range is partially filled
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.READ))
+        {
+            PlyHeader header = PlyHeader.read(channel);
+            PlyBinaryDecoder decoder = PlyBinaryDecoder.create(
+                channel, header, SplatReadOptions.DEFAULT);
+            assertNotNull(decoder);
+            assertEquals(100, decoder.getCount());
+
+            SplatData expected = SplatDatas.create(3, 100);
+            decoder.decodeAll(expected, false);
+            SplatData actual = SplatDatas.create(3, 100);
+            decoder.decodeParallel(actual, 7);
+            assertTrue(Splats.equalsEpsilon(SplatDatas.asList(expected),
+                SplatDatas.asList(actual), 1e-6));
+        }
+    }
+
+    @Test
+    public void testPlyBinaryDecoderNotForAscii() throws IOException
+    {
+        List<MutableSplat> splatsA = createSplats(new Random(5), 1, 10);
+        Path path = write(splatsA, PlyFormat.ASCII);
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.READ))
+        {
+            PlyHeader header = PlyHeader.read(channel);
+            assertNull(PlyBinaryDecoder.create(
+                channel, header, SplatReadOptions.DEFAULT));
+        }
+    }
+
+}
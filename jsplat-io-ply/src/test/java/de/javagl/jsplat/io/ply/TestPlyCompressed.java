@@ -0,0 +1,240 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.ply;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.QuantizedSplatData;
+import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatDatas;
+import de.javagl.jsplat.SplatReadOptions;
+import de.javagl.jsplat.Splats;
+import de.javagl.jsplat.io.ply.PlySplatWriter.PlyFormat;
+
+@SuppressWarnings("javadoc")
+public class TestPlyCompressed
+{
+    // The splats are placed near the centers of the cells of a grid, with 
+    // a small random offset, so that the splats that are read (in Morton
+    // order) can be matched to the original ones by their grid cell
+    private static final int GRID_SIZE = 10;
+    
+    private static final double MAX_OFFSET = 0.1;
+    
+    private static final double MIN_OFFSET = 0.5 - MAX_OFFSET / 2;
+
+    private static List<MutableSplat> createSplats(Random random)
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < GRID_SIZE * GRID_SIZE * GRID_SIZE; i++)
+        {
+            MutableSplat s = Splats.create(3);
+            s.setPositionX(i % GRID_SIZE
+                + MIN_OFFSET + random.nextDouble() * MAX_OFFSET);
+            s.setPositionY((i / GRID_SIZE) % GRID_SIZE
+                + MIN_OFFSET + random.nextDouble() * MAX_OFFSET);
+            s.setPositionZ(i / (GRID_SIZE * GRID_SIZE)
+                + MIN_OFFSET + random.nextDouble() * MAX_OFFSET);
+            s.setScaleX(-5.0 + random.nextDouble());
+            s.setScaleY(-5.0 + random.nextDouble());
+            s.setScaleZ(-5.0 + random.nextDouble());
+            double x = random.nextDouble() - 0.5;
+            double y = random.nextDouble() - 0.5;
+            double z = random.nextDouble() - 0.5;
+            double w = random.nextDouble() - 0.5;
+            double len = Math.sqrt(x * x + y * y + z * z + w * w);
+            s.setRotationX(x / len);
+            s.setRotationY(y / len);
+            s.setRotationZ(z / len);
+            s.setRotationW(w / len);
+            s.setOpacity(-4.0 + random.nextDouble() * 8.0);
+            for (int d = 0; d < s.getShDimensions(); d++)
+            {
+                s.setShX(d, random.nextDouble() - 0.5);
+                s.setShY(d, random.nextDouble() - 0.5);
+                s.setShZ(d, random.nextDouble() - 0.5);
+            }
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    private static int gridIndex(Splat s)
+    {
+        int x = (int) Math.floor(s.getPositionX());
+        int y = (int) Math.floor(s.getPositionY());
+        int z = (int) Math.floor(s.getPositionZ());
+        return x + y * GRID_SIZE + z * GRID_SIZE * GRID_SIZE;
+    }
+
+    @Test
+    public void testPlyCompressedRoundTrip() throws IOException
+    {
+        List<MutableSplat> splatsA = createSplats(new Random(0));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new PlyCompressedSplatWriter().writeList(splatsA, baos);
+        List<MutableSplat> splatsB = new PlySplatReader()
+            .readList(new ByteArrayInputStream(baos.toByteArray()));
+        assertEquals(splatsA.size(), splatsB.size());
+
+        // The bounds of each chunk are contained in the global bounds, so 
+        // the quantization steps are computed from the global ranges.
+        // The positions are quantized with (at least) 10 bits, the 
+        // logarithmic scales with (at least) 10 bits, the colors, the
+        // alpha values and the remaining spherical harmonics with 8 bits,
+        // and the quaternion components with 10 bits, in a range of 
+        // [-sqrt(0.5), sqrt(0.5)]
+        double positionRange = GRID_SIZE - 1 + MAX_OFFSET;
+        double positionEpsilon = positionRange / 1023 / 2 + 1e-5;
+        double scaleEpsilon = 1.0 / 1023 / 2 + 1e-5;
+        double dcEpsilon = 1.0 / 255 / 2 + 1e-5;
+        double alphaEpsilon = 1.0 / 255 / 2 + 1e-5;
+        double shEpsilon = 8.0 / 256 / 2 + 1e-5;
+        double rotationEpsilon = 2e-3;
+
+        MutableSplat matched[] = new MutableSplat[splatsA.size()];
+        for (MutableSplat b : splatsB)
+        {
+            int index = gridIndex(b);
+            assertNull(matched[index]);
+            matched[index] = b;
+        }
+        for (int i = 0; i < splatsA.size(); i++)
+        {
+            Splat a = splatsA.get(i);
+            Splat b = matched[i];
+            assertEquals(a.getPositionX(), b.getPositionX(), positionEpsilon);
+            assertEquals(a.getPositionY(), b.getPositionY(), positionEpsilon);
+            assertEquals(a.getPositionZ(), b.getPositionZ(), positionEpsilon);
+            assertEquals(a.getScaleX(), b.getScaleX(), scaleEpsilon);
+            assertEquals(a.getScaleY(), b.getScaleY(), scaleEpsilon);
+            assertEquals(a.getScaleZ(), b.getScaleZ(), scaleEpsilon);
+
+            // The quaternions q and -q describe the same rotation
+            double dot = 
+                a.getRotationX() * b.getRotationX() +
+                a.getRotationY() * b.getRotationY() +
+                a.getRotationZ() * b.getRotationZ() +
+                a.getRotationW() * b.getRotationW();
+            double sign = dot < 0 ? -1.0 : 1.0;
+            assertEquals(a.getRotationX(), sign * b.getRotationX(), 
+                rotationEpsilon);
+            assertEquals(a.getRotationY(), sign * b.getRotationY(), 
+                rotationEpsilon);
+            assertEquals(a.getRotationZ(), sign * b.getRotationZ(), 
+                rotationEpsilon);
+            assertEquals(a.getRotationW(), sign * b.getRotationW(), 
+                rotationEpsilon);
+
+            assertEquals(Splats.opacityToAlpha(a.getOpacity()),
+                Splats.opacityToAlpha(b.getOpacity()), alphaEpsilon);
+
+            assertEquals(a.getShX(0), b.getShX(0), dcEpsilon);
+            assertEquals(a.getShY(0), b.getShY(0), dcEpsilon);
+            assertEquals(a.getShZ(0), b.getShZ(0), dcEpsilon);
+            for (int d = 1; d < a.getShDimensions(); d++)
+            {
+                assertEquals(a.getShX(d), b.getShX(d), shEpsilon);
+                assertEquals(a.getShY(d), b.getShY(d), shEpsilon);
+                assertEquals(a.getShZ(d), b.getShZ(d), shEpsilon);
+            }
+        }
+    }
+
+    @Test
+    public void testPlyCompressedReadSplatData() throws IOException
+    {
+        List<MutableSplat> splatsA = createSplats(new Random(1));
+
+        Path path = Files.createTempFile("TestPlyCompressed", ".ply");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            new PlyCompressedSplatWriter().writeList(splatsA, outputStream);
+        }
+
+        // Reading the data from the file, in parallel, must yield the 
+        // same values as reading it from a stream
+        List<MutableSplat> expected;
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            expected = new PlySplatReader().readList(inputStream);
+        }
+        SplatData splatData = new PlySplatReader(true).readSplatData(path);
+        List<MutableSplat> actual = SplatDatas.asList(splatData);
+        assertTrue(Splats.equalsEpsilon(expected, actual, 1e-6));
+    }
+
+    @Test
+    public void testPlyCompressedReadOptions() throws IOException
+    {
+        List<MutableSplat> splatsA = createSplats(new Random(2));
+
+        Path path = Files.createTempFile("TestPlyCompressed", ".ply");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            new PlyCompressedSplatWriter().writeList(splatsA, outputStream);
+        }
+
+        SplatReadOptions options = SplatReadOptions.of(
+            SplatAttribute.POSITION, SplatAttribute.OPACITY);
+        SplatData all = new PlySplatReader().readSplatData(path);
+        SplatData some = new PlySplatReader(options).readSplatData(path);
+
+        // The buffers for all attributes are allocated, and the attributes
+        // that are not read are zero-filled. Without spherical harmonics,
+        // the degree is 0
+        assertEquals(all.getScales().capacity(), 
+            some.getScales().capacity());
+        assertEquals(all.getRotations().capacity(), 
+            some.getRotations().capacity());
+        assertEquals(some.getSize() * 3, some.getShs().capacity());
+        assertEquals(0.0f, some.getScales().get(0), 0.0f);
+        assertEquals(0.0f, some.getShs().get(some.getShs().capacity() - 1),
+            0.0f);
+        assertEquals(all.getPositions(), some.getPositions());
+        assertEquals(all.getOpacities(), some.getOpacities());
+
+        // The data can be quantized and written like any other data
+        QuantizedSplatData quantized = SplatDatas.quantize(some);
+        assertEquals(some.getSize(), quantized.getSize());
+        Path written = Files.createTempFile("TestPlyCompressed", ".ply");
+        written.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(written))
+        {
+            new PlySplatWriter(PlyFormat.BINARY_LITTLE_ENDIAN)
+                .writeList(quantized.asList(), outputStream);
+        }
+        List<MutableSplat> splatsB = SplatDatas.asList(
+            new PlySplatReader().readSplatData(written));
+        assertEquals(some.getSize(), splatsB.size());
+        for (Splat b : splatsB)
+        {
+            assertEquals(0.0, b.getScaleX(), 0.0);
+            assertEquals(0.0, b.getShY(0), 0.0);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.ply;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatListWriter;
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.Splats;
+import de.javagl.jsplat.io.ply.PlySplatWriter.PlyFormat;
+
+@SuppressWarnings("javadoc")
+public class TestPlySplatMetadataProbe
+{
+    private static List<MutableSplat> createSplats(Random random,
+        int shDegree, int n)
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(shDegree);
+            s.setPositionX(random.nextDouble());
+            s.setPositionY(random.nextDouble());
+            s.setPositionZ(random.nextDouble());
+            s.setRotationW(1.0);
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    private static Path write(List<MutableSplat> splats,
+        SplatListWriter writer) throws IOException
+    {
+        Path path = Files.createTempFile("TestPlySplatMetadataProbe", ".ply");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            writer.writeList(splats, outputStream);
+        }
+        return path;
+    }
+
+    @Test
+    public void testPlySplatMetadataProbe() throws IOException
+    {
+        for (int shDegree = 0; shDegree <= 3; shDegree++)
+        {
+            List<MutableSplat> splats =
+                createSplats(new Random(shDegree), shDegree, 50);
+            Path path = write(splats,
+                new PlySplatWriter(PlyFormat.BINARY_LITTLE_ENDIAN));
+
+            SplatMetadata metadata = new PlySplatMetadataProbe().probe(path);
+            assertEquals(50, metadata.getSize());
+            assertEquals(shDegree, metadata.getShDegree());
+            assertNull(metadata.getBounds());
+        }
+    }
+
+    @Test
+    public void testPlySplatMetadataProbeCompressed() throws IOException
+    {
+        List<MutableSplat> splats = createSplats(new Random(0), 3, 1000);
+        Path path = write(splats, new PlyCompressedSplatWriter());
+
+        SplatMetadata metadata = new PlySplatMetadataProbe().probe(path);
+        assertEquals(1000, metadata.getSize());
+        assertEquals(3, metadata.getShDegree());
+
+        // The bounds of the chunks are the bounds of the splats that are
+        // read from the file
+        List<MutableSplat> read;
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            read = new PlySplatReader().readList(inputStream);
+        }
+        float expected[] = Splats.computeStatistics(read).getBounds();
+        float actual[] = metadata.getBounds();
+        assertNotNull(actual);
+        assertEquals(6, actual.length);
+        for (int k = 0; k < 6; k++)
+        {
+            assertEquals(expected[k], actual[k], 1e-5);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testPlySplatMetadataProbeTruncated() throws IOException
+    {
+        List<MutableSplat> splats = createSplats(new Random(0), 0, 10);
+        Path path = write(splats,
+            new PlySplatWriter(PlyFormat.BINARY_LITTLE_ENDIAN));
+
+        // Only the start of the header
+        byte data[] = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, 30));
+        new PlySplatMetadataProbe().probe(path);
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.ply;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestPlySplatSpliterator
+{
+    private static PlySplatSpliterator createEndless()
+    {
+        return new PlySplatSpliterator(Long.MAX_VALUE, consumer ->
+        {
+            while (true)
+            {
+                consumer.accept(Splats.createFloat(0));
+            }
+        });
+    }
+
+    private static boolean isReadingThreadAlive()
+    {
+        Thread threads[] = new Thread[Thread.activeCount() * 2 + 10];
+        int n = Thread.enumerate(threads);
+        for (int i = 0; i < n; i++)
+        {
+            if (threads[i].getName().equals("PlySplatSpliterator"))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean awaitReadingThreadEnd(boolean gc) 
+        throws InterruptedException
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            if (!isReadingThreadAlive())
+            {
+                return true;
+            }
+            if (gc)
+            {
+                System.gc();
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    @Test
+    public void testReadAll()
+    {
+        int n = 10000;
+        PlySplatSpliterator spliterator = new PlySplatSpliterator(n, 
+            consumer ->
+            {
+                for (int i = 0; i < n; i++)
+                {
+                    consumer.accept(Splats.createFloat(0));
+                }
+            });
+        int count[] = { 0 };
+        while (spliterator.tryAdvance(s -> count[0]++))
+        {
+            // Consume all
+        }
+        assertEquals(n, count[0]);
+        assertFalse(spliterator.tryAdvance(s -> count[0]++));
+    }
+
+    @Test
+    public void testCloseStopsReadingThread() throws InterruptedException
+    {
+        PlySplatSpliterator spliterator = createEndless();
+        assertTrue(spliterator.tryAdvance(s -> {}));
+        spliterator.close();
+        assertTrue(awaitReadingThreadEnd(false));
+    }
+
+    @Test
+    public void testCloseWakesUpBlockedConsumer() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        PlySplatSpliterator spliterator = new PlySplatSpliterator(1,
+            consumer ->
+            {
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        boolean result[] = { true };
+        Thread thread = new Thread(() ->
+        {
+            result[0] = spliterator.tryAdvance(s -> {});
+        });
+        thread.start();
+        try
+        {
+            while (thread.getState() != Thread.State.WAITING)
+            {
+                Thread.sleep(10);
+            }
+            spliterator.close();
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+            assertFalse(result[0]);
+            assertFalse(spliterator.tryAdvance(s -> {}));
+        }
+        finally
+        {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testUnreachableSpliteratorStopsReadingThread() 
+        throws InterruptedException
+    {
+        PlySplatSpliterator spliterator = createEndless();
+        assertTrue(spliterator.tryAdvance(s -> {}));
+        spliterator = null;
+        assertTrue(awaitReadingThreadEnd(true));
+    }
+
+    @Test
+    public void testIOExceptionIsPassedToConsumer()
+    {
+        PlySplatSpliterator spliterator = new PlySplatSpliterator(1,
+            consumer ->
+            {
+                throw new IOException("Expected");
+            });
+        try
+        {
+            spliterator.tryAdvance(s -> {});
+            fail("Expected an UncheckedIOException");
+        }
+        catch (UncheckedIOException e)
+        {
+            assertEquals("Expected", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testErrorIsPassedToConsumer() throws InterruptedException
+    {
+        PlySplatSpliterator spliterator = new PlySplatSpliterator(1,
+            consumer ->
+            {
+                throw new AssertionError("Expected");
+            });
+        Thread.UncaughtExceptionHandler handler = 
+            Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((t, e) -> {});
+        try
+        {
+            spliterator.tryAdvance(s -> {});
+            fail("Expected an AssertionError");
+        }
+        catch (AssertionError e)
+        {
+            assertEquals("Expected", e.getMessage());
+        }
+        finally
+        {
+            assertTrue(awaitReadingThreadEnd(false));
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+    }
+}
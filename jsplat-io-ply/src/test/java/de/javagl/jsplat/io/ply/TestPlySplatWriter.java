@@ -0,0 +1,100 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.ply;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.Splats;
+import de.javagl.jsplat.io.ply.PlySplatWriter.PlyFormat;
+
+@SuppressWarnings("javadoc")
+public class TestPlySplatWriter
+{
+    @Test
+    public void testPlySplatWriterAscii() throws IOException
+    {
+        MutableSplat s0 = Splats.create(0);
+        s0.setPositionX(1.0);
+        s0.setPositionY(2.0);
+        s0.setPositionZ(3.0);
+        s0.setShX(0, 0.5);
+        s0.setShY(0, 0.25);
+        s0.setShZ(0, 0.125);
+        s0.setOpacity(0.00001);
+        s0.setScaleX(-1.0);
+        s0.setScaleY(-2.0);
+        s0.setScaleZ(-3.0);
+        s0.setRotationX(0.5);
+        s0.setRotationY(0.5);
+        s0.setRotationZ(0.5);
+        s0.setRotationW(0.5);
+
+        MutableSplat s1 = Splats.create(0);
+        s1.setPositionX(0.1);
+        s1.setPositionY(-1234567.0);
+        s1.setPositionZ(-0.75);
+        s1.setShX(0, -0.5);
+        s1.setShY(0, 1.5);
+        s1.setShZ(0, 2.0);
+        s1.setOpacity(-4.0);
+        s1.setScaleX(0.2);
+        s1.setScaleY(0.3);
+        s1.setScaleZ(0.4);
+        s1.setRotationX(-0.5);
+        s1.setRotationY(0.5);
+        s1.setRotationZ(-0.5);
+        s1.setRotationW(0.5);
+        List<MutableSplat> splats = Arrays.asList(s0, s1);
+
+        // The values are formatted with Float.toString, and the splats
+        // are rotated about 180 degrees around the x-axis
+        String expected =
+            "ply\n" +
+            "format ascii 1.0\n" +
+            "element vertex 2\n" +
+            "property float x\n" +
+            "property float y\n" +
+            "property float z\n" +
+            "property float f_dc_0\n" +
+            "property float f_dc_1\n" +
+            "property float f_dc_2\n" +
+            "property float opacity\n" +
+            "property float scale_0\n" +
+            "property float scale_1\n" +
+            "property float scale_2\n" +
+            "property float rot_0\n" +
+            "property float rot_1\n" +
+            "property float rot_2\n" +
+            "property float rot_3\n" +
+            "end_header\n" +
+            "1.0 -2.0 -3.0 0.5 0.25 0.125 1.0E-5 -1.0 -2.0 -3.0 " +
+            "-0.5 0.5 -0.5 0.5\n" +
+            "0.1 1234567.0 0.75 -0.5 1.5 2.0 -4.0 0.2 0.3 0.4 " +
+            "0.5 0.5 0.5 0.5\n";
+
+        PlySplatWriter writer = new PlySplatWriter(PlyFormat.ASCII);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writer.writeList(splats, baos);
+        assertEquals(expected,
+            new String(baos.toByteArray(), StandardCharsets.US_ASCII));
+
+        // Writing a stream must yield the same output
+        baos = new ByteArrayOutputStream();
+        writer.writeStream(splats.stream(), baos);
+        assertEquals(expected,
+            new String(baos.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+}
@@ -38,6 +38,7 @@ import java.util.List;
 import java.util.logging.Logger;
 
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatStatistics;
 import de.javagl.jsplat.Splats;
 import de.javagl.jsplat.io.sog.Clustering.ClusteringResult;
 import de.javagl.jsplat.io.sog.SogClustering.ClusteringResult1D;
@@ -73,6 +74,11 @@ class SogDataGenerator
      */
     private List<? extends Splat> splats;
 
+    /**
+     * The {@link SplatStatistics} of the input splats
+     */
+    private SplatStatistics statistics;
+
     /**
      * The {@link SogData} that is filled with life here
      */
@@ -127,6 +133,7 @@ class SogDataGenerator
         logger.fine("Generating SOG data for " + splats.size() + " splats");
 
         this.splats = splats;
+        this.statistics = Splats.computeStatistics(splats);
 
         // Initialization of properties
         this.indices = generateIndices();
@@ -217,7 +224,8 @@ class SogDataGenerator
         IntDoubleFunction cx = i -> splats.get(i).getPositionX();
         IntDoubleFunction cy = i -> splats.get(i).getPositionY();
         IntDoubleFunction cz = i -> splats.get(i).getPositionZ();
-        SogMortonOrder.generate(result, cx, cy, cz);
+        float bounds[] = statistics.getBounds();
+        SogMortonOrder.generate(result, cx, cy, cz, bounds);
         return result;
     };
 
@@ -249,26 +257,18 @@ class SogDataGenerator
         IntDoubleFunction cx = i -> splats.get(i).getPositionX();
         IntDoubleFunction cy = i -> splats.get(i).getPositionY();
         IntDoubleFunction cz = i -> splats.get(i).getPositionZ();
+        IntDoubleFunction lx = i -> logTransform(cx.apply(i));
+        IntDoubleFunction ly = i -> logTransform(cy.apply(i));
+        IntDoubleFunction lz = i -> logTransform(cz.apply(i));
         IntDoubleFunction columns[] =
-        { cx, cy, cz };
+        { lx, ly, lz };
         double meansMinMax[][] = computeMinMax(indices.capacity(), columns);
-        for (int i = 0; i < meansMinMax.length; i++)
-        {
-            for (int j = 0; j < meansMinMax[i].length; j++)
-            {
-                meansMinMax[i][j] = logTransform(meansMinMax[i][j]);
-            }
-        }
         for (int i = 0; i < indices.capacity(); ++i)
         {
             int index = indices.get(i);
-            double rowx = cx.apply(index);
-            double rowy = cy.apply(index);
-            double rowz = cz.apply(index);
-
-            double x = meanTransform(rowx, meansMinMax[0]);
-            double y = meanTransform(rowy, meansMinMax[1]);
-            double z = meanTransform(rowz, meansMinMax[2]);
+            double x = meanTransform(lx.apply(index), meansMinMax[0]);
+            double y = meanTransform(ly.apply(index), meansMinMax[1]);
+            double z = meanTransform(lz.apply(index), meansMinMax[2]);
 
             int ti = layout(i, width);
 
@@ -301,15 +301,66 @@ class SogDataGenerator
     /**
      * Apply that transform to the mean value in the way that SOG needs...
      * 
-     * @param value The mean
+     * The given value is the already log-transformed mean, and the given
+     * minimum and maximum are those of the log-transformed means. The result
+     * will be in [0, 65535], and 0 if the minimum and maximum are equal.
+     * 
+     * @param logValue The log-transformed mean
      * @param minMax The minimum/maximum
      * @return The result
      */
-    private static double meanTransform(double value, double minMax[])
+    private static double meanTransform(double logValue, double minMax[])
     {
         double min = minMax[0];
         double max = minMax[1];
-        return 65535.0f * (logTransform(value) - min) / (max - min);
+        double range = max - min;
+        if (range == 0.0)
+        {
+            return 0.0;
+        }
+        double result = 65535.0 * (logValue - min) / range;
+        return Math.max(0.0, Math.min(65535.0, result));
+    }
+
+    /**
+     * Compute the minimum/maximum values of the given data.
+     * 
+     * The result will be an array with a length that is equal to the number of
+     * columns, each element being a 2-element array, with
+     * <code>result[column][0] = minimum of that column</code>
+     * <code>result[column][1] = maximum of that column</code>
+     * 
+     * @param numRows The number of rows
+     * @param columns The colums
+     * @return The result
+     */
+    private static double[][] computeMinMax(int numRows,
+        IntDoubleFunction columns[])
+    {
+        double minMax[][] = new double[columns.length][2];
+        for (int j = 0; j < columns.length; ++j)
+        {
+            minMax[j][0] = Double.POSITIVE_INFINITY;
+            minMax[j][1] = Double.NEGATIVE_INFINITY;
+        }
+
+        for (int i = 0; i < numRows; ++i)
+        {
+            for (int j = 0; j < columns.length; ++j)
+            {
+                double value = columns[j].apply(i);
+                if (value < minMax[j][0])
+                {
+                    minMax[j][0] = value;
+                }
+                if (value > minMax[j][1])
+                {
+                    minMax[j][1] = value;
+                }
+            }
+        }
+
+        return minMax;
     }
 
     /**
@@ -558,47 +609,6 @@ class SogDataGenerator
         return data;
     };
 
-    /**
-     * Compute the minimum/maximum values of the given data.
-     * 
-     * The result will be an array with a length that is equal to the number of
-     * columns, each element being a 2-element array, with
-     * <code>result[column][0] = minimum of that column</code>
-     * <code>result[column][1] = maximum of that column</code>
-     * 
-     * @param numRows The number of rows
-     * @param columns The colums
-     * @return The result
-     */
-    private static double[][] computeMinMax(int numRows,
-        IntDoubleFunction columns[])
-    {
-        double minMax[][] = new double[columns.length][2];
-        for (int j = 0; j < columns.length; ++j)
-        {
-            minMax[j][0] = Double.POSITIVE_INFINITY;
-            minMax[j][1] = Double.NEGATIVE_INFINITY;
-        }
-
-        for (int i = 0; i < numRows; ++i)
-        {
-            for (int j = 0; j < columns.length; ++j)
-            {
-                double value = columns[j].apply(i);
-                if (value < minMax[j][0])
-                {
-                    minMax[j][0] = value;
-                }
-                if (value > minMax[j][1])
-                {
-                    minMax[j][1] = value;
-                }
-            }
-        }
-
-        return minMax;
-    };
-
     /**
      * Encode the given quaternion into bytes.
      * 
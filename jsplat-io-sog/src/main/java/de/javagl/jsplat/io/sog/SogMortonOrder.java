@@ -47,6 +47,13 @@ import java.util.List;
 @SuppressWarnings("javadoc")
 class SogMortonOrder
 {
+    static void generate(IntBuffer indices, IntDoubleFunction cx,
+        IntDoubleFunction cy, IntDoubleFunction cz, float bounds[])
+    {
+        generate(indices, cx, cy, cz, bounds[0], bounds[1], bounds[2],
+            bounds[3], bounds[4], bounds[5]);
+    }
+
     static void generate(IntBuffer indices, IntDoubleFunction cx,
         IntDoubleFunction cy, IntDoubleFunction cz)
     {
@@ -101,6 +108,13 @@ class SogMortonOrder
             }
         }
 
+        generate(indices, cx, cy, cz, mx, my, mz, Mx, My, Mz);
+    }
+
+    private static void generate(IntBuffer indices, IntDoubleFunction cx,
+        IntDoubleFunction cy, IntDoubleFunction cz, double mx, double my,
+        double mz, double Mx, double My, double Mz)
+    {
         double xlen = Mx - mx;
         double ylen = My - my;
         double zlen = Mz - mz;
@@ -142,7 +156,7 @@ class SogMortonOrder
         List<Integer> order = new ArrayList<Integer>();
         for (int i = 0; i < indices.capacity(); i++)
         {
-            order.add(indices.get(i));
+            order.add(i);
         }
         Collections.sort(order, (i0, i1) ->
         {
@@ -172,7 +186,7 @@ class SogMortonOrder
                 // logger.debug('sorting', end - start);
                 IntBuffer s = indices.slice();
                 ((Buffer)s).position(start);
-                ((Buffer)s).limit(start + end);
+                ((Buffer)s).limit(end);
                 IntBuffer subarray = s.slice();
                 generate(subarray, cx, cy, cz);
             }
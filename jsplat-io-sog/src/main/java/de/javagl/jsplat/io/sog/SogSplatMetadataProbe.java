@@ -0,0 +1,162 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.sog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.SplatMetadataProbe;
+import de.javagl.jsplat.Splats;
+import de.javagl.jsplat.io.sog.meta.Means;
+import de.javagl.jsplat.io.sog.meta.Meta;
+
+/**
+ * Implementation of a {@link SplatMetadataProbe} for SOG data.
+ * 
+ * The metadata is obtained from the <code>meta.json</code>, without 
+ * decoding any of the images. The given path may be a bundled SOG 
+ * (ZIP) file, the <code>meta.json</code> file itself, or a directory
+ * that contains the <code>meta.json</code> file.
+ * 
+ * The bounds are derived from the ranges of the log-transformed 
+ * positions that are stored in the metadata.
+ */
+public final class SogSplatMetadataProbe implements SplatMetadataProbe
+{
+    /**
+     * Creates a new instance
+     */
+    public SogSplatMetadataProbe()
+    {
+        // Default constructor
+    }
+
+    @Override
+    public SplatMetadata probe(Path path) throws IOException
+    {
+        Meta meta = readMeta(path);
+        if (meta.version != 2)
+        {
+            throw new IOException("Only SOG version 2 is supported. "
+                + "Found version " + meta.version);
+        }
+        int shDegree = 0;
+        if (meta.shN != null)
+        {
+            shDegree = meta.shN.bands;
+        }
+        float bounds[] = computeBounds(meta.means);
+        return Splats.createMetadata(meta.count, shDegree, bounds);
+    }
+
+    /**
+     * Read the {@link Meta} from the specified path
+     * 
+     * @param path The path
+     * @return The {@link Meta}
+     * @throws IOException If an IO error occurs
+     */
+    private static Meta readMeta(Path path) throws IOException
+    {
+        if (Files.isDirectory(path))
+        {
+            return readMetaJson(path.resolve("meta.json"));
+        }
+        if (path.getFileName().toString().toLowerCase().endsWith(".json"))
+        {
+            return readMetaJson(path);
+        }
+        try (ZipFile zipFile = new ZipFile(path.toFile()))
+        {
+            ZipEntry entry = zipFile.getEntry("meta.json");
+            if (entry == null)
+            {
+                throw new IOException(
+                    "The meta.json was not found in the SOG data");
+            }
+            try (InputStream is = zipFile.getInputStream(entry))
+            {
+                return JsonUtils.readValue(is, Meta.class);
+            }
+        }
+    }
+
+    /**
+     * Read the {@link Meta} from the specified JSON file
+     * 
+     * @param path The path
+     * @return The {@link Meta}
+     * @throws IOException If an IO error occurs
+     */
+    private static Meta readMetaJson(Path path) throws IOException
+    {
+        try (InputStream is = Files.newInputStream(path))
+        {
+            return JsonUtils.readValue(is, Meta.class);
+        }
+    }
+
+    /**
+     * Compute the bounds from the given {@link Means}, by undoing the 
+     * symmetric log transform of the ranges of the positions. 
+     * 
+     * @param means The {@link Means}
+     * @return The bounds, or <code>null</code> if the ranges are not 
+     * contained in the given means
+     */
+    private static float[] computeBounds(Means means)
+    {
+        if (means == null || means.mins == null || means.maxs == null
+            || means.mins.length != 3 || means.maxs.length != 3)
+        {
+            return null;
+        }
+        float bounds[] = new float[6];
+        for (int k = 0; k < 3; k++)
+        {
+            bounds[k] = (float) unlog(means.mins[k]);
+            bounds[3 + k] = (float) unlog(means.maxs[k]);
+        }
+        return bounds;
+    }
+
+    /**
+     * Undo the symmetric log transform that is applied to the positions
+     * 
+     * @param n The input
+     * @return The result
+     */
+    private static double unlog(double n)
+    {
+        return Math.signum(n) * (Math.exp(Math.abs(n)) - 1);
+    }
+}
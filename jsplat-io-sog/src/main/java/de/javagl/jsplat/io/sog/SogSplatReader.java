@@ -37,11 +37,14 @@ import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatAttribute;
 import de.javagl.jsplat.SplatListReader;
+import de.javagl.jsplat.SplatReadOptions;
 import de.javagl.jsplat.Splats;
 import de.javagl.jsplat.io.sog.meta.Means;
 import de.javagl.jsplat.io.sog.meta.Meta;
@@ -50,16 +53,37 @@ import de.javagl.jsplat.io.sog.meta.Sh0;
 import de.javagl.jsplat.io.sog.meta.ShN;
 
 /**
- * Implementation of a {@link SplatListReader} that reads SOG data
+ * Implementation of a {@link SplatListReader} that reads SOG data.
+ * 
+ * The images for attributes that are not read according to the 
+ * {@link SplatReadOptions} are not decoded. The images for the higher
+ * spherical harmonics are only decoded when the maximum degree is 
+ * larger than 0.
  */
 public final class SogSplatReader implements SplatListReader
 {
+    /**
+     * The {@link SplatReadOptions}
+     */
+    private final SplatReadOptions options;
+
     /**
      * Creates a new instance
      */
     public SogSplatReader()
     {
-        // Default constructor
+        this(SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param options The {@link SplatReadOptions}
+     */
+    public SogSplatReader(SplatReadOptions options)
+    {
+        this.options = Objects.requireNonNull(options,
+            "The options may not be null");
     }
 
     @Override
@@ -70,7 +94,7 @@ public final class SogSplatReader implements SplatListReader
         File tempFile = createTempFile(inputStream);
         try
         {
-            result = readListFromFile(tempFile);
+            result = readListFromFile(tempFile, options);
         }
         finally
         {
@@ -112,11 +136,12 @@ public final class SogSplatReader implements SplatListReader
      * Read the list of splats from the given file
      * 
      * @param file The file
+     * @param options The {@link SplatReadOptions}
      * @return The list of splats
      * @throws IOException If an IO error occurs
      */
-    private static List<MutableSplat> readListFromFile(File file)
-        throws IOException
+    private static List<MutableSplat> readListFromFile(File file,
+        SplatReadOptions options) throws IOException
     {
         Map<String, ZipEntry> entryMap = new LinkedHashMap<String, ZipEntry>();
         try (ZipFile zipFile = new ZipFile(file))
@@ -131,8 +156,8 @@ public final class SogSplatReader implements SplatListReader
                 }
                 entryMap.put(entry.getName(), entry);
             }
-            SogData sogData = readSogData(zipFile, entryMap);
-            return convertSogData(sogData);
+            SogData sogData = readSogData(zipFile, entryMap, options);
+            return convertSogData(sogData, options);
         }
     }
 
@@ -141,11 +166,13 @@ public final class SogSplatReader implements SplatListReader
      * 
      * @param zipFile The ZIP file
      * @param entryMap The mapping from file names to ZIP entries
+     * @param options The {@link SplatReadOptions}
      * @return The {@link SogData}
      * @throws IOException If an IO error occurs
      */
     private static SogData readSogData(ZipFile zipFile,
-        Map<String, ZipEntry> entryMap) throws IOException
+        Map<String, ZipEntry> entryMap, SplatReadOptions options)
+        throws IOException
     {
         if (!entryMap.containsKey("meta.json"))
         {
@@ -161,47 +188,63 @@ public final class SogSplatReader implements SplatListReader
                 throw new IOException("Only SOG version 2 is supported. "
                     + "Found version " + meta.version);
             }
-            return readSogData(zipFile, entryMap, meta);
+            return readSogData(zipFile, entryMap, meta, options);
         }
     }
 
     /**
-     * Read the {@link SogData} from the given input data
+     * Read the {@link SogData} from the given input data.
+     * 
+     * Only the images that are required for the attributes that are read
+     * according to the given options are decoded. The data for all other
+     * images will remain <code>null</code>.
      * 
      * @param zipFile The ZIP file
      * @param entryMap The mapping from file names to ZIP entries
      * @param meta The {@link Meta} object
+     * @param options The {@link SplatReadOptions}
      * @return The {@link SogData}
      * @throws IOException If an IO error occurs
      */
     private static SogData readSogData(ZipFile zipFile,
-        Map<String, ZipEntry> entryMap, Meta meta) throws IOException
+        Map<String, ZipEntry> entryMap, Meta meta, SplatReadOptions options)
+        throws IOException
     {
-        byte[][] means = readImagesPixelsByteRgba(zipFile, entryMap, "means",
-            meta.means.files, 2);
-        byte[][] scales = readImagesPixelsByteRgba(zipFile, entryMap, "scales",
-            meta.scales.files, 1);
-        byte[][] quats = readImagesPixelsByteRgba(zipFile, entryMap, "quats",
-            meta.quats.files, 1);
-        byte[][] sh0 = readImagesPixelsByteRgba(zipFile, entryMap, "sh0",
-            meta.sh0.files, 1);
-        byte[][] shN = null;
-        if (meta.shN != null)
-        {
-            shN = readImagesPixelsByteRgba(zipFile, entryMap, "shN",
-                meta.shN.files, 2);
-        }
-
         SogData sogData = new SogData();
         sogData.meta = meta;
 
-        sogData.meansL = means[0];
-        sogData.meansU = means[1];
-        sogData.scales = scales[0];
-        sogData.quats = quats[0];
-        sogData.sh0 = sh0[0];
-        if (shN != null)
+        if (options.isRead(SplatAttribute.POSITION))
         {
+            byte[][] means = readImagesPixelsByteRgba(zipFile, entryMap, 
+                "means", meta.means.files, 2);
+            sogData.meansL = means[0];
+            sogData.meansU = means[1];
+        }
+        if (options.isRead(SplatAttribute.SCALE))
+        {
+            byte[][] scales = readImagesPixelsByteRgba(zipFile, entryMap, 
+                "scales", meta.scales.files, 1);
+            sogData.scales = scales[0];
+        }
+        if (options.isRead(SplatAttribute.ROTATION))
+        {
+            byte[][] quats = readImagesPixelsByteRgba(zipFile, entryMap, 
+                "quats", meta.quats.files, 1);
+            sogData.quats = quats[0];
+        }
+        
+        // The sh0 image contains the colors and the opacities
+        if (options.isRead(SplatAttribute.SH)
+            || options.isRead(SplatAttribute.OPACITY))
+        {
+            byte[][] sh0 = readImagesPixelsByteRgba(zipFile, entryMap, 
+                "sh0", meta.sh0.files, 1);
+            sogData.sh0 = sh0[0];
+        }
+        if (meta.shN != null && options.computeShDegree(meta.shN.bands) > 0)
+        {
+            byte[][] shN = readImagesPixelsByteRgba(zipFile, entryMap, 
+                "shN", meta.shN.files, 2);
             sogData.shNCentroids = shN[0];
             sogData.shNLabels = shN[1];
         }
@@ -272,29 +315,53 @@ public final class SogSplatReader implements SplatListReader
      * Convert the given {@link SogData} into splats
      * 
      * @param sogData The {@link SogData}
+     * @param options The {@link SplatReadOptions}
      * @return The splats
      * @throws IOException If an IO error occurs
      */
-    private static List<MutableSplat> convertSogData(SogData sogData)
-        throws IOException
+    private static List<MutableSplat> convertSogData(SogData sogData,
+        SplatReadOptions options) throws IOException
     {
         Meta meta = sogData.meta;
         int count = meta.count;
 
-        int shDegree = 0;
+        int fileShDegree = 0;
         if (meta.shN != null)
         {
-            shDegree = meta.shN.bands;
+            fileShDegree = meta.shN.bands;
         }
+        int shDegree = options.computeShDegree(fileShDegree);
+        boolean readPositions = options.isRead(SplatAttribute.POSITION);
+        boolean readRotations = options.isRead(SplatAttribute.ROTATION);
+        boolean readScales = options.isRead(SplatAttribute.SCALE);
+        boolean readOpacities = options.isRead(SplatAttribute.OPACITY);
+        boolean readShs = options.isRead(SplatAttribute.SH);
         List<MutableSplat> result = new ArrayList<MutableSplat>();
         for (int i = 0; i < count; i++)
         {
-            MutableSplat s = Splats.create(shDegree);
-            convertPosition(s, i, meta.means, sogData.meansL, sogData.meansU);
-            convertQuaternions(s, i, sogData.quats);
-            convertScales(s, i, meta.scales.codebook, sogData.scales);
-            convertSh0(s, i, meta.sh0.codebook, sogData.sh0);
-            if (meta.shN != null)
+            MutableSplat s = options.createSplat(shDegree);
+            if (readPositions)
+            {
+                convertPosition(s, i, meta.means, 
+                    sogData.meansL, sogData.meansU);
+            }
+            if (readRotations)
+            {
+                convertQuaternions(s, i, sogData.quats);
+            }
+            if (readScales)
+            {
+                convertScales(s, i, meta.scales.codebook, sogData.scales);
+            }
+            if (readShs)
+            {
+                convertSh0(s, i, meta.sh0.codebook, sogData.sh0);
+            }
+            if (readOpacities)
+            {
+                convertOpacity(s, i, sogData.sh0);
+            }
+            if (shDegree > 0)
             {
                 convertShN(s, i, meta.shN, sogData.shNCentroids,
                     sogData.shNLabels);
@@ -447,22 +514,37 @@ public final class SogSplatReader implements SplatListReader
         int sh0r = Byte.toUnsignedInt(sh0[index * 4 + 0]);
         int sh0g = Byte.toUnsignedInt(sh0[index * 4 + 1]);
         int sh0b = Byte.toUnsignedInt(sh0[index * 4 + 2]);
-        int sh0a = Byte.toUnsignedInt(sh0[index * 4 + 3]);
 
         // Not converting to "color" here
         double r = codebook[sh0r];
         double g = codebook[sh0g];
         double b = codebook[sh0b];
-        double a = sh0a / 255.0;
 
         s.setShX(0, r);
         s.setShY(0, g);
         s.setShZ(0, b);
+    }
+
+    /**
+     * Convert the opacity of the specified splat from SOG into its standard
+     * form.
+     * 
+     * @param s The splat
+     * @param index The index
+     * @param sh0 The sh0 image
+     */
+    private static void convertOpacity(MutableSplat s, int index, byte[] sh0)
+    {
+        int sh0a = Byte.toUnsignedInt(sh0[index * 4 + 3]);
+        double a = sh0a / 255.0;
         s.setOpacity(Splats.alphaToOpacity(a));
     }
 
     /**
-     * Convert the SH0 of the specified splat from SOG into its standard form.
+     * Convert the SHN of the specified splat from SOG into its standard form.
+     * 
+     * Only the coefficients for the dimensions of the given splat are 
+     * converted, which may be fewer than the dimensions of the data.
      * 
      * @param s The splat
      * @param splatIndex The splat index
@@ -487,7 +569,8 @@ public final class SogSplatReader implements SplatListReader
         int v = index / 64;
         int width = coeffs * 64;
         int centroidIndex = u + v * width;
-        for (int k = 0; k < coeffs; k++)
+        int n = Math.min(coeffs, s.getShDimensions() - 1);
+        for (int k = 0; k < n; k++)
         {
             int base = centroidIndex + k;
             int centroidr = Byte.toUnsignedInt(shNCentroids[base * 4 + 0]);
@@ -0,0 +1,45 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.sog;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.IntBuffer;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestSogMortonOrder
+{
+    @Test
+    public void testMortonOrderRecursion()
+    {
+        // One point that is far away, followed by a cluster of more than
+        // 256 points that all receive the same top-level Morton code. The 
+        // cluster is sorted recursively, by its position along the x-axis.
+        int clusterSize = 300;
+        int n = clusterSize + 1;
+        double x[] = new double[n];
+        x[0] = 1000.0;
+        for (int i = 1; i < n; i++)
+        {
+            x[i] = (n - 1 - i) * 1e-3;
+        }
+        IntBuffer indices = IntBuffer.allocate(n);
+        for (int i = 0; i < n; i++)
+        {
+            indices.put(i, i);
+        }
+        SogMortonOrder.generate(indices, i -> x[i], i -> 0.0, i -> 0.0);
+
+        for (int i = 0; i < clusterSize; i++)
+        {
+            assertEquals(clusterSize - i, indices.get(i));
+        }
+        assertEquals(0, indices.get(clusterSize));
+    }
+
+}
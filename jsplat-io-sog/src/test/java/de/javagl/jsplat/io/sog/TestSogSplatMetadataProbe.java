@@ -0,0 +1,108 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.sog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestSogSplatMetadataProbe
+{
+    private static Path write(int shDegree, int n) throws IOException
+    {
+        Random random = new Random(shDegree);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(shDegree);
+            s.setPositionX(-10.0 + random.nextDouble() * 20.0);
+            s.setPositionY(-5.0 + random.nextDouble() * 10.0);
+            s.setPositionZ(2.0 + random.nextDouble() * 4.0);
+            s.setScaleX(-5.0 + random.nextDouble());
+            s.setScaleY(-5.0 + random.nextDouble());
+            s.setScaleZ(-5.0 + random.nextDouble());
+            s.setRotationW(1.0);
+            s.setOpacity(-4.0 + random.nextDouble() * 8.0);
+            for (int d = 0; d < s.getShDimensions(); d++)
+            {
+                s.setShX(d, random.nextDouble() - 0.5);
+                s.setShY(d, random.nextDouble() - 0.5);
+                s.setShZ(d, random.nextDouble() - 0.5);
+            }
+            splats.add(s);
+        }
+        Path path = Files.createTempFile("TestSogSplatMetadataProbe", ".sog");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            new SogSplatWriter().writeList(splats, outputStream);
+        }
+        return path;
+    }
+
+    private static void checkProbe(int shDegree) throws IOException
+    {
+        Path path = write(shDegree, 2048);
+        SplatMetadata metadata = new SogSplatMetadataProbe().probe(path);
+        assertEquals(2048, metadata.getSize());
+        assertEquals(shDegree, metadata.getShDegree());
+
+        // The bounds are the bounds of the splats that are read
+        List<MutableSplat> read;
+        try (InputStream inputStream = Files.newInputStream(path))
+        {
+            read = new SogSplatReader().readList(inputStream);
+        }
+        float expected[] = Splats.computeStatistics(read).getBounds();
+        float actual[] = metadata.getBounds();
+        assertNotNull(actual);
+        assertEquals(6, actual.length);
+        for (int k = 0; k < 6; k++)
+        {
+            assertEquals(expected[k], actual[k], 1e-4);
+        }
+    }
+
+    @Test
+    public void testSogSplatMetadataProbe() throws IOException
+    {
+        checkProbe(0);
+    }
+
+    @Test
+    public void testSogSplatMetadataProbeSh() throws IOException
+    {
+        checkProbe(1);
+    }
+
+    @Test(expected = IOException.class)
+    public void testSogSplatMetadataProbeTruncated() throws IOException
+    {
+        Path path = write(0, 100);
+
+        // The start of the ZIP data, without the central directory
+        byte data[] = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, 100));
+        new SogSplatMetadataProbe().probe(path);
+    }
+
+}
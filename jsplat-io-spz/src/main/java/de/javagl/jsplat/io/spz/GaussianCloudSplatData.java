@@ -0,0 +1,137 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.spz;
+
+import java.nio.FloatBuffer;
+import java.util.Objects;
+
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.Splats;
+import de.javagl.jspz.GaussianCloud;
+
+/**
+ * Implementation of a {@link SplatData} that is backed by a 
+ * {@link GaussianCloud}.
+ * 
+ * The positions, scales, rotations, and opacities are the buffers of the
+ * Gaussian cloud. The Gaussian cloud stores the first spherical harmonics
+ * dimension (the colors) and the remaining dimensions in separate buffers.
+ * For spherical harmonics degree 0, the spherical harmonics are the colors
+ * buffer. For higher degrees, they are combined into a single buffer when
+ * this instance is created, and modifications of this buffer will not be
+ * visible in the Gaussian cloud. The spherical harmonics degree of this 
+ * instance may be smaller than that of the Gaussian cloud. In this case, 
+ * only the coefficients up to this degree are combined.
+ */
+class GaussianCloudSplatData implements SplatData
+{
+    /**
+     * The Gaussian cloud
+     */
+    private final GaussianCloud g;
+    
+    /**
+     * The spherical harmonics degree
+     */
+    private final int shDegree;
+    
+    /**
+     * The spherical harmonics
+     */
+    private final FloatBuffer shs;
+    
+    /**
+     * Creates a new instance
+     * 
+     * @param g The Gaussian cloud
+     * @param shDegree The spherical harmonics degree, which may not be 
+     * larger than that of the Gaussian cloud
+     * @throws IllegalArgumentException If the combined spherical harmonics
+     * would require more than 2^31-1 bytes
+     */
+    GaussianCloudSplatData(GaussianCloud g, int shDegree)
+    {
+        this.g = Objects.requireNonNull(g, "The Gaussian cloud may not be null");
+        this.shDegree = shDegree;
+        if (shDegree == 0)
+        {
+            this.shs = g.getColors();
+        }
+        else
+        {
+            this.shs = GaussianCloudSplats.combineShs(g, shDegree);
+        }
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return shDegree;
+    }
+
+    @Override
+    public int getShDimensions()
+    {
+        return Splats.dimensionsForDegree(shDegree);
+    }
+
+    @Override
+    public int getSize()
+    {
+        return g.getNumPoints();
+    }
+
+    @Override
+    public FloatBuffer getPositions()
+    {
+        return g.getPositions().slice();
+    }
+
+    @Override
+    public FloatBuffer getScales()
+    {
+        return g.getScales().slice();
+    }
+
+    @Override
+    public FloatBuffer getRotations()
+    {
+        return g.getRotations().slice();
+    }
+
+    @Override
+    public FloatBuffer getOpacities()
+    {
+        return g.getAlphas().slice();
+    }
+
+    @Override
+    public FloatBuffer getShs()
+    {
+        return shs.slice();
+    }
+}
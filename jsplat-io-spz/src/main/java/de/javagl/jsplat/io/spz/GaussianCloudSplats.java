@@ -26,12 +26,17 @@
  */
 package de.javagl.jsplat.io.spz;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 import de.javagl.jsplat.MutableSplat;
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatAttribute;
+import de.javagl.jsplat.SplatData;
+import de.javagl.jsplat.SplatReadOptions;
 import de.javagl.jsplat.Splats;
 import de.javagl.jspz.GaussianCloud;
 import de.javagl.jspz.GaussianClouds;
@@ -43,6 +48,177 @@ import de.javagl.jspz.GaussianClouds;
  */
 public class GaussianCloudSplats
 {
+    /**
+     * The number of splats for which the spherical harmonics are combined
+     * or split in one step
+     */
+    private static final int SH_CHUNK_SIZE = 4096;
+    
+    /**
+     * Returns a {@link SplatData} that is backed by the given Gaussian 
+     * cloud.
+     * 
+     * The positions, scales, rotations, and opacities of the returned 
+     * instance are the buffers of the Gaussian cloud, without copying the
+     * data. For a spherical harmonics degree that is larger than 0, the
+     * spherical harmonics of the Gaussian cloud (which are stored in
+     * separate buffers for the colors and the remaining coefficients) are 
+     * combined into a new buffer.
+     * 
+     * @param g The Gaussian cloud
+     * @return The {@link SplatData}
+     * @throws IllegalArgumentException If the combined spherical harmonics
+     * would require more than 2^31-1 bytes
+     */
+    public static SplatData toSplatData(GaussianCloud g)
+    {
+        return new GaussianCloudSplatData(g, g.getShDegree());
+    }
+
+    /**
+     * Returns a {@link SplatData} that is backed by the given Gaussian 
+     * cloud, with the spherical harmonics degree that is determined by 
+     * the given options.
+     * 
+     * See {@link #toSplatData(GaussianCloud)} for details. When the degree
+     * is smaller than that of the Gaussian cloud, then only the required
+     * coefficients are combined into the new buffer. The buffers for the 
+     * other attributes are always the buffers of the Gaussian cloud.
+     * 
+     * @param g The Gaussian cloud
+     * @param options The {@link SplatReadOptions}
+     * @return The {@link SplatData}
+     * @throws IllegalArgumentException If the combined spherical harmonics
+     * would require more than 2^31-1 bytes
+     */
+    public static SplatData toSplatData(GaussianCloud g,
+        SplatReadOptions options)
+    {
+        int shDegree = options.computeShDegree(g.getShDegree());
+        return new GaussianCloudSplatData(g, shDegree);
+    }
+
+    /**
+     * Creates a new Gaussian cloud from the given {@link SplatData}.
+     * 
+     * The data is copied with bulk buffer operations, without creating
+     * individual splat objects.
+     * 
+     * @param splatData The {@link SplatData}
+     * @return The Gaussian cloud
+     */
+    public static GaussianCloud fromSplatData(SplatData splatData)
+    {
+        int shDegree = splatData.getShDegree();
+        int n = splatData.getSize();
+        GaussianCloud g = GaussianClouds.create(n, shDegree);
+        g.getPositions().slice().put(splatData.getPositions());
+        g.getScales().slice().put(splatData.getScales());
+        g.getRotations().slice().put(splatData.getRotations());
+        g.getAlphas().slice().put(splatData.getOpacities());
+        if (shDegree == 0)
+        {
+            g.getColors().slice().put(splatData.getShs());
+        }
+        else
+        {
+            splitShs(splatData.getShs(), n, shDegree, g);
+        }
+        return g;
+    }
+    
+    /**
+     * Combine the colors and the spherical harmonics of the given Gaussian 
+     * cloud into a new buffer, in the layout that is used by
+     * {@link SplatData#getShs()}, up to the given degree
+     * 
+     * @param g The Gaussian cloud
+     * @param shDegree The spherical harmonics degree, which may not be 
+     * larger than that of the Gaussian cloud
+     * @return The buffer
+     * @throws IllegalArgumentException If the buffer would be larger than
+     * 2^31-1 bytes
+     */
+    static FloatBuffer combineShs(GaussianCloud g, int shDegree)
+    {
+        int n = g.getNumPoints();
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        int restStride = (shDimensions - 1) * 3;
+        int stride = shDimensions * 3;
+        int sourceDimensions = Splats.dimensionsForDegree(g.getShDegree());
+        int sourceRestStride = (sourceDimensions - 1) * 3;
+        
+        long byteSize = (long) n * stride * Float.BYTES;
+        if (byteSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The spherical harmonics for "
+                + n + " points with degree " + shDegree + " would require "
+                + byteSize + " bytes, but the maximum is "
+                + Integer.MAX_VALUE);
+        }
+        FloatBuffer result = ByteBuffer
+            .allocateDirect((int) byteSize)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        FloatBuffer colors = g.getColors().slice();
+        FloatBuffer sh = g.getSh().slice();
+        float colorsChunk[] = new float[SH_CHUNK_SIZE * 3];
+        float shChunk[] = new float[SH_CHUNK_SIZE * sourceRestStride];
+        float chunk[] = new float[SH_CHUNK_SIZE * stride];
+        for (int start = 0; start < n; start += SH_CHUNK_SIZE)
+        {
+            int c = Math.min(SH_CHUNK_SIZE, n - start);
+            colors.get(colorsChunk, 0, c * 3);
+            sh.get(shChunk, 0, c * sourceRestStride);
+            for (int i = 0; i < c; i++)
+            {
+                System.arraycopy(colorsChunk, i * 3, chunk, i * stride, 3);
+                System.arraycopy(shChunk, i * sourceRestStride, 
+                    chunk, i * stride + 3, restStride);
+            }
+            result.put(chunk, 0, c * stride);
+        }
+        result.flip();
+        return result;
+    }
+    
+    /**
+     * Split the given spherical harmonics, in the layout that is used by 
+     * {@link SplatData#getShs()}, into the colors and spherical harmonics
+     * of the given Gaussian cloud
+     * 
+     * @param shs The spherical harmonics
+     * @param n The number of splats
+     * @param shDegree The spherical harmonics degree
+     * @param g The Gaussian cloud
+     */
+    private static void splitShs(FloatBuffer shs, int n, int shDegree, 
+        GaussianCloud g)
+    {
+        int shDimensions = Splats.dimensionsForDegree(shDegree);
+        int restStride = (shDimensions - 1) * 3;
+        int stride = shDimensions * 3;
+        
+        FloatBuffer colors = g.getColors().slice();
+        FloatBuffer sh = g.getSh().slice();
+        float colorsChunk[] = new float[SH_CHUNK_SIZE * 3];
+        float shChunk[] = new float[SH_CHUNK_SIZE * restStride];
+        float chunk[] = new float[SH_CHUNK_SIZE * stride];
+        for (int start = 0; start < n; start += SH_CHUNK_SIZE)
+        {
+            int c = Math.min(SH_CHUNK_SIZE, n - start);
+            shs.get(chunk, 0, c * stride);
+            for (int i = 0; i < c; i++)
+            {
+                System.arraycopy(chunk, i * stride, colorsChunk, i * 3, 3);
+                System.arraycopy(chunk, i * stride + 3, 
+                    shChunk, i * restStride, restStride);
+            }
+            colors.put(colorsChunk, 0, c * 3);
+            sh.put(shChunk, 0, c * restStride);
+        }
+    }
+    
     /**
      * Returns a list of {@link Splat} objects, created from the given Gaussian
      * cloud.
@@ -52,8 +228,32 @@ public class GaussianCloudSplats
      */
     public static List<MutableSplat> toSplats(GaussianCloud g)
     {
-        int shDegree = g.getShDegree();
+        return toSplats(g, SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Returns a list of {@link Splat} objects, created from the given Gaussian
+     * cloud.
+     * 
+     * Only the attributes that are read according to the given options are
+     * copied into the splats, up to the spherical harmonics degree that is
+     * determined by the options.
+     * 
+     * @param g The Gaussian cloud
+     * @param options The {@link SplatReadOptions}
+     * @return The splats
+     */
+    public static List<MutableSplat> toSplats(GaussianCloud g,
+        SplatReadOptions options)
+    {
+        int shDegree = options.computeShDegree(g.getShDegree());
         int shDimensions = Splats.dimensionsForDegree(shDegree);
+        int sourceDimensions = Splats.dimensionsForDegree(g.getShDegree());
+        boolean readPositions = options.isRead(SplatAttribute.POSITION);
+        boolean readScales = options.isRead(SplatAttribute.SCALE);
+        boolean readRotations = options.isRead(SplatAttribute.ROTATION);
+        boolean readOpacities = options.isRead(SplatAttribute.OPACITY);
+        boolean readShs = options.isRead(SplatAttribute.SH);
 
         List<MutableSplat> splats = new ArrayList<MutableSplat>();
 
@@ -67,31 +267,46 @@ public class GaussianCloudSplats
 
         for (int i = 0; i < n; i++)
         {
-            MutableSplat splat = Splats.create(shDegree);
+            MutableSplat splat = options.createSplat(shDegree);
 
-            splat.setPositionX(positions.get(i * 3 + 0));
-            splat.setPositionY(positions.get(i * 3 + 1));
-            splat.setPositionZ(positions.get(i * 3 + 2));
+            if (readPositions)
+            {
+                splat.setPositionX(positions.get(i * 3 + 0));
+                splat.setPositionY(positions.get(i * 3 + 1));
+                splat.setPositionZ(positions.get(i * 3 + 2));
+            }
 
-            splat.setScaleX(scales.get(i * 3 + 0));
-            splat.setScaleY(scales.get(i * 3 + 1));
-            splat.setScaleZ(scales.get(i * 3 + 2));
+            if (readScales)
+            {
+                splat.setScaleX(scales.get(i * 3 + 0));
+                splat.setScaleY(scales.get(i * 3 + 1));
+                splat.setScaleZ(scales.get(i * 3 + 2));
+            }
 
-            splat.setRotationX(rotations.get(i * 4 + 0));
-            splat.setRotationY(rotations.get(i * 4 + 1));
-            splat.setRotationZ(rotations.get(i * 4 + 2));
-            splat.setRotationW(rotations.get(i * 4 + 3));
+            if (readRotations)
+            {
+                splat.setRotationX(rotations.get(i * 4 + 0));
+                splat.setRotationY(rotations.get(i * 4 + 1));
+                splat.setRotationZ(rotations.get(i * 4 + 2));
+                splat.setRotationW(rotations.get(i * 4 + 3));
+            }
 
-            splat.setOpacity(alphas.get(i));
+            if (readOpacities)
+            {
+                splat.setOpacity(alphas.get(i));
+            }
 
-            splat.setShX(0, colors.get(i * 3 + 0));
-            splat.setShY(0, colors.get(i * 3 + 1));
-            splat.setShZ(0, colors.get(i * 3 + 2));
+            if (readShs)
+            {
+                splat.setShX(0, colors.get(i * 3 + 0));
+                splat.setShY(0, colors.get(i * 3 + 1));
+                splat.setShZ(0, colors.get(i * 3 + 2));
+            }
 
             if (shDimensions >= 4)
             {
                 // Convert the component order as required for SPZ
-                int index = (i * (shDimensions - 1)) * 3;
+                int index = (i * (sourceDimensions - 1)) * 3;
                 for (int d = 0; d < shDimensions - 1; d++)
                 {
                     int ix = (index + d * 3) + 0;
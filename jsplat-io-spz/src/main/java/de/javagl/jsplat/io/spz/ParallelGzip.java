@@ -0,0 +1,185 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.spz;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Methods for writing GZIP data, where the compression is performed in
+ * parallel.
+ * 
+ * The input is divided into blocks that are compressed independently. 
+ * Each block is compressed with the last 32 KB of the preceding block 
+ * as the dictionary, and ends with a sync flush, so that the compressed 
+ * blocks can be concatenated into a single DEFLATE stream. The result is 
+ * a single GZIP member that can be read by any GZIP decoder.
+ */
+class ParallelGzip
+{
+    /**
+     * The GZIP header, without modification time and flags
+     */
+    private static final byte HEADER[] = 
+    { 
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 
+    };
+
+    /**
+     * The size of the blocks that are compressed independently
+     */
+    private static final int BLOCK_SIZE = 1 << 17;
+
+    /**
+     * The size of the dictionary for each block
+     */
+    private static final int DICTIONARY_SIZE = 1 << 15;
+
+    /**
+     * Write the given data as GZIP data to the given output stream.
+     * 
+     * The stream will not be closed.
+     * 
+     * @param data The data
+     * @param outputStream The output stream
+     * @throws IOException If an IO error occurs
+     */
+    static void write(byte data[], OutputStream outputStream)
+        throws IOException
+    {
+        outputStream.write(HEADER);
+
+        int length = data.length;
+        int numBlocks = Math.max(1, (length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        int wave = ForkJoinPool.getCommonPoolParallelism() * 4;
+        for (int first = 0; first < numBlocks; first += wave)
+        {
+            int end = Math.min(numBlocks, first + wave);
+            byte compressed[][] = new byte[end - first][];
+            int f = first;
+            IntStream.range(first, end).parallel().forEach(b ->
+            {
+                compressed[b - f] = compress(data, b, numBlocks);
+            });
+            for (int b = 0; b < compressed.length; b++)
+            {
+                outputStream.write(compressed[b]);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        byte trailer[] = new byte[8];
+        putInt(trailer, 0, (int) crc.getValue());
+        putInt(trailer, 4, length);
+        outputStream.write(trailer);
+        outputStream.flush();
+    }
+
+    /**
+     * Compress the specified block of the given data into raw DEFLATE data.
+     * 
+     * All blocks except for the last one end with a sync flush. The last
+     * block is finished.
+     * 
+     * @param data The data
+     * @param block The index of the block
+     * @param numBlocks The number of blocks
+     * @return The compressed block
+     */
+    private static byte[] compress(byte data[], int block, int numBlocks)
+    {
+        int start = block * BLOCK_SIZE;
+        int length = Math.min(BLOCK_SIZE, data.length - start);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try
+        {
+            if (start > 0)
+            {
+                int dictionarySize = Math.min(DICTIONARY_SIZE, start);
+                deflater.setDictionary(
+                    data, start - dictionarySize, dictionarySize);
+            }
+            deflater.setInput(data, start, length);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte buffer[] = new byte[BLOCK_SIZE / 2];
+            if (block == numBlocks - 1)
+            {
+                deflater.finish();
+                while (!deflater.finished())
+                {
+                    int n = deflater.deflate(buffer);
+                    baos.write(buffer, 0, n);
+                }
+            }
+            else
+            {
+                int n = 0;
+                do
+                {
+                    n = deflater.deflate(
+                        buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    baos.write(buffer, 0, n);
+                }
+                while (n == buffer.length);
+            }
+            return baos.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Put the given value into the given array, in little-endian order
+     * 
+     * @param data The array
+     * @param o The offset
+     * @param value The value
+     */
+    private static void putInt(byte data[], int o, int value)
+    {
+        data[o + 0] = (byte) (value & 0xFF);
+        data[o + 1] = (byte) ((value >> 8) & 0xFF);
+        data[o + 2] = (byte) ((value >> 16) & 0xFF);
+        data[o + 3] = (byte) ((value >> 24) & 0xFF);
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private ParallelGzip()
+    {
+        // Private constructor to prevent instantiation
+    }
+}
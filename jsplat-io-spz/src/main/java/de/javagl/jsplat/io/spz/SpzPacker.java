@@ -0,0 +1,355 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.spz;
+
+import java.nio.FloatBuffer;
+import java.util.stream.IntStream;
+
+import de.javagl.jsplat.Splats;
+import de.javagl.jspz.GaussianCloud;
+
+/**
+ * Methods to pack a Gaussian cloud into the uncompressed payload of an SPZ
+ * file, in version 2 or 3.
+ * 
+ * The payload consists of a 16-byte header, followed by the quantized 
+ * positions, alphas, colors, scales, rotations, and spherical harmonics. 
+ * The quantization follows the reference implementation of SPZ. The 
+ * ranges of points are packed in parallel.
+ */
+class SpzPacker
+{
+    /**
+     * The magic header bytes, "NGSP"
+     */
+    private static final int MAGIC = 0x5053474e;
+
+    /**
+     * The size of the header, in bytes
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The number of fractional bits for the fixed-point positions
+     */
+    private static final int FRACTIONAL_BITS = 12;
+
+    /**
+     * The scaling factor for the colors
+     */
+    private static final float COLOR_SCALE = 0.15f;
+
+    /**
+     * The bucket size for the quantization of spherical harmonics of 
+     * degree 1, for a precision of 5 bits
+     */
+    private static final int SH1_BUCKET_SIZE = 1 << (8 - 5);
+
+    /**
+     * The bucket size for the quantization of spherical harmonics of 
+     * degree 2 and 3, for a precision of 4 bits
+     */
+    private static final int SH_REST_BUCKET_SIZE = 1 << (8 - 4);
+
+    /**
+     * The number of points that are packed by one task
+     */
+    private static final int RANGE_SIZE = 1 << 14;
+
+    /**
+     * Compute the size of the payload for the given Gaussian cloud, in 
+     * bytes
+     * 
+     * @param g The Gaussian cloud
+     * @param version The SPZ version, 2 or 3
+     * @return The size
+     */
+    static long computeSize(GaussianCloud g, int version)
+    {
+        long n = g.getNumPoints();
+        int shRest = Splats.dimensionsForDegree(g.getShDegree()) - 1;
+        int rotationBytes = version >= 3 ? 4 : 3;
+        long bytesPerPoint = 9 + 1 + 3 + 3 + rotationBytes + shRest * 3;
+        return HEADER_SIZE + n * bytesPerPoint;
+    }
+
+    /**
+     * Pack the given Gaussian cloud into a new array, in the given version.
+     * 
+     * The caller is responsible for making sure that the size that is 
+     * returned by {@link #computeSize(GaussianCloud, int)} is not larger
+     * than the maximum array size.
+     * 
+     * @param g The Gaussian cloud
+     * @param version The SPZ version, 2 or 3
+     * @return The payload
+     */
+    static byte[] pack(GaussianCloud g, int version)
+    {
+        int n = g.getNumPoints();
+        int shDegree = g.getShDegree();
+        int shRest = Splats.dimensionsForDegree(shDegree) - 1;
+        int rotationBytes = version >= 3 ? 4 : 3;
+        byte data[] = new byte[(int) computeSize(g, version)];
+
+        putInt(data, 0, MAGIC);
+        putInt(data, 4, version);
+        putInt(data, 8, n);
+        data[12] = (byte) shDegree;
+        data[13] = (byte) FRACTIONAL_BITS;
+        data[14] = 0;
+        data[15] = 0;
+
+        int positionsOffset = HEADER_SIZE;
+        int alphasOffset = positionsOffset + n * 9;
+        int colorsOffset = alphasOffset + n;
+        int scalesOffset = colorsOffset + n * 3;
+        int rotationsOffset = scalesOffset + n * 3;
+        int shOffset = rotationsOffset + n * rotationBytes;
+
+        FloatBuffer positions = g.getPositions();
+        FloatBuffer alphas = g.getAlphas();
+        FloatBuffer colors = g.getColors();
+        FloatBuffer scales = g.getScales();
+        FloatBuffer rotations = g.getRotations();
+        FloatBuffer sh = g.getSh();
+        
+        int numRanges = (n + RANGE_SIZE - 1) / RANGE_SIZE;
+        IntStream.range(0, numRanges).parallel().forEach(r ->
+        {
+            int start = r * RANGE_SIZE;
+            int end = Math.min(n, start + RANGE_SIZE);
+            float q[] = new float[4];
+            float fixedScale = 1 << FRACTIONAL_BITS;
+            for (int i = start; i < end; i++)
+            {
+                for (int c = 0; c < 3; c++)
+                {
+                    int fixed = round(positions.get(i * 3 + c) * fixedScale);
+                    int o = positionsOffset + (i * 3 + c) * 3;
+                    data[o + 0] = (byte) (fixed & 0xFF);
+                    data[o + 1] = (byte) ((fixed >> 8) & 0xFF);
+                    data[o + 2] = (byte) ((fixed >> 16) & 0xFF);
+                }
+
+                float alpha = sigmoid(alphas.get(i));
+                data[alphasOffset + i] = toUint8(alpha * 255.0f);
+
+                for (int c = 0; c < 3; c++)
+                {
+                    float color = colors.get(i * 3 + c);
+                    data[colorsOffset + i * 3 + c] = toUint8(
+                        color * (COLOR_SCALE * 255.0f) + (0.5f * 255.0f));
+                }
+
+                for (int c = 0; c < 3; c++)
+                {
+                    float scale = scales.get(i * 3 + c);
+                    data[scalesOffset + i * 3 + c] =
+                        toUint8((scale + 10.0f) * 16.0f);
+                }
+
+                for (int c = 0; c < 4; c++)
+                {
+                    q[c] = rotations.get(i * 4 + c);
+                }
+                normalize(q);
+                int o = rotationsOffset + i * rotationBytes;
+                if (version >= 3)
+                {
+                    packSmallestThree(q, data, o);
+                }
+                else
+                {
+                    packFirstThree(q, data, o);
+                }
+
+                int shStride = shRest * 3;
+                for (int j = 0; j < shStride; j++)
+                {
+                    int bucketSize = 
+                        j < 9 ? SH1_BUCKET_SIZE : SH_REST_BUCKET_SIZE;
+                    float value = sh.get(i * shStride + j);
+                    data[shOffset + i * shStride + j] = 
+                        quantizeSh(value, bucketSize);
+                }
+            }
+        });
+        return data;
+    }
+
+    /**
+     * Normalize the given quaternion, in-place. If the quaternion has a 
+     * length of zero, then it is set to the identity.
+     * 
+     * @param q The quaternion, in scalar-last order
+     */
+    private static void normalize(float q[])
+    {
+        double lenSquared = 
+            q[0] * q[0] + q[1] * q[1] + q[2] * q[2] + q[3] * q[3];
+        if (lenSquared == 0.0)
+        {
+            q[0] = 0.0f;
+            q[1] = 0.0f;
+            q[2] = 0.0f;
+            q[3] = 1.0f;
+            return;
+        }
+        float invLen = (float) (1.0 / Math.sqrt(lenSquared));
+        for (int c = 0; c < 4; c++)
+        {
+            q[c] *= invLen;
+        }
+    }
+
+    /**
+     * Pack the given normalized quaternion as in SPZ version 2: The x,y,z 
+     * components of the quaternion with a non-negative w component are 
+     * stored as bytes
+     * 
+     * @param q The quaternion, in scalar-last order
+     * @param data The target array
+     * @param o The offset in the target array
+     */
+    private static void packFirstThree(float q[], byte data[], int o)
+    {
+        float s = q[3] < 0 ? -127.5f : 127.5f;
+        data[o + 0] = toUint8(q[0] * s + 127.5f);
+        data[o + 1] = toUint8(q[1] * s + 127.5f);
+        data[o + 2] = toUint8(q[2] * s + 127.5f);
+    }
+
+    /**
+     * Pack the given normalized quaternion as in SPZ version 3: The index of
+     * the largest component is stored in 2 bits, and each of the remaining
+     * components is stored with a sign bit and 9 bits for the magnitude.
+     * 
+     * @param q The quaternion, in scalar-last order
+     * @param data The target array
+     * @param o The offset in the target array
+     */
+    private static void packSmallestThree(float q[], byte data[], int o)
+    {
+        int iLargest = 0;
+        for (int i = 1; i < 4; i++)
+        {
+            if (Math.abs(q[i]) > Math.abs(q[iLargest]))
+            {
+                iLargest = i;
+            }
+        }
+        boolean negate = q[iLargest] < 0;
+        float sqrt1_2 = (float) Math.sqrt(0.5);
+        int mask = (1 << 9) - 1;
+        int comp = iLargest;
+        for (int i = 0; i < 4; i++)
+        {
+            if (i != iLargest)
+            {
+                int negbit = ((q[i] < 0) ^ negate) ? 1 : 0;
+                int mag = (int) (mask * (Math.abs(q[i]) / sqrt1_2) + 0.5f);
+                mag = Math.min(mag, mask);
+                comp = (comp << 10) | (negbit << 9) | mag;
+            }
+        }
+        putInt(data, o, comp);
+    }
+
+    /**
+     * Quantize the given spherical harmonics coefficient into a byte, 
+     * using the given bucket size
+     * 
+     * @param x The coefficient
+     * @param bucketSize The bucket size
+     * @return The quantized value
+     */
+    private static byte quantizeSh(float x, int bucketSize)
+    {
+        int q = round(x * 128.0f) + 128;
+        q = (q + bucketSize / 2) / bucketSize * bucketSize;
+        return (byte) Math.max(0, Math.min(255, q));
+    }
+
+    /**
+     * Round the given value to the nearest integer, and clamp it to 
+     * [0, 255]
+     * 
+     * @param x The value
+     * @return The result
+     */
+    private static byte toUint8(float x)
+    {
+        return (byte) Math.max(0, Math.min(255, round(x)));
+    }
+
+    /**
+     * Round the given value to the nearest integer, with ties being 
+     * rounded away from zero
+     * 
+     * @param x The value
+     * @return The result
+     */
+    private static int round(float x)
+    {
+        return x < 0 ? -Math.round(-x) : Math.round(x);
+    }
+
+    /**
+     * Returns the sigmoid of the given value
+     * 
+     * @param x The value
+     * @return The sigmoid
+     */
+    private static float sigmoid(float x)
+    {
+        return (float) (1.0 / (1.0 + Math.exp(-x)));
+    }
+
+    /**
+     * Put the given value into the given array, in little-endian order
+     * 
+     * @param data The array
+     * @param o The offset
+     * @param value The value
+     */
+    private static void putInt(byte data[], int o, int value)
+    {
+        data[o + 0] = (byte) (value & 0xFF);
+        data[o + 1] = (byte) ((value >> 8) & 0xFF);
+        data[o + 2] = (byte) ((value >> 16) & 0xFF);
+        data[o + 3] = (byte) ((value >> 24) & 0xFF);
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private SpzPacker()
+    {
+        // Private constructor to prevent instantiation
+    }
+}
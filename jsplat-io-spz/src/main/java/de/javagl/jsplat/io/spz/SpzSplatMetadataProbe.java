@@ -0,0 +1,96 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.io.spz;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.SplatMetadataProbe;
+import de.javagl.jsplat.Splats;
+
+/**
+ * Implementation of a {@link SplatMetadataProbe} for SPZ files.
+ * 
+ * SPZ data is a GZIP stream that starts with a 16-byte header. Only 
+ * this header is decompressed, to obtain the number of points and the 
+ * spherical harmonics degree. The bounds are not stored in SPZ files.
+ */
+public final class SpzSplatMetadataProbe implements SplatMetadataProbe
+{
+    /**
+     * The magic number at the start of the (decompressed) SPZ data, 
+     * "NGSP" in little-endian byte order
+     */
+    private static final int MAGIC = 0x5053474e;
+
+    /**
+     * The size of the SPZ header, in bytes
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * Creates a new instance
+     */
+    public SpzSplatMetadataProbe()
+    {
+        // Default constructor
+    }
+
+    @Override
+    public SplatMetadata probe(Path path) throws IOException
+    {
+        byte header[] = new byte[HEADER_SIZE];
+        try (InputStream inputStream = new GZIPInputStream(
+            new BufferedInputStream(Files.newInputStream(path)), 
+            HEADER_SIZE))
+        {
+            new DataInputStream(inputStream).readFully(header);
+        }
+        catch (EOFException e)
+        {
+            throw new IOException("No valid SPZ header found in " + path, e);
+        }
+        ByteBuffer bb = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+        int magic = bb.getInt(0);
+        if (magic != MAGIC)
+        {
+            throw new IOException("No valid SPZ header found in " + path);
+        }
+        long numPoints = Integer.toUnsignedLong(bb.getInt(8));
+        int shDegree = Byte.toUnsignedInt(bb.get(12));
+        return Splats.createMetadata(numPoints, shDegree, null);
+    }
+}
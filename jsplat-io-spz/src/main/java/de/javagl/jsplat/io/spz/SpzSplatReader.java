@@ -29,24 +29,48 @@ package de.javagl.jsplat.io.spz;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Objects;
 
 import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatData;
 import de.javagl.jsplat.SplatListReader;
+import de.javagl.jsplat.SplatReadOptions;
 import de.javagl.jspz.GaussianCloud;
 import de.javagl.jspz.SpzReader;
 import de.javagl.jspz.SpzReaders;
 
 /**
- * Implementation of a {@link SplatListReader} that reads SPZ data
+ * Implementation of a {@link SplatListReader} that reads SPZ data.
+ * 
+ * The SPZ data itself is always decoded completely. The 
+ * {@link SplatReadOptions} only determine which attributes are copied 
+ * into the resulting splats, and up to which degree the spherical 
+ * harmonics are copied or combined.
  */
 public final class SpzSplatReader implements SplatListReader
 {
+    /**
+     * The {@link SplatReadOptions}
+     */
+    private final SplatReadOptions options;
+
     /**
      * Creates a new instance
      */
     public SpzSplatReader()
     {
-        // Default constructor
+        this(SplatReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance
+     * 
+     * @param options The {@link SplatReadOptions}
+     */
+    public SpzSplatReader(SplatReadOptions options)
+    {
+        this.options = Objects.requireNonNull(options,
+            "The options may not be null");
     }
 
     @Override
@@ -54,6 +78,26 @@ public final class SpzSplatReader implements SplatListReader
     {
         SpzReader spzReader = SpzReaders.createDefault();
         GaussianCloud g = spzReader.read(inputStream);
-        return GaussianCloudSplats.toSplats(g);
+        return GaussianCloudSplats.toSplats(g, options);
+    }
+
+    /**
+     * Read the SPZ data from the given input stream, and return it as a 
+     * {@link SplatData}.
+     * 
+     * The returned instance is backed by the buffers of the Gaussian cloud
+     * that was read, without creating individual splat objects. See 
+     * {@link GaussianCloudSplats#toSplatData(GaussianCloud, 
+     * SplatReadOptions)} for details.
+     * 
+     * @param inputStream The input stream
+     * @return The {@link SplatData}
+     * @throws IOException If an IO error occurs
+     */
+    public SplatData readSplatData(InputStream inputStream) throws IOException
+    {
+        SpzReader spzReader = SpzReaders.createDefault();
+        GaussianCloud g = spzReader.read(inputStream);
+        return GaussianCloudSplats.toSplatData(g, options);
     }
 }
@@ -31,21 +31,38 @@ import java.io.OutputStream;
 import java.util.List;
 
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatData;
 import de.javagl.jsplat.SplatListWriter;
 import de.javagl.jspz.GaussianCloud;
 import de.javagl.jspz.SpzWriter;
 import de.javagl.jspz.SpzWriters;
 
 /**
- * Implementation of a {@link SplatListWriter} that writes SPZ data
+ * Implementation of a {@link SplatListWriter} that writes SPZ data.
+ * 
+ * By default, the data is written with the SPZ library. When the writer
+ * is created with the <code>parallel</code> flag, then the Gaussian cloud
+ * is packed into the uncompressed SPZ payload in parallel, and the 
+ * payload is compressed with blocks that are deflated in parallel. The 
+ * result is still a single GZIP stream.
  */
 public final class SpzSplatWriter implements SplatListWriter
 {
+    /**
+     * The maximum size of an array
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
     /**
      * The version that should be written. Currently supported are 2 and 3.
      */
     private final int version;
     
+    /**
+     * Whether the data should be packed and compressed in parallel
+     */
+    private final boolean parallel;
+
     /**
      * Creates a new instance that writes SPZ data in the latest supported
      * version.
@@ -63,6 +80,23 @@ public final class SpzSplatWriter implements SplatListWriter
      * @throws IllegalArgumentException If the version is not valid
      */
     public SpzSplatWriter(int version)
+    {
+        this(version, false);
+    }
+
+    /**
+     * Creates a new instance that writes SPZ data in the given version.
+     * 
+     * If the <code>parallel</code> flag is set, then the data is packed 
+     * and compressed in parallel.
+     * 
+     * @param version The version that should be written. Currently supported
+     * are 2 and 3
+     * @param parallel Whether the data should be packed and compressed in 
+     * parallel
+     * @throws IllegalArgumentException If the version is not valid
+     */
+    public SpzSplatWriter(int version, boolean parallel)
     {
         if (version < 2 || version > 3) 
         {
@@ -70,24 +104,59 @@ public final class SpzSplatWriter implements SplatListWriter
                 "The version must be 2 or 3, but is " + version);
         }
         this.version = version;
+        this.parallel = parallel;
     }
 
     @Override
     public void writeList(List<? extends Splat> splats,
         OutputStream outputStream) throws IOException
     {
-        if (version == 2)
-        {
-            SpzWriter spzWriter = SpzWriters.createDefaultV2();
-            GaussianCloud g = GaussianCloudSplats.fromSplats(splats);
-            spzWriter.write(g, outputStream);
-        }
-        else
+        GaussianCloud g = GaussianCloudSplats.fromSplats(splats);
+        write(g, outputStream);
+    }
+
+    /**
+     * Write the given {@link SplatData} as SPZ into the given output stream.
+     * 
+     * The data is converted into a Gaussian cloud with bulk buffer 
+     * operations, without creating individual splat objects. 
+     * 
+     * @param splatData The {@link SplatData}
+     * @param outputStream The output stream
+     * @throws IOException If an IO error occurs
+     */
+    public void writeSplatData(SplatData splatData, OutputStream outputStream)
+        throws IOException
+    {
+        GaussianCloud g = GaussianCloudSplats.fromSplatData(splatData);
+        write(g, outputStream);
+    }
+
+    /**
+     * Write the given Gaussian cloud into the given output stream, using
+     * the SPZ version of this writer.
+     * 
+     * When this writer writes in parallel, and the uncompressed payload 
+     * is too large to be stored in a single array, then the data is 
+     * written with the SPZ library.
+     * 
+     * @param g The Gaussian cloud
+     * @param outputStream The output stream
+     * @throws IOException If an IO error occurs
+     */
+    public void write(GaussianCloud g, OutputStream outputStream)
+        throws IOException
+    {
+        if (parallel && SpzPacker.computeSize(g, version) <= MAX_ARRAY_SIZE)
         {
-            SpzWriter spzWriter = SpzWriters.createDefaultV3();
-            GaussianCloud g = GaussianCloudSplats.fromSplats(splats);
-            spzWriter.write(g, outputStream);
+            byte payload[] = SpzPacker.pack(g, version);
+            ParallelGzip.write(payload, outputStream);
+            return;
         }
+        SpzWriter spzWriter = version == 2 
+            ? SpzWriters.createDefaultV2()
+            : SpzWriters.createDefaultV3();
+        spzWriter.write(g, outputStream);
     }
 
 }
@@ -0,0 +1,144 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.spz;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.Splats;
+import de.javagl.jspz.GaussianCloud;
+import de.javagl.jspz.SpzReaders;
+
+@SuppressWarnings("javadoc")
+public class TestSpzPacker
+{
+    private static List<MutableSplat> createSplats(Random random,
+        int shDegree, int n)
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(shDegree);
+            s.setPositionX(random.nextDouble() * 100.0 - 50.0);
+            s.setPositionY(random.nextDouble() * 100.0 - 50.0);
+            s.setPositionZ(random.nextDouble() * 100.0 - 50.0);
+            s.setScaleX(-8.0 + random.nextDouble() * 10.0);
+            s.setScaleY(-8.0 + random.nextDouble() * 10.0);
+            s.setScaleZ(-8.0 + random.nextDouble() * 10.0);
+            s.setRotationX(random.nextDouble() - 0.5);
+            s.setRotationY(random.nextDouble() - 0.5);
+            s.setRotationZ(random.nextDouble() - 0.5);
+            s.setRotationW(random.nextDouble() - 0.5);
+            s.setOpacity(-4.0 + random.nextDouble() * 8.0);
+            for (int d = 0; d < s.getShDimensions(); d++)
+            {
+                s.setShX(d, random.nextDouble() - 0.5);
+                s.setShY(d, random.nextDouble() - 0.5);
+                s.setShZ(d, random.nextDouble() - 0.5);
+            }
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    private static List<MutableSplat> writeAndRead(SpzSplatWriter writer,
+        GaussianCloud g) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writer.write(g, baos);
+        InputStream inputStream = new ByteArrayInputStream(baos.toByteArray());
+        GaussianCloud result = SpzReaders.createDefault().read(inputStream);
+        return GaussianCloudSplats.toSplats(result);
+    }
+
+    private static void checkPacker(int version) throws IOException
+    {
+        for (int shDegree = 0; shDegree <= 3; shDegree++)
+        {
+            // More points than the size of one range that is packed
+            // by one task, so that several ranges are packed in parallel
+            List<MutableSplat> splats =
+                createSplats(new Random(shDegree), shDegree, 20000);
+            GaussianCloud g = GaussianCloudSplats.fromSplats(splats);
+
+            // Packing the data in parallel must yield the same quantized
+            // values as writing it with the SPZ library
+            List<MutableSplat> expected =
+                writeAndRead(new SpzSplatWriter(version, false), g);
+            List<MutableSplat> actual =
+                writeAndRead(new SpzSplatWriter(version, true), g);
+            assertEquals(splats.size(), actual.size());
+            assertTrue(Splats.equalsEpsilon(expected, actual, 1e-6));
+        }
+    }
+
+    @Test
+    public void testSpzPackerVersion2() throws IOException
+    {
+        checkPacker(2);
+    }
+
+    @Test
+    public void testSpzPackerVersion3() throws IOException
+    {
+        checkPacker(3);
+    }
+
+    private static void checkParallelGzip(byte data[]) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ParallelGzip.write(data, baos);
+
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (InputStream inputStream = new GZIPInputStream(
+            new ByteArrayInputStream(baos.toByteArray())))
+        {
+            byte buffer[] = new byte[8192];
+            while (true)
+            {
+                int read = inputStream.read(buffer);
+                if (read < 0)
+                {
+                    break;
+                }
+                inflated.write(buffer, 0, read);
+            }
+        }
+        assertArrayEquals(data, inflated.toByteArray());
+    }
+
+    @Test
+    public void testParallelGzip() throws IOException
+    {
+        Random random = new Random(0);
+
+        // Data that spans several blocks, with a partially filled last
+        // block, and with repetitions across block boundaries
+        byte data[] = new byte[(1 << 20) + 123];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) (random.nextInt(16) + (i / 1000) % 7);
+        }
+        checkParallelGzip(data);
+
+        checkParallelGzip(new byte[0]);
+        checkParallelGzip(new byte[] { 1, 2, 3 });
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.io.spz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.SplatMetadata;
+import de.javagl.jsplat.Splats;
+
+@SuppressWarnings("javadoc")
+public class TestSpzSplatMetadataProbe
+{
+    private static Path write(int shDegree, int n) throws IOException
+    {
+        Random random = new Random(shDegree);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(shDegree);
+            s.setPositionX(random.nextDouble());
+            s.setPositionY(random.nextDouble());
+            s.setPositionZ(random.nextDouble());
+            s.setRotationW(1.0);
+            splats.add(s);
+        }
+        Path path = Files.createTempFile("TestSpzSplatMetadataProbe", ".spz");
+        path.toFile().deleteOnExit();
+        try (OutputStream outputStream = Files.newOutputStream(path))
+        {
+            new SpzSplatWriter().writeList(splats, outputStream);
+        }
+        return path;
+    }
+
+    @Test
+    public void testSpzSplatMetadataProbe() throws IOException
+    {
+        for (int shDegree = 0; shDegree <= 3; shDegree++)
+        {
+            Path path = write(shDegree, 100);
+            SplatMetadata metadata = new SpzSplatMetadataProbe().probe(path);
+            assertEquals(100, metadata.getSize());
+            assertEquals(shDegree, metadata.getShDegree());
+            assertNull(metadata.getBounds());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testSpzSplatMetadataProbeTruncated() throws IOException
+    {
+        Path path = write(0, 100);
+
+        // The GZIP header, but not the compressed SPZ header
+        byte data[] = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, 12));
+        new SpzSplatMetadataProbe().probe(path);
+    }
+
+}
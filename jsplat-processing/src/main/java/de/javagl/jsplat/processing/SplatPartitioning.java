@@ -0,0 +1,258 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.processing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.javagl.jsplat.Splat;
+
+/**
+ * Utility methods for partitioning splats spatially.
+ * 
+ * Note: This is experimental and preliminary.
+ */
+public class SplatPartitioning
+{
+    /**
+     * The maximum depth of the subdivision
+     */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * Partition the given splats spatially, into lists that contain at most
+     * the given number of splats.
+     * 
+     * The bounding box of the splat positions is subdivided like an octree:
+     * Each cell that contains more than the given number of splats is 
+     * split into eight child cells at its center. The splats of each 
+     * leaf cell form one partition. The partitions are returned in the 
+     * order of a depth-first traversal of the cells, and empty cells are 
+     * omitted. 
+     * 
+     * The subdivision stops at a fixed maximum depth. So when many splats
+     * have (nearly) the same position, then a partition may contain more 
+     * than the given number of splats.
+     * 
+     * @param <T> The splat type
+     * @param splats The splats
+     * @param maxPartitionSize The maximum number of splats in a partition
+     * @return The partitions
+     * @throws IllegalArgumentException If the maximum partition size is 
+     * not positive
+     */
+    public static <T extends Splat> List<List<T>> partition(
+        List<? extends T> splats, int maxPartitionSize)
+    {
+        if (maxPartitionSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The maximum partition size must be positive, but is "
+                    + maxPartitionSize);
+        }
+        int n = splats.size();
+        if (n == 0)
+        {
+            return Collections.emptyList();
+        }
+        double positions[] = new double[n * 3];
+        double min[] = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+        double max[] = { -Double.MAX_VALUE, -Double.MAX_VALUE, 
+            -Double.MAX_VALUE };
+        for (int i = 0; i < n; i++)
+        {
+            Splat s = splats.get(i);
+            positions[i * 3 + 0] = s.getPositionX();
+            positions[i * 3 + 1] = s.getPositionY();
+            positions[i * 3 + 2] = s.getPositionZ();
+            for (int c = 0; c < 3; c++)
+            {
+                min[c] = Math.min(min[c], positions[i * 3 + c]);
+                max[c] = Math.max(max[c], positions[i * 3 + c]);
+            }
+        }
+        int indices[] = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            indices[i] = i;
+        }
+        List<int[]> ranges = new ArrayList<int[]>();
+        Subdivision subdivision = 
+            new Subdivision(positions, indices, maxPartitionSize, ranges);
+        subdivision.subdivide(0, n, min, max, 0);
+
+        List<List<T>> partitions = new ArrayList<List<T>>(ranges.size());
+        for (int range[] : ranges)
+        {
+            List<T> partition = new ArrayList<T>(range[1] - range[0]);
+            for (int i = range[0]; i < range[1]; i++)
+            {
+                partition.add(splats.get(indices[i]));
+            }
+            partitions.add(partition);
+        }
+        return partitions;
+    }
+
+    /**
+     * The state of the subdivision of a set of splat positions
+     */
+    private static class Subdivision
+    {
+        /**
+         * The splat positions
+         */
+        private final double positions[];
+
+        /**
+         * The indices of the splats, which are reordered so that the 
+         * indices of each cell are stored in a contiguous range
+         */
+        private final int indices[];
+
+        /**
+         * A temporary array for reordering the indices
+         */
+        private final int temp[];
+
+        /**
+         * The octants of the splats, for the cell that is currently
+         * subdivided
+         */
+        private final byte octants[];
+
+        /**
+         * The maximum number of splats in a leaf cell
+         */
+        private final int maxPartitionSize;
+
+        /**
+         * The ranges of the indices that form the leaf cells
+         */
+        private final List<int[]> ranges;
+
+        /**
+         * Creates a new instance
+         * 
+         * @param positions The splat positions
+         * @param indices The indices
+         * @param maxPartitionSize The maximum number of splats in a leaf
+         * @param ranges The ranges that will receive the leaf cells
+         */
+        Subdivision(double positions[], int indices[], int maxPartitionSize,
+            List<int[]> ranges)
+        {
+            this.positions = positions;
+            this.indices = indices;
+            this.temp = new int[indices.length];
+            this.octants = new byte[indices.length];
+            this.maxPartitionSize = maxPartitionSize;
+            this.ranges = ranges;
+        }
+
+        /**
+         * Subdivide the cell with the given bounds that contains the 
+         * specified range of indices
+         * 
+         * @param from The start of the range, inclusive
+         * @param to The end of the range, exclusive
+         * @param min The minimum of the cell
+         * @param max The maximum of the cell
+         * @param depth The depth of the cell
+         */
+        void subdivide(int from, int to, double min[], double max[], 
+            int depth)
+        {
+            if (to - from <= maxPartitionSize || depth >= MAX_DEPTH)
+            {
+                ranges.add(new int[] { from, to });
+                return;
+            }
+            double center[] = new double[3];
+            for (int c = 0; c < 3; c++)
+            {
+                center[c] = (min[c] + max[c]) * 0.5;
+            }
+
+            // Sort the indices of the range by their octant
+            int counts[] = new int[8];
+            for (int i = from; i < to; i++)
+            {
+                int p = indices[i] * 3;
+                int octant = 0;
+                for (int c = 0; c < 3; c++)
+                {
+                    if (positions[p + c] >= center[c])
+                    {
+                        octant |= 1 << c;
+                    }
+                }
+                octants[i] = (byte) octant;
+                counts[octant]++;
+            }
+            int starts[] = new int[9];
+            starts[0] = from;
+            for (int o = 0; o < 8; o++)
+            {
+                starts[o + 1] = starts[o] + counts[o];
+            }
+            int next[] = starts.clone();
+            for (int i = from; i < to; i++)
+            {
+                temp[next[octants[i]]++] = indices[i];
+            }
+            System.arraycopy(temp, from, indices, from, to - from);
+
+            for (int o = 0; o < 8; o++)
+            {
+                if (counts[o] == 0)
+                {
+                    continue;
+                }
+                double childMin[] = new double[3];
+                double childMax[] = new double[3];
+                for (int c = 0; c < 3; c++)
+                {
+                    boolean upper = (o & (1 << c)) != 0;
+                    childMin[c] = upper ? center[c] : min[c];
+                    childMax[c] = upper ? max[c] : center[c];
+                }
+                subdivide(starts[o], starts[o + 1], 
+                    childMin, childMax, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private SplatPartitioning()
+    {
+        // Private constructor to prevent instantiation
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat.processing;
+
+import de.javagl.jsplat.MutableSplat;
+
+/**
+ * Internal class for transforming the spherical harmonics of splats with
+ * a matrix that only flips the signs of the coordinate axes. 
+ * 
+ * This covers rotations about 180 degrees around the coordinate axes, 
+ * and reflections at the coordinate planes. The real spherical harmonics 
+ * basis functions are polynomials in x, y, and z, where the exponents of 
+ * each coordinate are either all even or all odd. So each basis function 
+ * is either preserved or negated by such a matrix, and the coefficients 
+ * only have to be multiplied with a constant sign, instead of being 
+ * rotated with the dense band matrices of the 
+ * {@link SphericalHarmonicsRotator}.
+ */
+class SplatShSignFlipper
+{
+    /**
+     * The parities of the exponents of x, y, and z in the real spherical
+     * harmonics basis functions, for all dimensions up to degree 3, in
+     * the order in which they are stored in the splats.
+     */
+    // @formatter:off
+    private static final int PARITIES[][] =
+    {
+        // Degree 0: 1
+        { 0, 0, 0 },
+        // Degree 1: y, z, x
+        { 0, 1, 0 }, { 0, 0, 1 }, { 1, 0, 0 },
+        // Degree 2: xy, yz, 3z^2-1, xz, x^2-y^2
+        { 1, 1, 0 }, { 0, 1, 1 }, { 0, 0, 0 }, { 1, 0, 1 }, { 0, 0, 0 },
+        // Degree 3: y(3x^2-y^2), xyz, y(5z^2-1), z(5z^2-3),
+        //           x(5z^2-1), z(x^2-y^2), x(x^2-3y^2)
+        { 0, 1, 0 }, { 1, 1, 1 }, { 0, 1, 0 }, { 0, 0, 1 }, 
+        { 1, 0, 0 }, { 0, 0, 1 }, { 1, 0, 0 },
+    };
+    // @formatter:on
+
+    /**
+     * The indices of the dimensions whose coefficients are negated
+     */
+    private final int negatedDimensions[];
+
+    /**
+     * Creates a new instance for the given axis signs, to transform the 
+     * spherical harmonics coefficients with the given number of dimensions.
+     * 
+     * @param sx The sign for the x-axis, either 1.0 or -1.0
+     * @param sy The sign for the y-axis, either 1.0 or -1.0
+     * @param sz The sign for the z-axis, either 1.0 or -1.0
+     * @param dims The dimensions
+     */
+    SplatShSignFlipper(double sx, double sy, double sz, int dims)
+    {
+        double signs[] = computeSigns(sx, sy, sz, dims);
+        int n = 0;
+        for (int d = 0; d < dims; d++)
+        {
+            if (signs[d] < 0.0)
+            {
+                n++;
+            }
+        }
+        this.negatedDimensions = new int[n];
+        n = 0;
+        for (int d = 0; d < dims; d++)
+        {
+            if (signs[d] < 0.0)
+            {
+                negatedDimensions[n++] = d;
+            }
+        }
+    }
+
+    /**
+     * Compute the signs that the spherical harmonics coefficients are 
+     * multiplied with when the coordinate axes are multiplied with the 
+     * given signs.
+     * 
+     * @param sx The sign for the x-axis, either 1.0 or -1.0
+     * @param sy The sign for the y-axis, either 1.0 or -1.0
+     * @param sz The sign for the z-axis, either 1.0 or -1.0
+     * @param dims The dimensions
+     * @return The signs, one for each dimension
+     * @throws IllegalArgumentException If the dimensions are not in [1,16]
+     */
+    static double[] computeSigns(double sx, double sy, double sz, int dims)
+    {
+        if (dims < 1 || dims > PARITIES.length)
+        {
+            throw new IllegalArgumentException(
+                "The dimensions must be in [1," + PARITIES.length
+                    + "], but are " + dims);
+        }
+        double signs[] = new double[dims];
+        for (int d = 0; d < dims; d++)
+        {
+            int p[] = PARITIES[d];
+            double sign = 1.0;
+            if (p[0] != 0)
+            {
+                sign *= sx;
+            }
+            if (p[1] != 0)
+            {
+                sign *= sy;
+            }
+            if (p[2] != 0)
+            {
+                sign *= sz;
+            }
+            signs[d] = sign;
+        }
+        return signs;
+    }
+
+    /**
+     * Transform the spherical harmonics of the given splat
+     * 
+     * @param s The splat
+     */
+    void flipSh(MutableSplat s)
+    {
+        for (int d : negatedDimensions)
+        {
+            s.setShX(d, -s.getShX(d));
+            s.setShY(d, -s.getShY(d));
+            s.setShZ(d, -s.getShZ(d));
+        }
+    }
+}
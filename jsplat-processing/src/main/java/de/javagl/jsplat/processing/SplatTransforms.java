@@ -70,6 +70,12 @@ public class SplatTransforms
      * The matrix is assumed to be a 16-element array representing a 4x4 matrix
      * in column-major order
      * 
+     * When the rotational part of the matrix only flips the signs of the
+     * coordinate axes (as for rotations about 180 degrees around one of the
+     * coordinate axes, or reflections at the coordinate planes), then the
+     * spherical harmonics coefficients are only multiplied with constant
+     * signs, instead of being rotated with dense matrices.
+     * 
      * @param matrix4 The matrix
      * @param dims The splat dimensions
      * @return The transform
@@ -79,6 +85,11 @@ public class SplatTransforms
     {
         double scales[] = VecMath.computeScales(matrix4, null);
         double matrix3[] = VecMath.extractRotation(matrix4, scales, null);
+        double axisSigns[] = computeAxisSigns(matrix3);
+        if (axisSigns != null)
+        {
+            return createAxisFlipTransform(matrix4, scales, axisSigns, dims);
+        }
         double rotation[] =
             VecMath.rotationMatrixToScalarLastQuaternion(matrix3, null);
         SplatPositionTransformer pt = new SplatPositionTransformer(matrix4);
@@ -98,6 +109,107 @@ public class SplatTransforms
         return transform;
     }
 
+    /**
+     * Create the transform for a matrix whose rotational part only flips 
+     * the signs of the coordinate axes.
+     * 
+     * For a reflection (i.e. when an odd number of axes is flipped), the
+     * rotation of a splat is rotated with the negated matrix: The 
+     * resulting covariance is the same, and the negated matrix is a 
+     * proper rotation.
+     * 
+     * @param matrix4 The matrix
+     * @param scales The scaling factors of the matrix
+     * @param axisSigns The signs of the axes
+     * @param dims The splat dimensions
+     * @return The transform
+     */
+    private static Consumer<MutableSplat> createAxisFlipTransform(
+        double matrix4[], double scales[], double axisSigns[], int dims)
+    {
+        double sx = axisSigns[0];
+        double sy = axisSigns[1];
+        double sz = axisSigns[2];
+        double det = sx * sy * sz;
+        double rotationMatrix3[] = new double[9];
+        rotationMatrix3[0] = sx * det;
+        rotationMatrix3[4] = sy * det;
+        rotationMatrix3[8] = sz * det;
+        double rotation[] =
+            VecMath.rotationMatrixToScalarLastQuaternion(rotationMatrix3, null);
+        SplatPositionTransformer pt = new SplatPositionTransformer(matrix4);
+        SplatRotationRotator rr = new SplatRotationRotator(rotation);
+        SplatShSignFlipper sf = new SplatShSignFlipper(sx, sy, sz, dims);
+        SplatScaleScaler ss =
+            new SplatScaleScaler(scales[0], scales[1], scales[2]);
+
+        Consumer<MutableSplat> transform = s ->
+        {
+            sf.flipSh(s);
+            normalizeRotationQuaternion(s);
+            rr.rotate(s);
+            pt.transform(s);
+            ss.scale(s);
+        };
+        return transform;
+    }
+
+    /**
+     * Returns the signs that the coordinate axes are multiplied with by 
+     * the given 3x3 matrix, or <code>null</code> if the given matrix is 
+     * not a diagonal matrix with diagonal elements 1.0 or -1.0.
+     * 
+     * @param matrix3 The matrix, in column-major order
+     * @return The axis signs
+     */
+    private static double[] computeAxisSigns(double matrix3[])
+    {
+        double epsilon = 1e-9;
+        double signs[] = new double[3];
+        for (int c = 0; c < 3; c++)
+        {
+            for (int r = 0; r < 3; r++)
+            {
+                double value = matrix3[c * 3 + r];
+                if (r == c)
+                {
+                    if (Math.abs(Math.abs(value) - 1.0) > epsilon)
+                    {
+                        return null;
+                    }
+                    signs[c] = Math.signum(value);
+                }
+                else if (Math.abs(value) > epsilon)
+                {
+                    return null;
+                }
+            }
+        }
+        return signs;
+    }
+
+    /**
+     * Compute the signs that the spherical harmonics coefficients of a 
+     * splat are multiplied with, when the coordinate axes are multiplied 
+     * with the given signs. 
+     * 
+     * This can be used to apply rotations about 180 degrees around one 
+     * of the coordinate axes, or reflections at the coordinate planes, 
+     * directly while encoding or decoding the coefficients.
+     * 
+     * @param sx The sign for the x-axis, either 1.0 or -1.0
+     * @param sy The sign for the y-axis, either 1.0 or -1.0
+     * @param sz The sign for the z-axis, either 1.0 or -1.0
+     * @param dims The splat dimensions
+     * @return The signs, one for each dimension
+     * @throws IllegalArgumentException If the dimensions are not in [1,16]
+     */
+    public static double[] computeShSigns(double sx, double sy, double sz,
+        int dims)
+    {
+        return SplatShSignFlipper.computeSigns(sx, sy, sz, dims);
+    }
+
     /**
      * Translate all splats in the given list by the given amount, in-place
      * 
@@ -117,6 +229,9 @@ public class SplatTransforms
     /**
      * Normalize the rotation quaternion of the given splat.
      * 
+     * A quaternion where all components are zero (for example, when the
+     * rotation was not read) is left unmodified.
+     * 
      * @param s The splat
      */
     private static void normalizeRotationQuaternion(MutableSplat s)
@@ -126,7 +241,7 @@ public class SplatTransforms
         double rZ = s.getRotationZ();
         double rW = s.getRotationW();
         double lenSquared = rX * rX + rY * rY + rZ * rZ + rW * rW;
-        if (Math.abs(1.0 - lenSquared) < 1e-6)
+        if (lenSquared == 0.0 || Math.abs(1.0 - lenSquared) < 1e-6)
         {
             return;
         }
@@ -0,0 +1,86 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat.processing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.javagl.jsplat.MutableSplat;
+import de.javagl.jsplat.Splats;
+
+/**
+ * Tests for the {@link SplatPartitioning} class
+ */
+@SuppressWarnings("javadoc")
+public class SplatPartitioningTest
+{
+    @Test
+    public void testPartitionContainsAllSplats()
+    {
+        Random random = new Random(0);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 10000; i++)
+        {
+            MutableSplat s = Splats.create(0);
+            s.setPositionX(random.nextGaussian() * 10.0);
+            s.setPositionY(random.nextGaussian() * 10.0);
+            s.setPositionZ(random.nextGaussian() * 10.0);
+            splats.add(s);
+        }
+        List<List<MutableSplat>> partitions =
+            SplatPartitioning.partition(splats, 500);
+        assertTrue(partitions.size() > 1);
+
+        Map<MutableSplat, Boolean> found =
+            new IdentityHashMap<MutableSplat, Boolean>();
+        for (List<MutableSplat> partition : partitions)
+        {
+            assertTrue(!partition.isEmpty());
+            assertTrue(partition.size() <= 500);
+            for (MutableSplat s : partition)
+            {
+                assertEquals(null, found.put(s, Boolean.TRUE));
+            }
+        }
+        assertEquals(splats.size(), found.size());
+    }
+
+    @Test
+    public void testPartitionSmallInput()
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 10; i++)
+        {
+            splats.add(Splats.create(0));
+        }
+        assertEquals(1, SplatPartitioning.partition(splats, 10).size());
+        assertEquals(0, SplatPartitioning.partition(
+            Collections.<MutableSplat>emptyList(), 10).size());
+    }
+
+    @Test
+    public void testPartitionIdenticalPositions()
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 100; i++)
+        {
+            splats.add(Splats.create(0));
+        }
+        List<List<MutableSplat>> partitions =
+            SplatPartitioning.partition(splats, 10);
+        assertEquals(1, partitions.size());
+        assertEquals(100, partitions.get(0).size());
+    }
+}
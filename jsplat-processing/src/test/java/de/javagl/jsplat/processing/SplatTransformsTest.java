@@ -92,6 +92,80 @@ public class SplatTransformsTest
         runTest(3);
     }
 
+    /**
+     * Test whether the spherical harmonics that are transformed with a 
+     * rotation about 180 degrees around each axis are the same as the ones
+     * that are rotated with the {@link SphericalHarmonicsRotator}
+     */
+    @Test
+    public void testAxisFlipsMatchShRotation()
+    {
+        Random random = new Random(0);
+        double axisSigns[][] =
+        {
+            { 1.0, -1.0, -1.0 },
+            { -1.0, 1.0, -1.0 },
+            { -1.0, -1.0, 1.0 },
+        };
+        for (double signs[] : axisSigns)
+        {
+            double m[] = VecMath.identity4x4(null);
+            m[0] = signs[0];
+            m[5] = signs[1];
+            m[10] = signs[2];
+            double matrix3[] = VecMath.extractRotation(m, 
+                VecMath.computeScales(m, null), null);
+            for (int shDegree = 1; shDegree <= 3; shDegree++)
+            {
+                MutableSplat splat = createRandomSplat(shDegree, random);
+                MutableSplat expectedSplat = Splats.copy(splat);
+                int dims = splat.getShDimensions();
+                new SplatShRotator(matrix3, dims).rotateSh(expectedSplat);
+
+                SplatTransforms.createTransform(m, dims).accept(splat);
+                for (int i = 0; i < dims; i++)
+                {
+                    String message = Arrays.toString(signs) + ", degree "
+                        + shDegree + ", SH[" + i + "]";
+                    assertEquals(message, expectedSplat.getShX(i),
+                        splat.getShX(i), EPSILON);
+                    assertEquals(message, expectedSplat.getShY(i),
+                        splat.getShY(i), EPSILON);
+                    assertEquals(message, expectedSplat.getShZ(i),
+                        splat.getShZ(i), EPSILON);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test whether a random splat remains unmodified when it is reflected
+     * twice at the same coordinate plane
+     */
+    @Test
+    public void testReflection()
+    {
+        Random random = new Random(0);
+
+        // The degree-1 dimensions for x, y, and z
+        int linearDimensions[] = { 3, 1, 2 };
+        for (int axis = 0; axis < 3; axis++)
+        {
+            MutableSplat splat = createRandomSplat(3, random);
+            MutableSplat expectedSplat = Splats.copy(splat);
+
+            double m[] = VecMath.identity4x4(null);
+            m[axis * 5] = -1.0;
+            SplatTransforms.transformList(Arrays.asList(splat), m);
+            int d = linearDimensions[axis];
+            assertEquals("Reflected SH[" + d + "]", 
+                -expectedSplat.getShX(d), splat.getShX(d), EPSILON);
+            SplatTransforms.transformList(Arrays.asList(splat), m);
+
+            assertSplatsEqual(expectedSplat, splat, "Reflection " + axis);
+        }
+    }
+
     /**
      * Run the test for random splats with the given degree
      * 
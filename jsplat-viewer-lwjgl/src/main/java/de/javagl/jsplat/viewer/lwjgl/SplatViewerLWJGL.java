@@ -473,6 +473,7 @@ public class SplatViewerLWJGL extends AbstractSplatViewer implements SplatViewer
             splatData.setSplats(splats);
             splatContentModified = true;
             firstSortPending = true;
+            invalidateStatistics();
         });
     }
 
@@ -484,6 +485,7 @@ public class SplatViewerLWJGL extends AbstractSplatViewer implements SplatViewer
             splatData.addSplats(splats);
             splatContentModified = true;
             firstSortPending = true;
+            invalidateStatistics();
         });
     }
 
@@ -495,6 +497,7 @@ public class SplatViewerLWJGL extends AbstractSplatViewer implements SplatViewer
             splatData.addSplatLists(splatLists);
             splatContentModified = true;
             firstSortPending = true;
+            invalidateStatistics();
         });
     }
 
@@ -506,6 +509,7 @@ public class SplatViewerLWJGL extends AbstractSplatViewer implements SplatViewer
             splatData.removeSplats(splats);
             splatContentModified = true;
             firstSortPending = true;
+            invalidateStatistics();
         });
     }
 
@@ -517,6 +521,7 @@ public class SplatViewerLWJGL extends AbstractSplatViewer implements SplatViewer
             splatData.clearSplats();
             splatContentModified = true;
             firstSortPending = true;
+            invalidateStatistics();
         });
     }
 
@@ -524,6 +529,7 @@ public class SplatViewerLWJGL extends AbstractSplatViewer implements SplatViewer
     public void updateSplats()
     {
         splatContentModified = true;
+        invalidateStatistics();
         triggerRepaint();
     }
 
@@ -39,6 +39,8 @@ import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.javagl.jsplat.Splat;
+import de.javagl.jsplat.SplatStatistics;
+import de.javagl.jsplat.SplatStatisticsCache;
 
 /**
  * Abstract base implementation of a {@link SplatViewer}
@@ -57,12 +59,18 @@ public abstract class AbstractSplatViewer implements SplatViewer
      */
     private RenderingCamera renderingCamera;
 
+    /**
+     * The cache for the statistics of the splats
+     */
+    private final SplatStatisticsCache statisticsCache;
+
     /**
      * Default constructor
      */
     protected AbstractSplatViewer()
     {
         this.preRenderCommands = new CopyOnWriteArrayList<Runnable>();
+        this.statisticsCache = new SplatStatisticsCache();
 
         addPreRenderCommand(() ->
         {
@@ -81,6 +89,16 @@ public abstract class AbstractSplatViewer implements SplatViewer
      */
     protected abstract List<? extends Splat> getSplats();
 
+    /**
+     * Invalidate the statistics of the splats that have been computed for
+     * fitting the camera. To be called by implementations whenever the 
+     * splats have been modified.
+     */
+    protected final void invalidateStatistics()
+    {
+        statisticsCache.clear();
+    }
+
     @Override
     public void fitCamera()
     {
@@ -102,19 +120,8 @@ public abstract class AbstractSplatViewer implements SplatViewer
             renderingCamera.resetCamera();
             return;
         }
-        float minMax[] = new float[]
-        { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
-            Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
-            Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
-        for (Splat s : splats)
-        {
-            minMax[0] = (float)Math.min(minMax[0], s.getPositionX());
-            minMax[1] = (float)Math.min(minMax[1], s.getPositionY());
-            minMax[2] = (float)Math.min(minMax[2], s.getPositionZ());
-            minMax[3] = (float)Math.max(minMax[3], s.getPositionX());
-            minMax[4] = (float)Math.max(minMax[4], s.getPositionY());
-            minMax[5] = (float)Math.max(minMax[5], s.getPositionZ());
-        }
+        SplatStatistics statistics = statisticsCache.get(splats);
+        float minMax[] = statistics.getBounds();
         renderingCamera.fit(minMax);
     }
 
@@ -26,9 +26,13 @@
  */
 package de.javagl.jsplat;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 
 /**
  * Utility methods related to buffers
@@ -41,14 +45,66 @@ class Buffers
      * 
      * @param size The size
      * @return The buffer
+     * @throws IllegalArgumentException If the buffer would be larger than
+     * 2^31-1 bytes
      */
-    static FloatBuffer createFloatBuffer(int size)
+    static FloatBuffer createFloatBuffer(long size)
     {
-        ByteBuffer bb = ByteBuffer.allocateDirect(size * Float.BYTES);
+        validateFloatBufferSize(size);
+        ByteBuffer bb = ByteBuffer.allocateDirect((int) size * Float.BYTES);
         bb.order(ByteOrder.nativeOrder());
         return bb.asFloatBuffer();
     }
     
+    /**
+     * Map the specified region of the given file channel into memory, and 
+     * return it as a float buffer with native byte order.
+     * 
+     * The file will be enlarged if necessary.
+     * 
+     * @param channel The channel
+     * @param offset The offset of the region, in bytes
+     * @param size The size of the region, in number of float values
+     * @return The buffer
+     * @throws IOException If an IO error occurs
+     * @throws IllegalArgumentException If the region would be larger than
+     * 2^31-1 bytes
+     */
+    static FloatBuffer mapFloatBuffer(FileChannel channel, long offset,
+        long size) throws IOException
+    {
+        validateFloatBufferSize(size);
+        long byteSize = size * Float.BYTES;
+        MappedByteBuffer bb =
+            channel.map(MapMode.READ_WRITE, offset, byteSize);
+        bb.order(ByteOrder.nativeOrder());
+        return bb.asFloatBuffer();
+    }
+    
+    /**
+     * Make sure that a float buffer with the given size can be created.
+     * 
+     * @param size The size, in number of float values
+     * @throws IllegalArgumentException If the buffer would be larger than
+     * 2^31-1 bytes
+     */
+    static void validateFloatBufferSize(long size)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException(
+                "The size may not be negative, but is " + size);
+        }
+        long byteSize = size * Float.BYTES;
+        if (byteSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("A buffer with " + size
+                + " float values would require " + byteSize
+                + " bytes, but the maximum is " + Integer.MAX_VALUE
+                + ". Consider using a SegmentedSplatData.");
+        }
+    }
+    
     /**
      * Private constructor to prevent instantiation
      */
@@ -0,0 +1,705 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Default implementation of a {@link QuantizedSplatData}
+ */
+class DefaultQuantizedSplatData implements QuantizedSplatData
+{
+    /**
+     * The number of splats in one chunk
+     */
+    private static final int CHUNK_SIZE = 256;
+    
+    /**
+     * The number of bounds values that are stored for each chunk: The
+     * minimum and maximum position, the minimum and maximum scale, and
+     * the minimum and maximum of the first and the remaining spherical 
+     * harmonics coefficients
+     */
+    private static final int BOUNDS_PER_CHUNK = 3 + 3 + 3 + 3 + 2 + 2;
+    
+    /**
+     * The offset of the scale bounds for one chunk
+     */
+    private static final int SCALE_BOUNDS_OFFSET = 6;
+    
+    /**
+     * The offset of the spherical harmonics bounds for one chunk
+     */
+    private static final int SH_BOUNDS_OFFSET = 12;
+    
+    /**
+     * The maximum absolute value of the three smallest components of a
+     * normalized quaternion
+     */
+    private static final double SQRT_HALF = Math.sqrt(0.5);
+    
+    /**
+     * The spherical harmonics degree
+     */
+    private final int shDegree;
+    
+    /**
+     * The spherical harmonics dimensions
+     */
+    private final int shDimensions;
+    
+    /**
+     * The size
+     */
+    private final int size;
+    
+    /**
+     * The bounds of the chunks
+     */
+    private final float bounds[];
+    
+    /**
+     * The quantized positions
+     */
+    private final short positions[];
+    
+    /**
+     * The quantized scales
+     */
+    private final byte scales[];
+    
+    /**
+     * The encoded rotations
+     */
+    private final int rotations[];
+    
+    /**
+     * The quantized opacities
+     */
+    private final byte opacities[];
+    
+    /**
+     * The quantized spherical harmonics
+     */
+    private final byte shs[];
+    
+    /**
+     * Creates a new instance from the given {@link SplatData}
+     * 
+     * @param splatData The {@link SplatData}
+     */
+    DefaultQuantizedSplatData(SplatData splatData)
+    {
+        this.shDegree = splatData.getShDegree();
+        this.shDimensions = splatData.getShDimensions();
+        this.size = splatData.getSize();
+        int numChunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.bounds = new float[numChunks * BOUNDS_PER_CHUNK];
+        this.positions = new short[size * 3];
+        this.scales = new byte[size * 3];
+        this.rotations = new int[size];
+        this.opacities = new byte[size];
+        this.shs = new byte[size * shDimensions * 3];
+        
+        IntStream.range(0, numChunks).parallel().forEach(c -> 
+        {
+            ChunkValues values = new ChunkValues(c);
+            values.read(splatData);
+            encode(c, values);
+        });
+    }
+    
+    /**
+     * The float values of one chunk
+     */
+    private class ChunkValues
+    {
+        /**
+         * The index of the first splat
+         */
+        final int start;
+        
+        /**
+         * The number of splats
+         */
+        final int n;
+        
+        /**
+         * The positions
+         */
+        final float p[];
+        
+        /**
+         * The scales
+         */
+        final float s[];
+        
+        /**
+         * The rotations
+         */
+        final float r[];
+        
+        /**
+         * The opacities
+         */
+        final float o[];
+        
+        /**
+         * The spherical harmonics
+         */
+        final float sh[];
+        
+        /**
+         * Creates a new instance
+         * 
+         * @param chunkIndex The chunk index
+         */
+        ChunkValues(int chunkIndex)
+        {
+            this.start = chunkIndex * CHUNK_SIZE;
+            this.n = Math.min(CHUNK_SIZE, size - start);
+            this.p = new float[n * 3];
+            this.s = new float[n * 3];
+            this.r = new float[n * 4];
+            this.o = new float[n];
+            this.sh = new float[n * shDimensions * 3];
+        }
+        
+        /**
+         * Read the values of this chunk from the given {@link SplatData}
+         * 
+         * @param splatData The {@link SplatData}
+         */
+        void read(SplatData splatData)
+        {
+            get(splatData.getPositions(), start * 3, p);
+            get(splatData.getScales(), start * 3, s);
+            get(splatData.getRotations(), start * 4, r);
+            get(splatData.getOpacities(), start, o);
+            get(splatData.getShs(), start * shDimensions * 3, sh);
+        }
+        
+        /**
+         * Write the values of this chunk into the given {@link SplatData}
+         * 
+         * @param splatData The {@link SplatData}
+         */
+        void write(SplatData splatData)
+        {
+            put(splatData.getPositions(), start * 3, p);
+            put(splatData.getScales(), start * 3, s);
+            put(splatData.getRotations(), start * 4, r);
+            put(splatData.getOpacities(), start, o);
+            put(splatData.getShs(), start * shDimensions * 3, sh);
+        }
+        
+        /**
+         * Set the values for the specified splat from the given splat
+         * 
+         * @param i The index of the splat, relative to the chunk
+         * @param splat The splat
+         */
+        void set(int i, Splat splat)
+        {
+            p[i * 3 + 0] = (float) splat.getPositionX();
+            p[i * 3 + 1] = (float) splat.getPositionY();
+            p[i * 3 + 2] = (float) splat.getPositionZ();
+            s[i * 3 + 0] = (float) splat.getScaleX();
+            s[i * 3 + 1] = (float) splat.getScaleY();
+            s[i * 3 + 2] = (float) splat.getScaleZ();
+            r[i * 4 + 0] = (float) splat.getRotationX();
+            r[i * 4 + 1] = (float) splat.getRotationY();
+            r[i * 4 + 2] = (float) splat.getRotationZ();
+            r[i * 4 + 3] = (float) splat.getRotationW();
+            o[i] = (float) splat.getOpacity();
+            for (int d = 0; d < shDimensions; d++)
+            {
+                int si = (i * shDimensions + d) * 3;
+                sh[si + 0] = (float) splat.getShX(d);
+                sh[si + 1] = (float) splat.getShY(d);
+                sh[si + 2] = (float) splat.getShZ(d);
+            }
+        }
+    }
+    
+    /**
+     * Encode the given values into the specified chunk
+     * 
+     * @param chunkIndex The chunk index
+     * @param v The values
+     */
+    private void encode(int chunkIndex, ChunkValues v)
+    {
+        int b = chunkIndex * BOUNDS_PER_CHUNK;
+        computeBounds(v.p, 3, b + 0);
+        computeBounds(v.s, 3, b + SCALE_BOUNDS_OFFSET);
+        
+        // Compute the bounds of the first spherical harmonics dimension
+        // and of the remaining dimensions
+        float dcMin = Float.POSITIVE_INFINITY;
+        float dcMax = Float.NEGATIVE_INFINITY;
+        float restMin = Float.POSITIVE_INFINITY;
+        float restMax = Float.NEGATIVE_INFINITY;
+        int shStride = shDimensions * 3;
+        for (int i = 0; i < v.n; i++)
+        {
+            for (int j = 0; j < shStride; j++)
+            {
+                float value = v.sh[i * shStride + j];
+                if (j < 3)
+                {
+                    dcMin = Math.min(dcMin, value);
+                    dcMax = Math.max(dcMax, value);
+                }
+                else
+                {
+                    restMin = Math.min(restMin, value);
+                    restMax = Math.max(restMax, value);
+                }
+            }
+        }
+        bounds[b + SH_BOUNDS_OFFSET + 0] = dcMin;
+        bounds[b + SH_BOUNDS_OFFSET + 1] = dcMax;
+        bounds[b + SH_BOUNDS_OFFSET + 2] = restMin;
+        bounds[b + SH_BOUNDS_OFFSET + 3] = restMax;
+        
+        for (int i = 0; i < v.n; i++)
+        {
+            int index = v.start + i;
+            for (int c = 0; c < 3; c++)
+            {
+                positions[index * 3 + c] = (short) quantize(v.p[i * 3 + c],
+                    bounds[b + c], bounds[b + 3 + c], 65535);
+                scales[index * 3 + c] = (byte) quantize(v.s[i * 3 + c],
+                    bounds[b + SCALE_BOUNDS_OFFSET + c],
+                    bounds[b + SCALE_BOUNDS_OFFSET + 3 + c], 255);
+            }
+            rotations[index] = encodeRotation(v.r, i * 4);
+            double alpha = Splats.opacityToAlpha(v.o[i]);
+            opacities[index] = (byte) quantize(alpha, 0.0, 1.0, 255);
+            for (int j = 0; j < shStride; j++)
+            {
+                int o = j < 3 ? 0 : 2;
+                shs[index * shStride + j] = (byte) quantize(
+                    v.sh[i * shStride + j], 
+                    bounds[b + SH_BOUNDS_OFFSET + o],
+                    bounds[b + SH_BOUNDS_OFFSET + o + 1], 255);
+            }
+        }
+    }
+    
+    /**
+     * Decode the specified chunk into the given values
+     * 
+     * @param chunkIndex The chunk index
+     * @param v The values
+     */
+    private void decode(int chunkIndex, ChunkValues v)
+    {
+        int shStride = shDimensions * 3;
+        for (int i = 0; i < v.n; i++)
+        {
+            int index = v.start + i;
+            for (int c = 0; c < 3; c++)
+            {
+                v.p[i * 3 + c] = (float) getPosition(index, c);
+                v.s[i * 3 + c] = (float) getScale(index, c);
+            }
+            decodeRotation(rotations[index], v.r, i * 4);
+            v.o[i] = (float) getOpacity(index);
+            for (int j = 0; j < shStride; j++)
+            {
+                v.sh[i * shStride + j] = (float) getSh(index, j);
+            }
+        }
+    }
+    
+    /**
+     * Compute the minimum and maximum of the given 3D values, and store
+     * them in the bounds array, starting at the given index
+     * 
+     * @param values The values
+     * @param stride The stride
+     * @param boundsIndex The index in the bounds array
+     */
+    private void computeBounds(float values[], int stride, int boundsIndex)
+    {
+        for (int c = 0; c < 3; c++)
+        {
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+            for (int i = c; i < values.length; i += stride)
+            {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            bounds[boundsIndex + c] = min;
+            bounds[boundsIndex + 3 + c] = max;
+        }
+    }
+    
+    /**
+     * Returns the specified position component
+     * 
+     * @param index The splat index
+     * @param c The component
+     * @return The value
+     */
+    double getPosition(int index, int c)
+    {
+        int b = (index / CHUNK_SIZE) * BOUNDS_PER_CHUNK;
+        int q = positions[index * 3 + c] & 0xFFFF;
+        return dequantize(q, bounds[b + c], bounds[b + 3 + c], 65535);
+    }
+
+    /**
+     * Returns the specified scale component
+     * 
+     * @param index The splat index
+     * @param c The component
+     * @return The value
+     */
+    double getScale(int index, int c)
+    {
+        int b = (index / CHUNK_SIZE) * BOUNDS_PER_CHUNK 
+            + SCALE_BOUNDS_OFFSET;
+        int q = scales[index * 3 + c] & 0xFF;
+        return dequantize(q, bounds[b + c], bounds[b + 3 + c], 255);
+    }
+    
+    /**
+     * Returns the specified rotation component
+     * 
+     * @param index The splat index
+     * @param c The component
+     * @return The value
+     */
+    double getRotation(int index, int c)
+    {
+        return decodeRotation(rotations[index], c);
+    }
+    
+    /**
+     * Returns the specified opacity
+     * 
+     * @param index The splat index
+     * @return The value
+     */
+    double getOpacity(int index)
+    {
+        int q = opacities[index] & 0xFF;
+        return Splats.alphaToOpacity(q / 255.0);
+    }
+    
+    /**
+     * Returns the specified spherical harmonics coefficient
+     * 
+     * @param index The splat index
+     * @param j The index of the coefficient, which is 
+     * <code>dimension * 3 + component</code>
+     * @return The value
+     */
+    double getSh(int index, int j)
+    {
+        int b = (index / CHUNK_SIZE) * BOUNDS_PER_CHUNK + SH_BOUNDS_OFFSET;
+        int o = j < 3 ? 0 : 2;
+        int q = shs[index * shDimensions * 3 + j] & 0xFF;
+        return dequantize(q, bounds[b + o], bounds[b + o + 1], 255);
+    }
+    
+    /**
+     * Quantize the given value
+     * 
+     * @param value The value
+     * @param min The minimum
+     * @param max The maximum
+     * @param maxQ The maximum quantized value
+     * @return The quantized value
+     */
+    private static int quantize(double value, double min, double max, 
+        int maxQ)
+    {
+        if (max <= min)
+        {
+            return 0;
+        }
+        double relative = (value - min) / (max - min);
+        int q = (int) Math.round(relative * maxQ);
+        return Math.max(0, Math.min(maxQ, q));
+    }
+    
+    /**
+     * Dequantize the given value
+     * 
+     * @param q The quantized value
+     * @param min The minimum
+     * @param max The maximum
+     * @param maxQ The maximum quantized value
+     * @return The value
+     */
+    private static double dequantize(int q, double min, double max, int maxQ)
+    {
+        return min + (max - min) * q / maxQ;
+    }
+    
+    /**
+     * Encode the quaternion that is stored in the given array, starting at
+     * the given index, using the "smallest three" encoding
+     * 
+     * @param r The array
+     * @param offset The offset
+     * @return The encoded quaternion
+     */
+    private static int encodeRotation(float r[], int offset)
+    {
+        double x = r[offset + 0];
+        double y = r[offset + 1];
+        double z = r[offset + 2];
+        double w = r[offset + 3];
+        double length = Math.sqrt(x * x + y * y + z * z + w * w);
+        double q[] = { 0.0, 0.0, 0.0, 1.0 };
+        if (length > 0.0)
+        {
+            q[0] = x / length;
+            q[1] = y / length;
+            q[2] = z / length;
+            q[3] = w / length;
+        }
+        int largest = 0;
+        for (int c = 1; c < 4; c++)
+        {
+            if (Math.abs(q[c]) > Math.abs(q[largest]))
+            {
+                largest = c;
+            }
+        }
+        
+        // The quaternions q and -q describe the same rotation. The sign
+        // is chosen so that the largest component is positive.
+        double sign = q[largest] < 0 ? -1.0 : 1.0;
+        int result = largest << 30;
+        int shift = 20;
+        for (int c = 0; c < 4; c++)
+        {
+            if (c != largest)
+            {
+                double value = sign * q[c] / SQRT_HALF;
+                int bits = quantize(value, -1.0, 1.0, 1023);
+                result |= bits << shift;
+                shift -= 10;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Decode the given quaternion that was encoded with
+     * {@link #encodeRotation(float[], int)}, and write it into the given
+     * array, starting at the given index.
+     * 
+     * @param encoded The encoded quaternion
+     * @param r The array
+     * @param offset The offset
+     */
+    private static void decodeRotation(int encoded, float r[], int offset)
+    {
+        int largest = encoded >>> 30;
+        int shift = 20;
+        double sumSquared = 0.0;
+        for (int c = 0; c < 4; c++)
+        {
+            if (c != largest)
+            {
+                int bits = (encoded >>> shift) & 0x3FF;
+                double value = dequantize(bits, -1.0, 1.0, 1023) * SQRT_HALF;
+                r[offset + c] = (float) value;
+                sumSquared += value * value;
+                shift -= 10;
+            }
+        }
+        r[offset + largest] = (float) Math.sqrt(Math.max(0.0, 1.0 - sumSquared));
+    }
+    
+    /**
+     * Decode the specified component of the given quaternion that was 
+     * encoded with {@link #encodeRotation(float[], int)}.
+     * 
+     * This returns the same value as {@link #decodeRotation(int, float[], 
+     * int)} for the respective component, without decoding the other 
+     * components, unless the largest component is requested, which is
+     * computed from the other ones.
+     * 
+     * @param encoded The encoded quaternion
+     * @param c The component
+     * @return The value
+     */
+    private static float decodeRotation(int encoded, int c)
+    {
+        int largest = encoded >>> 30;
+        if (c != largest)
+        {
+            int slot = c < largest ? c : c - 1;
+            int bits = (encoded >>> (20 - slot * 10)) & 0x3FF;
+            return (float) (dequantize(bits, -1.0, 1.0, 1023) * SQRT_HALF);
+        }
+        double sumSquared = 0.0;
+        for (int shift = 20; shift >= 0; shift -= 10)
+        {
+            int bits = (encoded >>> shift) & 0x3FF;
+            double value = dequantize(bits, -1.0, 1.0, 1023) * SQRT_HALF;
+            sumSquared += value * value;
+        }
+        return (float) Math.sqrt(Math.max(0.0, 1.0 - sumSquared));
+    }
+    
+    /**
+     * Validate the given index
+     * 
+     * @param index The index
+     * @throws IndexOutOfBoundsException If the index is not valid
+     */
+    private void validateIndex(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(
+                "Index " + index + " is out of bounds for size " + size);
+        }
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return shDegree;
+    }
+
+    @Override
+    public int getShDimensions()
+    {
+        return shDimensions;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public List<Splat> asList()
+    {
+        return new QuantizedSplatList();
+    }
+    
+    /**
+     * Implementation of the list that is returned by {@link #asList()}
+     */
+    private class QuantizedSplatList extends AbstractList<Splat>
+        implements RandomAccess
+    {
+        @Override
+        public Splat get(int index)
+        {
+            validateIndex(index);
+            return new QuantizedSplat(DefaultQuantizedSplatData.this, index);
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+    }
+
+    @Override
+    public void decode(int index, MutableSplat target)
+    {
+        validateIndex(index);
+        Splats.setAny(new QuantizedSplat(this, index), target);
+    }
+
+    @Override
+    public void decode(SplatData target)
+    {
+        if (target.getSize() != size || target.getShDegree() != shDegree)
+        {
+            throw new IllegalArgumentException("Expected a target with size "
+                + size + " and degree " + shDegree + ", but target has size "
+                + target.getSize() + " and degree " + target.getShDegree());
+        }
+        int numChunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, numChunks).parallel().forEach(c -> 
+        {
+            ChunkValues values = new ChunkValues(c);
+            decode(c, values);
+            values.write(target);
+        });
+    }
+
+    @Override
+    public void set(int index, Splat splat)
+    {
+        validateIndex(index);
+        int chunkIndex = index / CHUNK_SIZE;
+        ChunkValues values = new ChunkValues(chunkIndex);
+        decode(chunkIndex, values);
+        values.set(index - values.start, splat);
+        encode(chunkIndex, values);
+    }
+    
+    /**
+     * Read values from the given buffer into the given array
+     * 
+     * @param source The source buffer
+     * @param index The index of the first value in the buffer
+     * @param values The values
+     */
+    private static void get(FloatBuffer source, int index, float values[])
+    {
+        ((Buffer) source).position(index);
+        source.get(values);
+    }
+
+    /**
+     * Write the values from the given array into the given buffer
+     * 
+     * @param target The target buffer
+     * @param index The index of the first value in the buffer
+     * @param values The values
+     */
+    private static void put(FloatBuffer target, int index, float values[])
+    {
+        ((Buffer) target).position(index);
+        target.put(values);
+    }
+
+}
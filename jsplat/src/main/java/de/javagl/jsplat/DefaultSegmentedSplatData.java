@@ -0,0 +1,217 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default implementation of a {@link SegmentedSplatData}
+ */
+class DefaultSegmentedSplatData implements SegmentedSplatData
+{
+    /**
+     * The spherical harmonics degree
+     */
+    private final int shDegree;
+    
+    /**
+     * The size
+     */
+    private final long size;
+    
+    /**
+     * The segment size
+     */
+    private final int segmentSize;
+    
+    /**
+     * The segments
+     */
+    private final List<SplatData> segments;
+    
+    /**
+     * The lists that provide the splat views for the segments
+     */
+    private final List<SplatDataList> segmentLists;
+    
+    /**
+     * Creates a new instance where each segment is a {@link DefaultSplatData}
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param segmentSize The (maximum) number of splats per segment
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, the segment size is not positive, or the data for a single
+     * segment would require more than 2^31-1 bytes for one attribute
+     */
+    DefaultSegmentedSplatData(int shDegree, long size, int segmentSize)
+    {
+        this(shDegree, size, segmentSize,
+            createSegments(shDegree, size, segmentSize));
+    }
+    
+    /**
+     * Creates a new instance with the given segments.
+     * 
+     * The caller is responsible for passing segments that match the given
+     * degree, size, and segment size.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param segmentSize The (maximum) number of splats per segment
+     * @param segments The segments
+     */
+    DefaultSegmentedSplatData(int shDegree, long size, int segmentSize,
+        List<SplatData> segments)
+    {
+        this.shDegree = shDegree;
+        this.size = size;
+        this.segmentSize = segmentSize;
+        this.segments = segments;
+        this.segmentLists = new ArrayList<SplatDataList>(segments.size());
+        for (SplatData segment : segments)
+        {
+            segmentLists.add(new SplatDataList(segment));
+        }
+    }
+    
+    /**
+     * Create the {@link DefaultSplatData} segments for the given data
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param segmentSize The (maximum) number of splats per segment
+     * @return The segments
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, the segment size is not positive, or the data for a single
+     * segment would require more than 2^31-1 bytes for one attribute
+     */
+    private static List<SplatData> createSegments(int shDegree, long size,
+        int segmentSize)
+    {
+        int numSegments = computeNumSegments(shDegree, size, segmentSize);
+        List<SplatData> segments = new ArrayList<SplatData>(numSegments);
+        long remaining = size;
+        while (remaining > 0)
+        {
+            int n = (int) Math.min(remaining, segmentSize);
+            segments.add(new DefaultSplatData(shDegree, n));
+            remaining -= n;
+        }
+        return segments;
+    }
+    
+    /**
+     * Validate the given parameters, and return the number of segments
+     * that are required for the given size
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param segmentSize The (maximum) number of splats per segment
+     * @return The number of segments
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, the segment size is not positive, or the number of 
+     * segments would be larger than 2^31-1
+     */
+    static int computeNumSegments(int shDegree, long size, int segmentSize)
+    {
+        if (shDegree < 0)
+        {
+            throw new IllegalArgumentException(
+                "The spherical harmonics degree may not be negative, but is "
+                    + shDegree);
+        }
+        if (size < 0)
+        {
+            throw new IllegalArgumentException(
+                "The size may not be negative, but is " + size);
+        }
+        if (segmentSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The segment size must be positive, but is " + segmentSize);
+        }
+        long numSegments = (size + segmentSize - 1) / segmentSize;
+        if (numSegments > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The size " + size
+                + " would require too many segments of size " + segmentSize);
+        }
+        return (int) numSegments;
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return shDegree;
+    }
+
+    @Override
+    public int getShDimensions()
+    {
+        return Splats.dimensionsForDegree(shDegree);
+    }
+
+    @Override
+    public long getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public int getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    @Override
+    public int getNumSegments()
+    {
+        return segments.size();
+    }
+
+    @Override
+    public SplatData getSegment(int segmentIndex)
+    {
+        return segments.get(segmentIndex);
+    }
+
+    @Override
+    public MutableSplat getSplat(long index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(
+                "Index " + index + " is out of bounds for size " + size);
+        }
+        int segmentIndex = (int) (index / segmentSize);
+        int localIndex = (int) (index % segmentSize);
+        return segmentLists.get(segmentIndex).get(localIndex);
+    }
+
+}
@@ -26,6 +26,7 @@
  */
 package de.javagl.jsplat;
 
+import java.nio.Buffer;
 import java.nio.FloatBuffer;
 
 /**
@@ -74,7 +75,9 @@ class DefaultSplatData implements SplatData
      * 
      * @param shDegree The spherical harmonics degree
      * @param size The number of splats
-     * @throws IllegalArgumentException if the given degree or size is negative
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, or the data for one of the attributes would require more 
+     * than 2^31-1 bytes
      */
     DefaultSplatData(int shDegree, int size)
     {
@@ -89,16 +92,94 @@ class DefaultSplatData implements SplatData
             throw new IllegalArgumentException(
                 "The size may not be negative, but is " + size);
         }
+        int dimensions = Splats.dimensionsForDegree(shDegree);
+        
+        // Validate the size of the largest buffer before allocating anything
+        Buffers.validateFloatBufferSize(
+            Math.max(4, dimensions * 3) * (long) size);
+        
         this.shDegree = shDegree;
         this.size = size;
         
-        this.positions = Buffers.createFloatBuffer(size * 3);
-        this.scales = Buffers.createFloatBuffer(size * 3);
-        this.rotations = Buffers.createFloatBuffer(size * 4);
+        this.positions = Buffers.createFloatBuffer(size * 3L);
+        this.scales = Buffers.createFloatBuffer(size * 3L);
+        this.rotations = Buffers.createFloatBuffer(size * 4L);
         this.opacities = Buffers.createFloatBuffer(size);
-        
+        this.shs = Buffers.createFloatBuffer(dimensions * size * 3L);
+    }
+
+    /**
+     * Creates a new instance that uses the given buffers. 
+     * 
+     * The buffers are not copied. The data of each attribute starts at the 
+     * current position of the respective buffer. Buffers that are 
+     * <code>null</code> are allocated.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param positions The optional positions
+     * @param scales The optional scales
+     * @param rotations The optional rotations
+     * @param opacities The optional opacities
+     * @param shs The optional spherical harmonics
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, or one of the given buffers has fewer remaining elements
+     * than required for the given size
+     */
+    DefaultSplatData(int shDegree, int size, FloatBuffer positions,
+        FloatBuffer scales, FloatBuffer rotations, FloatBuffer opacities,
+        FloatBuffer shs)
+    {
+        if (shDegree < 0)
+        {
+            throw new IllegalArgumentException(
+                "The spherical harmonics degree may not be negative, but is "
+                    + shDegree);
+        }
+        if (size < 0)
+        {
+            throw new IllegalArgumentException(
+                "The size may not be negative, but is " + size);
+        }
         int dimensions = Splats.dimensionsForDegree(shDegree);
-        this.shs = Buffers.createFloatBuffer(dimensions * size * 3);
+        this.shDegree = shDegree;
+        this.size = size;
+        this.positions = prepare("positions", positions, size * 3L);
+        this.scales = prepare("scales", scales, size * 3L);
+        this.rotations = prepare("rotations", rotations, size * 4L);
+        this.opacities = prepare("opacities", opacities, size);
+        this.shs = prepare("spherical harmonics", shs, dimensions * size * 3L);
+    }
+
+    /**
+     * Returns a slice of the given buffer that contains the given number 
+     * of elements, starting at the current position of the buffer, or a 
+     * new buffer with the given size if the given buffer is 
+     * <code>null</code>
+     * 
+     * @param name The name of the attribute, for error messages
+     * @param buffer The buffer
+     * @param n The number of elements
+     * @return The buffer
+     * @throws IllegalArgumentException If the given buffer has fewer 
+     * remaining elements than the given number
+     */
+    private static FloatBuffer prepare(String name, FloatBuffer buffer, 
+        long n)
+    {
+        if (buffer == null)
+        {
+            return Buffers.createFloatBuffer(n);
+        }
+        if (buffer.remaining() < n)
+        {
+            throw new IllegalArgumentException("The buffer for the " + name
+                + " must have at least " + n + " remaining elements, but has "
+                + buffer.remaining());
+        }
+        FloatBuffer slice = buffer.slice();
+        ((Buffer) slice).limit((int) n);
+        return slice.slice();
     }
 
     @Override
@@ -0,0 +1,94 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.util.Arrays;
+
+/**
+ * Default implementation of {@link SplatMetadata}
+ */
+class DefaultSplatMetadata implements SplatMetadata
+{
+    /**
+     * The size
+     */
+    private final long size;
+
+    /**
+     * The spherical harmonics degree
+     */
+    private final int shDegree;
+
+    /**
+     * The bounds, or <code>null</code>
+     */
+    private final float bounds[];
+
+    /**
+     * Creates a new instance
+     * 
+     * @param size The size
+     * @param shDegree The spherical harmonics degree
+     * @param bounds The bounds, or <code>null</code>. A reference to the
+     * given array will be stored.
+     */
+    DefaultSplatMetadata(long size, int shDegree, float bounds[])
+    {
+        this.size = size;
+        this.shDegree = shDegree;
+        this.bounds = bounds;
+    }
+
+    @Override
+    public long getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return shDegree;
+    }
+
+    @Override
+    public float[] getBounds()
+    {
+        if (bounds == null)
+        {
+            return null;
+        }
+        return bounds.clone();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SplatMetadata[size=" + size + ",shDegree=" + shDegree
+            + ",bounds=" + Arrays.toString(bounds) + "]";
+    }
+}
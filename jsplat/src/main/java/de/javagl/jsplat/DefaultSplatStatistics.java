@@ -0,0 +1,489 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Default implementation of {@link SplatStatistics}.
+ * 
+ * The values of each splat are treated as one row of values, in the same
+ * order as in a {@link FloatSplat}. The statistics are accumulated for
+ * chunks of splats in parallel, and the results for the chunks are then
+ * combined, in order.
+ * 
+ * Splats may have a lower spherical harmonics degree than the statistics.
+ * The spherical harmonics coefficients that such a splat does not have
+ * are not taken into account for the minimum, maximum and mean values.
+ */
+class DefaultSplatStatistics implements SplatStatistics
+{
+    /**
+     * The number of splats that are processed in one chunk
+     */
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    /**
+     * The number of bins of each histogram
+     */
+    private static final int NUM_BINS = 256;
+
+    /**
+     * The minimum (logarithmic) scale that is covered by the scale histogram
+     */
+    private static final float SCALE_HISTOGRAM_MIN = -12.0f;
+
+    /**
+     * The maximum (logarithmic) scale that is covered by the scale histogram
+     */
+    private static final float SCALE_HISTOGRAM_MAX = 4.0f;
+
+    /**
+     * The offset of the position in a row
+     */
+    private static final int POSITION_OFFSET = 0;
+
+    /**
+     * The offset of the scale in a row
+     */
+    private static final int SCALE_OFFSET = 3;
+
+    /**
+     * The offset of the rotation in a row
+     */
+    private static final int ROTATION_OFFSET = 6;
+
+    /**
+     * The offset of the opacity in a row
+     */
+    private static final int OPACITY_OFFSET = 10;
+
+    /**
+     * The offset of the spherical harmonics in a row
+     */
+    private static final int SH_OFFSET = FloatSplat.SH_OFFSET;
+
+    /**
+     * The size
+     */
+    private int size;
+
+    /**
+     * The spherical harmonics degree
+     */
+    private final int shDegree;
+
+    /**
+     * The minimum values of all row elements
+     */
+    private final float min[];
+
+    /**
+     * The maximum values of all row elements
+     */
+    private final float max[];
+
+    /**
+     * The sums of all row elements
+     */
+    private final double sum[];
+
+    /**
+     * The number of values that have been added for each row element
+     */
+    private final int counts[];
+
+    /**
+     * The opacity histogram
+     */
+    private final int opacityHistogram[];
+
+    /**
+     * The scale histogram
+     */
+    private final int scaleHistogram[];
+
+    /**
+     * The SH DC histogram
+     */
+    private final int shDcHistogram[];
+
+    /**
+     * Creates a new, empty instance
+     * 
+     * @param shDegree The spherical harmonics degree
+     */
+    private DefaultSplatStatistics(int shDegree)
+    {
+        this.shDegree = shDegree;
+        int rowSize = SH_OFFSET + Splats.dimensionsForDegree(shDegree) * 3;
+        this.min = new float[rowSize];
+        this.max = new float[rowSize];
+        this.sum = new double[rowSize];
+        this.counts = new int[rowSize];
+        Arrays.fill(min, Float.POSITIVE_INFINITY);
+        Arrays.fill(max, Float.NEGATIVE_INFINITY);
+        this.opacityHistogram = new int[NUM_BINS];
+        this.scaleHistogram = new int[NUM_BINS];
+        this.shDcHistogram = new int[NUM_BINS];
+    }
+
+    /**
+     * Compute the statistics for the given splats.
+     * 
+     * The splats may not have a spherical harmonics degree that is larger
+     * than the given degree.
+     * 
+     * @param splats The splats
+     * @param shDegree The spherical harmonics degree
+     * @return The statistics
+     */
+    static DefaultSplatStatistics compute(List<? extends Splat> splats,
+        int shDegree)
+    {
+        List<? extends Splat> list = splats;
+        if (!(list instanceof RandomAccess))
+        {
+            list = new ArrayList<Splat>(splats);
+        }
+        List<? extends Splat> randomAccessSplats = list;
+        int n = randomAccessSplats.size();
+        int numChunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        DefaultSplatStatistics partials[] =
+            new DefaultSplatStatistics[numChunks];
+        IntStream.range(0, numChunks).parallel().forEach(c ->
+        {
+            int start = c * CHUNK_SIZE;
+            int end = Math.min(n, start + CHUNK_SIZE);
+            DefaultSplatStatistics partial =
+                new DefaultSplatStatistics(shDegree);
+            float row[] = new float[partial.min.length];
+            for (int i = start; i < end; i++)
+            {
+                partial.add(randomAccessSplats.get(i), row);
+            }
+            partials[c] = partial;
+        });
+        DefaultSplatStatistics result = new DefaultSplatStatistics(shDegree);
+        for (DefaultSplatStatistics partial : partials)
+        {
+            result.combine(partial);
+        }
+        return result;
+    }
+
+    /**
+     * Add the given splat to this instance
+     * 
+     * @param splat The splat
+     * @param row A temporary array for the values of the splat
+     */
+    private void add(Splat splat, float row[])
+    {
+        int rowLength = toRow(splat, row);
+        for (int j = 0; j < rowLength; j++)
+        {
+            float v = row[j];
+            if (v < min[j])
+            {
+                min[j] = v;
+            }
+            if (v > max[j])
+            {
+                max[j] = v;
+            }
+            sum[j] += v;
+            counts[j]++;
+        }
+        double alpha = Splats.opacityToAlpha(row[OPACITY_OFFSET]);
+        opacityHistogram[bin(alpha, 0.0, 1.0)]++;
+        for (int c = 0; c < 3; c++)
+        {
+            float scale = row[SCALE_OFFSET + c];
+            scaleHistogram[bin(scale, SCALE_HISTOGRAM_MIN,
+                SCALE_HISTOGRAM_MAX)]++;
+            double color = Splats.directCurrentToColor(row[SH_OFFSET + c]);
+            shDcHistogram[bin(color, 0.0, 1.0)]++;
+        }
+        size++;
+    }
+
+    /**
+     * Write the values of the given splat into the given row.
+     * 
+     * If the splat has a lower spherical harmonics degree than the one
+     * that the row was created for, then only the leading elements of the
+     * row are filled.
+     * 
+     * @param splat The splat
+     * @param row The row
+     * @return The number of elements that have been written into the row
+     */
+    private static int toRow(Splat splat, float row[])
+    {
+        if (splat instanceof FloatSplat)
+        {
+            FloatSplat floatSplat = (FloatSplat) splat;
+            int length = Math.min(row.length, floatSplat.data.length);
+            System.arraycopy(floatSplat.data, 0, row, 0, length);
+            return length;
+        }
+        row[POSITION_OFFSET + 0] = (float) splat.getPositionX();
+        row[POSITION_OFFSET + 1] = (float) splat.getPositionY();
+        row[POSITION_OFFSET + 2] = (float) splat.getPositionZ();
+        row[SCALE_OFFSET + 0] = (float) splat.getScaleX();
+        row[SCALE_OFFSET + 1] = (float) splat.getScaleY();
+        row[SCALE_OFFSET + 2] = (float) splat.getScaleZ();
+        row[ROTATION_OFFSET + 0] = (float) splat.getRotationX();
+        row[ROTATION_OFFSET + 1] = (float) splat.getRotationY();
+        row[ROTATION_OFFSET + 2] = (float) splat.getRotationZ();
+        row[ROTATION_OFFSET + 3] = (float) splat.getRotationW();
+        row[OPACITY_OFFSET] = (float) splat.getOpacity();
+        int dims = Math.min((row.length - SH_OFFSET) / 3, 
+            splat.getShDimensions());
+        for (int d = 0; d < dims; d++)
+        {
+            row[SH_OFFSET + d * 3 + 0] = (float) splat.getShX(d);
+            row[SH_OFFSET + d * 3 + 1] = (float) splat.getShY(d);
+            row[SH_OFFSET + d * 3 + 2] = (float) splat.getShZ(d);
+        }
+        return SH_OFFSET + dims * 3;
+    }
+
+    /**
+     * Returns the index of the histogram bin for the given value
+     * 
+     * @param value The value
+     * @param min The minimum value of the histogram
+     * @param max The maximum value of the histogram
+     * @return The bin index
+     */
+    private static int bin(double value, double min, double max)
+    {
+        int b = (int) ((value - min) / (max - min) * NUM_BINS);
+        return Math.max(0, Math.min(NUM_BINS - 1, b));
+    }
+
+    /**
+     * Combine the given statistics into this instance
+     * 
+     * @param other The other statistics
+     */
+    private void combine(DefaultSplatStatistics other)
+    {
+        for (int j = 0; j < min.length; j++)
+        {
+            min[j] = Math.min(min[j], other.min[j]);
+            max[j] = Math.max(max[j], other.max[j]);
+            sum[j] += other.sum[j];
+            counts[j] += other.counts[j];
+        }
+        for (int b = 0; b < NUM_BINS; b++)
+        {
+            opacityHistogram[b] += other.opacityHistogram[b];
+            scaleHistogram[b] += other.scaleHistogram[b];
+            shDcHistogram[b] += other.shDcHistogram[b];
+        }
+        size += other.size;
+    }
+
+    /**
+     * Returns the specified range of the given array
+     * 
+     * @param array The array
+     * @param offset The offset
+     * @param length The length
+     * @return The range
+     */
+    private static float[] range(float array[], int offset, int length)
+    {
+        return Arrays.copyOfRange(array, offset, offset + length);
+    }
+
+    /**
+     * Returns the mean of the specified row elements
+     * 
+     * @param offset The offset
+     * @param length The length
+     * @return The mean
+     */
+    private float[] mean(int offset, int length)
+    {
+        float result[] = new float[length];
+        for (int j = 0; j < length; j++)
+        {
+            result[j] = (float) (sum[offset + j] / counts[offset + j]);
+        }
+        return result;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return shDegree;
+    }
+
+    @Override
+    public float[] getBounds()
+    {
+        return new float[]
+        { min[POSITION_OFFSET + 0], min[POSITION_OFFSET + 1],
+            min[POSITION_OFFSET + 2], max[POSITION_OFFSET + 0],
+            max[POSITION_OFFSET + 1], max[POSITION_OFFSET + 2] };
+    }
+
+    @Override
+    public float[] getPositionMin()
+    {
+        return range(min, POSITION_OFFSET, 3);
+    }
+
+    @Override
+    public float[] getPositionMax()
+    {
+        return range(max, POSITION_OFFSET, 3);
+    }
+
+    @Override
+    public float[] getPositionMean()
+    {
+        return mean(POSITION_OFFSET, 3);
+    }
+
+    @Override
+    public float[] getScaleMin()
+    {
+        return range(min, SCALE_OFFSET, 3);
+    }
+
+    @Override
+    public float[] getScaleMax()
+    {
+        return range(max, SCALE_OFFSET, 3);
+    }
+
+    @Override
+    public float[] getScaleMean()
+    {
+        return mean(SCALE_OFFSET, 3);
+    }
+
+    @Override
+    public float[] getRotationMin()
+    {
+        return range(min, ROTATION_OFFSET, 4);
+    }
+
+    @Override
+    public float[] getRotationMax()
+    {
+        return range(max, ROTATION_OFFSET, 4);
+    }
+
+    @Override
+    public float[] getRotationMean()
+    {
+        return mean(ROTATION_OFFSET, 4);
+    }
+
+    @Override
+    public float getOpacityMin()
+    {
+        return min[OPACITY_OFFSET];
+    }
+
+    @Override
+    public float getOpacityMax()
+    {
+        return max[OPACITY_OFFSET];
+    }
+
+    @Override
+    public float getOpacityMean()
+    {
+        return mean(OPACITY_OFFSET, 1)[0];
+    }
+
+    @Override
+    public float[] getShMin()
+    {
+        return range(min, SH_OFFSET, min.length - SH_OFFSET);
+    }
+
+    @Override
+    public float[] getShMax()
+    {
+        return range(max, SH_OFFSET, max.length - SH_OFFSET);
+    }
+
+    @Override
+    public float[] getShMean()
+    {
+        return mean(SH_OFFSET, sum.length - SH_OFFSET);
+    }
+
+    @Override
+    public int[] getOpacityHistogram()
+    {
+        return opacityHistogram.clone();
+    }
+
+    @Override
+    public int[] getScaleHistogram()
+    {
+        return scaleHistogram.clone();
+    }
+
+    @Override
+    public float getScaleHistogramMin()
+    {
+        return SCALE_HISTOGRAM_MIN;
+    }
+
+    @Override
+    public float getScaleHistogramMax()
+    {
+        return SCALE_HISTOGRAM_MAX;
+    }
+
+    @Override
+    public int[] getShDcHistogram()
+    {
+        return shDcHistogram.clone();
+    }
+
+}
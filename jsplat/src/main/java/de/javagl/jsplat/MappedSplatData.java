@@ -0,0 +1,287 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of a {@link SplatData} that is backed by a memory-mapped
+ * file.
+ * 
+ * The buffers of this splat data are mapped regions of a file. The file
+ * contains the positions, scales, rotations, opacities and spherical
+ * harmonics, in this order, as <code>float</code> values in native byte
+ * order. Reading and writing the buffers will read and write the file, with
+ * the operating system taking care of the paging.
+ * 
+ * A single instance is limited to 2^31-1 bytes per attribute. Larger data
+ * can be represented with {@link #createSegmented}, where each segment is
+ * a mapped region of the same file.
+ */
+class MappedSplatData implements SplatData
+{
+    /**
+     * The spherical harmonics degree
+     */
+    private final int shDegree;
+    
+    /**
+     * The size
+     */
+    private final int size;
+
+    /**
+     * The positions
+     */
+    private final FloatBuffer positions;
+    
+    /**
+     * The scales
+     */
+    private final FloatBuffer scales;
+    
+    /**
+     * The rotations
+     */
+    private final FloatBuffer rotations;
+    
+    /**
+     * The opacities
+     */
+    private final FloatBuffer opacities;
+    
+    /**
+     * The spherical harmonics
+     */
+    private final FloatBuffer shs;
+    
+    /**
+     * Creates a new instance that is backed by the given file.
+     * 
+     * If the file does not exist, it will be created. If it is smaller than
+     * the required size, it will be enlarged. Existing contents of the file
+     * will be retained.
+     * 
+     * @param path The path of the file
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @return The instance
+     * @throws IOException If the file cannot be opened or mapped
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, or the data for one of the attributes would require more 
+     * than 2^31-1 bytes
+     */
+    static MappedSplatData create(Path path, int shDegree, int size)
+        throws IOException
+    {
+        try (FileChannel channel = open(path))
+        {
+            return new MappedSplatData(channel, 0, shDegree, size);
+        }
+    }
+    
+    /**
+     * Creates a new {@link SegmentedSplatData} that is backed by the given
+     * file.
+     * 
+     * Each segment is a {@link MappedSplatData} for a region of the file.
+     * The regions are stored consecutively in the file, and each of them
+     * has the layout that is described in the class documentation. This 
+     * means that only the data of a single segment is limited to 2^31-1 
+     * bytes per attribute, but not the data of the whole file.
+     * 
+     * If the file does not exist, it will be created. If it is smaller than
+     * the required size, it will be enlarged. Existing contents of the file
+     * will be retained.
+     * 
+     * @param path The path of the file
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param segmentSize The (maximum) number of splats per segment
+     * @return The {@link SegmentedSplatData}
+     * @throws IOException If the file cannot be opened or mapped
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, the segment size is not positive, or the data for a single
+     * segment would require more than 2^31-1 bytes for one attribute
+     */
+    static SegmentedSplatData createSegmented(Path path, int shDegree,
+        long size, int segmentSize) throws IOException
+    {
+        int numSegments = DefaultSegmentedSplatData.computeNumSegments(
+            shDegree, size, segmentSize);
+        List<SplatData> segments = new ArrayList<SplatData>(numSegments);
+        try (FileChannel channel = open(path))
+        {
+            long offset = 0;
+            long remaining = size;
+            while (remaining > 0)
+            {
+                int n = (int) Math.min(remaining, segmentSize);
+                segments.add(
+                    new MappedSplatData(channel, offset, shDegree, n));
+                offset += computeByteSize(shDegree, n);
+                remaining -= n;
+            }
+        }
+        return new DefaultSegmentedSplatData(
+            shDegree, size, segmentSize, segments);
+    }
+    
+    /**
+     * Open a channel for reading and writing the given file, creating the
+     * file if it does not exist
+     * 
+     * @param path The path
+     * @return The channel
+     * @throws IOException If the file cannot be opened
+     */
+    private static FileChannel open(Path path) throws IOException
+    {
+        return FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+    
+    /**
+     * Computes the number of bytes that the data for the given number of
+     * splats occupies in the file
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @return The number of bytes
+     */
+    private static long computeByteSize(int shDegree, int size)
+    {
+        int dimensions = Splats.dimensionsForDegree(shDegree);
+        long floatsPerSplat = 3 + 3 + 4 + 1 + dimensions * 3;
+        return floatsPerSplat * size * Float.BYTES;
+    }
+    
+    /**
+     * Creates a new instance that maps the region of the given channel 
+     * that starts at the given offset.
+     * 
+     * The channel may be closed after this constructor returns. The 
+     * mappings remain valid until the buffers are garbage collected.
+     * 
+     * @param channel The channel
+     * @param offset The offset of the region, in bytes
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @throws IOException If the region cannot be mapped
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, or the data for one of the attributes would require more 
+     * than 2^31-1 bytes
+     */
+    private MappedSplatData(FileChannel channel, long offset, int shDegree,
+        int size) throws IOException
+    {
+        if (shDegree < 0)
+        {
+            throw new IllegalArgumentException(
+                "The spherical harmonics degree may not be negative, but is "
+                    + shDegree);
+        }
+        if (size < 0)
+        {
+            throw new IllegalArgumentException(
+                "The size may not be negative, but is " + size);
+        }
+        this.shDegree = shDegree;
+        this.size = size;
+        
+        int dimensions = Splats.dimensionsForDegree(shDegree);
+        Buffers.validateFloatBufferSize(
+            Math.max(4, dimensions * 3) * (long) size);
+        
+        long o = offset;
+        this.positions = Buffers.mapFloatBuffer(channel, o, size * 3L);
+        o += size * 3L * Float.BYTES;
+        this.scales = Buffers.mapFloatBuffer(channel, o, size * 3L);
+        o += size * 3L * Float.BYTES;
+        this.rotations = Buffers.mapFloatBuffer(channel, o, size * 4L);
+        o += size * 4L * Float.BYTES;
+        this.opacities = Buffers.mapFloatBuffer(channel, o, size);
+        o += (long) size * Float.BYTES;
+        this.shs = Buffers.mapFloatBuffer(channel, o,
+            dimensions * size * 3L);
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return shDegree;
+    }
+
+    @Override
+    public int getShDimensions()
+    {
+        return Splats.dimensionsForDegree(shDegree);
+    }
+    
+    @Override
+    public int getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public FloatBuffer getPositions()
+    {
+        return positions.slice();
+    }
+
+    @Override
+    public FloatBuffer getScales()
+    {
+        return scales.slice();
+    }
+
+    @Override
+    public FloatBuffer getRotations()
+    {
+        return rotations.slice();
+    }
+
+    @Override
+    public FloatBuffer getOpacities()
+    {
+        return opacities.slice();
+    }
+
+    @Override
+    public FloatBuffer getShs()
+    {
+        return shs.slice();
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+/**
+ * Implementation of a {@link Splat} that is a view on one element of a
+ * {@link DefaultQuantizedSplatData}. The values are decoded when they
+ * are accessed.
+ */
+class QuantizedSplat implements Splat
+{
+    /**
+     * The data that this splat belongs to
+     */
+    private final DefaultQuantizedSplatData data;
+    
+    /**
+     * The index of this splat
+     */
+    private final int index;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param data The data that this splat belongs to
+     * @param index The index of this splat
+     */
+    QuantizedSplat(DefaultQuantizedSplatData data, int index)
+    {
+        this.data = data;
+        this.index = index;
+    }
+
+    @Override
+    public double getPositionX()
+    {
+        return data.getPosition(index, 0);
+    }
+
+    @Override
+    public double getPositionY()
+    {
+        return data.getPosition(index, 1);
+    }
+
+    @Override
+    public double getPositionZ()
+    {
+        return data.getPosition(index, 2);
+    }
+
+    @Override
+    public double getScaleX()
+    {
+        return data.getScale(index, 0);
+    }
+
+    @Override
+    public double getScaleY()
+    {
+        return data.getScale(index, 1);
+    }
+
+    @Override
+    public double getScaleZ()
+    {
+        return data.getScale(index, 2);
+    }
+
+    @Override
+    public double getRotationX()
+    {
+        return data.getRotation(index, 0);
+    }
+
+    @Override
+    public double getRotationY()
+    {
+        return data.getRotation(index, 1);
+    }
+
+    @Override
+    public double getRotationZ()
+    {
+        return data.getRotation(index, 2);
+    }
+
+    @Override
+    public double getRotationW()
+    {
+        return data.getRotation(index, 3);
+    }
+
+    @Override
+    public double getOpacity()
+    {
+        return data.getOpacity(index);
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return data.getShDegree();
+    }
+
+    @Override
+    public int getShDimensions()
+    {
+        return data.getShDimensions();
+    }
+
+    @Override
+    public double getShX(int dimension)
+    {
+        return data.getSh(index, dimension * 3 + 0);
+    }
+
+    @Override
+    public double getShY(int dimension)
+    {
+        return data.getSh(index, dimension * 3 + 1);
+    }
+
+    @Override
+    public double getShZ(int dimension)
+    {
+        return data.getSh(index, dimension * 3 + 2);
+    }
+}
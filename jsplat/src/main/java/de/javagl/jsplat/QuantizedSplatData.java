@@ -0,0 +1,123 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.util.List;
+
+/**
+ * Interface for a compact, quantized representation of splat data.
+ * 
+ * Instances of this interface can be created with 
+ * {@link SplatDatas#quantize(SplatData)}. The splats are grouped into 
+ * chunks of 256 consecutive splats. The values are stored as follows:
+ * <ul>
+ *   <li>Positions: 16 bits per component, relative to the bounding box
+ *   of the chunk. The error is at most <code>extent / 131070</code>, 
+ *   where <code>extent</code> is the size of the bounding box of the 
+ *   chunk along the respective axis.</li>
+ *   <li>Scales: 8 bits per (logarithmic) component, relative to the
+ *   range of the scales in the chunk. The error is at most
+ *   <code>range / 510</code>.</li>
+ *   <li>Opacity: 8 bits, as the alpha value in [0,1]. The error of the
+ *   alpha value is at most <code>1 / 510</code>.</li>
+ *   <li>Rotations: 32 bits, using the "smallest three" encoding, with
+ *   2 bits for the index of the largest component, and 10 bits for each
+ *   of the remaining components of the normalized quaternion. The error 
+ *   of these components is at most <code>1 / (1023 * sqrt(2))</code>, 
+ *   which is about 0.0007.</li>
+ *   <li>Spherical harmonics: 8 bits per coefficient, relative to the 
+ *   range of the coefficients in the chunk, with separate ranges for 
+ *   the first dimension and the remaining dimensions. The error is at 
+ *   most <code>range / 510</code>.</li>
+ * </ul>
+ * For spherical harmonics degree 3, this requires 62 bytes per splat,
+ * compared to 236 bytes in a {@link SplatData}.
+ */
+public interface QuantizedSplatData
+{
+    /**
+     * Returns the spherical harmonics degree
+     * 
+     * @return The value
+     */
+    int getShDegree();
+
+    /**
+     * Returns the number of dimensions for the sperical harmonics degree
+     * 
+     * @return The number of dimensions
+     */
+    int getShDimensions();
+
+    /**
+     * Returns the size (number of splats)
+     * 
+     * @return The size
+     */
+    int getSize();
+    
+    /**
+     * Returns an unmodifiable list of {@link Splat} objects that are views
+     * on this data. The values are decoded when they are accessed. 
+     * 
+     * @return The list
+     */
+    List<Splat> asList();
+    
+    /**
+     * Decode the specified splat into the given target
+     * 
+     * @param index The index of the splat
+     * @param target The target
+     * @throws IndexOutOfBoundsException If the index is negative or not 
+     * smaller than the size
+     */
+    void decode(int index, MutableSplat target);
+    
+    /**
+     * Decode all splats into the given {@link SplatData}
+     * 
+     * @param target The target
+     * @throws IllegalArgumentException If the target has a different 
+     * size or spherical harmonics degree than this instance
+     */
+    void decode(SplatData target);
+
+    /**
+     * Set the values of the specified splat to those of the given splat.
+     * 
+     * The values of the chunk that contains the splat will be quantized
+     * again. This may cause the quantization errors of the other splats
+     * in the same chunk to change as well.
+     * 
+     * @param index The index of the splat
+     * @param splat The splat
+     * @throws IndexOutOfBoundsException If the index is negative or not 
+     * smaller than the size
+     */
+    void set(int index, Splat splat);
+}
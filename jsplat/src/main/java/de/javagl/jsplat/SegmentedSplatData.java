@@ -0,0 +1,100 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+/**
+ * Interface for classes that provide splat data that is split into
+ * multiple segments.
+ * 
+ * Each segment is a {@link SplatData}. All segments have the same
+ * {@link #getSegmentSize() segment size}, except for the last one,
+ * which may be smaller. This allows representing data where the buffers
+ * for a single attribute would be larger than 2^31-1 bytes, which is 
+ * the limit for a single buffer.
+ */
+public interface SegmentedSplatData
+{
+    /**
+     * Returns the spherical harmonics degree
+     * 
+     * @return The value
+     */
+    int getShDegree();
+
+    /**
+     * Returns the number of dimensions for the sperical harmonics degree
+     * 
+     * @return The number of dimensions
+     */
+    int getShDimensions();
+
+    /**
+     * Returns the total size (number of splats)
+     * 
+     * @return The size
+     */
+    long getSize();
+
+    /**
+     * Returns the (maximum) number of splats in each segment
+     * 
+     * @return The segment size
+     */
+    int getSegmentSize();
+
+    /**
+     * Returns the number of segments
+     * 
+     * @return The number of segments
+     */
+    int getNumSegments();
+
+    /**
+     * Returns the segment with the given index.
+     * 
+     * The segment contains the splats starting at the (global) index
+     * <code>segmentIndex * getSegmentSize()</code>.
+     * 
+     * @param segmentIndex The segment index
+     * @return The segment
+     * @throws IndexOutOfBoundsException If the index is negative or not
+     * smaller than the number of segments
+     */
+    SplatData getSegment(int segmentIndex);
+
+    /**
+     * Returns a {@link MutableSplat} that is a view on the splat with the
+     * given index. Modifications of the returned splat will be written
+     * into the buffers of the respective segment.
+     * 
+     * @param index The (global) index of the splat
+     * @return The splat
+     * @throws IndexOutOfBoundsException If the index is negative or not
+     * smaller than the size
+     */
+    MutableSplat getSplat(long index);
+}
@@ -0,0 +1,142 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Implementation of a list of {@link MutableSplat} objects that is backed by
+ * a {@link SegmentedSplatData}.
+ * 
+ * The elements are views that are obtained with 
+ * {@link SegmentedSplatData#getSplat(long)}. The list has a fixed size. 
+ * Calling {@link #set(int, MutableSplat)} will copy the values of the 
+ * given splat into the buffers, at the given index, and return a detached 
+ * copy of the previous values.
+ */
+class SegmentedSplatDataList extends AbstractList<MutableSplat>
+    implements RandomAccess
+{
+    /**
+     * The {@link SegmentedSplatData}
+     */
+    private final SegmentedSplatData segmentedSplatData;
+    
+    /**
+     * Creates a new instance
+     * 
+     * @param segmentedSplatData The {@link SegmentedSplatData}
+     * @throws IllegalArgumentException If the size of the given data is 
+     * larger than <code>Integer.MAX_VALUE</code>
+     */
+    SegmentedSplatDataList(SegmentedSplatData segmentedSplatData)
+    {
+        this.segmentedSplatData = Objects.requireNonNull(segmentedSplatData,
+            "The segmentedSplatData may not be null");
+        if (segmentedSplatData.getSize() > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The size "
+                + segmentedSplatData.getSize() + " is too large for a list");
+        }
+    }
+
+    @Override
+    public MutableSplat get(int index)
+    {
+        return segmentedSplatData.getSplat(index);
+    }
+
+    @Override
+    public MutableSplat set(int index, MutableSplat element)
+    {
+        MutableSplat splat = get(index);
+        MutableSplat old = Splats.copyFloat(splat);
+        Splats.setAny(element, splat);
+        return old;
+    }
+
+    @Override
+    public int size()
+    {
+        return (int) segmentedSplatData.getSize();
+    }
+
+    @Override
+    public void sort(Comparator<? super MutableSplat> c)
+    {
+        // The default implementation would write the (index-bound) views
+        // back into the list, overwriting values that are still required.
+        // Copying the elements would double the memory that is required 
+        // for data that may be larger than the available heap. So a 
+        // permutation of the indices is sorted, and then applied in place,
+        // by following its cycles with a single temporary row.
+        int n = size();
+        int permutation[] = SplatDataList.computeSortedPermutation(this, c);
+        
+        int numSegments = segmentedSplatData.getNumSegments();
+        int segmentSize = segmentedSplatData.getSegmentSize();
+        SplatDataList segmentLists[] = new SplatDataList[numSegments];
+        for (int s = 0; s < numSegments; s++)
+        {
+            segmentLists[s] = 
+                new SplatDataList(segmentedSplatData.getSegment(s));
+        }
+        SplatDataList temp = new SplatDataList(
+            SplatDatas.create(segmentedSplatData.getShDegree(), 1));
+        BitSet done = new BitSet(n);
+        for (int i = 0; i < n; i++)
+        {
+            if (done.get(i) || permutation[i] == i)
+            {
+                continue;
+            }
+            SplatDataList.copyRow(segmentLists[i / segmentSize],
+                i % segmentSize, temp, 0);
+            int j = i;
+            while (true)
+            {
+                done.set(j);
+                int k = permutation[j];
+                SplatDataList target = segmentLists[j / segmentSize];
+                if (k == i)
+                {
+                    SplatDataList.copyRow(temp, 0, target, j % segmentSize);
+                    break;
+                }
+                SplatDataList.copyRow(segmentLists[k / segmentSize],
+                    k % segmentSize, target, j % segmentSize);
+                j = k;
+            }
+        }
+        modCount++;
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Interface for classes that can read splats in batches
+ */
+public interface SplatBatchReader
+{
+    /**
+     * Create a {@link SplatBatchSource} that reads from the given input 
+     * stream, with batches of the given size.
+     * 
+     * Any header information may be read from the input stream by this
+     * call. The actual splat data will only be read when the batches are
+     * consumed.
+     * 
+     * @param inputStream The input stream to read from
+     * @param batchSize The number of splats in each batch
+     * @return The {@link SplatBatchSource}
+     * @throws IOException If an IO error occurs
+     * @throws IllegalArgumentException If the batch size is not positive
+     */
+    SplatBatchSource readBatches(InputStream inputStream, int batchSize)
+        throws IOException;
+}
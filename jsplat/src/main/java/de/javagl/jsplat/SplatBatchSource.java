@@ -0,0 +1,67 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Interface for a source of splat data that is provided in batches.
+ * 
+ * Each batch is a {@link SplatData}. All batches have the same size,
+ * except for the last one, which may be smaller. The {@link SplatData}
+ * that is passed to the consumer may be reused for subsequent batches.
+ * Consumers that want to retain the data of a batch have to copy it.
+ * 
+ * A batch source can usually only be consumed once.
+ */
+public interface SplatBatchSource
+{
+    /**
+     * Returns the spherical harmonics degree of the splats
+     * 
+     * @return The spherical harmonics degree
+     */
+    int getShDegree();
+    
+    /**
+     * Returns the total number of splats, or -1 if this number is not
+     * known in advance
+     * 
+     * @return The size
+     */
+    long getSize();
+    
+    /**
+     * Pass all batches of this source to the given consumer
+     * 
+     * @param consumer The consumer
+     * @throws IOException If an IO error occurs
+     * @throws IllegalStateException If this source was already consumed
+     */
+    void forEachBatch(Consumer<? super SplatData> consumer) throws IOException;
+}
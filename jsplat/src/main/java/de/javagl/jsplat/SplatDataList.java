@@ -0,0 +1,299 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.nio.FloatBuffer;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Implementation of a list of {@link MutableSplat} objects that is backed by
+ * a {@link SplatData}.
+ *
+ * The data is stored column-wise in the buffers of the {@link SplatData}.
+ * The elements that are returned by {@link #get(int)} are lightweight views
+ * that are bound to the respective index. Modifications of these views will
+ * be written into the buffers of the {@link SplatData}.
+ *
+ * The list has a fixed size. Calling {@link #set(int, MutableSplat)} will
+ * copy the values of the given splat into the buffers, at the given index,
+ * and return a detached copy of the previous values.
+ */
+class SplatDataList extends AbstractList<MutableSplat> implements RandomAccess
+{
+    /**
+     * The {@link SplatData}
+     */
+    private final SplatData splatData;
+
+    /**
+     * The spherical harmonics dimensions
+     */
+    private final int shDimensions;
+
+    /**
+     * The positions
+     */
+    final FloatBuffer positions;
+
+    /**
+     * The scales
+     */
+    final FloatBuffer scales;
+
+    /**
+     * The rotations
+     */
+    final FloatBuffer rotations;
+
+    /**
+     * The opacities
+     */
+    final FloatBuffer opacities;
+
+    /**
+     * The spherical harmonics
+     */
+    final FloatBuffer shs;
+
+    /**
+     * Creates a new instance
+     *
+     * @param splatData The {@link SplatData}
+     */
+    SplatDataList(SplatData splatData)
+    {
+        this.splatData = Objects.requireNonNull(splatData,
+            "The splatData may not be null");
+        this.shDimensions = splatData.getShDimensions();
+        this.positions = splatData.getPositions();
+        this.scales = splatData.getScales();
+        this.rotations = splatData.getRotations();
+        this.opacities = splatData.getOpacities();
+        this.shs = splatData.getShs();
+    }
+
+    /**
+     * Returns the {@link SplatData} that this list is backed by
+     *
+     * @return The {@link SplatData}
+     */
+    SplatData getSplatData()
+    {
+        return splatData;
+    }
+
+    /**
+     * Returns the spherical harmonics dimensions
+     *
+     * @return The dimensions
+     */
+    int getShDimensions()
+    {
+        return shDimensions;
+    }
+
+    @Override
+    public MutableSplat get(int index)
+    {
+        if (index < 0 || index >= size())
+        {
+            throw new IndexOutOfBoundsException(
+                "Index " + index + " is out of bounds for size " + size());
+        }
+        return new SplatDataSplat(this, index);
+    }
+
+    @Override
+    public MutableSplat set(int index, MutableSplat element)
+    {
+        MutableSplat splat = get(index);
+        MutableSplat old = Splats.copyFloat(splat);
+        Splats.setAny(element, splat);
+        return old;
+    }
+
+    @Override
+    public int size()
+    {
+        return splatData.getSize();
+    }
+
+    @Override
+    public void sort(Comparator<? super MutableSplat> c)
+    {
+        // The default implementation would write the (index-bound) views
+        // back into the list, overwriting values that are still required.
+        // So a permutation of the indices is sorted, and then applied in 
+        // place, by following its cycles with a single temporary row.
+        int n = size();
+        int permutation[] = computeSortedPermutation(this, c);
+        SplatDataList temp = new SplatDataList(
+            SplatDatas.create(splatData.getShDegree(), 1));
+        BitSet done = new BitSet(n);
+        for (int i = 0; i < n; i++)
+        {
+            if (done.get(i) || permutation[i] == i)
+            {
+                continue;
+            }
+            copyRow(this, i, temp, 0);
+            int j = i;
+            while (true)
+            {
+                done.set(j);
+                int k = permutation[j];
+                if (k == i)
+                {
+                    copyRow(temp, 0, this, j);
+                    break;
+                }
+                copyRow(this, k, this, j);
+                j = k;
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Computes the permutation that sorts the given list with the given
+     * comparator. The element at index <code>i</code> of the result is the 
+     * index of the element that is placed at index <code>i</code> in the
+     * sorted list. The sort is stable.
+     * 
+     * @param list The list
+     * @param c The comparator
+     * @return The permutation
+     */
+    static int[] computeSortedPermutation(List<? extends MutableSplat> list,
+        Comparator<? super MutableSplat> c)
+    {
+        int n = list.size();
+        int permutation[] = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            permutation[i] = i;
+        }
+        mergeSort(list, permutation, new int[n], 0, n, c);
+        return permutation;
+    }
+
+    /**
+     * Sort the specified range of the given array of indices, using a 
+     * stable merge sort that compares the elements of the given list at 
+     * the respective indices with the given comparator.
+     * 
+     * @param list The list
+     * @param indices The indices
+     * @param temp A temporary array with the same length as the indices
+     * @param from The start of the range, inclusive
+     * @param to The end of the range, exclusive
+     * @param c The comparator
+     */
+    private static void mergeSort(List<? extends MutableSplat> list, 
+        int indices[], int temp[], int from, int to,
+        Comparator<? super MutableSplat> c)
+    {
+        int length = to - from;
+        if (length < 2)
+        {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(list, indices, temp, from, mid, c);
+        mergeSort(list, indices, temp, mid, to, c);
+        if (c.compare(list.get(indices[mid - 1]), list.get(indices[mid])) <= 0)
+        {
+            return;
+        }
+        System.arraycopy(indices, from, temp, from, length);
+        int a = from;
+        int b = mid;
+        MutableSplat splatA = list.get(temp[a]);
+        MutableSplat splatB = list.get(temp[b]);
+        for (int i = from; i < to; i++)
+        {
+            if (b >= to || (a < mid && c.compare(splatA, splatB) <= 0))
+            {
+                indices[i] = temp[a];
+                a++;
+                if (a < mid)
+                {
+                    splatA = list.get(temp[a]);
+                }
+            }
+            else
+            {
+                indices[i] = temp[b];
+                b++;
+                if (b < to)
+                {
+                    splatB = list.get(temp[b]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the values of the specified element of the given source list into
+     * the specified element of the given target list. Both lists must have the
+     * same spherical harmonics degree.
+     *
+     * @param source The source
+     * @param sourceIndex The source index
+     * @param target The target
+     * @param targetIndex The target index
+     */
+    static void copyRow(SplatDataList source, int sourceIndex,
+        SplatDataList target, int targetIndex)
+    {
+        int dims = source.shDimensions;
+        for (int c = 0; c < 3; c++)
+        {
+            target.positions.put(targetIndex * 3 + c,
+                source.positions.get(sourceIndex * 3 + c));
+            target.scales.put(targetIndex * 3 + c,
+                source.scales.get(sourceIndex * 3 + c));
+        }
+        for (int c = 0; c < 4; c++)
+        {
+            target.rotations.put(targetIndex * 4 + c,
+                source.rotations.get(sourceIndex * 4 + c));
+        }
+        target.opacities.put(targetIndex, source.opacities.get(sourceIndex));
+        for (int c = 0; c < dims * 3; c++)
+        {
+            target.shs.put(targetIndex * dims * 3 + c,
+                source.shs.get(sourceIndex * dims * 3 + c));
+        }
+    }
+
+}
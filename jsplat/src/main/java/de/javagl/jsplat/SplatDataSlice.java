@@ -0,0 +1,138 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Implementation of a {@link SplatData} that is a view on a range of
+ * another {@link SplatData}
+ */
+class SplatDataSlice implements SplatData
+{
+    /**
+     * The delegate
+     */
+    private final SplatData delegate;
+    
+    /**
+     * The index of the first splat in the delegate
+     */
+    private final int start;
+    
+    /**
+     * The size
+     */
+    private final int size;
+    
+    /**
+     * Creates a new instance
+     * 
+     * @param delegate The delegate
+     * @param start The index of the first splat in the delegate
+     * @param size The number of splats
+     * @throws IndexOutOfBoundsException If the range is not valid for the 
+     * given delegate
+     */
+    SplatDataSlice(SplatData delegate, int start, int size)
+    {
+        if (start < 0 || size < 0 || start + size > delegate.getSize())
+        {
+            throw new IndexOutOfBoundsException("The range of " + size
+                + " splats starting at " + start + " is not valid for size "
+                + delegate.getSize());
+        }
+        this.delegate = delegate;
+        this.start = start;
+        this.size = size;
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return delegate.getShDegree();
+    }
+
+    @Override
+    public int getShDimensions()
+    {
+        return delegate.getShDimensions();
+    }
+
+    @Override
+    public int getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public FloatBuffer getPositions()
+    {
+        return slice(delegate.getPositions(), 3);
+    }
+
+    @Override
+    public FloatBuffer getScales()
+    {
+        return slice(delegate.getScales(), 3);
+    }
+
+    @Override
+    public FloatBuffer getRotations()
+    {
+        return slice(delegate.getRotations(), 4);
+    }
+
+    @Override
+    public FloatBuffer getOpacities()
+    {
+        return slice(delegate.getOpacities(), 1);
+    }
+
+    @Override
+    public FloatBuffer getShs()
+    {
+        return slice(delegate.getShs(), getShDimensions() * 3);
+    }
+    
+    /**
+     * Returns a slice of the given buffer that contains the elements of
+     * this slice
+     * 
+     * @param buffer The buffer
+     * @param stride The number of values for each element
+     * @return The slice
+     */
+    private FloatBuffer slice(FloatBuffer buffer, int stride)
+    {
+        ((Buffer) buffer).limit((start + size) * stride);
+        ((Buffer) buffer).position(start * stride);
+        return buffer.slice();
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+/**
+ * Implementation of a {@link MutableSplat} that is a view on one element of a
+ * {@link SplatDataList}.
+ * 
+ * Instances of this class do not store any splat data. All values are read
+ * from and written into the buffers of the {@link SplatData} that the list is
+ * backed by. The values are stored as <code>float</code> values.
+ */
+class SplatDataSplat implements MutableSplat
+{
+    /**
+     * The list that this splat belongs to
+     */
+    private final SplatDataList list;
+
+    /**
+     * The spherical harmonics dimensions
+     */
+    private final int shDimensions;
+
+    /**
+     * The index of this splat in the list
+     */
+    final int index;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param list The list that this splat belongs to
+     * @param index The index of this splat in the list
+     */
+    SplatDataSplat(SplatDataList list, int index)
+    {
+        this.list = list;
+        this.shDimensions = list.getShDimensions();
+        this.index = index;
+    }
+
+    @Override
+    public int getShDegree()
+    {
+        return list.getSplatData().getShDegree();
+    }
+
+    @Override
+    public int getShDimensions()
+    {
+        return shDimensions;
+    }
+
+    @Override
+    public double getPositionX()
+    {
+        return list.positions.get(index * 3 + 0);
+    }
+
+    @Override
+    public double getPositionY()
+    {
+        return list.positions.get(index * 3 + 1);
+    }
+
+    @Override
+    public double getPositionZ()
+    {
+        return list.positions.get(index * 3 + 2);
+    }
+
+    @Override
+    public double getScaleX()
+    {
+        return list.scales.get(index * 3 + 0);
+    }
+
+    @Override
+    public double getScaleY()
+    {
+        return list.scales.get(index * 3 + 1);
+    }
+
+    @Override
+    public double getScaleZ()
+    {
+        return list.scales.get(index * 3 + 2);
+    }
+
+    @Override
+    public double getRotationX()
+    {
+        return list.rotations.get(index * 4 + 0);
+    }
+
+    @Override
+    public double getRotationY()
+    {
+        return list.rotations.get(index * 4 + 1);
+    }
+
+    @Override
+    public double getRotationZ()
+    {
+        return list.rotations.get(index * 4 + 2);
+    }
+
+    @Override
+    public double getRotationW()
+    {
+        return list.rotations.get(index * 4 + 3);
+    }
+
+    @Override
+    public double getOpacity()
+    {
+        return list.opacities.get(index);
+    }
+
+    @Override
+    public double getShX(int dimension)
+    {
+        return list.shs.get((index * shDimensions + dimension) * 3 + 0);
+    }
+
+    @Override
+    public double getShY(int dimension)
+    {
+        return list.shs.get((index * shDimensions + dimension) * 3 + 1);
+    }
+
+    @Override
+    public double getShZ(int dimension)
+    {
+        return list.shs.get((index * shDimensions + dimension) * 3 + 2);
+    }
+
+    @Override
+    public void setPositionX(double v)
+    {
+        list.positions.put(index * 3 + 0, (float) v);
+    }
+
+    @Override
+    public void setPositionY(double v)
+    {
+        list.positions.put(index * 3 + 1, (float) v);
+    }
+
+    @Override
+    public void setPositionZ(double v)
+    {
+        list.positions.put(index * 3 + 2, (float) v);
+    }
+
+    @Override
+    public void setScaleX(double v)
+    {
+        list.scales.put(index * 3 + 0, (float) v);
+    }
+
+    @Override
+    public void setScaleY(double v)
+    {
+        list.scales.put(index * 3 + 1, (float) v);
+    }
+
+    @Override
+    public void setScaleZ(double v)
+    {
+        list.scales.put(index * 3 + 2, (float) v);
+    }
+
+    @Override
+    public void setRotationX(double v)
+    {
+        list.rotations.put(index * 4 + 0, (float) v);
+    }
+
+    @Override
+    public void setRotationY(double v)
+    {
+        list.rotations.put(index * 4 + 1, (float) v);
+    }
+
+    @Override
+    public void setRotationZ(double v)
+    {
+        list.rotations.put(index * 4 + 2, (float) v);
+    }
+
+    @Override
+    public void setRotationW(double v)
+    {
+        list.rotations.put(index * 4 + 3, (float) v);
+    }
+
+    @Override
+    public void setOpacity(double v)
+    {
+        list.opacities.put(index, (float) v);
+    }
+
+    @Override
+    public void setShX(int dimension, double v)
+    {
+        list.shs.put((index * shDimensions + dimension) * 3 + 0, (float) v);
+    }
+
+    @Override
+    public void setShY(int dimension, double v)
+    {
+        list.shs.put((index * shDimensions + dimension) * 3 + 1, (float) v);
+    }
+
+    @Override
+    public void setShZ(int dimension, double v)
+    {
+        list.shs.put((index * shDimensions + dimension) * 3 + 2, (float) v);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return System.identityHashCode(list) * 31 + index;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        // Two views are equal if they refer to the same element of the
+        // same list. This ensures that the hash code and equality of the
+        // list are stable, even though new views are created on demand.
+        if (this == object)
+        {
+            return true;
+        }
+        if (!(object instanceof SplatDataSplat))
+        {
+            return false;
+        }
+        SplatDataSplat other = (SplatDataSplat) object;
+        return list == other.list && index == other.index;
+    }
+
+}
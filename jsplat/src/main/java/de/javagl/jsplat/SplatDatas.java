@@ -26,10 +26,17 @@
  */
 package de.javagl.jsplat;
 
+import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.FloatBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 /**
  * Methods related to {@link SplatData} instances.
@@ -40,19 +47,201 @@ import java.util.List;
  */
 public class SplatDatas
 {
+    /**
+     * The default number of splats in one segment of a 
+     * {@link SegmentedSplatData}
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+    
+    /**
+     * The number of splats that are processed by one task in the parallel
+     * conversion methods
+     */
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
+    
+    /**
+     * The number of splats that are processed in one block by the methods
+     * that convert between spherical harmonics layouts
+     */
+    private static final int SH_BLOCK_SIZE = 1 << 10;
+    
     /**
      * Creates a new {@link SplatData} instance.
      * 
      * @param shDegree The spherical harmonics degree
      * @param size The number of splats
      * @return The {@link SplatData}
-     * @throws IllegalArgumentException if the given degree or size is negative
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, or the data for one attribute would be larger than 2^31-1
+     * bytes. For larger data, a {@link SegmentedSplatData} can be created
+     * with {@link #createSegmented(int, long)}.
      */
     public static SplatData create(int shDegree, int size)
     {
         return new DefaultSplatData(shDegree, size);
     }
 
+    /**
+     * Creates a new {@link SplatData} instance that uses the given buffers.
+     * 
+     * The buffers are not copied: Modifications of the values in the 
+     * buffers of the returned instance will be visible in the given 
+     * buffers, and vice versa. The data of each attribute starts at the 
+     * current position of the respective buffer, and has the layout that
+     * is described in the {@link SplatData} interface. Buffers that are 
+     * <code>null</code> are allocated. Note that the buffers of the 
+     * returned instance are only direct buffers with native byte order 
+     * when the given buffers are.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param positions The optional positions
+     * @param scales The optional scales
+     * @param rotations The optional rotations
+     * @param opacities The optional opacities
+     * @param shs The optional spherical harmonics
+     * @return The {@link SplatData}
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, or one of the given buffers has fewer remaining elements
+     * than required for the given size
+     */
+    public static SplatData wrap(int shDegree, int size, 
+        FloatBuffer positions, FloatBuffer scales, FloatBuffer rotations,
+        FloatBuffer opacities, FloatBuffer shs)
+    {
+        return new DefaultSplatData(shDegree, size, positions, scales,
+            rotations, opacities, shs);
+    }
+
+    /**
+     * Creates a new {@link SplatData} instance that is backed by a
+     * memory-mapped file.
+     * 
+     * The buffers of the returned instance are mapped regions of the given
+     * file. This allows handling data that is larger than the available
+     * (direct) memory: The operating system will take care of paging the
+     * data in and out of memory as necessary.
+     * 
+     * If the file does not exist, it will be created. If it already exists,
+     * then its contents will be retained. This means that a file that was
+     * filled in a previous call can be used as a cache, when it is mapped
+     * again with the same spherical harmonics degree and size. The file
+     * contains the positions, scales, rotations, opacities, and spherical
+     * harmonics, in this order, as <code>float</code> values in native
+     * byte order.
+     * 
+     * The file remains mapped until the buffers are garbage collected. The 
+     * caller is responsible for deleting the file when it is no longer
+     * needed. Note that on some operating systems, a file cannot be deleted
+     * while it is still mapped.
+     * 
+     * The data for each attribute is limited to 2^31-1 bytes. For example,
+     * with spherical harmonics degree 3, this is reached at roughly 11 million
+     * splats. For larger data, a file-backed {@link SegmentedSplatData} can
+     * be created with {@link #createMappedSegmented(Path, int, long)}.
+     * 
+     * @param path The path of the file
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @return The {@link SplatData}
+     * @throws IOException If the file cannot be created or mapped
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, or the data for one attribute would be larger than 2^31-1
+     * bytes
+     */
+    public static SplatData createMapped(Path path, int shDegree, int size)
+        throws IOException
+    {
+        return MappedSplatData.create(path, shDegree, size);
+    }
+
+    /**
+     * Creates a new {@link SegmentedSplatData} instance that is backed by a
+     * memory-mapped file, with a default segment size.
+     * 
+     * See {@link #createMappedSegmented(Path, int, long, int)}.
+     * 
+     * @param path The path of the file
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @return The {@link SegmentedSplatData}
+     * @throws IOException If the file cannot be created or mapped
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative
+     */
+    public static SegmentedSplatData createMappedSegmented(Path path,
+        int shDegree, long size) throws IOException
+    {
+        return createMappedSegmented(path, shDegree, size,
+            DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a new {@link SegmentedSplatData} instance that is backed by a
+     * memory-mapped file.
+     * 
+     * Each segment of the returned instance is a {@link SplatData} like
+     * the one that is created with {@link #createMapped(Path, int, int)},
+     * for a region of the given file. The regions for the segments are
+     * stored consecutively in the file. This means that the 2^31-1 bytes
+     * limit only applies to each attribute of a single segment. For 
+     * example, 50 million splats with spherical harmonics degree 3 can be
+     * stored in a file of roughly 11.8 GB.
+     * 
+     * The same considerations as for {@link #createMapped(Path, int, int)}
+     * apply: Existing contents of the file are retained when it is mapped
+     * again with the same spherical harmonics degree, size, and segment
+     * size, and the caller is responsible for deleting the file.
+     * 
+     * @param path The path of the file
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param segmentSize The (maximum) number of splats in each segment
+     * @return The {@link SegmentedSplatData}
+     * @throws IOException If the file cannot be created or mapped
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, the segment size is not positive, or the data for one 
+     * attribute of a single segment would be larger than 2^31-1 bytes
+     */
+    public static SegmentedSplatData createMappedSegmented(Path path,
+        int shDegree, long size, int segmentSize) throws IOException
+    {
+        return MappedSplatData.createSegmented(
+            path, shDegree, size, segmentSize);
+    }
+
+    /**
+     * Creates a new {@link SegmentedSplatData} instance, with a default
+     * segment size.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @return The {@link SegmentedSplatData}
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative
+     */
+    public static SegmentedSplatData createSegmented(int shDegree, long size)
+    {
+        return createSegmented(shDegree, size, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a new {@link SegmentedSplatData} instance.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @param size The number of splats
+     * @param segmentSize The (maximum) number of splats in each segment
+     * @return The {@link SegmentedSplatData}
+     * @throws IllegalArgumentException if the given degree or size is 
+     * negative, the segment size is not positive, or the data for one 
+     * attribute of a single segment would be larger than 2^31-1 bytes
+     */
+    public static SegmentedSplatData createSegmented(int shDegree, long size,
+        int segmentSize)
+    {
+        return new DefaultSegmentedSplatData(shDegree, size, segmentSize);
+    }
+
     /**
      * Create a new {@link SplatData} instance from the given {@link Splat}
      * objects.
@@ -82,6 +271,175 @@ public class SplatDatas
         return splatData;
     }
 
+    /**
+     * Create a new {@link SplatData} instance from the given {@link Splat}
+     * objects.
+     * 
+     * This creates the same result as {@link #fromSplats(Collection)}, but 
+     * splits the splats into ranges that are processed in parallel. The 
+     * values of each range are collected in local arrays, and written into
+     * the buffers with one bulk operation for each attribute.
+     * 
+     * If the given collection is not a <code>RandomAccess</code> list, then
+     * its elements will first be copied into a list.
+     * 
+     * @param splats The {@link Splat} objects
+     * @return The {@link SplatData}
+     */
+    public static SplatData fromSplatsParallel(
+        Collection<? extends Splat> splats)
+    {
+        Splat splat0 = splats.iterator().next();
+        int shDegree = splat0.getShDegree();
+        int size = splats.size();
+        SplatData splatData = SplatDatas.create(shDegree, size);
+        if (splats instanceof SplatDataList)
+        {
+            read(splats, splatData);
+            return splatData;
+        }
+        List<? extends Splat> list = asRandomAccessList(splats);
+        int numChunks = (size + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        IntStream.range(0, numChunks).parallel().forEach(c ->
+        {
+            int start = c * PARALLEL_CHUNK_SIZE;
+            int n = Math.min(PARALLEL_CHUNK_SIZE, size - start);
+            readRange(list, start, n, splatData);
+        });
+        return splatData;
+    }
+    
+    /**
+     * Returns the given collection if it is a <code>RandomAccess</code> 
+     * list, or a new list containing its elements otherwise
+     * 
+     * @param splats The splats
+     * @return The list
+     */
+    private static List<? extends Splat> asRandomAccessList(
+        Collection<? extends Splat> splats)
+    {
+        if (splats instanceof List && splats instanceof RandomAccess)
+        {
+            return (List<? extends Splat>) splats;
+        }
+        return new ArrayList<Splat>(splats);
+    }
+    
+    /**
+     * Read the specified range of the given splats, and write the values
+     * into the same range of the given {@link SplatData}
+     * 
+     * @param splats The splats
+     * @param start The index of the first splat
+     * @param n The number of splats
+     * @param splatData The {@link SplatData}
+     */
+    private static void readRange(List<? extends Splat> splats, int start,
+        int n, SplatData splatData)
+    {
+        int shDimensions = splatData.getShDimensions();
+        int shStride = shDimensions * 3;
+        float positions[] = new float[n * 3];
+        float scales[] = new float[n * 3];
+        float rotations[] = new float[n * 4];
+        float opacities[] = new float[n];
+        float shs[] = new float[n * shStride];
+        for (int i = 0; i < n; i++)
+        {
+            Splat s = splats.get(start + i);
+            if (s instanceof FloatSplat && 
+                s.getShDimensions() == shDimensions)
+            {
+                float data[] = ((FloatSplat) s).data;
+                System.arraycopy(data, 0, positions, i * 3, 3);
+                System.arraycopy(data, 3, scales, i * 3, 3);
+                System.arraycopy(data, 6, rotations, i * 4, 4);
+                opacities[i] = data[10];
+                System.arraycopy(data, FloatSplat.SH_OFFSET, 
+                    shs, i * shStride, shStride);
+                continue;
+            }
+            positions[i * 3 + 0] = (float) s.getPositionX();
+            positions[i * 3 + 1] = (float) s.getPositionY();
+            positions[i * 3 + 2] = (float) s.getPositionZ();
+            scales[i * 3 + 0] = (float) s.getScaleX();
+            scales[i * 3 + 1] = (float) s.getScaleY();
+            scales[i * 3 + 2] = (float) s.getScaleZ();
+            rotations[i * 4 + 0] = (float) s.getRotationX();
+            rotations[i * 4 + 1] = (float) s.getRotationY();
+            rotations[i * 4 + 2] = (float) s.getRotationZ();
+            rotations[i * 4 + 3] = (float) s.getRotationW();
+            opacities[i] = (float) s.getOpacity();
+            for (int d = 0; d < shDimensions; d++)
+            {
+                shs[i * shStride + d * 3 + 0] = (float) s.getShX(d);
+                shs[i * shStride + d * 3 + 1] = (float) s.getShY(d);
+                shs[i * shStride + d * 3 + 2] = (float) s.getShZ(d);
+            }
+        }
+        put(splatData.getPositions(), start * 3, positions);
+        put(splatData.getScales(), start * 3, scales);
+        put(splatData.getRotations(), start * 4, rotations);
+        put(splatData.getOpacities(), start, opacities);
+        put(splatData.getShs(), start * shStride, shs);
+    }
+
+    /**
+     * Create a new {@link SegmentedSplatData} instance from the given 
+     * {@link Splat} objects, with a default segment size.
+     * 
+     * @param splats The {@link Splat} objects
+     * @return The {@link SegmentedSplatData}
+     */
+    public static SegmentedSplatData fromSplatsSegmented(
+        Collection<? extends Splat> splats)
+    {
+        Splat splat0 = splats.iterator().next();
+        int shDegree = splat0.getShDegree();
+        SegmentedSplatData segmentedSplatData =
+            createSegmented(shDegree, splats.size());
+        int segmentSize = segmentedSplatData.getSegmentSize();
+        List<Splat> chunk = new ArrayList<Splat>(
+            Math.min(segmentSize, splats.size()));
+        int segmentIndex = 0;
+        for (Splat splat : splats)
+        {
+            chunk.add(splat);
+            if (chunk.size() == segmentSize)
+            {
+                SplatData segment =
+                    segmentedSplatData.getSegment(segmentIndex);
+                read(chunk, segment);
+                chunk.clear();
+                segmentIndex++;
+            }
+        }
+        if (!chunk.isEmpty())
+        {
+            SplatData segment = segmentedSplatData.getSegment(segmentIndex);
+            read(chunk, segment);
+        }
+        return segmentedSplatData;
+    }
+    
+    /**
+     * Read all attributes from the given splats and write them into the
+     * given {@link SplatData}
+     * 
+     * @param splats The splats
+     * @param splatData The {@link SplatData}
+     */
+    private static void read(Collection<? extends Splat> splats,
+        SplatData splatData)
+    {
+        readPositions(splats, splatData.getPositions());
+        readScales(splats, splatData.getScales());
+        readRotations(splats, splatData.getRotations());
+        readOpacities(splats, splatData.getOpacities());
+        readShs(splats, splatData.getShDegree(), splatData.getShs());
+    }
+
     /**
      * Create a new list of splats from the given {@link SplatData}
      * 
@@ -114,6 +472,339 @@ public class SplatDatas
         return splats;
     }
 
+    /**
+     * Create a new list of splats from the given {@link SplatData}.
+     * 
+     * This creates splats with the same values as {@link #toList(SplatData)},
+     * but splits the data into ranges that are processed in parallel. The 
+     * values of each range are read from the buffers with one bulk 
+     * operation for each attribute, and copied into splats that store 
+     * their values with <code>float</code> precision (see 
+     * {@link Splats#createFloat(int)}).
+     * 
+     * @param splatData The {@link SplatData}
+     * @return The splats
+     */
+    public static List<MutableSplat> toListParallel(SplatData splatData)
+    {
+        int size = splatData.getSize();
+        List<MutableSplat> splats =
+            new ArrayList<MutableSplat>(Collections.nCopies(size, null));
+        int numChunks = (size + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        IntStream.range(0, numChunks).parallel().forEach(c ->
+        {
+            int start = c * PARALLEL_CHUNK_SIZE;
+            int n = Math.min(PARALLEL_CHUNK_SIZE, size - start);
+            writeRange(splatData, start, n, splats);
+        });
+        return splats;
+    }
+
+    /**
+     * Create splats from the values in the specified range of the given 
+     * {@link SplatData}, and store them in the same range of the given 
+     * list
+     * 
+     * @param splatData The {@link SplatData}
+     * @param start The index of the first splat
+     * @param n The number of splats
+     * @param splats The target list
+     */
+    private static void writeRange(SplatData splatData, int start, int n,
+        List<MutableSplat> splats)
+    {
+        int shDegree = splatData.getShDegree();
+        int shStride = splatData.getShDimensions() * 3;
+        float positions[] = get(splatData.getPositions(), start * 3, n * 3);
+        float scales[] = get(splatData.getScales(), start * 3, n * 3);
+        float rotations[] = get(splatData.getRotations(), start * 4, n * 4);
+        float opacities[] = get(splatData.getOpacities(), start, n);
+        float shs[] = get(splatData.getShs(), start * shStride, n * shStride);
+        for (int i = 0; i < n; i++)
+        {
+            FloatSplat s = new FloatSplat(shDegree);
+            float data[] = s.data;
+            System.arraycopy(positions, i * 3, data, 0, 3);
+            System.arraycopy(scales, i * 3, data, 3, 3);
+            System.arraycopy(rotations, i * 4, data, 6, 4);
+            data[10] = opacities[i];
+            System.arraycopy(shs, i * shStride, 
+                data, FloatSplat.SH_OFFSET, shStride);
+            splats.set(start + i, s);
+        }
+    }
+
+    /**
+     * Returns a list of {@link MutableSplat} objects that is backed by the
+     * given {@link SplatData}.
+     * 
+     * The returned list will have a fixed size. Its elements are lightweight
+     * views on the data that is stored in the buffers of the given
+     * {@link SplatData}: Modifications of the elements will be visible in the
+     * buffers, and vice versa. The values are stored with <code>float</code>
+     * precision.
+     * 
+     * This list can be used in place of a list of individual splat objects,
+     * with considerably lower memory requirements: Each element only occupies
+     * the space that is required for its values in the buffers, and the
+     * element objects are only created on demand.
+     * 
+     * @param splatData The {@link SplatData}
+     * @return The list
+     */
+    public static List<MutableSplat> asList(SplatData splatData)
+    {
+        return new SplatDataList(splatData);
+    }
+
+    /**
+     * Returns a list of {@link MutableSplat} objects that is backed by the
+     * given {@link SegmentedSplatData}.
+     * 
+     * The same constraints as for {@link #asList(SplatData)} apply.
+     * 
+     * @param segmentedSplatData The {@link SegmentedSplatData}
+     * @return The list
+     * @throws IllegalArgumentException If the size of the given data is 
+     * larger than <code>Integer.MAX_VALUE</code>
+     */
+    public static List<MutableSplat> asList(
+        SegmentedSplatData segmentedSplatData)
+    {
+        return new SegmentedSplatDataList(segmentedSplatData);
+    }
+
+    /**
+     * Creates a new {@link QuantizedSplatData} from the given 
+     * {@link SplatData}.
+     * 
+     * See {@link QuantizedSplatData} for details about the representation
+     * and the resulting errors.
+     * 
+     * @param splatData The {@link SplatData}
+     * @return The {@link QuantizedSplatData}
+     */
+    public static QuantizedSplatData quantize(SplatData splatData)
+    {
+        return new DefaultQuantizedSplatData(splatData);
+    }
+
+    /**
+     * Compute the {@link SplatStatistics} for the given {@link SplatData}.
+     * 
+     * The statistics are computed in a single pass over the splats, 
+     * processing chunks of splats in parallel.
+     * 
+     * @param splatData The {@link SplatData}
+     * @return The {@link SplatStatistics}
+     */
+    public static SplatStatistics computeStatistics(SplatData splatData)
+    {
+        return DefaultSplatStatistics.compute(
+            asList(splatData), splatData.getShDegree());
+    }
+
+    /**
+     * Returns a {@link SplatData} that is a view on the specified range of
+     * the given {@link SplatData}.
+     * 
+     * Modifications of the values in the buffers of the returned instance
+     * will be visible in the given instance, and vice versa.
+     * 
+     * @param splatData The {@link SplatData}
+     * @param start The index of the first splat
+     * @param size The number of splats
+     * @return The slice
+     * @throws IndexOutOfBoundsException If the range is not valid for the 
+     * given data
+     */
+    public static SplatData slice(SplatData splatData, int start, int size)
+    {
+        return new SplatDataSlice(splatData, start, size);
+    }
+
+    /**
+     * Creates a {@link SplatBatchSource} that provides the given 
+     * {@link SplatData} in batches of the given size.
+     * 
+     * The batches will be {@link #slice(SplatData, int, int) slices} of the
+     * given data. The returned source can be consumed multiple times.
+     * 
+     * @param splatData The {@link SplatData}
+     * @param batchSize The batch size
+     * @return The {@link SplatBatchSource}
+     * @throws IllegalArgumentException If the batch size is not positive
+     */
+    public static SplatBatchSource createBatchSource(SplatData splatData,
+        int batchSize)
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The batch size must be positive, but is " + batchSize);
+        }
+        return new SplatBatchSource()
+        {
+            @Override
+            public int getShDegree()
+            {
+                return splatData.getShDegree();
+            }
+
+            @Override
+            public long getSize()
+            {
+                return splatData.getSize();
+            }
+
+            @Override
+            public void forEachBatch(Consumer<? super SplatData> consumer)
+            {
+                int size = splatData.getSize();
+                for (int start = 0; start < size; start += batchSize)
+                {
+                    int n = Math.min(batchSize, size - start);
+                    consumer.accept(slice(splatData, start, n));
+                }
+            }
+        };
+    }
+
+    /**
+     * Copy the specified range of splats from the given source to the given
+     * target.
+     * 
+     * @param source The source
+     * @param sourceIndex The index of the first splat in the source
+     * @param target The target
+     * @param targetIndex The index of the first splat in the target
+     * @param count The number of splats to copy
+     * @throws IllegalArgumentException If the source and target have 
+     * different spherical harmonics degrees
+     * @throws IndexOutOfBoundsException If the ranges are not valid for 
+     * the source or target
+     */
+    public static void copy(SplatData source, int sourceIndex,
+        SplatData target, int targetIndex, int count)
+    {
+        validateShDegrees(source.getShDegree(), target.getShDegree());
+        validateRange(sourceIndex, count, source.getSize());
+        validateRange(targetIndex, count, target.getSize());
+        int shStride = source.getShDimensions() * 3;
+        copyRange(source.getPositions(), target.getPositions(), 
+            sourceIndex, targetIndex, count, 3);
+        copyRange(source.getScales(), target.getScales(), 
+            sourceIndex, targetIndex, count, 3);
+        copyRange(source.getRotations(), target.getRotations(), 
+            sourceIndex, targetIndex, count, 4);
+        copyRange(source.getOpacities(), target.getOpacities(), 
+            sourceIndex, targetIndex, count, 1);
+        copyRange(source.getShs(), target.getShs(), 
+            sourceIndex, targetIndex, count, shStride);
+    }
+
+    /**
+     * Copy the specified range of splats from the given source to the given
+     * target. The range may span multiple segments of the target.
+     * 
+     * @param source The source
+     * @param sourceIndex The index of the first splat in the source
+     * @param target The target
+     * @param targetIndex The index of the first splat in the target
+     * @param count The number of splats to copy
+     * @throws IllegalArgumentException If the source and target have 
+     * different spherical harmonics degrees
+     * @throws IndexOutOfBoundsException If the ranges are not valid for 
+     * the source or target
+     */
+    public static void copy(SplatData source, int sourceIndex,
+        SegmentedSplatData target, long targetIndex, int count)
+    {
+        validateShDegrees(source.getShDegree(), target.getShDegree());
+        validateRange(sourceIndex, count, source.getSize());
+        validateRange(targetIndex, count, target.getSize());
+        int segmentSize = target.getSegmentSize();
+        int done = 0;
+        while (done < count)
+        {
+            long index = targetIndex + done;
+            SplatData segment = target.getSegment((int) (index / segmentSize));
+            int localIndex = (int) (index % segmentSize);
+            int n = Math.min(count - done, segment.getSize() - localIndex);
+            copy(source, sourceIndex + done, segment, localIndex, n);
+            done += n;
+        }
+    }
+
+    /**
+     * Copy the specified range of splats from the given source to the given
+     * target. The range may span multiple segments of the source.
+     * 
+     * @param source The source
+     * @param sourceIndex The index of the first splat in the source
+     * @param target The target
+     * @param targetIndex The index of the first splat in the target
+     * @param count The number of splats to copy
+     * @throws IllegalArgumentException If the source and target have 
+     * different spherical harmonics degrees
+     * @throws IndexOutOfBoundsException If the ranges are not valid for 
+     * the source or target
+     */
+    public static void copy(SegmentedSplatData source, long sourceIndex,
+        SplatData target, int targetIndex, int count)
+    {
+        validateShDegrees(source.getShDegree(), target.getShDegree());
+        validateRange(sourceIndex, count, source.getSize());
+        validateRange(targetIndex, count, target.getSize());
+        int segmentSize = source.getSegmentSize();
+        int done = 0;
+        while (done < count)
+        {
+            long index = sourceIndex + done;
+            SplatData segment = source.getSegment((int) (index / segmentSize));
+            int localIndex = (int) (index % segmentSize);
+            int n = Math.min(count - done, segment.getSize() - localIndex);
+            copy(segment, localIndex, target, targetIndex + done, n);
+            done += n;
+        }
+    }
+    
+    /**
+     * Make sure that the given spherical harmonics degrees are equal
+     * 
+     * @param sourceDegree The source degree
+     * @param targetDegree The target degree
+     * @throws IllegalArgumentException If the degrees are not equal
+     */
+    private static void validateShDegrees(int sourceDegree, int targetDegree)
+    {
+        if (sourceDegree != targetDegree)
+        {
+            throw new IllegalArgumentException(
+                "The source has a spherical harmonics degree of "
+                    + sourceDegree + ", but the target has a degree of "
+                    + targetDegree);
+        }
+    }
+
+    /**
+     * Make sure that the specified range is valid for the given size
+     * 
+     * @param index The start index of the range
+     * @param count The number of elements in the range
+     * @param size The size
+     * @throws IndexOutOfBoundsException If the range is not valid
+     */
+    private static void validateRange(long index, int count, long size)
+    {
+        if (index < 0 || count < 0 || index + count > size)
+        {
+            throw new IndexOutOfBoundsException("The range of " + count
+                + " elements starting at " + index
+                + " is not valid for size " + size);
+        }
+    }
+
     /**
      * Read the positions from the given splats and write them into the given
      * target buffer.
@@ -138,6 +829,12 @@ public class SplatDatas
         {
             b = Buffers.createFloatBuffer(splats.size() * 3);
         }
+        if (splats instanceof SplatDataList)
+        {
+            SplatDataList list = (SplatDataList) splats;
+            copy(list.positions, b);
+            return b;
+        }
         int i = 0;
         for (Splat s : splats)
         {
@@ -173,6 +870,12 @@ public class SplatDatas
         {
             b = Buffers.createFloatBuffer(splats.size() * 3);
         }
+        if (splats instanceof SplatDataList)
+        {
+            SplatDataList list = (SplatDataList) splats;
+            copy(list.scales, b);
+            return b;
+        }
         int i = 0;
         for (Splat s : splats)
         {
@@ -243,6 +946,12 @@ public class SplatDatas
         {
             b = Buffers.createFloatBuffer(splats.size() * 4);
         }
+        if (splats instanceof SplatDataList)
+        {
+            SplatDataList list = (SplatDataList) splats;
+            copy(list.rotations, b);
+            return b;
+        }
         int i = 0;
         for (Splat s : splats)
         {
@@ -279,6 +988,12 @@ public class SplatDatas
         {
             b = Buffers.createFloatBuffer(splats.size());
         }
+        if (splats instanceof SplatDataList)
+        {
+            SplatDataList list = (SplatDataList) splats;
+            copy(list.opacities, b);
+            return b;
+        }
         int i = 0;
         for (Splat s : splats)
         {
@@ -388,9 +1103,29 @@ public class SplatDatas
         {
             b = Buffers.createFloatBuffer(splats.size() * shDimensions * 3);
         }
+        if (splats instanceof SplatDataList)
+        {
+            SplatDataList list = (SplatDataList) splats;
+            if (list.getShDimensions() == shDimensions)
+            {
+                copy(list.shs, b);
+                return b;
+            }
+        }
+        FloatBuffer bulk = b.duplicate();
         int i = 0;
         for (Splat s : splats)
         {
+            if (s instanceof FloatSplat && s.getShDimensions() == shDimensions)
+            {
+                // Fast path: The layout of the spherical harmonics in the 
+                // float splat is the same as in the buffer
+                FloatSplat fs = (FloatSplat) s;
+                ((Buffer) bulk).position(i * shDimensions * 3);
+                bulk.put(fs.data, FloatSplat.SH_OFFSET, shDimensions * 3);
+                i++;
+                continue;
+            }
             for (int d = 0; d < shDimensions; d++)
             {
                 b.put(((i * shDimensions) + d) * 3 + 0, (float)s.getShX(d));
@@ -563,9 +1298,20 @@ public class SplatDatas
         Collection<? extends MutableSplat> splats, int shDegree)
     {
         int shDimensions = Splats.dimensionsForDegree(shDegree);
+        FloatBuffer bulk = b.duplicate();
         int i = 0;
         for (MutableSplat s : splats)
         {
+            if (s instanceof FloatSplat && s.getShDimensions() == shDimensions)
+            {
+                // Fast path: The layout of the spherical harmonics in the 
+                // float splat is the same as in the buffer
+                FloatSplat fs = (FloatSplat) s;
+                ((Buffer) bulk).position(i * shDimensions * 3);
+                bulk.get(fs.data, FloatSplat.SH_OFFSET, shDimensions * 3);
+                i++;
+                continue;
+            }
             for (int d = 0; d < shDimensions; d++)
             {
                 s.setShX(d, b.get(((i * shDimensions) + d) * 3 + 0));
@@ -576,6 +1322,301 @@ public class SplatDatas
         }
     }
 
+    /**
+     * Convert the given spherical harmonics from the interleaved layout into 
+     * the planar layout.
+     * 
+     * In the interleaved layout (that is used by {@link SplatData#getShs()}),
+     * the x, y, and z components of each dimension are stored consecutively
+     * for each splat. 
+     * 
+     * In the planar layout, the values for each splat are stored as the 
+     * x, y, and z components of the first dimension, followed by the 
+     * x-components of all remaining dimensions, the y-components of all 
+     * remaining dimensions, and the z-components of all remaining 
+     * dimensions. This is the order of the <code>f_dc_*</code> and 
+     * <code>f_rest_*</code> properties in PLY files.
+     * 
+     * The positions of the given buffers will not be modified. The 
+     * conversion is done in blocks of splats that are processed in parallel.
+     * 
+     * @param source The source buffer, in interleaved layout
+     * @param target The target buffer, in planar layout
+     * @param size The number of splats
+     * @param shDimensions The number of spherical harmonics dimensions
+     */
+    public static void interleavedToPlanarShs(FloatBuffer source,
+        FloatBuffer target, int size, int shDimensions)
+    {
+        int stride = shDimensions * 3;
+        int rest = shDimensions - 1;
+        forEachShBlock(size, (start, n) ->
+        {
+            float s[] = get(source.duplicate(), start * stride, n * stride);
+            float t[] = new float[n * stride];
+            for (int i = 0; i < n; i++)
+            {
+                int o = i * stride;
+                t[o + 0] = s[o + 0];
+                t[o + 1] = s[o + 1];
+                t[o + 2] = s[o + 2];
+                for (int d = 1; d < shDimensions; d++)
+                {
+                    for (int c = 0; c < 3; c++)
+                    {
+                        t[o + 3 + c * rest + (d - 1)] = s[o + d * 3 + c];
+                    }
+                }
+            }
+            put(target.duplicate(), start * stride, t);
+        });
+    }
+
+    /**
+     * Convert the given spherical harmonics from the planar layout into the
+     * interleaved layout. 
+     * 
+     * This is the inverse of 
+     * {@link #interleavedToPlanarShs(FloatBuffer, FloatBuffer, int, int)}.
+     * 
+     * The positions of the given buffers will not be modified. The 
+     * conversion is done in blocks of splats that are processed in parallel.
+     * 
+     * @param source The source buffer, in planar layout
+     * @param target The target buffer, in interleaved layout
+     * @param size The number of splats
+     * @param shDimensions The number of spherical harmonics dimensions
+     */
+    public static void planarToInterleavedShs(FloatBuffer source,
+        FloatBuffer target, int size, int shDimensions)
+    {
+        int stride = shDimensions * 3;
+        int rest = shDimensions - 1;
+        forEachShBlock(size, (start, n) ->
+        {
+            float s[] = get(source.duplicate(), start * stride, n * stride);
+            float t[] = new float[n * stride];
+            for (int i = 0; i < n; i++)
+            {
+                int o = i * stride;
+                t[o + 0] = s[o + 0];
+                t[o + 1] = s[o + 1];
+                t[o + 2] = s[o + 2];
+                for (int d = 1; d < shDimensions; d++)
+                {
+                    for (int c = 0; c < 3; c++)
+                    {
+                        t[o + d * 3 + c] = s[o + 3 + c * rest + (d - 1)];
+                    }
+                }
+            }
+            put(target.duplicate(), start * stride, t);
+        });
+    }
+
+    /**
+     * Split the given spherical harmonics from the interleaved layout into
+     * one buffer for each dimension.
+     * 
+     * Each target buffer will receive the x, y, and z components of one
+     * dimension for all splats, as they are stored for the spherical
+     * harmonics coefficients in glTF. If a target buffer is 
+     * <code>null</code>, then a new direct buffer with native byte order 
+     * will be created.
+     * 
+     * The positions of the given buffers will not be modified. The 
+     * conversion is done in blocks of splats that are processed in parallel.
+     * 
+     * @param source The source buffer, in interleaved layout
+     * @param targets The target buffers, one for each dimension
+     * @param size The number of splats
+     * @param shDimensions The number of spherical harmonics dimensions
+     * @return The target buffers
+     */
+    public static FloatBuffer[] splitShsByDimension(FloatBuffer source,
+        FloatBuffer targets[], int size, int shDimensions)
+    {
+        FloatBuffer t[] = targets;
+        if (t == null)
+        {
+            t = new FloatBuffer[shDimensions];
+        }
+        for (int d = 0; d < shDimensions; d++)
+        {
+            if (t[d] == null)
+            {
+                t[d] = Buffers.createFloatBuffer(size * 3L);
+            }
+        }
+        FloatBuffer result[] = t;
+        int stride = shDimensions * 3;
+        forEachShBlock(size, (start, n) ->
+        {
+            float s[] = get(source.duplicate(), start * stride, n * stride);
+            float td[] = new float[n * 3];
+            for (int d = 0; d < shDimensions; d++)
+            {
+                for (int i = 0; i < n; i++)
+                {
+                    td[i * 3 + 0] = s[i * stride + d * 3 + 0];
+                    td[i * 3 + 1] = s[i * stride + d * 3 + 1];
+                    td[i * 3 + 2] = s[i * stride + d * 3 + 2];
+                }
+                put(result[d].duplicate(), start * 3, td);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Merge the given spherical harmonics, with one buffer for each 
+     * dimension, into a buffer with the interleaved layout.
+     * 
+     * This is the inverse of 
+     * {@link #splitShsByDimension(FloatBuffer, FloatBuffer[], int, int)}.
+     * If the target buffer is <code>null</code>, then a new direct buffer
+     * with native byte order will be created.
+     * 
+     * The positions of the given buffers will not be modified. The 
+     * conversion is done in blocks of splats that are processed in parallel.
+     * 
+     * @param sources The source buffers, one for each dimension
+     * @param target The target buffer, in interleaved layout
+     * @param size The number of splats
+     * @param shDimensions The number of spherical harmonics dimensions
+     * @return The target buffer
+     */
+    public static FloatBuffer mergeShsByDimension(FloatBuffer sources[],
+        FloatBuffer target, int size, int shDimensions)
+    {
+        int stride = shDimensions * 3;
+        FloatBuffer result = target;
+        if (result == null)
+        {
+            result = Buffers.createFloatBuffer((long) size * stride);
+        }
+        FloatBuffer t = result;
+        forEachShBlock(size, (start, n) ->
+        {
+            float td[] = new float[n * stride];
+            for (int d = 0; d < shDimensions; d++)
+            {
+                float s[] = get(sources[d].duplicate(), start * 3, n * 3);
+                for (int i = 0; i < n; i++)
+                {
+                    td[i * stride + d * 3 + 0] = s[i * 3 + 0];
+                    td[i * stride + d * 3 + 1] = s[i * 3 + 1];
+                    td[i * stride + d * 3 + 2] = s[i * 3 + 2];
+                }
+            }
+            put(t.duplicate(), start * stride, td);
+        });
+        return result;
+    }
+    
+    /**
+     * Interface for the processing of one block of splats
+     */
+    private interface BlockConsumer
+    {
+        /**
+         * Process the specified block
+         * 
+         * @param start The index of the first splat
+         * @param n The number of splats
+         */
+        void accept(int start, int n);
+    }
+    
+    /**
+     * Split the given number of splats into blocks, and pass these blocks
+     * to the given consumer, in parallel
+     * 
+     * @param size The number of splats
+     * @param consumer The consumer
+     */
+    private static void forEachShBlock(int size, BlockConsumer consumer)
+    {
+        int numBlocks = (size + SH_BLOCK_SIZE - 1) / SH_BLOCK_SIZE;
+        IntStream.range(0, numBlocks).parallel().forEach(b ->
+        {
+            int start = b * SH_BLOCK_SIZE;
+            int n = Math.min(SH_BLOCK_SIZE, size - start);
+            consumer.accept(start, n);
+        });
+    }
+
+    /**
+     * Copy the contents of the given source buffer into the given target
+     * buffer, starting at index 0 of the target buffer. The positions of the
+     * given buffers will not be modified.
+     * 
+     * @param source The source buffer
+     * @param target The target buffer
+     */
+    private static void copy(FloatBuffer source, FloatBuffer target)
+    {
+        FloatBuffer t = target.duplicate();
+        ((Buffer) t).position(0);
+        FloatBuffer s = source.duplicate();
+        ((Buffer) s).position(0);
+        t.put(s);
+    }
+
+    /**
+     * Copy the specified range of elements from the given source buffer 
+     * into the given target buffer. The positions of the given buffers will
+     * not be modified.
+     * 
+     * @param source The source buffer
+     * @param target The target buffer
+     * @param sourceIndex The index of the first source element
+     * @param targetIndex The index of the first target element
+     * @param count The number of elements
+     * @param stride The number of values for each element
+     */
+    private static void copyRange(FloatBuffer source, FloatBuffer target,
+        int sourceIndex, int targetIndex, int count, int stride)
+    {
+        FloatBuffer s = source.duplicate();
+        ((Buffer) s).limit((sourceIndex + count) * stride);
+        ((Buffer) s).position(sourceIndex * stride);
+        FloatBuffer t = target.duplicate();
+        ((Buffer) t).position(targetIndex * stride);
+        t.put(s);
+    }
+
+    /**
+     * Write the given values into the given buffer, starting at the given
+     * index. The position of the given buffer will be modified.
+     * 
+     * @param target The target buffer
+     * @param index The index
+     * @param values The values
+     */
+    private static void put(FloatBuffer target, int index, float values[])
+    {
+        ((Buffer) target).position(index);
+        target.put(values);
+    }
+
+    /**
+     * Read the specified number of values from the given buffer, starting
+     * at the given index. The position of the given buffer will be modified.
+     * 
+     * @param source The source buffer
+     * @param index The index
+     * @param n The number of values
+     * @return The values
+     */
+    private static float[] get(FloatBuffer source, int index, int n)
+    {
+        float values[] = new float[n];
+        ((Buffer) source).position(index);
+        source.get(values);
+        return values;
+    }
+
     /**
      * Private constructor to prevent instantiation
      */
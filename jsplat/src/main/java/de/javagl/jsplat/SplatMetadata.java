@@ -0,0 +1,65 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+/**
+ * Interface for metadata about splat data that is stored in a file.
+ * 
+ * Instances of this interface are returned by a {@link SplatMetadataProbe},
+ * which only reads the header of the file (or other metadata, depending on 
+ * the file format), and not the splats themselves. They can be created 
+ * with {@link Splats#createMetadata(long, int, float[])}.
+ */
+public interface SplatMetadata
+{
+    /**
+     * Returns the size (number of splats)
+     * 
+     * @return The size
+     */
+    long getSize();
+
+    /**
+     * Returns the spherical harmonics degree
+     * 
+     * @return The value
+     */
+    int getShDegree();
+
+    /**
+     * Returns the axis-aligned bounding box of the positions, as a new array
+     * <code>{ minX, minY, minZ, maxX, maxY, maxZ }</code>, or 
+     * <code>null</code> if the bounds are not stored in the metadata of 
+     * the respective file format.
+     * 
+     * The bounds are given in the same coordinate system as the splats
+     * that are returned by the reader for the respective file format.
+     * 
+     * @return The bounding box
+     */
+    float[] getBounds();
+}
@@ -0,0 +1,51 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Interface for classes that can obtain {@link SplatMetadata} from a file, 
+ * without reading the splats themselves.
+ */
+public interface SplatMetadataProbe
+{
+    /**
+     * Read the {@link SplatMetadata} from the specified file.
+     * 
+     * Implementations will only read the header of the file (or other 
+     * metadata, depending on the file format), so that this method returns 
+     * quickly, regardless of the number of splats in the file.
+     * 
+     * @param path The path to the file
+     * @return The {@link SplatMetadata}
+     * @throws IOException If an IO error occurs, or the file does not 
+     * contain valid metadata
+     */
+    SplatMetadata probe(Path path) throws IOException;
+}
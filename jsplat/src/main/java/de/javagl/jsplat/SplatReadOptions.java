@@ -0,0 +1,255 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Options for reading splats.
+ * 
+ * These options describe which {@link SplatAttribute}s should be read, 
+ * and the maximum spherical harmonics degree that should be read. 
+ * Readers that receive these options will not decode the attributes that
+ * are not read, and they will create the splats with the spherical 
+ * harmonics degree that is given by {@link #computeShDegree(int)}. 
+ * 
+ * The options only affect which attributes are decoded. They do not 
+ * affect the memory that is allocated: Readers that return a 
+ * {@link SplatData} always allocate the buffers for all attributes, so
+ * that the data can be passed to any consumer, like writers or 
+ * quantization, without checking for absent attributes. 
+ * 
+ * By default, readers that create individual splat objects create them
+ * with {@link Splats#create(int)}. Readers that receive options where
+ * {@link #isFloatSplats()} is <code>true</code> create them with
+ * {@link Splats#createFloat(int)} instead, storing the values with
+ * <code>float</code> precision, at half the memory. 
+ * 
+ * Clients should not make any assumptions about the values of attributes
+ * that are not read. Readers usually leave them at zero, but readers that
+ * return views on data that was decoded by a different library may return
+ * the decoded values.
+ * 
+ * Instances of this class are immutable.
+ */
+public final class SplatReadOptions
+{
+    /**
+     * The default options, reading all attributes and all spherical 
+     * harmonics coefficients
+     */
+    public static final SplatReadOptions DEFAULT =
+        new SplatReadOptions(EnumSet.allOf(SplatAttribute.class), 3, false);
+
+    /**
+     * The attributes that are read
+     */
+    private final Set<SplatAttribute> attributes;
+
+    /**
+     * The maximum spherical harmonics degree
+     */
+    private final int maxShDegree;
+
+    /**
+     * Whether the splats are created with <code>float</code> precision
+     */
+    private final boolean floatSplats;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param attributes The attributes
+     * @param maxShDegree The maximum spherical harmonics degree
+     * @param floatSplats Whether the splats are created with 
+     * <code>float</code> precision
+     */
+    private SplatReadOptions(Set<SplatAttribute> attributes, int maxShDegree,
+        boolean floatSplats)
+    {
+        this.attributes = attributes;
+        this.maxShDegree = maxShDegree;
+        this.floatSplats = floatSplats;
+    }
+
+    /**
+     * Create new read options.
+     * 
+     * @param attributes The attributes that should be read
+     * @param maxShDegree The maximum spherical harmonics degree, in [0,3]
+     * @return The options
+     * @throws NullPointerException If the attributes are <code>null</code>
+     * @throws IllegalArgumentException If the degree is not in [0,3]
+     */
+    public static SplatReadOptions create(
+        Collection<SplatAttribute> attributes, int maxShDegree)
+    {
+        Objects.requireNonNull(attributes, "The attributes may not be null");
+        if (maxShDegree < 0 || maxShDegree > 3)
+        {
+            throw new IllegalArgumentException(
+                "The degree must be in [0,3], but is " + maxShDegree);
+        }
+        Set<SplatAttribute> set = EnumSet.noneOf(SplatAttribute.class);
+        set.addAll(attributes);
+        return new SplatReadOptions(set, maxShDegree, false);
+    }
+
+    /**
+     * Create new read options that read the given attributes, with all
+     * spherical harmonics coefficients
+     * 
+     * @param first The first attribute
+     * @param rest The remaining attributes
+     * @return The options
+     */
+    public static SplatReadOptions of(SplatAttribute first,
+        SplatAttribute... rest)
+    {
+        return create(EnumSet.of(first, rest), 3);
+    }
+
+    /**
+     * Returns new options that read the same attributes as these options, 
+     * with the given maximum spherical harmonics degree
+     * 
+     * @param maxShDegree The maximum spherical harmonics degree, in [0,3]
+     * @return The options
+     * @throws IllegalArgumentException If the degree is not in [0,3]
+     */
+    public SplatReadOptions withMaxShDegree(int maxShDegree)
+    {
+        SplatReadOptions result = create(attributes, maxShDegree);
+        return result.withFloatSplats(floatSplats);
+    }
+
+    /**
+     * Returns new options that are equal to these options, except for 
+     * whether the splats are created with <code>float</code> precision.
+     * 
+     * @param floatSplats Whether the splats should be created with
+     * <code>float</code> precision
+     * @return The options
+     */
+    public SplatReadOptions withFloatSplats(boolean floatSplats)
+    {
+        return new SplatReadOptions(attributes, maxShDegree, floatSplats);
+    }
+
+    /**
+     * Returns whether the given attribute should be read
+     * 
+     * @param attribute The attribute
+     * @return Whether the attribute should be read
+     */
+    public boolean isRead(SplatAttribute attribute)
+    {
+        return attributes.contains(attribute);
+    }
+
+    /**
+     * Returns an unmodifiable view on the attributes that should be read
+     * 
+     * @return The attributes
+     */
+    public Set<SplatAttribute> getAttributes()
+    {
+        return Collections.unmodifiableSet(attributes);
+    }
+
+    /**
+     * Returns the maximum spherical harmonics degree
+     * 
+     * @return The degree
+     */
+    public int getMaxShDegree()
+    {
+        return maxShDegree;
+    }
+
+    /**
+     * Returns whether readers create the splats with <code>float</code>
+     * precision. The default is <code>false</code>.
+     * 
+     * @return Whether the splats are created with <code>float</code> 
+     * precision
+     */
+    public boolean isFloatSplats()
+    {
+        return floatSplats;
+    }
+
+    /**
+     * Create a new splat with the given spherical harmonics degree. 
+     * 
+     * This is {@link Splats#createFloat(int)} if {@link #isFloatSplats()}
+     * is <code>true</code>, and {@link Splats#create(int)} otherwise.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @return The splat
+     */
+    public MutableSplat createSplat(int shDegree)
+    {
+        if (floatSplats)
+        {
+            return Splats.createFloat(shDegree);
+        }
+        return Splats.create(shDegree);
+    }
+
+    /**
+     * Compute the spherical harmonics degree of the splats that are created
+     * by a reader, for data with the given spherical harmonics degree.
+     * 
+     * This is the minimum of the given degree and the maximum degree. It 
+     * is 0 when the {@link SplatAttribute#SH} is not read.
+     * 
+     * @param shDegree The spherical harmonics degree of the data
+     * @return The degree
+     */
+    public int computeShDegree(int shDegree)
+    {
+        if (!isRead(SplatAttribute.SH))
+        {
+            return 0;
+        }
+        return Math.min(shDegree, maxShDegree);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SplatReadOptions[attributes=" + attributes 
+            + ", maxShDegree=" + maxShDegree 
+            + ", floatSplats=" + floatSplats + "]";
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+/**
+ * Interface for statistics about a set of splats.
+ * 
+ * Instances of this interface can be created with 
+ * {@link Splats#computeStatistics(java.util.List)} or
+ * {@link SplatDatas#computeStatistics(SplatData)}. They are computed in 
+ * a single pass over the splats, processing chunks of splats in parallel. 
+ * The results can be cached with a {@link SplatStatisticsCache}.
+ * 
+ * The arrays that are returned by the methods of this interface are
+ * always new arrays. For an empty set of splats, the minimum values are 
+ * positive infinity, the maximum values are negative infinity, and the 
+ * mean values are NaN.
+ */
+public interface SplatStatistics
+{
+    /**
+     * Returns the size (number of splats)
+     * 
+     * @return The size
+     */
+    int getSize();
+
+    /**
+     * Returns the spherical harmonics degree
+     * 
+     * @return The value
+     */
+    int getShDegree();
+
+    /**
+     * Returns the axis-aligned bounding box of the positions, as an array
+     * <code>{ minX, minY, minZ, maxX, maxY, maxZ }</code>
+     * 
+     * @return The bounding box
+     */
+    float[] getBounds();
+
+    /**
+     * Returns the minimum of the x, y, and z components of the positions
+     * 
+     * @return The minimum
+     */
+    float[] getPositionMin();
+
+    /**
+     * Returns the maximum of the x, y, and z components of the positions
+     * 
+     * @return The maximum
+     */
+    float[] getPositionMax();
+
+    /**
+     * Returns the mean of the x, y, and z components of the positions
+     * 
+     * @return The mean
+     */
+    float[] getPositionMean();
+
+    /**
+     * Returns the minimum of the x, y, and z components of the 
+     * (logarithmic) scales
+     * 
+     * @return The minimum
+     */
+    float[] getScaleMin();
+
+    /**
+     * Returns the maximum of the x, y, and z components of the 
+     * (logarithmic) scales
+     * 
+     * @return The maximum
+     */
+    float[] getScaleMax();
+
+    /**
+     * Returns the mean of the x, y, and z components of the 
+     * (logarithmic) scales
+     * 
+     * @return The mean
+     */
+    float[] getScaleMean();
+
+    /**
+     * Returns the minimum of the x, y, z, and w components of the rotations
+     * 
+     * @return The minimum
+     */
+    float[] getRotationMin();
+
+    /**
+     * Returns the maximum of the x, y, z, and w components of the rotations
+     * 
+     * @return The maximum
+     */
+    float[] getRotationMax();
+
+    /**
+     * Returns the mean of the x, y, z, and w components of the rotations
+     * 
+     * @return The mean
+     */
+    float[] getRotationMean();
+
+    /**
+     * Returns the minimum opacity
+     * 
+     * @return The minimum
+     */
+    float getOpacityMin();
+
+    /**
+     * Returns the maximum opacity
+     * 
+     * @return The maximum
+     */
+    float getOpacityMax();
+
+    /**
+     * Returns the mean opacity
+     * 
+     * @return The mean
+     */
+    float getOpacityMean();
+
+    /**
+     * Returns the minimum of the spherical harmonics coefficients. 
+     * 
+     * The result will contain the x, y, and z components of each 
+     * dimension, consecutively.
+     * 
+     * @return The minimum
+     */
+    float[] getShMin();
+
+    /**
+     * Returns the maximum of the spherical harmonics coefficients. 
+     * 
+     * The result will contain the x, y, and z components of each 
+     * dimension, consecutively.
+     * 
+     * @return The maximum
+     */
+    float[] getShMax();
+
+    /**
+     * Returns the mean of the spherical harmonics coefficients. 
+     * 
+     * The result will contain the x, y, and z components of each 
+     * dimension, consecutively.
+     * 
+     * @return The mean
+     */
+    float[] getShMean();
+
+    /**
+     * Returns the histogram of the opacities.
+     * 
+     * The bins of the histogram evenly cover the range [0,1] of the alpha
+     * values that are obtained with {@link Splats#opacityToAlpha(double)}.
+     * 
+     * @return The histogram
+     */
+    int[] getOpacityHistogram();
+
+    /**
+     * Returns the histogram of the x, y, and z components of the 
+     * (logarithmic) scales.
+     * 
+     * The bins of the histogram evenly cover the range between
+     * {@link #getScaleHistogramMin()} and {@link #getScaleHistogramMax()}.
+     * Values outside of this range are counted in the first or last bin.
+     * 
+     * @return The histogram
+     */
+    int[] getScaleHistogram();
+
+    /**
+     * Returns the minimum (logarithmic) scale value that is covered by the 
+     * {@link #getScaleHistogram() scale histogram}
+     * 
+     * @return The minimum
+     */
+    float getScaleHistogramMin();
+
+    /**
+     * Returns the maximum (logarithmic) scale value that is covered by the 
+     * {@link #getScaleHistogram() scale histogram}
+     * 
+     * @return The maximum
+     */
+    float getScaleHistogramMax();
+
+    /**
+     * Returns the histogram of the colors that are defined by the x, y, and 
+     * z components of the first spherical harmonics dimension.
+     * 
+     * The bins of the histogram evenly cover the range [0,1] of the color
+     * values that are obtained with 
+     * {@link Splats#directCurrentToColor(double)}. Values outside of this 
+     * range are counted in the first or last bin.
+     * 
+     * @return The histogram
+     */
+    int[] getShDcHistogram();
+
+}
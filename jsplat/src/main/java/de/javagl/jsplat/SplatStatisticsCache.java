@@ -0,0 +1,108 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.javagl.jsplat;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache for {@link SplatStatistics}.
+ * 
+ * The statistics are stored for the identity of the list of splats or the 
+ * {@link SplatData} that they have been computed for. The cache cannot 
+ * detect modifications of the splats. Whoever modifies the splats has to
+ * call {@link #invalidate(Object)} or {@link #clear()} afterwards. 
+ * 
+ * The cache holds strong references to the lists and {@link SplatData} 
+ * objects until they are invalidated.
+ * 
+ * This class is thread-safe.
+ */
+public final class SplatStatisticsCache
+{
+    /**
+     * The mapping from lists or {@link SplatData} objects to their statistics
+     */
+    private final Map<Object, SplatStatistics> statistics;
+
+    /**
+     * Creates a new, empty instance
+     */
+    public SplatStatisticsCache()
+    {
+        this.statistics = new IdentityHashMap<Object, SplatStatistics>();
+    }
+
+    /**
+     * Returns the {@link SplatStatistics} for the given splats, computing 
+     * them if they are not yet contained in this cache.
+     * 
+     * @param splats The splats
+     * @return The {@link SplatStatistics}
+     * @see Splats#computeStatistics(List)
+     */
+    public synchronized SplatStatistics get(List<? extends Splat> splats)
+    {
+        return statistics.computeIfAbsent(splats,
+            k -> Splats.computeStatistics(splats));
+    }
+
+    /**
+     * Returns the {@link SplatStatistics} for the given {@link SplatData}, 
+     * computing them if they are not yet contained in this cache.
+     * 
+     * @param splatData The {@link SplatData}
+     * @return The {@link SplatStatistics}
+     * @see SplatDatas#computeStatistics(SplatData)
+     */
+    public synchronized SplatStatistics get(SplatData splatData)
+    {
+        return statistics.computeIfAbsent(splatData,
+            k -> SplatDatas.computeStatistics(splatData));
+    }
+
+    /**
+     * Remove the statistics for the given list of splats or 
+     * {@link SplatData} from this cache.
+     * 
+     * @param key The list or {@link SplatData}
+     */
+    public synchronized void invalidate(Object key)
+    {
+        statistics.remove(key);
+    }
+
+    /**
+     * Remove all statistics from this cache
+     */
+    public synchronized void clear()
+    {
+        statistics.clear();
+    }
+
+}
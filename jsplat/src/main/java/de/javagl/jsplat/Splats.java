@@ -27,6 +27,7 @@
 package de.javagl.jsplat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -51,6 +52,22 @@ public class Splats
         return new DefaultSplat(shDegree);
     }
     
+    /**
+     * Create a new splat with the given spherical harmonics degree, which
+     * stores its values with single (<code>float</code>) precision.
+     * 
+     * Such a splat requires half of the memory of a default splat. It may be
+     * used when the data is read from a format that stores its values with
+     * <code>float</code> precision (or less) anyhow.
+     * 
+     * @param shDegree The spherical harmonics degree
+     * @return The {@link MutableSplat}
+     */
+    public static MutableSplat createFloat(int shDegree)
+    {
+        return new FloatSplat(shDegree);
+    }
+
     /**
      * Create a copy of the given splat
      * 
@@ -64,6 +81,21 @@ public class Splats
         return copy;
     }
 
+    /**
+     * Create a copy of the given splat, which stores its values with single
+     * (<code>float</code>) precision.
+     * 
+     * @param s The splat
+     * @return The copy
+     * @see #createFloat(int)
+     */
+    public static MutableSplat copyFloat(Splat s)
+    {
+        MutableSplat copy = Splats.createFloat(s.getShDegree());
+        setAny(s, copy);
+        return copy;
+    }
+
     /**
      * Create a deep copy of the given list of splats
      * 
@@ -81,6 +113,81 @@ public class Splats
         return copies;
     }
 
+    /**
+     * Create a deep copy of the given list of splats, where the copies store
+     * their values with single (<code>float</code>) precision.
+     * 
+     * @param splats The splats
+     * @return The copy
+     * @see #createFloat(int)
+     */
+    public static List<MutableSplat>
+        copyListFloat(Collection<? extends Splat> splats)
+    {
+        List<MutableSplat> copies = new ArrayList<MutableSplat>(splats.size());
+        for (Splat splat : splats)
+        {
+            copies.add(copyFloat(splat));
+        }
+        return copies;
+    }
+
+    /**
+     * Compute the {@link SplatStatistics} for the given splats.
+     * 
+     * The statistics will have the maximum spherical harmonics degree of 
+     * all splats. Spherical harmonics coefficients that are not present in 
+     * splats with a lower degree are not taken into account. If the given 
+     * list is empty, then the statistics will have a degree of 0.
+     * The statistics are computed in a single pass over the splats, 
+     * processing chunks of splats in parallel.
+     * 
+     * @param splats The splats
+     * @return The {@link SplatStatistics}
+     */
+    public static SplatStatistics
+        computeStatistics(List<? extends Splat> splats)
+    {
+        int shDegree = 0;
+        for (Splat splat : splats)
+        {
+            shDegree = Math.max(shDegree, splat.getShDegree());
+        }
+        return DefaultSplatStatistics.compute(splats, shDegree);
+    }
+
+    /**
+     * Create new {@link SplatMetadata}.
+     * 
+     * This is intended for implementations of a {@link SplatMetadataProbe}.
+     * 
+     * @param size The size (number of splats)
+     * @param shDegree The spherical harmonics degree
+     * @param bounds The bounds, as an array
+     * <code>{ minX, minY, minZ, maxX, maxY, maxZ }</code>, or 
+     * <code>null</code> if the bounds are not known
+     * @return The {@link SplatMetadata}
+     * @throws IllegalArgumentException If the size is negative, or the
+     * bounds are not <code>null</code> and do not have a length of 6
+     */
+    public static SplatMetadata createMetadata(long size, int shDegree,
+        float bounds[])
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException(
+                "The size may not be negative, but is " + size);
+        }
+        if (bounds != null && bounds.length != 6)
+        {
+            throw new IllegalArgumentException(
+                "The bounds must have a length of 6, but have a length of "
+                    + bounds.length);
+        }
+        float b[] = bounds == null ? null : bounds.clone();
+        return new DefaultSplatMetadata(size, shDegree, b);
+    }
+
     /**
      * Create an unspecified string representation of the given {@link Splat}.
      * 
@@ -171,6 +278,15 @@ public class Splats
      */
     public static void setAny(Splat s, MutableSplat t)
     {
+        if (s instanceof FloatSplat && t instanceof FloatSplat)
+        {
+            FloatSplat fs = (FloatSplat) s;
+            FloatSplat ft = (FloatSplat) t;
+            int n = Math.min(fs.data.length, ft.data.length);
+            System.arraycopy(fs.data, 0, ft.data, 0, n);
+            Arrays.fill(ft.data, n, ft.data.length, 0.0f);
+            return;
+        }
         t.setPositionX(s.getPositionX());
         t.setPositionY(s.getPositionY());
         t.setPositionZ(s.getPositionZ());
@@ -0,0 +1,149 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestQuantizedSplatData
+{
+    private static List<MutableSplat> createSplats(int n)
+    {
+        Random random = new Random(0);
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat s = Splats.create(3);
+            s.setPositionX(random.nextDouble() * 10.0);
+            s.setPositionY(random.nextDouble() * 10.0);
+            s.setPositionZ(random.nextDouble() * 10.0);
+            s.setScaleX(-5.0 + random.nextDouble());
+            s.setScaleY(-5.0 + random.nextDouble());
+            s.setScaleZ(-5.0 + random.nextDouble());
+            double x = random.nextDouble() * 0.5;
+            double y = random.nextDouble() * 0.5;
+            double z = random.nextDouble() * 0.5;
+            double w = 1.0;
+            double len = Math.sqrt(x * x + y * y + z * z + w * w);
+            s.setRotationX(x / len);
+            s.setRotationY(y / len);
+            s.setRotationZ(z / len);
+            s.setRotationW(w / len);
+            s.setOpacity(-2.0 + random.nextDouble() * 4.0);
+            for (int d = 0; d < s.getShDimensions(); d++)
+            {
+                s.setShX(d, random.nextDouble() - 0.5);
+                s.setShY(d, random.nextDouble() - 0.5);
+                s.setShZ(d, random.nextDouble() - 0.5);
+            }
+            splats.add(s);
+        }
+        return splats;
+    }
+
+    private static void assertClose(Splat expected, Splat actual)
+    {
+        double positionEpsilon = 10.0 / 131070 + 1e-6;
+        double scaleEpsilon = 1.0 / 510 + 1e-6;
+        double rotationEpsilon = 2e-3;
+        double shEpsilon = 1.0 / 510 + 1e-6;
+        assertEquals(expected.getPositionX(), actual.getPositionX(),
+            positionEpsilon);
+        assertEquals(expected.getPositionZ(), actual.getPositionZ(),
+            positionEpsilon);
+        assertEquals(expected.getScaleY(), actual.getScaleY(),
+            scaleEpsilon);
+        assertEquals(expected.getRotationX(), actual.getRotationX(),
+            rotationEpsilon);
+        assertEquals(expected.getRotationW(), actual.getRotationW(),
+            rotationEpsilon);
+        assertEquals(Splats.opacityToAlpha(expected.getOpacity()),
+            Splats.opacityToAlpha(actual.getOpacity()), 1.0 / 510 + 1e-6);
+        for (int d = 0; d < expected.getShDimensions(); d++)
+        {
+            assertEquals(expected.getShY(d), actual.getShY(d), shEpsilon);
+        }
+    }
+
+    @Test
+    public void testQuantizedSplatDataErrorBounds()
+    {
+        List<MutableSplat> splats = createSplats(1000);
+        QuantizedSplatData q =
+            SplatDatas.quantize(SplatDatas.fromSplats(splats));
+        List<Splat> views = q.asList();
+
+        SplatData decoded = SplatDatas.create(3, 1000);
+        q.decode(decoded);
+        List<MutableSplat> decodedSplats = SplatDatas.asList(decoded);
+
+        for (int i = 0; i < splats.size(); i++)
+        {
+            assertClose(splats.get(i), views.get(i));
+            assertClose(splats.get(i), decodedSplats.get(i));
+        }
+    }
+
+    @Test
+    public void testQuantizedSplatDataSet()
+    {
+        List<MutableSplat> splats = createSplats(300);
+        QuantizedSplatData q =
+            SplatDatas.quantize(SplatDatas.fromSplats(splats));
+
+        MutableSplat modified = splats.get(260);
+        modified.setPositionX(-3.0);
+        q.set(260, modified);
+
+        MutableSplat decoded = Splats.create(3);
+        q.decode(260, decoded);
+        assertEquals(-3.0, decoded.getPositionX(), 13.0 / 131070 + 1e-6);
+    }
+
+    @Test
+    public void testQuantizedSplatRotationComponents()
+    {
+        Random random = new Random(1);
+        List<MutableSplat> splats = createSplats(200);
+        for (MutableSplat s : splats)
+        {
+            // Random quaternions, so that each component may be the largest
+            double x = random.nextDouble() - 0.5;
+            double y = random.nextDouble() - 0.5;
+            double z = random.nextDouble() - 0.5;
+            double w = random.nextDouble() - 0.5;
+            double len = Math.sqrt(x * x + y * y + z * z + w * w);
+            s.setRotationX(x / len);
+            s.setRotationY(y / len);
+            s.setRotationZ(z / len);
+            s.setRotationW(w / len);
+        }
+        QuantizedSplatData q =
+            SplatDatas.quantize(SplatDatas.fromSplats(splats));
+        List<Splat> views = q.asList();
+
+        // The components that are decoded individually by the views must
+        // be equal to the ones that are decoded together
+        SplatData decodedData = SplatDatas.create(3, splats.size());
+        q.decode(decodedData);
+        List<MutableSplat> decodedSplats = SplatDatas.asList(decodedData);
+        for (int i = 0; i < splats.size(); i++)
+        {
+            Splat decoded = decodedSplats.get(i);
+            Splat view = views.get(i);
+            assertEquals(decoded.getRotationX(), view.getRotationX(), 0.0);
+            assertEquals(decoded.getRotationY(), view.getRotationY(), 0.0);
+            assertEquals(decoded.getRotationZ(), view.getRotationZ(), 0.0);
+            assertEquals(decoded.getRotationW(), view.getRotationW(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestSegmentedSplatData
+{
+    @Test
+    public void testSegmentedSplatDataCopy()
+    {
+        double epsilon = 1e-6;
+
+        List<MutableSplat> splatsA = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 7; i++)
+        {
+            splatsA.add(Utils.createDummySplat(i * 100.0f));
+        }
+        SplatData splatData = SplatDatas.fromSplats(splatsA);
+
+        SegmentedSplatData segmented = SplatDatas.createSegmented(3, 7, 3);
+        assertEquals(3, segmented.getNumSegments());
+        assertEquals(1, segmented.getSegment(2).getSize());
+
+        // Copy across segment boundaries
+        SplatDatas.copy(splatData, 0, segmented, 0, 2);
+        SplatDatas.copy(splatData, 2, segmented, 2, 5);
+        List<MutableSplat> splatsB = SplatDatas.asList(segmented);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+
+        SplatData copied = SplatDatas.create(3, 7);
+        SplatDatas.copy(segmented, 1, copied, 1, 6);
+        SplatDatas.copy(segmented, 0, copied, 0, 1);
+        assertTrue(Splats.equalsEpsilon(splatsA,
+            SplatDatas.asList(copied), epsilon));
+
+        // Long-indexed views are written into the segments
+        segmented.getSplat(4L).setPositionX(-1.0);
+        assertEquals(-1.0f,
+            segmented.getSegment(1).getPositions().get(1 * 3), 0.0f);
+    }
+
+    @Test
+    public void testMappedSegmentedSplatData() throws IOException
+    {
+        double epsilon = 1e-6;
+
+        List<MutableSplat> splatsA = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 7; i++)
+        {
+            splatsA.add(Utils.createDummySplat(i * 100.0f));
+        }
+        SplatData splatData = SplatDatas.fromSplats(splatsA);
+
+        Path path = Files.createTempFile("TestSegmentedSplatData", ".bin");
+        path.toFile().deleteOnExit();
+
+        SegmentedSplatData segmented =
+            SplatDatas.createMappedSegmented(path, 3, 7, 3);
+        assertEquals(3, segmented.getNumSegments());
+        SplatDatas.copy(splatData, 0, segmented, 0, 7);
+
+        // Map the same file again, and check that the data was retained
+        SegmentedSplatData mappedAgain =
+            SplatDatas.createMappedSegmented(path, 3, 7, 3);
+        List<MutableSplat> splatsB = SplatDatas.asList(mappedAgain);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSegmentedSplatDataListSort()
+    {
+        double epsilon = 1e-6;
+
+        List<MutableSplat> splatsA = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 11; i++)
+        {
+            splatsA.add(Utils.createDummySplat(((i * 7) % 11) * 10.0f));
+        }
+        SegmentedSplatData segmented = SplatDatas.createSegmented(3, 11, 4);
+        SplatDatas.copy(SplatDatas.fromSplats(splatsA), 0, segmented, 0, 11);
+
+        Comparator<Splat> comparator =
+            (s0, s1) -> Double.compare(s0.getPositionX(), s1.getPositionX());
+        List<MutableSplat> expected = new ArrayList<MutableSplat>(splatsA);
+        expected.sort(comparator);
+
+        List<MutableSplat> splatsB = SplatDatas.asList(segmented);
+        splatsB.sort(comparator);
+        assertTrue(Splats.equalsEpsilon(expected, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSegmentedSplatDataListSet()
+    {
+        double epsilon = 1e-6;
+
+        MutableSplat sa0 = Utils.createDummySplat(0.0f);
+        MutableSplat sa1 = Utils.createDummySplat(100.0f);
+        SegmentedSplatData segmented = SplatDatas.createSegmented(3, 5, 2);
+        List<MutableSplat> splatsB = SplatDatas.asList(segmented);
+        splatsB.set(3, sa0);
+
+        // The returned element contains the previous values, and is not
+        // affected by the modification
+        MutableSplat old = splatsB.set(3, sa1);
+        assertTrue(Splats.equalsEpsilon(sa0, old, epsilon));
+        assertTrue(Splats.equalsEpsilon(sa1, splatsB.get(3), epsilon));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplatDataSizeOverflow()
+    {
+        // 48 floats for the spherical harmonics of 12M splats do not fit
+        // into a single buffer
+        SplatDatas.create(3, 12_000_000);
+    }
+}
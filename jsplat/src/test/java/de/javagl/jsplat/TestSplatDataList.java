@@ -0,0 +1,105 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestSplatDataList
+{
+    @Test
+    public void testSplatDataListViews()
+    {
+        double epsilon = 1e-6;
+
+        MutableSplat sa0 = Utils.createDummySplat(0.0f);
+        MutableSplat sa1 = Utils.createDummySplat(100.0f);
+        List<MutableSplat> splatsA = Arrays.asList(sa0, sa1);
+
+        SplatData splatData = SplatDatas.fromSplats(splatsA);
+        List<MutableSplat> splatsB = SplatDatas.asList(splatData);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+
+        // Modifications of the views are written into the buffers
+        splatsB.get(1).setPositionY(-12.5);
+        splatsB.get(1).setShZ(15, 42.0);
+        FloatBuffer positions = splatData.getPositions();
+        FloatBuffer shs = splatData.getShs();
+        assertEquals(-12.5f, positions.get(1 * 3 + 1), 0.0f);
+        assertEquals(42.0f, shs.get((1 * 16 + 15) * 3 + 2), 0.0f);
+
+        // The list is stable with respect to equality of its elements
+        assertEquals(splatsB.hashCode(), splatsB.hashCode());
+        assertEquals(splatsB.get(0), splatsB.get(0));
+    }
+
+    @Test
+    public void testSplatDataListSort()
+    {
+        double epsilon = 1e-6;
+
+        MutableSplat sa0 = Utils.createDummySplat(0.0f);
+        MutableSplat sa1 = Utils.createDummySplat(100.0f);
+        MutableSplat sa2 = Utils.createDummySplat(50.0f);
+        List<MutableSplat> splatsA = Arrays.asList(sa0, sa1, sa2);
+
+        List<MutableSplat> splatsB =
+            SplatDatas.asList(SplatDatas.fromSplats(splatsA));
+        Comparator<Splat> comparator =
+            (s0, s1) -> Double.compare(s0.getPositionX(), s1.getPositionX());
+        splatsB.sort(comparator.reversed());
+
+        List<MutableSplat> expected = Arrays.asList(sa1, sa2, sa0);
+        assertTrue(Splats.equalsEpsilon(expected, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSplatDataListSortPermutation()
+    {
+        double epsilon = 1e-6;
+
+        int n = 100;
+        List<MutableSplat> splatsA = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            splatsA.add(Utils.createDummySplat((i * 37) % n));
+        }
+        List<MutableSplat> splatsB =
+            SplatDatas.asList(SplatDatas.fromSplats(splatsA));
+        Comparator<Splat> comparator =
+            (s0, s1) -> Double.compare(s0.getPositionX(), s1.getPositionX());
+        splatsB.sort(comparator);
+        splatsA.sort(comparator);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSplatDataListSet()
+    {
+        double epsilon = 1e-6;
+
+        MutableSplat sa0 = Utils.createDummySplat(0.0f);
+        MutableSplat sa1 = Utils.createDummySplat(100.0f);
+        List<MutableSplat> splatsB =
+            SplatDatas.asList(SplatDatas.fromSplats(Arrays.asList(sa0)));
+
+        // The returned element contains the previous values, and is not
+        // affected by the modification
+        MutableSplat old = splatsB.set(0, sa1);
+        assertTrue(Splats.equalsEpsilon(sa0, old, epsilon));
+        assertTrue(Splats.equalsEpsilon(sa1, splatsB.get(0), epsilon));
+    }
+
+}
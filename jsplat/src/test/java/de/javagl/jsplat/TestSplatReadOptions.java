@@ -0,0 +1,95 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestSplatReadOptions
+{
+    @Test
+    public void testDefault()
+    {
+        SplatReadOptions options = SplatReadOptions.DEFAULT;
+        for (SplatAttribute attribute : SplatAttribute.values())
+        {
+            assertTrue(options.isRead(attribute));
+        }
+        assertEquals(3, options.getMaxShDegree());
+        assertEquals(2, options.computeShDegree(2));
+        assertEquals(3, options.computeShDegree(3));
+    }
+
+    @Test
+    public void testMaxShDegree()
+    {
+        SplatReadOptions options = SplatReadOptions.DEFAULT.withMaxShDegree(1);
+        assertEquals(0, options.computeShDegree(0));
+        assertEquals(1, options.computeShDegree(1));
+        assertEquals(1, options.computeShDegree(3));
+        assertEquals(options.getAttributes(),
+            SplatReadOptions.DEFAULT.getAttributes());
+    }
+
+    @Test
+    public void testAttributes()
+    {
+        SplatReadOptions options = SplatReadOptions.of(
+            SplatAttribute.POSITION, SplatAttribute.OPACITY);
+        assertTrue(options.isRead(SplatAttribute.POSITION));
+        assertTrue(options.isRead(SplatAttribute.OPACITY));
+        assertFalse(options.isRead(SplatAttribute.SCALE));
+        assertFalse(options.isRead(SplatAttribute.ROTATION));
+        assertFalse(options.isRead(SplatAttribute.SH));
+
+        // Without spherical harmonics, the degree is always 0
+        assertEquals(0, options.computeShDegree(3));
+    }
+
+    @Test
+    public void testCreateCopiesAttributes()
+    {
+        EnumSet<SplatAttribute> attributes =
+            EnumSet.of(SplatAttribute.POSITION);
+        SplatReadOptions options = SplatReadOptions.create(attributes, 2);
+        attributes.add(SplatAttribute.SCALE);
+        assertFalse(options.isRead(SplatAttribute.SCALE));
+        assertEquals(2, options.getMaxShDegree());
+    }
+
+    @Test
+    public void testFloatSplats()
+    {
+        SplatReadOptions options = SplatReadOptions.DEFAULT;
+        assertFalse(options.isFloatSplats());
+        assertTrue(options.createSplat(1) instanceof DefaultSplat);
+
+        options = options.withFloatSplats(true).withMaxShDegree(2);
+        assertTrue(options.isFloatSplats());
+        MutableSplat splat = options.createSplat(2);
+        assertTrue(splat instanceof FloatSplat);
+        assertEquals(2, splat.getShDegree());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxShDegree()
+    {
+        SplatReadOptions.create(Collections.emptySet(), 4);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAttributesUnmodifiable()
+    {
+        SplatReadOptions.DEFAULT.getAttributes().add(SplatAttribute.SH);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * www.javagl.de - JSplat
+ *
+ * Copyright 2025 Marco Hutter - http://www.javagl.de
+ */
+package de.javagl.jsplat;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestSplatStatistics
+{
+    private static List<MutableSplat> createSplats(int n)
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < n; i++)
+        {
+            MutableSplat splat = Utils.createDummySplat(i * 0.001f);
+            if (i % 2 == 0)
+            {
+                splat = Splats.copyFloat(splat);
+            }
+            splats.add(splat);
+        }
+        return splats;
+    }
+
+    @Test
+    public void testSplatStatistics()
+    {
+        List<MutableSplat> splats = createSplats(40000);
+        SplatStatistics s = Splats.computeStatistics(splats);
+
+        assertEquals(40000, s.getSize());
+        assertEquals(3, s.getShDegree());
+
+        float minX = Float.POSITIVE_INFINITY;
+        float maxZ = Float.NEGATIVE_INFINITY;
+        double sumScaleY = 0.0;
+        for (Splat splat : splats)
+        {
+            minX = Math.min(minX, (float) splat.getPositionX());
+            maxZ = Math.max(maxZ, (float) splat.getPositionZ());
+            sumScaleY += (float) splat.getScaleY();
+        }
+        float bounds[] = s.getBounds();
+        assertEquals(minX, bounds[0], 0.0f);
+        assertEquals(maxZ, bounds[5], 0.0f);
+        assertEquals(sumScaleY / splats.size(), s.getScaleMean()[1], 1e-4);
+
+        Splat last = splats.get(splats.size() - 1);
+        assertEquals((float) last.getShZ(15), s.getShMax()[15 * 3 + 2], 0.0f);
+
+        int total = IntStream.of(s.getOpacityHistogram()).sum();
+        assertEquals(splats.size(), total);
+        total = IntStream.of(s.getScaleHistogram()).sum();
+        assertEquals(splats.size() * 3, total);
+        total = IntStream.of(s.getShDcHistogram()).sum();
+        assertEquals(splats.size() * 3, total);
+
+        SplatData splatData = SplatDatas.fromSplats(splats);
+        SplatStatistics d = SplatDatas.computeStatistics(splatData);
+        assertArrayEquals(s.getBounds(), d.getBounds(), 0.0f);
+        assertArrayEquals(s.getShMin(), d.getShMin(), 0.0f);
+        assertArrayEquals(s.getOpacityHistogram(), d.getOpacityHistogram());
+    }
+
+    @Test
+    public void testSplatStatisticsEmpty()
+    {
+        SplatStatistics s = SplatDatas.computeStatistics(
+            SplatDatas.create(2, 0));
+        assertEquals(0, s.getSize());
+        assertEquals(2, s.getShDegree());
+        assertEquals(Float.POSITIVE_INFINITY, s.getBounds()[0], 0.0f);
+        assertEquals(Float.NEGATIVE_INFINITY, s.getBounds()[3], 0.0f);
+        assertEquals(Float.NaN, s.getOpacityMean(), 0.0f);
+    }
+
+    @Test
+    public void testSplatStatisticsMixedDegrees()
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        splats.add(Splats.copyFloat(Utils.createDummySplat(0.0f)));
+        MutableSplat floatSplat = Splats.createFloat(0);
+        floatSplat.setPositionX(-5.0f);
+        floatSplat.setShX(0, 10.0f);
+        splats.add(floatSplat);
+        MutableSplat splat = Splats.create(1);
+        splat.setPositionZ(7.0f);
+        splat.setShY(1, 20.0f);
+        splats.add(splat);
+
+        SplatStatistics s = Splats.computeStatistics(splats);
+        assertEquals(3, s.getSize());
+        assertEquals(3, s.getShDegree());
+        assertEquals(16 * 3, s.getShMin().length);
+        assertEquals(-5.0f, s.getBounds()[0], 0.0f);
+        assertEquals(7.0f, s.getBounds()[5], 0.0f);
+        assertEquals(10.0f, s.getShMax()[0], 0.0f);
+        assertEquals(20.0f, s.getShMax()[1 * 3 + 1], 0.0f);
+
+        // The degree-3 coefficients are only present in the first splat
+        Splat first = splats.get(0);
+        assertEquals((float) first.getShZ(15), s.getShMin()[15 * 3 + 2], 0.0f);
+        assertEquals((float) first.getShZ(15), s.getShMean()[15 * 3 + 2],
+            0.0f);
+    }
+
+    @Test
+    public void testSplatStatisticsCache()
+    {
+        List<MutableSplat> splats = createSplats(100);
+        SplatStatisticsCache cache = new SplatStatisticsCache();
+        SplatStatistics s0 = cache.get(splats);
+        SplatStatistics s1 = cache.get(splats);
+        assertSame(s0, s1);
+        cache.invalidate(splats);
+        SplatStatistics s2 = cache.get(splats);
+        assertNotSame(s0, s2);
+    }
+
+}
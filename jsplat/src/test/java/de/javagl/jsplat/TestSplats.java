@@ -5,7 +5,9 @@
  */
 package de.javagl.jsplat;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -129,4 +131,20 @@ public class TestSplats
         assertFalse(Splats.equalsEpsilon(sa, sc, epsilon));
     }
 
+    @Test
+    public void testCreateMetadata()
+    {
+        float bounds[] = { -1.0f, -2.0f, -3.0f, 1.0f, 2.0f, 3.0f };
+        SplatMetadata metadata = Splats.createMetadata(123L, 2, bounds);
+        bounds[0] = 42.0f;
+        assertEquals(123L, metadata.getSize());
+        assertEquals(2, metadata.getShDegree());
+        assertEquals(-1.0f, metadata.getBounds()[0], 0.0f);
+        metadata.getBounds()[1] = 42.0f;
+        assertEquals(-2.0f, metadata.getBounds()[1], 0.0f);
+
+        SplatMetadata withoutBounds = Splats.createMetadata(0L, 0, null);
+        assertNull(withoutBounds.getBounds());
+    }
+
 }
@@ -5,9 +5,14 @@
  */
 package de.javagl.jsplat;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -31,4 +36,158 @@ public class TestSplatsDatas
         assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
     }
 
+    @Test
+    public void testSplatsDatasFloat() throws IOException
+    {
+        double epsilon = 1e-8;
+
+        MutableSplat sa0 = Utils.createDummySplat(0.0f);
+        MutableSplat sa1 = Utils.createDummySplat(100.0f);
+        List<MutableSplat> splatsA = Arrays.asList(sa0, sa1);
+        List<MutableSplat> splatsF = Splats.copyListFloat(splatsA);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsF, epsilon));
+
+        SplatData splatData = SplatDatas.fromSplats(splatsF);
+        List<MutableSplat> splatsB = SplatDatas.toList(splatData);
+
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSplatsDatasMapped() throws IOException
+    {
+        double epsilon = 1e-8;
+
+        MutableSplat sa0 = Utils.createDummySplat(0.0f);
+        MutableSplat sa1 = Utils.createDummySplat(100.0f);
+        List<MutableSplat> splatsA = Arrays.asList(sa0, sa1);
+
+        Path path = Files.createTempFile("TestSplatsDatas", ".bin");
+        path.toFile().deleteOnExit();
+
+        SplatData splatData = SplatDatas.createMapped(path, 3, 2);
+        SplatDatas.readPositions(splatsA, splatData.getPositions());
+        SplatDatas.readScales(splatsA, splatData.getScales());
+        SplatDatas.readRotations(splatsA, splatData.getRotations());
+        SplatDatas.readOpacities(splatsA, splatData.getOpacities());
+        SplatDatas.readShs(splatsA, 3, splatData.getShs());
+
+        // Map the same file again, and check that the data was retained
+        SplatData mappedAgain = SplatDatas.createMapped(path, 3, 2);
+        List<MutableSplat> splatsB = SplatDatas.toList(mappedAgain);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSplatsDatasBatchSource() throws IOException
+    {
+        double epsilon = 1e-6;
+
+        List<MutableSplat> splatsA = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 5; i++)
+        {
+            splatsA.add(Utils.createDummySplat(i * 100.0f));
+        }
+        SplatData splatData = SplatDatas.fromSplats(splatsA);
+        SplatBatchSource source = SplatDatas.createBatchSource(splatData, 2);
+
+        List<Integer> batchSizes = new ArrayList<Integer>();
+        List<MutableSplat> splatsB = new ArrayList<MutableSplat>();
+        source.forEachBatch(batch ->
+        {
+            batchSizes.add(batch.getSize());
+            splatsB.addAll(SplatDatas.toList(batch));
+        });
+        assertEquals(Arrays.asList(2, 2, 1), batchSizes);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSplatsDatasParallel()
+    {
+        double epsilon = 1e-6;
+
+        // Enough splats for multiple ranges, with mixed implementations
+        List<MutableSplat> splatsA = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 40000; i++)
+        {
+            MutableSplat splat = Utils.createDummySplat(i * 0.1f);
+            if (i % 2 == 0)
+            {
+                splat = Splats.copyFloat(splat);
+            }
+            splatsA.add(splat);
+        }
+        SplatData splatDataA = SplatDatas.fromSplats(splatsA);
+        SplatData splatDataB = SplatDatas.fromSplatsParallel(splatsA);
+        assertEquals(splatDataA.getPositions(), splatDataB.getPositions());
+        assertEquals(splatDataA.getScales(), splatDataB.getScales());
+        assertEquals(splatDataA.getRotations(), splatDataB.getRotations());
+        assertEquals(splatDataA.getOpacities(), splatDataB.getOpacities());
+        assertEquals(splatDataA.getShs(), splatDataB.getShs());
+
+        List<MutableSplat> splatsB = SplatDatas.toListParallel(splatDataB);
+        assertTrue(Splats.equalsEpsilon(splatsA, splatsB, epsilon));
+    }
+
+    @Test
+    public void testSplatsDatasShLayouts()
+    {
+        List<MutableSplat> splats = new ArrayList<MutableSplat>();
+        for (int i = 0; i < 3000; i++)
+        {
+            splats.add(Utils.createDummySplat(i * 0.1f));
+        }
+        int size = splats.size();
+        int shDimensions = Splats.dimensionsForDegree(3);
+        FloatBuffer shs = SplatDatas.readShs(splats, 3, null);
+
+        // The planar layout stores f_dc_*, followed by the f_rest_* values
+        FloatBuffer planar = FloatBuffer.allocate(size * shDimensions * 3);
+        SplatDatas.interleavedToPlanarShs(shs, planar, size, shDimensions);
+        Splat splat = splats.get(123);
+        int o = 123 * shDimensions * 3;
+        assertEquals(splat.getShX(0), planar.get(o + 0), 0.0f);
+        assertEquals(splat.getShX(1), planar.get(o + 3), 0.0f);
+        assertEquals(splat.getShY(1), planar.get(o + 3 + 15), 0.0f);
+        assertEquals(splat.getShZ(15), planar.get(o + 3 + 44), 0.0f);
+
+        FloatBuffer interleaved = FloatBuffer.allocate(shs.capacity());
+        SplatDatas.planarToInterleavedShs(
+            planar, interleaved, size, shDimensions);
+        assertEquals(shs, interleaved);
+
+        FloatBuffer split[] = SplatDatas.splitShsByDimension(
+            shs, null, size, shDimensions);
+        assertEquals(splat.getShY(5), split[5].get(123 * 3 + 1), 0.0f);
+        FloatBuffer merged = SplatDatas.mergeShsByDimension(
+            split, null, size, shDimensions);
+        assertEquals(shs, merged);
+    }
+
+    @Test
+    public void testSplatsDatasWrap()
+    {
+        FloatBuffer positions = FloatBuffer.allocate(2 + 10 * 3);
+        positions.put(2 + 4 * 3 + 1, 12.0f);
+        positions.position(2);
+        SplatData splatData = 
+            SplatDatas.wrap(1, 10, positions, null, null, null, null);
+        assertEquals(10 * 3, splatData.getPositions().capacity());
+        assertEquals(10 * 4, splatData.getRotations().capacity());
+        assertEquals(10 * 4 * 3, splatData.getShs().capacity());
+
+        MutableSplat splat = SplatDatas.asList(splatData).get(4);
+        assertEquals(12.0f, splat.getPositionY(), 0.0f);
+        splat.setPositionZ(13.0f);
+        assertEquals(13.0f, positions.get(2 + 4 * 3 + 2), 0.0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplatsDatasWrapTooSmall()
+    {
+        SplatDatas.wrap(0, 10, FloatBuffer.allocate(29), 
+            null, null, null, null);
+    }
+
 }